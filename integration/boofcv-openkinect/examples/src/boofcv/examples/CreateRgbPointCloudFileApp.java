@@ -52,7 +52,7 @@ public class CreateRgbPointCloudFileApp {
 		GrayU16 depth = new GrayU16(1,1);
 		Planar<GrayU8> rgb = new Planar<>(GrayU8.class,1,1,3);
 
-		UtilImageIO.loadPPM_U8(nameRgb, rgb, null);
+		UtilImageIO.loadPPM_U8(nameRgb, rgb);
 		UtilOpenKinect.parseDepth(nameDepth,depth,null);
 
 		FastQueue<Point3D_F64> cloud = new FastQueue<Point3D_F64>(Point3D_F64.class,true);
@@ -76,7 +76,7 @@ public class PlaybackKinectLogApp {
 	}
 
 	private void parseFrame(int frameNumber ) throws IOException {
-		UtilImageIO.loadPPM_U8(String.format("%s/rgb%07d.ppm", directory, frameNumber), rgb, data);
+		UtilImageIO.loadPPM_U8(String.format("%s/rgb%07d.ppm", directory, frameNumber), rgb);
 		if( depthIsPng ) {
 			BufferedImage image = UtilImageIO.loadImage(String.format("%s/depth%07d.png", directory, frameNumber));
 			ConvertBufferedImage.convertFrom(image,depth,true);
@@ -18,6 +18,7 @@
 
 package boofcv.alg.background;
 
+import boofcv.alg.background.stationary.BackgroundStationaryGmm;
 import boofcv.factory.background.ConfigBackgroundBasic;
 import boofcv.factory.background.ConfigBackgroundGaussian;
 import boofcv.factory.background.ConfigBackgroundGmm;
@@ -32,7 +33,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Profiles the time to run each algorithm but ignores the time to load an image frame from the video
+ * Profiles the time to run each algorithm but ignores the time to load an image frame from the video. GMM is
+ * run with a different number of Gaussians per pixel and with and without a compact model. The accuracy of the
+ * compact model is found by comparing its segmentation against the regular model.
  *
  * @author Peter Abeles
  */
@@ -50,12 +53,55 @@ public class BenchmarkBackgroundStationary {
 		List<BackgroundBase> algs = new ArrayList<>();
 		algs.add(new Basic());
 		algs.add(new Gaussian());
-		algs.add(new GMM());
+		for( int numberOfGaussian : new int[]{3,5} ) {
+			algs.add(new GMM(numberOfGaussian,false));
+			algs.add(new GMM(numberOfGaussian,true));
+		}
 
 		for( BackgroundBase b : algs ) {
 			b.process();
 			System.out.printf("%20s FPS = %.2f\n",b.getName(),b.getFPS());
 		}
+
+		for( int numberOfGaussian : new int[]{3,5} ) {
+			compareCompact(numberOfGaussian);
+		}
+	}
+
+	/**
+	 * Processes the video with a regular and a compact GMM model then reports how much memory each model used and
+	 * the fraction of pixels which were segmented differently.
+	 */
+	public void compareCompact( int numberOfGaussian ) {
+		SimpleImageSequence sequence = DefaultMediaManager.INSTANCE.openVideo(file.getAbsolutePath(),imageType);
+		GrayU8 segmentedA = new GrayU8(sequence.getNextWidth(),sequence.getNextHeight());
+		GrayU8 segmentedB = new GrayU8(sequence.getNextWidth(),sequence.getNextHeight());
+
+		BackgroundStationaryGmm modelA = (BackgroundStationaryGmm)new GMM(numberOfGaussian,false).create();
+		BackgroundStationaryGmm modelB = (BackgroundStationaryGmm)new GMM(numberOfGaussian,true).create();
+
+		long totalPixels = 0;
+		long differentPixels = 0;
+		while( sequence.hasNext() ) {
+			ImageBase image = sequence.next();
+
+			modelA.updateBackground(image,segmentedA);
+			modelB.updateBackground(image,segmentedB);
+
+			for (int y = 0; y < segmentedA.height; y++) {
+				for (int x = 0; x < segmentedA.width; x++) {
+					if( segmentedA.unsafe_get(x,y) != segmentedB.unsafe_get(x,y))
+						differentPixels++;
+				}
+			}
+			totalPixels += segmentedA.width*segmentedA.height;
+		}
+
+		long pixels = segmentedA.width*segmentedA.height;
+		int modelStride = numberOfGaussian*(2+imageType.getNumBands());
+		System.out.printf("GMM-%d model MB = %.1f compact MB = %.1f  different pixels = %.4f%%\n",
+				numberOfGaussian, pixels*modelStride*4/1024.0/1024.0, pixels*modelStride*2/1024.0/1024.0,
+				100.0*differentPixels/totalPixels);
 	}
 
 	public class Basic extends BackgroundBase {
@@ -79,12 +125,27 @@ public class BenchmarkBackgroundStationary {
 	}
 
 	public class GMM extends BackgroundBase {
+		int numberOfGaussian;
+		boolean compact;
+
+		public GMM(int numberOfGaussian, boolean compact) {
+			this.numberOfGaussian = numberOfGaussian;
+			this.compact = compact;
+		}
+
 		@Override
 		public BackgroundModelStationary create() {
 			ConfigBackgroundGmm config = new ConfigBackgroundGmm();
+			config.numberOfGaussian = numberOfGaussian;
+			config.compactModel = compact;
 
 			return FactoryBackgroundModel.stationaryGmm(config,imageType);
 		}
+
+		@Override
+		public String getName() {
+			return "GMM-"+numberOfGaussian+(compact ? " Compact" : "");
+		}
 	}
 
 
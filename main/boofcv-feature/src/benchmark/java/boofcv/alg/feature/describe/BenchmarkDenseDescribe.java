@@ -20,6 +20,7 @@ package boofcv.alg.feature.describe;
 
 import boofcv.abst.feature.dense.DescribeImageDense;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.dense.ConfigDenseHoG;
 import boofcv.factory.feature.dense.FactoryDescribeImageDense;
 import boofcv.misc.PerformerBase;
@@ -108,11 +109,15 @@ public class BenchmarkDenseDescribe {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== ");
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new HoGFast(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HoG(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_FAST(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_STABLE(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SIFT(), TEST_TIME);
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			System.out.println("Concurrent = "+concurrent);
+			ProfileOperation.printOpsPerSec(new HoGFast(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new HoG(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_FAST(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_STABLE(), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SIFT(), TEST_TIME);
+		}
 	}
 
 	public static void main(String[] args) {
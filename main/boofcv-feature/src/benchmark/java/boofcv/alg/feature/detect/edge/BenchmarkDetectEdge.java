@@ -19,6 +19,7 @@
 package boofcv.alg.feature.detect.edge;
 
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.edge.FactoryEdgeDetectors;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -88,6 +89,14 @@ public class BenchmarkDetectEdge {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
 		System.out.println();
 
+		// detectors are created when a performer is created, so this selects which implementation is used
+		BoofConcurrency.USE_CONCURRENT = false;
+		System.out.println("Single Threaded");
+		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		System.out.println("Concurrent. Threads = "+BoofConcurrency.getMaxThreads());
 		ProfileOperation.printOpsPerSec(new CannyMark(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new CannyTrace(), TEST_TIME);
 	}
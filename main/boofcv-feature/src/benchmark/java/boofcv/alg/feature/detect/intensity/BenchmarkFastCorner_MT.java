@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.alg.feature.detect.extract.NonMaxBlock;
+import boofcv.alg.feature.detect.extract.NonMaxBlockStrict;
+import boofcv.alg.feature.detect.extract.NonMaxBlock_MT;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner12_U8;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single threaded and concurrent implementations of FAST corner detection and block
+ * non-maximum suppression on its intensity image.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFastCorner_MT {
+	public static final int imgWidth = 640;
+	public static final int imgHeight = 480;
+
+	GrayU8 input = new GrayU8(imgWidth,imgHeight);
+	GrayF32 intensity = new GrayF32(imgWidth,imgHeight);
+	QueueCorner foundMin = new QueueCorner();
+	QueueCorner foundMax = new QueueCorner();
+
+	FastCornerDetector<GrayU8> fast9 = new FastCornerDetector<>(new ImplFastCorner9_U8(20));
+	FastCornerDetector<GrayU8> fast9_MT = new FastCornerDetector_MT<>(() -> new ImplFastCorner9_U8(20));
+	FastCornerDetector<GrayU8> fast12 = new FastCornerDetector<>(new ImplFastCorner12_U8(20));
+	FastCornerDetector<GrayU8> fast12_MT = new FastCornerDetector_MT<>(() -> new ImplFastCorner12_U8(20));
+
+	NonMaxBlock nonmax = configure(new NonMaxBlockStrict.MinMax());
+	NonMaxBlock nonmax_MT = configure(new NonMaxBlock_MT(NonMaxBlockStrict.MinMax::new));
+
+	@Setup
+	public void setup() {
+		GImageMiscOps.fillUniform(input, new Random(234), 0, 255);
+		fast9.process(input,intensity);
+	}
+
+	private static NonMaxBlock configure( NonMaxBlock alg ) {
+		ConfigExtract config = new ConfigExtract(2,1,3,true);
+		alg.setSearchRadius(config.radius);
+		alg.setThresholdMax(config.threshold);
+		alg.setThresholdMin(-config.threshold);
+		alg.setBorder(config.ignoreBorder);
+		return alg;
+	}
+
+	@Benchmark
+	public void FAST9() {
+		fast9.process(input,intensity);
+	}
+
+	@Benchmark
+	public void FAST9_MT() {
+		fast9_MT.process(input,intensity);
+	}
+
+	@Benchmark
+	public void FAST12() {
+		fast12.process(input,intensity);
+	}
+
+	@Benchmark
+	public void FAST12_MT() {
+		fast12_MT.process(input,intensity);
+	}
+
+	@Benchmark
+	public void NonMaxBlock() {
+		foundMin.reset();
+		foundMax.reset();
+		nonmax.process(intensity,foundMin,foundMax);
+	}
+
+	@Benchmark
+	public void NonMaxBlock_MT() {
+		foundMin.reset();
+		foundMax.reset();
+		nonmax_MT.process(intensity,foundMin,foundMax);
+	}
+}
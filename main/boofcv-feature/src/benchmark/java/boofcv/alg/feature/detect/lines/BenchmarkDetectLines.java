@@ -20,6 +20,7 @@ package boofcv.alg.feature.detect.lines;
 
 import boofcv.abst.feature.detect.line.DetectLine;
 import boofcv.abst.feature.detect.line.DetectLineSegment;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.feature.detect.line.ConfigHoughFoot;
 import boofcv.factory.feature.detect.line.ConfigHoughFootSubimage;
@@ -109,11 +110,22 @@ public class BenchmarkDetectLines<T extends ImageGray<T>, D extends ImageGray<D>
 		input.reshape(image.getWidth(),image.getHeight());
 		ConvertBufferedImage.convertFromSingle(image, input, imageType);
 
+		// detectors are created when a performer is created, so this selects which implementation is used
+		BoofConcurrency.USE_CONCURRENT = false;
+		System.out.println("Single Threaded");
+		benchmarkAll();
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		System.out.println("Concurrent. Threads = "+BoofConcurrency.getMaxThreads());
+		benchmarkAll();
+		System.out.println("done");
+	}
+
+	private void benchmarkAll() {
 		ProfileOperation.printOpsPerSec(new HoughPolar(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HoughFoot(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HoughFootSub(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new LineRansac(), TEST_TIME);
-		System.out.println("done");
 	}
 
 	public static void main(String args[]) throws IOException {
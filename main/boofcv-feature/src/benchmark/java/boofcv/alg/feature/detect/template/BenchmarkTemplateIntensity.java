@@ -19,6 +19,7 @@
 package boofcv.alg.feature.detect.template;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.feature.detect.template.FactoryTemplateMatching;
 import boofcv.factory.feature.detect.template.TemplateScoreType;
@@ -60,13 +61,18 @@ public class BenchmarkTemplateIntensity<T extends ImageGray<T>> {
 		String name;
 
 		public TemplatePerformer(TemplateScoreType type) {
-			this.alg = FactoryTemplateMatching.createIntensity(type,imageType);
-			this.name = type.toString();
+			this(type.toString(),FactoryTemplateMatching.createIntensity(type,imageType));
+		}
+
+		public TemplatePerformer(String name, TemplateMatchingIntensity<T> alg) {
+			this.alg = alg;
+			this.name = name;
 		}
 
 		@Override
 		public void process() {
-			alg.process(image,template);
+			alg.setInputImage(image);
+			alg.process(template);
 		}
 
 		@Override
@@ -79,8 +85,21 @@ public class BenchmarkTemplateIntensity<T extends ImageGray<T>> {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== "+imageType.getSimpleName());
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			System.out.println("Concurrent = "+concurrent);
+			ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.SUM_DIFF_SQ), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new TemplatePerformer(TemplateScoreType.NCC), TEST_TIME);
+
+			TemplateNCC<T> spatial = (TemplateNCC<T>)FactoryTemplateMatching.createIntensity(TemplateScoreType.NCC,imageType);
+			spatial.setFourierMinimumArea(Integer.MAX_VALUE);
+			ProfileOperation.printOpsPerSec(new TemplatePerformer("NCC spatial",spatial), TEST_TIME);
+
+			TemplateNCC<T> pruned = (TemplateNCC<T>)FactoryTemplateMatching.createIntensity(TemplateScoreType.NCC,imageType);
+			pruned.setFourierMinimumArea(Integer.MAX_VALUE);
+			pruned.setPruning(true,0.5f);
+			ProfileOperation.printOpsPerSec(new TemplatePerformer("NCC pruned",pruned), TEST_TIME);
+		}
 	}
 
 	public static void main( String args[] ) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.ellipse;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.misc.Performer;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.curve.EllipseRotated_F64;
+
+import java.util.Random;
+
+/**
+ * Benchmarks ellipse detection in an image with hundreds of ellipses
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkDetectEllipse {
+
+	Random rand = new Random(234);
+	long TEST_TIME = 2000;
+
+	int width = 640;
+	int height = 480;
+
+	GrayU8 gray = new GrayU8(width,height);
+	GrayU8 binary;
+
+	public BenchmarkDetectEllipse() {
+		ImageMiscOps.fill(gray,255);
+
+		// one ellipse in each cell
+		int cell = 24;
+		EllipseRotated_F64 ellipse = new EllipseRotated_F64();
+		for (int y = 0; y+cell <= height; y += cell) {
+			for (int x = 0; x+cell <= width; x += cell) {
+				ellipse.center.set(x+cell/2,y+cell/2);
+				ellipse.a = 4 + rand.nextDouble()*6;
+				ellipse.b = 3 + rand.nextDouble()*(ellipse.a-3);
+				ellipse.phi = rand.nextDouble()*Math.PI;
+
+				double c = Math.cos(ellipse.phi), s = Math.sin(ellipse.phi);
+				for (int yy = y; yy < y+cell; yy++) {
+					for (int xx = x; xx < x+cell; xx++) {
+						double dx = xx+0.5-ellipse.center.x, dy = yy+0.5-ellipse.center.y;
+						double u = (c*dx + s*dy)/ellipse.a;
+						double v = (-s*dx + c*dy)/ellipse.b;
+						if( u*u + v*v <= 1 )
+							gray.set(xx,yy,20);
+					}
+				}
+			}
+		}
+		ImageMiscOps.addUniform(gray,rand,-10,10);
+
+		binary = ThresholdImageOps.threshold(gray,null,128,true);
+	}
+
+	public class DetectPerformer implements Performer {
+
+		BinaryEllipseDetector<GrayU8> alg = FactoryShapeDetector.ellipse(null,GrayU8.class);
+
+		@Override
+		public void process() {
+			alg.process(gray,binary);
+		}
+
+		@Override
+		public String getName() {
+			return "Detect";
+		}
+	}
+
+	public void evaluateAll() {
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			System.out.println("Concurrent = "+concurrent);
+			ProfileOperation.printOpsPerSec(new DetectPerformer(), TEST_TIME);
+		}
+	}
+
+	public static void main( String args[] ) {
+		BenchmarkDetectEllipse benchmark = new BenchmarkDetectEllipse();
+		benchmark.evaluateAll();
+	}
+}
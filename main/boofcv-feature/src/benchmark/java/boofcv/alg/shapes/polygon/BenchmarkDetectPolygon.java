@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.polygon;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.shape.ConfigPolygonDetector;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.misc.Performer;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayU8;
+
+import java.util.Random;
+
+/**
+ * Benchmarks polygon detection in an image cluttered with thousands of dark blobs
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkDetectPolygon {
+
+	Random rand = new Random(234);
+	long TEST_TIME = 2000;
+
+	int width = 640;
+	int height = 480;
+
+	GrayU8 gray = new GrayU8(width,height);
+	GrayU8 binary;
+
+	public BenchmarkDetectPolygon() {
+		ImageMiscOps.fill(gray,200);
+
+		// each cell contains a single shape so that there are thousands of contours
+		int cell = 12;
+		for (int y = 0; y+cell <= height; y += cell) {
+			for (int x = 0; x+cell <= width; x += cell) {
+				int w = 4 + rand.nextInt(cell-5);
+				int h = 4 + rand.nextInt(cell-5);
+				int value = rand.nextInt(60);
+				ImageMiscOps.fillRectangle(gray,value,x+1,y+1,w,h);
+				if( rand.nextBoolean() )
+					ImageMiscOps.fillRectangle(gray,200,x+1+w/3,y+1+h/3,w/3,h/3);
+			}
+		}
+		ImageMiscOps.addUniform(gray,rand,-10,10);
+
+		binary = ThresholdImageOps.threshold(gray,null,100,true);
+	}
+
+	public class DetectPerformer implements Performer {
+
+		DetectPolygonBinaryGrayRefine<GrayU8> alg;
+		boolean refine;
+
+		public DetectPerformer( boolean refine ) {
+			ConfigPolygonDetector config = new ConfigPolygonDetector(3,6);
+			config.detector.minimumContour = ConfigLength.fixed(10);
+			config.refineContour = true;
+			this.alg = FactoryShapeDetector.polygon(config,GrayU8.class);
+			this.refine = refine;
+		}
+
+		@Override
+		public void process() {
+			alg.process(gray,binary);
+			if( refine )
+				alg.refineAll();
+		}
+
+		@Override
+		public String getName() {
+			return refine ? "Detect and Refine" : "Detect";
+		}
+	}
+
+	public void evaluateAll() {
+		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
+		System.out.println();
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			System.out.println("Concurrent = "+concurrent);
+			ProfileOperation.printOpsPerSec(new DetectPerformer(false), TEST_TIME);
+			ProfileOperation.printOpsPerSec(new DetectPerformer(true), TEST_TIME);
+		}
+	}
+
+	public static void main( String args[] ) {
+		BenchmarkDetectPolygon benchmark = new BenchmarkDetectPolygon();
+		benchmark.evaluateAll();
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderIndex1D_Extend;
+import boofcv.core.image.border.ImageBorder1D_F32;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tracking a large number of features with {@link KltTracker} against {@link KltTrackerBatch}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkKltTrackerBatch {
+	public static final int imgWidth = 640;
+	public static final int imgHeight = 480;
+
+	@Param({"2000","10000"})
+	public int numFeatures;
+
+	public int radius = 3;
+
+	GrayF32 image = new GrayF32(imgWidth,imgHeight);
+	GrayF32 derivX = new GrayF32(imgWidth,imgHeight);
+	GrayF32 derivY = new GrayF32(imgWidth,imgHeight);
+
+	KltConfig config = new KltConfig();
+	KltTracker<GrayF32,GrayF32> tracker = new KltTracker<>(FactoryInterpolation.bilinearRectangle(GrayF32.class),
+			FactoryInterpolation.bilinearRectangle(GrayF32.class),config);
+	KltTrackerBatch batch = new KltTrackerBatch(config,radius);
+
+	KltFeature[] features;
+	float[] startX, startY;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image, rand, 0, 200);
+		BlurImageOps.gaussian(image,image,-1,2,null);
+		GradientSobel.process(image, derivX, derivY, new ImageBorder1D_F32(BorderIndex1D_Extend.class));
+
+		tracker.setImage(image,derivX,derivY);
+		batch.setImage(image,derivX,derivY);
+		batch.reset();
+
+		features = new KltFeature[numFeatures];
+		startX = new float[numFeatures];
+		startY = new float[numFeatures];
+		for (int i = 0; i < numFeatures; i++) {
+			float x = radius + rand.nextFloat()*(imgWidth-2*radius-1);
+			float y = radius + rand.nextFloat()*(imgHeight-2*radius-1);
+
+			features[i] = new KltFeature(radius);
+			features[i].setPosition(x,y);
+			tracker.setDescription(features[i]);
+			batch.setDescription(batch.addFeature(x,y));
+
+			startX[i] = x + rand.nextFloat()*2-1;
+			startY[i] = y + rand.nextFloat()*2-1;
+		}
+	}
+
+	@Benchmark
+	public void KltTracker() {
+		for (int i = 0; i < numFeatures; i++) {
+			KltFeature f = features[i];
+			f.setPosition(startX[i],startY[i]);
+			tracker.track(f);
+		}
+	}
+
+	@Benchmark
+	public void Batch() {
+		for (int i = 0; i < numFeatures; i++) {
+			batch.setPosition(i,startX[i],startY[i]);
+		}
+		batch.trackAll();
+	}
+}
@@ -44,6 +44,7 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 		printPreamble(imageType,rule);
 		printConstructor(imageType);
 		printProcess(imageType,rule);
+		printProcessInner(imageType,rule);
 		printCheckAround(imageType,rule);
 		printCheck(imageType);
 		printType(imageType);
@@ -92,12 +93,6 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 	private void printProcess( AutoTypeImage imageType , ConnectRule rule ) {
 
 		String imageName = imageType.getSingleBandName();
-		String sumType = imageType.getSumType();
-		String bitwise = imageType.getBitWise();
-
-		int startX = rule == ConnectRule.FOUR ? 0 : 1;
-
-		String weightString = rule == ConnectRule.EIGHT ? ",weight3=0,weight4=0" : "";
 
 		out.print("\t@Override\n" +
 				"\tpublic void process(Planar<"+imageName+"> input,\n" +
@@ -108,9 +103,59 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 				"\t\tint h = input.height-1;\n" +
 				"\n" +
 				"\t\t// First consider the inner pixels\n" +
+				"\t\tint offset = edges.size;\n" +
+				"\t\tedges.resize(offset + Math.max(0,h)*innerEdgesPerRow(input.width));\n" +
+				"\t\tprocessInner(input,0,h,edges.data,offset);\n" +
+				"\n" +
+				"\t\t// Handle border pixels\n");
+
+		if( rule == ConnectRule.EIGHT ) {
+			out.print(
 				"\t\tfor( int y = 0; y < h; y++ ) {\n" +
+				"\t\t\tcheckAround(0,y,input,edges);\n" +
+				"\t\t\tcheckAround(w,y,input,edges);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tfor( int x = 0; x < w; x++ ) {\n" +
+				"\t\t\tcheckAround(x,h,input,edges);\n" +
+				"\t\t}\n" +
+				"\t}\n\n");
+		} else {
+			out.print(
+				"\t\tfor( int y = 0; y < h; y++ ) {\n" +
+				"\t\t\tcheckAround(w,y,input,edges);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tfor( int x = 0; x < w; x++ ) {\n" +
+				"\t\t\tcheckAround(x,h,input,edges);\n" +
+				"\t\t}\n" +
+				"\t}\n\n");
+		}
+	}
+
+	private void printProcessInner( AutoTypeImage imageType , ConnectRule rule ) {
+
+		String imageName = imageType.getSingleBandName();
+		String sumType = imageType.getSumType();
+		String bitwise = imageType.getBitWise();
+
+		int startX = rule == ConnectRule.FOUR ? 0 : 1;
+		String edgesPerRow = rule == ConnectRule.FOUR ? "Math.max(0,2*(width-1))" : "Math.max(0,4*(width-2))";
+
+		String weightString = rule == ConnectRule.EIGHT ? ",weight3=0,weight4=0" : "";
+
+		out.print("\t/**\n" +
+				"\t * Computes the weight of edges between inner pixels in the specified rows. Edges for row 'y' are written\n" +
+				"\t * starting at index offset + y*{@link #innerEdgesPerRow}(width) and rows can be processed independently.\n" +
+				"\t */\n" +
+				"\tprotected void processInner(Planar<"+imageName+"> input, int row0, int row1, Edge[] edges, int offset) {\n" +
+				"\t\tfinal int w = input.width-1;\n" +
+				"\t\tfinal int edgesPerRow = innerEdgesPerRow(input.width);\n" +
+				"\n" +
+				"\t\tfor( int y = row0; y < row1; y++ ) {\n" +
 				"\t\t\tint indexSrc = input.startIndex + y*input.stride + "+startX+";\n" +
 				"\t\t\tint indexDst =                  + y*input.width  + "+startX+";\n" +
+				"\t\t\tint indexEdge = offset + y*edgesPerRow;\n" +
 				"\n" +
 				"\t\t\tfor( int x = "+startX+"; x < w; x++ , indexSrc++ , indexDst++ ) {\n" +
 				"\n" +
@@ -139,8 +184,8 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 		out.print(
 				"\t\t\t\t}\n" +
 				"\n" +
-				"\t\t\t\tEdge e1 = edges.grow();\n" +
-				"\t\t\t\tEdge e2 = edges.grow();\n" +
+				"\t\t\t\tEdge e1 = edges[indexEdge++];\n" +
+				"\t\t\t\tEdge e2 = edges[indexEdge++];\n" +
 				"\n" +
 				"\t\t\t\te1.sortValue = (float)Math.sqrt(weight1);\n" +
 				"\t\t\t\te1.indexA = indexDst;\n" +
@@ -152,8 +197,8 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 				"\n");
 		if( rule == ConnectRule.EIGHT ) {
 			out.print(
-				"\t\t\t\tEdge e3 = edges.grow();\n" +
-				"\t\t\t\tEdge e4 = edges.grow();\n" +
+				"\t\t\t\tEdge e3 = edges[indexEdge++];\n" +
+				"\t\t\t\tEdge e4 = edges[indexEdge++];\n" +
 				"\n" +
 				"\t\t\t\te3.sortValue = (float)Math.sqrt(weight3);\n" +
 				"\t\t\t\te3.indexA = indexDst;\n" +
@@ -166,31 +211,14 @@ public class GenerateFhEdgeWeights_PL extends CodeGeneratorBase {
 		out.print(
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t}\n" +
 				"\n" +
-				"\t\t// Handle border pixels\n");
-
-		if( rule == ConnectRule.EIGHT ) {
-			out.print(
-				"\t\tfor( int y = 0; y < h; y++ ) {\n" +
-				"\t\t\tcheckAround(0,y,input,edges);\n" +
-				"\t\t\tcheckAround(w,y,input,edges);\n" +
-				"\t\t}\n" +
-				"\n" +
-				"\t\tfor( int x = 0; x < w; x++ ) {\n" +
-				"\t\t\tcheckAround(x,h,input,edges);\n" +
-				"\t\t}\n" +
-				"\t}\n\n");
-		} else {
-			out.print(
-				"\t\tfor( int y = 0; y < h; y++ ) {\n" +
-				"\t\t\tcheckAround(w,y,input,edges);\n" +
-				"\t\t}\n" +
-				"\n" +
-				"\t\tfor( int x = 0; x < w; x++ ) {\n" +
-				"\t\t\tcheckAround(x,h,input,edges);\n" +
-				"\t\t}\n" +
+				"\t/**\n" +
+				"\t * Number of edges computed for each row of inner pixels\n" +
+				"\t */\n" +
+				"\tprotected static int innerEdgesPerRow( int width ) {\n" +
+				"\t\treturn "+edgesPerRow+";\n" +
 				"\t}\n\n");
-		}
 	}
 
 	private void printCheckAround( AutoTypeImage imageType , ConnectRule rule ) {
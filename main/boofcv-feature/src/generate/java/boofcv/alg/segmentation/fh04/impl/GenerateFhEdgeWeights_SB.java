@@ -44,6 +44,7 @@ public class GenerateFhEdgeWeights_SB extends CodeGeneratorBase {
 		setOutputFile(name);
 		printPreamble(imageType,rule);
 		printProcess(imageType,rule);
+		printProcessInner(imageType,rule);
 		printCheckAround(imageType,rule);
 		printCheck(imageType);
 		printType(imageType);
@@ -79,10 +80,6 @@ public class GenerateFhEdgeWeights_SB extends CodeGeneratorBase {
 	private void printProcess( AutoTypeImage imageType , ConnectRule rule ) {
 
 		String imageName = imageType.getSingleBandName();
-		String sumType = imageType.getSumType();
-		String bitwise = imageType.getBitWise();
-
-		int startX = rule == ConnectRule.FOUR ? 0 : 1;
 
 		out.print("\t@Override\n" +
 				"\tpublic void process("+imageName+" input,\n" +
@@ -92,17 +89,65 @@ public class GenerateFhEdgeWeights_SB extends CodeGeneratorBase {
 				"\t\tint h = input.height-1;\n" +
 				"\n" +
 				"\t\t// First consider the inner pixels\n" +
-				"\t\tfor( int y = 0; y < h; y++ ) {\n" +
+				"\t\tint offset = edges.size;\n" +
+				"\t\tedges.resize(offset + Math.max(0,h)*innerEdgesPerRow(input.width));\n" +
+				"\t\tprocessInner(input,0,h,edges.data,offset);\n" +
+				"\n" +
+				"\t\t// Handle border pixels\n");
+
+		if( rule == ConnectRule.EIGHT ) {
+			out.print(
+					"\t\tfor( int y = 0; y < h; y++ ) {\n" +
+					"\t\t\tcheckAround(0,y,input,edges);\n" +
+					"\t\t\tcheckAround(w,y,input,edges);\n" +
+					"\t\t}\n" +
+					"\n" +
+					"\t\tfor( int x = 0; x < w; x++ ) {\n" +
+					"\t\t\tcheckAround(x,h,input,edges);\n" +
+					"\t\t}\n");
+		} else {
+			out.print(
+					"\t\tfor( int y = 0; y < h; y++ ) {\n" +
+					"\t\t\tcheckAround(w,y,input,edges);\n" +
+					"\t\t}\n" +
+					"\n" +
+					"\t\tfor( int x = 0; x < w; x++ ) {\n" +
+					"\t\t\tcheckAround(x,h,input,edges);\n" +
+					"\t\t}\n");
+		}
+
+		out.print("\t}\n\n");
+	}
+
+	private void printProcessInner( AutoTypeImage imageType , ConnectRule rule ) {
+
+		String imageName = imageType.getSingleBandName();
+		String sumType = imageType.getSumType();
+		String bitwise = imageType.getBitWise();
+
+		int startX = rule == ConnectRule.FOUR ? 0 : 1;
+		String edgesPerRow = rule == ConnectRule.FOUR ? "Math.max(0,2*(width-1))" : "Math.max(0,4*(width-2))";
+
+		out.print("\t/**\n" +
+				"\t * Computes the weight of edges between inner pixels in the specified rows. Edges for row 'y' are written\n" +
+				"\t * starting at index offset + y*{@link #innerEdgesPerRow}(width) and rows can be processed independently.\n" +
+				"\t */\n" +
+				"\tprotected void processInner("+imageName+" input, int row0, int row1, Edge[] edges, int offset) {\n" +
+				"\t\tfinal int w = input.width-1;\n" +
+				"\t\tfinal int edgesPerRow = innerEdgesPerRow(input.width);\n" +
+				"\n" +
+				"\t\tfor( int y = row0; y < row1; y++ ) {\n" +
 				"\t\t\tint indexSrc = input.startIndex + y*input.stride + "+startX+";\n" +
 				"\t\t\tint indexDst =                  + y*input.width  + "+startX+";\n" +
+				"\t\t\tint indexEdge = offset + y*edgesPerRow;\n" +
 				"\n" +
 				"\t\t\tfor( int x = "+startX+"; x < w; x++ , indexSrc++ , indexDst++ ) {\n" +
 				"\t\t\t\t"+sumType+" color0 = input.data[indexSrc]"+bitwise+";              // (x,y)\n" +
 				"\t\t\t\t"+sumType+" color1 = input.data[indexSrc+1]"+bitwise+";            // (x+1,y)\n" +
 				"\t\t\t\t"+sumType+" color2 = input.data[indexSrc+input.stride]"+bitwise+"; // (x,y+1)\n" +
 				"\n" +
-				"\t\t\t\tEdge e1 = edges.grow();\n" +
-				"\t\t\t\tEdge e2 = edges.grow();\n" +
+				"\t\t\t\tEdge e1 = edges[indexEdge++];\n" +
+				"\t\t\t\tEdge e2 = edges[indexEdge++];\n" +
 				"\n" +
 				"\t\t\t\te1.sortValue = Math.abs(color1-color0);\n" +
 				"\t\t\t\te1.indexA = indexDst;\n" +
@@ -117,8 +162,8 @@ public class GenerateFhEdgeWeights_SB extends CodeGeneratorBase {
 				"\t\t\t\t"+sumType+" color3 = input.data[indexSrc+1+input.stride]"+bitwise+"; // (x+1,y+1)\n" +
 				"\t\t\t\t"+sumType+" color4 = input.data[indexSrc-1+input.stride]"+bitwise+"; // (x-1,y+1)\n" +
 				"\n" +
-				"\t\t\t\tEdge e3 = edges.grow();\n" +
-				"\t\t\t\tEdge e4 = edges.grow();\n" +
+				"\t\t\t\tEdge e3 = edges[indexEdge++];\n" +
+				"\t\t\t\tEdge e4 = edges[indexEdge++];\n" +
 				"\n" +
 				"\t\t\t\te3.sortValue = Math.abs(color3-color0);\n" +
 				"\t\t\t\te3.indexA = indexDst;\n" +
@@ -130,31 +175,15 @@ public class GenerateFhEdgeWeights_SB extends CodeGeneratorBase {
 		}
 
 		out.print("\t\t\t}\n" +
-				"\t\t}\n"+
-				"\t\t// Handle border pixels\n");
-
-		if( rule == ConnectRule.EIGHT ) {
-			out.print(
-					"\t\tfor( int y = 0; y < h; y++ ) {\n" +
-					"\t\t\tcheckAround(0,y,input,edges);\n" +
-					"\t\t\tcheckAround(w,y,input,edges);\n" +
-					"\t\t}\n" +
-					"\n" +
-					"\t\tfor( int x = 0; x < w; x++ ) {\n" +
-					"\t\t\tcheckAround(x,h,input,edges);\n" +
-					"\t\t}\n");
-		} else {
-			out.print(
-					"\t\tfor( int y = 0; y < h; y++ ) {\n" +
-					"\t\t\tcheckAround(w,y,input,edges);\n" +
-					"\t\t}\n" +
-					"\n" +
-					"\t\tfor( int x = 0; x < w; x++ ) {\n" +
-					"\t\t\tcheckAround(x,h,input,edges);\n" +
-					"\t\t}\n");
-		}
-
-		out.print("\t}\n");
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Number of edges computed for each row of inner pixels\n" +
+				"\t */\n" +
+				"\tprotected static int innerEdgesPerRow( int width ) {\n" +
+				"\t\treturn "+edgesPerRow+";\n" +
+				"\t}\n\n");
 	}
 
 	private void printCheckAround( AutoTypeImage imageType , ConnectRule rule ) {
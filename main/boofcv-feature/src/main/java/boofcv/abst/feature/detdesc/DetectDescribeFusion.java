@@ -42,19 +42,19 @@ public class DetectDescribeFusion<T extends ImageGray<T>, TD extends TupleDesc>
 	implements DetectDescribePoint<T, TD>
 {
 	// detects interest points
-	private InterestPointDetector<T> detector;
+	InterestPointDetector<T> detector;
 	// optional override for orientation
-	private OrientationImage<T> orientation;
+	OrientationImage<T> orientation;
 	// describes each feature found
-	private DescribeRegionPoint<T, TD> describe;
+	DescribeRegionPoint<T, TD> describe;
 
 	// list of extracted feature descriptors
-	private FastQueue<TD> descs;
+	FastQueue<TD> descs;
 
 	// storage for found orientations
-	private GrowQueue_F64 featureRadiuses = new GrowQueue_F64(10);
-	private GrowQueue_F64 featureAngles = new GrowQueue_F64(10);
-	private FastQueue<Point2D_F64> location = new FastQueue<>(10, Point2D_F64.class, false);
+	GrowQueue_F64 featureRadiuses = new GrowQueue_F64(10);
+	GrowQueue_F64 featureAngles = new GrowQueue_F64(10);
+	FastQueue<Point2D_F64> location = new FastQueue<>(10, Point2D_F64.class, false);
 
 	/**
 	 * Configures the algorithm.
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detect.interest.InterestPointDetector;
+import boofcv.abst.feature.orientation.OrientationImage;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link DetectDescribeFusion}. Features are detected in the calling thread. Then
+ * orientation estimation and description is done in parallel, with each thread having its own copy of the
+ * orientation and describe algorithms. Features which could not be described are removed afterwards, so the
+ * output is identical to and in the same order as the single threaded version.
+ *
+ * Note that setImage() is called on each thread's orientation and describe algorithms. Algorithms which compute
+ * a derived image (e.g. gradient or integral image) inside of setImage() will do so once per thread.
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeFusion_MT<T extends ImageGray<T>, TD extends TupleDesc>
+	extends DetectDescribeFusion<T,TD>
+{
+	// Storage for each thread
+	FastQueue<ThreadData> threadData;
+
+	// true if the feature at the same index in the detector was successfully described
+	GrowQueue_B success = new GrowQueue_B();
+	// orientation of each detected feature
+	GrowQueue_F64 yaws = new GrowQueue_F64();
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param detector Feature detector
+	 * @param factoryOrientation (Optional) creates orientation estimation algorithms
+	 * @param factoryDescribe Creates algorithms for describing features
+	 */
+	public DetectDescribeFusion_MT(InterestPointDetector<T> detector,
+								   @Nullable final BoofLambdas.Factory<OrientationImage<T>> factoryOrientation,
+								   final BoofLambdas.Factory<DescribeRegionPoint<T, TD>> factoryDescribe)
+	{
+		super(detector, factoryOrientation == null ? null : factoryOrientation.newInstance(),
+				factoryDescribe.newInstance());
+
+		threadData = new FastQueue<ThreadData>(1,(Class)ThreadData.class,true) {
+			@Override
+			protected ThreadData createInstance() {
+				return new ThreadData(factoryOrientation == null ? null : factoryOrientation.newInstance(),
+						factoryDescribe.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void detect(T input) {
+		featureRadiuses.reset();
+		featureAngles.reset();
+		location.reset();
+
+		detector.detect(input);
+
+		final int N = detector.getNumberOfFeatures();
+
+		// Each feature is described into the element with the same index as the detection
+		descs.resize(N);
+		success.resize(N);
+		yaws.resize(N);
+
+		BoofConcurrency.loopBlocks(0,N,threadData,(data,idx0,idx1)->{
+			if( data.orientation != null ) {
+				data.orientation.setImage(input);
+			}
+			data.describe.setImage(input);
+
+			for (int i = idx0; i < idx1; i++) {
+				Point2D_F64 p = detector.getLocation(i);
+				double radius = detector.getRadius(i);
+				double yaw = detector.getOrientation(i);
+
+				if( data.orientation != null ) {
+					data.orientation.setObjectRadius(radius);
+					yaw = data.orientation.compute(p.x,p.y);
+				}
+
+				yaws.data[i] = yaw;
+				success.data[i] = data.describe.process(p.x,p.y,yaw,radius,descs.get(i));
+			}
+		});
+
+		// Remove features which could not be described while preserving the order. Descriptions are
+		// moved by swapping references so that no data needs to be copied
+		int count = 0;
+		for (int i = 0; i < N; i++) {
+			if( !success.data[i] )
+				continue;
+
+			if( count != i ) {
+				TD tmp = descs.data[count];
+				descs.data[count] = descs.data[i];
+				descs.data[i] = tmp;
+			}
+			featureRadiuses.push(detector.getRadius(i));
+			featureAngles.push(yaws.data[i]);
+			location.add(detector.getLocation(i));
+			count++;
+		}
+		descs.resize(count);
+	}
+
+	/**
+	 * Algorithms used by a single thread
+	 */
+	class ThreadData {
+		@Nullable OrientationImage<T> orientation;
+		DescribeRegionPoint<T, TD> describe;
+
+		ThreadData(@Nullable OrientationImage<T> orientation, DescribeRegionPoint<T, TD> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
+}
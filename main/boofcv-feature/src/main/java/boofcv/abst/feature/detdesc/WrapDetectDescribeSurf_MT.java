@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.BoofDefaults;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link WrapDetectDescribeSurf}. The integral image is computed once and shared
+ * by all threads. Orientation estimation and description of detected features is done in parallel, with each
+ * thread having its own copy of the orientation and describe algorithms. Each feature's description is written
+ * to the same index as in the single threaded version.
+ *
+ * @param <T> Input image type
+ * @param <II> Integral image type
+ *
+ * @author Peter Abeles
+ */
+public class WrapDetectDescribeSurf_MT
+		<T extends ImageGray<T>, II extends ImageGray<II>>
+		extends WrapDetectDescribeSurf<T,II>
+{
+	// Storage for each thread
+	FastQueue<ThreadData<II>> threadData;
+
+	public WrapDetectDescribeSurf_MT(FastHessianFeatureDetector<II> detector,
+									 final BoofLambdas.Factory<OrientationIntegral<II>> factoryOrientation,
+									 final BoofLambdas.Factory<DescribePointSurf<II>> factoryDescribe)
+	{
+		super(detector, factoryOrientation.newInstance(), factoryDescribe.newInstance());
+
+		threadData = new FastQueue<ThreadData<II>>(1,(Class)ThreadData.class,true) {
+			@Override
+			protected ThreadData<II> createInstance() {
+				return new ThreadData<>(factoryOrientation.newInstance(),factoryDescribe.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void detect(T input) {
+		if( ii != null ) {
+			ii.reshape(input.width,input.height);
+		}
+
+		// compute integral image
+		ii = GIntegralImageOps.transform(input, ii);
+
+		// detect features
+		detector.detect(ii);
+
+		// describe the found interest points
+		foundPoints = detector.getFoundPoints();
+		features.resize(foundPoints.size());
+		featureAngles.resize(foundPoints.size());
+
+		BoofConcurrency.loopBlocks(0,foundPoints.size(),threadData,(data,idx0,idx1)->{
+			data.orientation.setImage(ii);
+			data.describe.setImage(ii);
+
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = foundPoints.get(i);
+				double radius = p.scale* BoofDefaults.SURF_SCALE_TO_RADIUS;
+
+				data.orientation.setObjectRadius(radius);
+				double angle = data.orientation.compute(p.x,p.y);
+				data.describe.describe(p.x,p.y, angle, p.scale, features.get(i));
+				featureAngles.data[i] = angle;
+			}
+		});
+	}
+
+	/**
+	 * Algorithms used by a single thread
+	 */
+	static class ThreadData<II extends ImageGray<II>> {
+		OrientationIntegral<II> orientation;
+		DescribePointSurf<II> describe;
+
+		ThreadData(OrientationIntegral<II> orientation, DescribePointSurf<II> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
+}
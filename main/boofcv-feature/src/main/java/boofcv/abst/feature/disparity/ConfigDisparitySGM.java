@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.sgm.CensusType;
+import boofcv.alg.feature.disparity.sgm.SgmCostAggregation;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for Semi Global Matching (SGM) stereo disparity
+ *
+ * @see SgmStereoDisparity
+ *
+ * @author Peter Abeles
+ */
+public class ConfigDisparitySGM implements Configuration {
+
+	/**
+	 * Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 */
+	public int minDisparity = 0;
+
+	/**
+	 * Maximum disparity that it will calculate. Exclusive.
+	 */
+	public int maxDisparity = 100;
+
+	/**
+	 * Which census sampling pattern is used to compute the matching cost
+	 */
+	public CensusType census = CensusType.BLOCK_5_5;
+
+	/**
+	 * Penalty for a change in disparity of one between neighboring pixels. P1 in the paper.
+	 */
+	public int penaltySmallChange = 200;
+
+	/**
+	 * Penalty for a change in disparity of more than one between neighboring pixels. P2 in the paper.
+	 */
+	public int penaltyLargeChange = 2000;
+
+	/**
+	 * Number of paths the cost is aggregated along. 4 or 8.
+	 */
+	public int paths = 8;
+
+	/**
+	 * If true then the cost is aggregated one row at a time. This greatly reduces memory but only the five paths
+	 * which come from above are used.
+	 */
+	public boolean streamRows = false;
+
+	/**
+	 * Tolerance for how difference the left to right associated values can be. Disable with a value &lt; 0.
+	 */
+	public int validateRtoL = 1;
+
+	/**
+	 * Tolerance for how similar optimal disparity is to other disparities. Disable with a value &le; 0.
+	 * Closer to zero is more tolerant.
+	 */
+	public double texture = 0;
+
+	/**
+	 * If true then the disparity is estimated to sub-pixel accuracy
+	 */
+	public boolean subpixel = false;
+
+	public ConfigDisparitySGM(int minDisparity, int maxDisparity) {
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+	}
+
+	public ConfigDisparitySGM() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("minDisparity must be >= 0 and < maxDisparity");
+		if( paths != 4 && paths != 8 )
+			throw new IllegalArgumentException("paths must be 4 or 8");
+		if( penaltySmallChange < 0 || penaltyLargeChange < penaltySmallChange )
+			throw new IllegalArgumentException("Penalties must be positive and small <= large");
+		if( penaltyLargeChange > SgmCostAggregation.MAX_PENALTY )
+			throw new IllegalArgumentException("penaltyLargeChange can't be more than "+SgmCostAggregation.MAX_PENALTY);
+	}
+}
@@ -20,7 +20,6 @@ package boofcv.abst.segmentation;
 
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
-import boofcv.alg.segmentation.ImageSegmentationOps;
 import boofcv.alg.segmentation.ms.MergeSmallRegions;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
 import boofcv.core.image.GConvertImage;
@@ -82,10 +81,11 @@ public class Watershed_to_ImageSuperpixels<T extends ImageBase<T>> implements Im
 
 		// Merge small regions together
 		if( pruneSmall != null ) {
-			regionMemberCount.resize(numRegions);
 			regionColor.resize(numRegions);
 
-			ImageSegmentationOps.countRegionPixels(pixelToRegion,numRegions,regionMemberCount.data);
+			// region sizes were computed when watersheds were removed
+			regionMemberCount.setTo(alg.getRegionSizes());
+			regionMemberCount.extend(numRegions);
 			pruneSmall.process(converted,pixelToRegion,regionMemberCount,regionColor);
 
 			numRegions = regionMemberCount.size();
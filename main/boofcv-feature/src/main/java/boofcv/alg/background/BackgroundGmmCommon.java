@@ -23,7 +23,10 @@ import boofcv.core.image.FactoryGImageMultiBand;
 import boofcv.core.image.GImageGray;
 import boofcv.core.image.GImageMultiBand;
 import boofcv.struct.RArray2D_F32;
+import boofcv.struct.RArray2D_S16;
+import boofcv.struct.image.ImageDataType;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
 
 /**
  * Common code for all implementations of {@link BackgroundAlgorithmGmm}. This is where most of the important
@@ -40,6 +43,25 @@ public class BackgroundGmmCommon {
 	// The first N gaussians are always in use
 	public RArray2D_F32 model = new RArray2D_F32(1, 1);
 
+	// If true the model is stored in modelCompact instead of model, using half the memory.
+	public boolean compact = false;
+	// Compact storage for the model. Same layout as model but each element is 16-bits.
+	// weight = unsigned fixed-point with 16 fractional bits
+	// variance = half-float
+	// mean = unsigned fixed-point with 8 fractional bits for 8-bit images and half-float for all others
+	public RArray2D_S16 modelCompact = new RArray2D_S16(0, 0);
+	// if true the mean is encoded as fixed-point
+	public boolean fixedPointMean;
+
+	// Look up table for converting half-floats into floats
+	private static final float[] HALF_TO_FLOAT = new float[0x10000];
+
+	static {
+		for (int i = 0; i < HALF_TO_FLOAT.length; i++) {
+			HALF_TO_FLOAT[i] = halfToFloat((short)i);
+		}
+	}
+
 	// Shape of expected input image
 	public int imageWidth, imageHeight, numBands;
 
@@ -99,12 +121,155 @@ public class BackgroundGmmCommon {
 				break;
 		}
 
+		this.fixedPointMean = imageType.getDataType() == ImageDataType.U8;
 		this.numBands = imageType.numBands;
 		this.gaussianStride = 2 + numBands; // 1 weight, 1 variance, N means
 		this.modelStride = maxGaussians * gaussianStride;
 	}
 
 
+	/**
+	 * Resizes the model and marks every Gaussian as unused
+	 */
+	public void reshapeModel( int rows , int cols ) {
+		if( compact ) {
+			modelCompact.reshape(rows, cols);
+			modelCompact.zero();
+		} else {
+			model.reshape(rows, cols);
+			model.zero();
+		}
+	}
+
+	/**
+	 * Returns the model for the specified row as floats. If the model is compact then the row is decoded into
+	 * storage, otherwise the internal array is returned.
+	 *
+	 * @param row Which row in the model
+	 * @param storage Storage for the decoded row. Only used if the model is compact.
+	 * @return Row in the model
+	 */
+	public float[] decodeRow( int row , GrowQueue_F32 storage ) {
+		if( !compact )
+			return model.data[row];
+
+		storage.resize(modelCompact.cols);
+		short[] src = modelCompact.data[row];
+		float[] dst = storage.data;
+
+		for (int modelIndex = 0; modelIndex < modelCompact.cols; modelIndex += modelStride) {
+			// Only Gaussians which are in use are decoded. The rest are marked as unused since storage
+			// could contain values from a previous row
+			int index = modelIndex;
+			for (int ng = 0; ng < maxGaussians; ng++, index += gaussianStride) {
+				if( src[index+1] == 0 ) {
+					for (; ng < maxGaussians; ng++, index += gaussianStride) {
+						dst[index+1] = 0;
+					}
+					break;
+				}
+				dst[index]   = (src[index] & 0xFFFF)/65535.0f;
+				dst[index+1] = HALF_TO_FLOAT[src[index+1] & 0xFFFF];
+				for (int i = 0; i < numBands; i++) {
+					int j = index+2+i;
+					dst[j] = fixedPointMean ? (src[j] & 0xFFFF)/256.0f : HALF_TO_FLOAT[src[j] & 0xFFFF];
+				}
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * Saves a row which was returned by {@link #decodeRow} back into the model. Does nothing if the model isn't
+	 * compact since the row was modified in place.
+	 */
+	public void encodeRow( int row , float[] data ) {
+		if( !compact )
+			return;
+
+		short[] dst = modelCompact.data[row];
+
+		for (int modelIndex = 0; modelIndex < modelCompact.cols; modelIndex += modelStride) {
+			// Only Gaussians which are in use are encoded. The first unused one is marked
+			int index = modelIndex;
+			for (int ng = 0; ng < maxGaussians; ng++, index += gaussianStride) {
+				float variance = data[index+1];
+				if( variance <= 0 ) {
+					dst[index+1] = 0;
+					break;
+				}
+				dst[index] = (short)Math.max(0, Math.min(0xFFFF, (int)(data[index]*65535.0f + 0.5f)));
+				// make sure small variances aren't rounded to zero, which would mark it as unused
+				dst[index+1] = (short)Math.max(1, Math.min(0x7BFF, floatToHalf(variance)));
+
+				for (int i = 0; i < numBands; i++) {
+					int j = index+2+i;
+					if( fixedPointMean )
+						dst[j] = (short)Math.max(0, Math.min(0xFFFF, (int)(data[j]*256.0f + 0.5f)));
+					else
+						dst[j] = floatToHalf(data[j]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts a float into an IEEE 754 half-float. Rounds to the nearest value with ties going to even.
+	 * Values which are too large become infinity.
+	 */
+	public static short floatToHalf( float value ) {
+		int bits = Float.floatToRawIntBits(value);
+		int sign = (bits >>> 16) & 0x8000;
+		int exponent = ((bits >>> 23) & 0xFF) - 127 + 15;
+		int mantissa = bits & 0x7FFFFF;
+
+		if( exponent == 0xFF - 127 + 15 ) {
+			// NaN or infinity
+			return (short)(sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+		} else if( exponent >= 0x1F ) {
+			// overflow
+			return (short)(sign | 0x7C00);
+		} else if( exponent <= 0 ) {
+			// sub-normal or zero
+			if( exponent < -10 )
+				return (short)sign;
+			mantissa |= 0x800000;
+			int shift = 14 - exponent;
+			int half = mantissa >> shift;
+			int remainder = mantissa & ((1 << shift) - 1);
+			int halfway = 1 << (shift - 1);
+			if( remainder > halfway || (remainder == halfway && (half & 1) != 0) )
+				half++;
+			return (short)(sign | half);
+		} else {
+			int half = (exponent << 10) | (mantissa >> 13);
+			int remainder = mantissa & 0x1FFF;
+			// rounding can carry into the exponent, which is the correct behavior
+			if( remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0) )
+				half++;
+			return (short)(sign | half);
+		}
+	}
+
+	/**
+	 * Converts an IEEE 754 half-float into a float
+	 */
+	public static float halfToFloat( short half ) {
+		int bits = half & 0xFFFF;
+		int sign = (bits & 0x8000) << 16;
+		int exponent = (bits >>> 10) & 0x1F;
+		int mantissa = bits & 0x3FF;
+
+		if( exponent == 0x1F ) {
+			return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+		} else if( exponent == 0 ) {
+			float value = mantissa/(float)(1 << 24);
+			return sign == 0 ? value : -value;
+		} else {
+			return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+		}
+	}
+
 	/**
 	 * Updates the mixtures of gaussian and determines if the pixel matches the background model
 	 * @return true if it matches the background or false if not
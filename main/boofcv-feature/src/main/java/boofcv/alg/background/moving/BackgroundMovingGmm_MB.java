@@ -24,6 +24,7 @@ import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
 import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGmm} for {@link ImageGray}.
@@ -45,6 +46,16 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 		common.inputWrapperMB.wrap(frame);
 		transform.setModel(worldToCurrent);
 
+		updateRows(x0, y0, x1, y1, frame, work, common.inputPixel);
+	}
+
+	/**
+	 * Updates the model inside the bounding box for rows in the range [y0,y1)
+	 *
+	 * @param work Storage for a transformed point
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void updateRows( int x0 , int y0 , int x1 , int y1 , T frame , Point2D_F32 work , float[] inputPixel ) {
 		for (int y = y0; y < y1; y++) {
 			float modelRow[] = common.model.data[y];
 			for (int x = x0; x < x1; x++) {
@@ -56,9 +67,9 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 
 				if( work.x >= 0 && xx < frame.width && work.y >= 0 && yy < frame.height) {
 
-					common.inputWrapperMB.get(xx,yy,common.inputPixel);
+					common.inputWrapperMB.get(xx,yy,inputPixel);
 
-					common.updateMixture(common.inputPixel,modelRow,indexModel); // TODO assigned mask here
+					common.updateMixture(inputPixel,modelRow,indexModel); // TODO assigned mask here
 				}
 			}
 		}
@@ -70,7 +81,17 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 		transform.setModel(currentToWorld);
 		common.unknownValue = unknownValue;
 
-		for (int y = 0; y < frame.height; y++) {
+		segmentRows(frame, segmented, 0, frame.height, work, common.inputPixel);
+	}
+
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param work Storage for a transformed point
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , Point2D_F32 work , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
 			int indexOut = segmented.startIndex + y*segmented.stride;
 			for (int x = 0; x < frame.width; x++, indexOut++) {
 
@@ -81,12 +102,12 @@ public class BackgroundMovingGmm_MB<T extends ImageMultiBand<T>, Motion extends
 
 				if( work.x >= 0 && xx < backgroundWidth && work.y >= 0 && yy < backgroundHeight) {
 
-					common.inputWrapperMB.get(x,y,common.inputPixel);
+					common.inputWrapperMB.get(x,y,inputPixel);
 
 					float modelRow[] = common.model.data[yy];
 					int indexModel = xx*common.modelStride;
 
-					segmented.data[indexOut] = (byte)common.checkBackground(common.inputPixel, modelRow, indexModel);
+					segmented.data[indexOut] = (byte)common.checkBackground(inputPixel, modelRow, indexModel);
 				}else {
 					// there is no background here.  Just mark it as not moving to avoid false positives
 					segmented.data[indexOut] = unknownValue;
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundMovingGmm_MB}. Rows are split into bands. The transform
+ * is shared between threads and must not modify its state inside of compute(), which is true for
+ * homographies and affine transforms.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMovingGmm_MB_MT<T extends ImageMultiBand<T>, Motion extends InvertibleTransform<Motion>>
+	extends BackgroundMovingGmm_MB<T,Motion>
+{
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 4;
+
+	// storage used by each thread
+	private final FastQueue<BlockWork> workspace;
+
+	/**
+	 * @see BackgroundMovingGmm_MB#BackgroundMovingGmm_MB(float, float, int, Point2Transform2Model_F32, ImageType)
+	 */
+	public BackgroundMovingGmm_MB_MT(float learningPeriod, float decayCoef, int maxGaussians,
+									 Point2Transform2Model_F32<Motion> transformImageType, ImageType<T> imageType)
+	{
+		super(learningPeriod, decayCoef, maxGaussians, transformImageType, imageType);
+
+		final int numBands = imageType.getNumBands();
+		workspace = new FastQueue<BlockWork>(BlockWork.class,true) {
+			@Override
+			protected BlockWork createInstance() {
+				return new BlockWork(numBands);
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows( int x0 , int y0 , int x1 , int y1 , T frame , Point2D_F32 work , float[] inputPixel ) {
+		BoofConcurrency.loopBlocks(y0,y1,MIN_BAND,workspace,(data,row0,row1)->
+				super.updateRows(x0,row0,x1,row1,frame,data.point,data.pixel));
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , Point2D_F32 work , float[] inputPixel ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(data,y0,y1)->
+				super.segmentRows(frame,segmented,y0,y1,data.point,data.pixel));
+	}
+
+	private static class BlockWork {
+		Point2D_F32 point = new Point2D_F32();
+		float[] pixel;
+
+		BlockWork( int numBands ) {
+			pixel = new float[numBands];
+		}
+	}
+}
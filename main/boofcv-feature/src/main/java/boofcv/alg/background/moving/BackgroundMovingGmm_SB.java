@@ -23,6 +23,7 @@ import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGmm} for {@link ImageGray}.
@@ -44,6 +45,15 @@ public class BackgroundMovingGmm_SB <T extends ImageGray<T>, Motion extends Inve
 		common.inputWrapperG.wrap(frame);
 		transform.setModel(worldToCurrent);
 
+		updateRows(x0, y0, x1, y1, frame, work);
+	}
+
+	/**
+	 * Updates the model inside the bounding box for rows in the range [y0,y1)
+	 *
+	 * @param work Storage for a transformed point
+	 */
+	protected void updateRows( int x0 , int y0 , int x1 , int y1 , T frame , Point2D_F32 work ) {
 		for (int y = y0; y < y1; y++) {
 			float modelRow[] = common.model.data[y];
 			for (int x = x0; x < x1; x++) {
@@ -69,7 +79,16 @@ public class BackgroundMovingGmm_SB <T extends ImageGray<T>, Motion extends Inve
 		transform.setModel(currentToWorld);
 		common.unknownValue = unknownValue;
 
-		for (int y = 0; y < frame.height; y++) {
+		segmentRows(frame, segmented, 0, frame.height, work);
+	}
+
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param work Storage for a transformed point
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , Point2D_F32 work ) {
+		for (int y = row0; y < row1; y++) {
 			int indexOut = segmented.startIndex + y*segmented.stride;
 			for (int x = 0; x < frame.width; x++, indexOut++) {
 
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundMovingGmm_SB}. Rows are split into bands. The transform
+ * is shared between threads and must not modify its state inside of compute(), which is true for
+ * homographies and affine transforms.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundMovingGmm_SB_MT<T extends ImageGray<T>, Motion extends InvertibleTransform<Motion>>
+	extends BackgroundMovingGmm_SB<T,Motion>
+{
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 4;
+
+	// storage for the transformed point in each thread
+	private final FastQueue<Point2D_F32> workspace = new FastQueue<>(Point2D_F32.class,true);
+
+	/**
+	 * @see BackgroundMovingGmm_SB#BackgroundMovingGmm_SB(float, float, int, Point2Transform2Model_F32, ImageType)
+	 */
+	public BackgroundMovingGmm_SB_MT(float learningPeriod, float decayCoef, int maxGaussians,
+									 Point2Transform2Model_F32<Motion> transformImageType, ImageType<T> imageType)
+	{
+		super(learningPeriod, decayCoef, maxGaussians, transformImageType, imageType);
+	}
+
+	@Override
+	protected void updateRows( int x0 , int y0 , int x1 , int y1 , T frame , Point2D_F32 work ) {
+		BoofConcurrency.loopBlocks(y0,y1,MIN_BAND,workspace,(point,row0,row1)->
+				super.updateRows(x0,row0,x1,row1,frame,point));
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , Point2D_F32 work ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(point,y0,y1)->
+				super.segmentRows(frame,segmented,y0,y1,point));
+	}
+}
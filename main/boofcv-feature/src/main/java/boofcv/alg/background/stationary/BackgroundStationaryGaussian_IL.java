@@ -99,28 +99,70 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			InputSanityCheck.checkSameShape(background, frame);
 		}
 
+		updateRows(frame, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Updates the background model for rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void updateRows( T frame , int row0 , int row1 , float[] inputPixel ) {
 		int numBands = background.getNumBands()/2;
-		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width*numBands;
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
+				updatePixel(indexBG, inputPixel);
 
-				for (int band = 0; band < numBands; band++) {
+				indexInput += frame.numBands;
+				indexBG    += background.numBands;
+			}
+		}
+	}
 
-					float inputValue = inputPixel[band];
-					float meanBG = background.data[indexBG];
-					float varianceBG = background.data[indexBG+1];
+	/**
+	 * Segments the image and updates the background in a single pass. Each pixel is segmented using the
+	 * model prior to the update.
+	 */
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		segment.reshape(frame.width,frame.height);
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background, frame);
 
-					float diff = meanBG-inputValue;
-					background.data[indexBG++] = minusLearn*meanBG + learnRate*inputValue;
-					background.data[indexBG++] = minusLearn*varianceBG + learnRate*diff*diff;
-				}
+		inputWrapper.wrap(frame);
+		updateSegmentRows(frame, segment, 0, frame.height, inputPixel);
+	}
 
-				indexInput += frame.numBands;
+	/**
+	 * Segments then updates the background model for rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void updateSegmentRows( T frame , GrayU8 segment , int row0 , int row1 , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width*frame.numBands;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				segment.data[indexSegmented] = classify(indexBG, inputPixel);
+				updatePixel(indexBG, inputPixel);
+
+				indexInput     += frame.numBands;
+				indexSegmented += 1;
+				indexBG        += background.numBands;
 			}
 		}
 	}
@@ -132,13 +174,17 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			return;
 		}
 		inputWrapper.wrap(frame);
+		segmentRows(frame, segmented, 0, frame.height, inputPixel);
+	}
 
-		final int numBands = background.getNumBands()/2;
-
-		float adjustedMinimumDifference = minimumDifference*numBands;
-
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -146,40 +192,69 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
 
-				float mahalanobis = 0;
-				for (int band = 0; band < numBands; band++) {
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
 
-					int indexBG_band = indexBG + band*2;
+				indexInput     += frame.numBands;
+				indexSegmented += 1;
+				indexBG        += background.numBands;
+			}
+		}
+	}
 
-					float meanBG = background.data[indexBG_band];
-					float varBG  = background.data[indexBG_band+1];
+	/**
+	 * Classifies a pixel using the background model at the specified index
+	 *
+	 * @return 0 = background, 1 = foreground
+	 */
+	private byte classify( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
 
-					float diff = meanBG - inputPixel[band];
-					mahalanobis += diff * diff / varBG;
-				}
+		float mahalanobis = 0;
+		for (int band = 0; band < numBands; band++) {
 
-				if (mahalanobis <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( minimumDifference == 0) {
-						segmented.data[indexSegmented] = 1;
-					} else {
-						float sumAbsDiff = 0;
-						for (int band = 0; band < numBands; band++) {
-							int indexBG_band = indexBG + band*2;
-							sumAbsDiff += Math.abs(background.data[indexBG_band] - inputPixel[band]);
-						}
-						if (sumAbsDiff >= adjustedMinimumDifference)
-							segmented.data[indexSegmented] = 1;
-						else
-							segmented.data[indexSegmented] = 0;
-					}
-				}
+			int indexBG_band = indexBG + band*2;
 
-				indexInput     += frame.numBands;
-				indexSegmented += 1;
-				indexBG        += background.numBands;
+			float meanBG = background.data[indexBG_band];
+			float varBG  = background.data[indexBG_band+1];
+
+			float diff = meanBG - inputPixel[band];
+			mahalanobis += diff * diff / varBG;
+		}
+
+		if (mahalanobis <= threshold) {
+			return 0;
+		} else {
+			if( minimumDifference == 0) {
+				return 1;
+			} else {
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					int indexBG_band = indexBG + band*2;
+					sumAbsDiff += Math.abs(background.data[indexBG_band] - inputPixel[band]);
+				}
+				if (sumAbsDiff >= minimumDifference*numBands)
+					return 1;
+				else
+					return 0;
 			}
 		}
 	}
+
+	/**
+	 * Updates the background model at the specified index
+	 */
+	private void updatePixel( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+
+		for (int band = 0; band < numBands; band++) {
+			float inputValue = inputPixel[band];
+			float meanBG = background.data[indexBG];
+			float varianceBG = background.data[indexBG+1];
+
+			float diff = meanBG-inputValue;
+			background.data[indexBG++] = minusLearn*meanBG + learnRate*inputValue;
+			background.data[indexBG++] = minusLearn*varianceBG + learnRate*diff*diff;
+		}
+	}
 }
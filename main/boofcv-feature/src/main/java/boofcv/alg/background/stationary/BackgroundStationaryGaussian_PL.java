@@ -89,32 +89,67 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 		}
 
 		inputWrapper.wrap(frame);
+		updateRows(frame, 0, frame.height, inputPixel);
+	}
 
-		int numBands = background.getNumBands()/2;
-		float minusLearn = 1.0f - learnRate;
-
-
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+	/**
+	 * Updates the background model for rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void updateRows( Planar<T> frame , int row0 , int row1 , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
+				updatePixel(indexBG, inputPixel);
 
-				for (int band = 0; band < numBands; band++) {
-					GrayF32 backgroundMean = background.getBand(band*2);
-					GrayF32 backgroundVar = background.getBand(band*2+1);
+				indexInput++;
+				indexBG++;
+			}
+		}
+	}
+
+	/**
+	 * Segments the image and updates the background in a single pass. Each pixel is segmented using the
+	 * model prior to the update.
+	 */
+	@Override
+	public void updateBackground( Planar<T> frame , GrayU8 segment ) {
+		segment.reshape(frame.width,frame.height);
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background, frame);
 
-					float inputValue = inputPixel[band];
-					float meanBG = backgroundMean.data[indexBG];
-					float varianceBG = backgroundVar.data[indexBG];
+		inputWrapper.wrap(frame);
+		updateSegmentRows(frame, segment, 0, frame.height, inputPixel);
+	}
 
-					float diff = meanBG-inputValue;
-					backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
-					backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
-				}
+	/**
+	 * Segments then updates the background model for rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void updateSegmentRows( Planar<T> frame , GrayU8 segment , int row0 , int row1 , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				segment.data[indexSegmented] = classify(indexBG, inputPixel);
+				updatePixel(indexBG, inputPixel);
 
 				indexInput++;
+				indexSegmented++;
 				indexBG++;
 			}
 		}
@@ -127,13 +162,17 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 			return;
 		}
 		inputWrapper.wrap(frame);
+		segmentRows(frame, segmented, 0, frame.height, inputPixel);
+	}
 
-		final int numBands = background.getNumBands()/2;
-
-		float adjustedMinimumDifference = minimumDifference*numBands;
-
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 */
+	protected void segmentRows( Planar<T> frame , GrayU8 segmented , int row0 , int row1 , float[] inputPixel ) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -141,41 +180,73 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
 
-				float mahalanobis = 0;
-				for (int band = 0; band < numBands; band++) {
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
 
-					GrayF32 backgroundMean = background.getBand(band*2);
-					GrayF32 backgroundVar = background.getBand(band*2+1);
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+	}
 
-					float meanBG = backgroundMean.data[indexBG];
-					float varBG = backgroundVar.data[indexBG];
+	/**
+	 * Classifies a pixel using the background model at the specified index
+	 *
+	 * @return 0 = background, 1 = foreground
+	 */
+	private byte classify( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
 
-					float diff = meanBG - inputPixel[band];
-					mahalanobis += diff * diff / varBG;
-				}
+		float mahalanobis = 0;
+		for (int band = 0; band < numBands; band++) {
 
-				if (mahalanobis <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( minimumDifference == 0) {
-						segmented.data[indexSegmented] = 1;
-					} else {
-						float sumAbsDiff = 0;
-						for (int band = 0; band < numBands; band++) {
-							GrayF32 backgroundMean = background.getBand(band*2);
-							sumAbsDiff += Math.abs(backgroundMean.data[indexBG] - inputPixel[band]);
-						}
-						if (sumAbsDiff >= adjustedMinimumDifference)
-							segmented.data[indexSegmented] = 1;
-						else
-							segmented.data[indexSegmented] = 0;
-					}
-				}
+			GrayF32 backgroundMean = background.getBand(band*2);
+			GrayF32 backgroundVar = background.getBand(band*2+1);
 
-				indexInput++;
-				indexSegmented++;
-				indexBG++;
+			float meanBG = backgroundMean.data[indexBG];
+			float varBG = backgroundVar.data[indexBG];
+
+			float diff = meanBG - inputPixel[band];
+			mahalanobis += diff * diff / varBG;
+		}
+
+		if (mahalanobis <= threshold) {
+			return 0;
+		} else {
+			if( minimumDifference == 0) {
+				return 1;
+			} else {
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundMean = background.getBand(band*2);
+					sumAbsDiff += Math.abs(backgroundMean.data[indexBG] - inputPixel[band]);
+				}
+				if (sumAbsDiff >= minimumDifference*numBands)
+					return 1;
+				else
+					return 0;
 			}
 		}
 	}
+
+	/**
+	 * Updates the background model at the specified index
+	 */
+	private void updatePixel( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+
+		for (int band = 0; band < numBands; band++) {
+			GrayF32 backgroundMean = background.getBand(band*2);
+			GrayF32 backgroundVar = background.getBand(band*2+1);
+
+			float inputValue = inputPixel[band];
+			float meanBG = backgroundMean.data[indexBG];
+			float varianceBG = backgroundVar.data[indexBG];
+
+			float diff = meanBG-inputValue;
+			backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+			backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
+		}
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGaussian_PL}. Each pixel's model is independent
+ * so the image is split into bands of rows.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGaussian_PL_MT<T extends ImageGray<T>>
+		extends BackgroundStationaryGaussian_PL<T>
+{
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	// storage for the pixel value in each thread
+	private final FastQueue<float[]> workspace;
+
+	/**
+	 * @see BackgroundStationaryGaussian_PL#BackgroundStationaryGaussian_PL(float, float, ImageType)
+	 */
+	public BackgroundStationaryGaussian_PL_MT(float learnRate, float threshold, ImageType<Planar<T>> imageType) {
+		super(learnRate, threshold, imageType);
+
+		final int numBands = imageType.getNumBands();
+		workspace = new FastQueue<float[]>(float[].class,true) {
+			@Override
+			protected float[] createInstance() {
+				return new float[numBands];
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows( Planar<T> frame , int row0 , int row1 , float[] inputPixel ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(pixel,y0,y1)->
+				super.updateRows(frame,y0,y1,pixel));
+	}
+
+	@Override
+	protected void updateSegmentRows( Planar<T> frame , GrayU8 segment , int row0 , int row1 , float[] inputPixel ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(pixel,y0,y1)->
+				super.updateSegmentRows(frame,segment,y0,y1,pixel));
+	}
+
+	@Override
+	protected void segmentRows( Planar<T> frame , GrayU8 segmented , int row0 , int row1 , float[] inputPixel ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(pixel,y0,y1)->
+				super.segmentRows(frame,segmented,y0,y1,pixel));
+	}
+}
@@ -72,15 +72,69 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		}
 
 		inputWrapper.wrap(frame);
+		updateRows(frame, 0, frame.height);
+	}
+
+	/**
+	 * Updates the background model for rows in the range [row0,row1)
+	 */
+	protected void updateRows( T frame , int row0 , int row1 ) {
+		float minusLearn = 1.0f - learnRate;
+
+		GrayF32 backgroundMean = background.getBand(0);
+		GrayF32 backgroundVar = background.getBand(1);
+
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				float inputValue = inputWrapper.getF(indexInput);
+				float meanBG = backgroundMean.data[indexBG];
+				float varianceBG = backgroundVar.data[indexBG];
+
+				float diff = meanBG-inputValue;
+				backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+				backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
+
+				indexBG++;
+				indexInput++;
+			}
+		}
+	}
 
+	/**
+	 * Segments the image and updates the background in a single pass. Each pixel is segmented using the
+	 * model prior to the update.
+	 */
+	@Override
+	public void updateBackground( T frame , GrayU8 segment ) {
+		segment.reshape(frame.width,frame.height);
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segment, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background, frame);
+
+		inputWrapper.wrap(frame);
+		updateSegmentRows(frame, segment, 0, frame.height);
+	}
+
+	/**
+	 * Segments then updates the background model for rows in the range [row0,row1)
+	 */
+	protected void updateSegmentRows( T frame , GrayU8 segment , int row0 , int row1 ) {
 		float minusLearn = 1.0f - learnRate;
 
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segment.startIndex + y*segment.stride;
 
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
@@ -89,11 +143,14 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 				float varianceBG = backgroundVar.data[indexBG];
 
 				float diff = meanBG-inputValue;
+				segment.data[indexSegmented] = classify(diff, varianceBG);
+
 				backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
 				backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
 
 				indexBG++;
 				indexInput++;
+				indexSegmented++;
 			}
 		}
 	}
@@ -106,12 +163,18 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		}
 		InputSanityCheck.checkSameShape(background,frame,segmented);
 		inputWrapper.wrap(frame);
+		segmentRows(frame, segmented, 0, frame.height);
+	}
 
+	/**
+	 * Segments rows in the range [row0,row1)
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 ) {
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		for (int y = row0; y < row1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -122,17 +185,7 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 				float meanBG = backgroundMean.data[indexBG];
 				float varBG = backgroundVar.data[indexBG];
 
-				float diff = meanBG - pixelFrame;
-				float chisq = diff*diff/varBG;
-
-				if (chisq <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( diff >= minimumDifference || -diff >= minimumDifference )
-						segmented.data[indexSegmented] = 1;
-					else
-						segmented.data[indexSegmented] = 0;
-				}
+				segmented.data[indexSegmented] = classify(meanBG - pixelFrame, varBG);
 
 				indexInput++;
 				indexSegmented++;
@@ -140,4 +193,22 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 			}
 		}
 	}
+
+	/**
+	 * Classifies a pixel given its difference from the background mean and the background variance
+	 *
+	 * @return 0 = background, 1 = foreground
+	 */
+	private byte classify( float diff , float varBG ) {
+		float chisq = diff*diff/varBG;
+
+		if (chisq <= threshold) {
+			return 0;
+		} else {
+			if( diff >= minimumDifference || -diff >= minimumDifference )
+				return 1;
+			else
+				return 0;
+		}
+	}
 }
@@ -21,6 +21,8 @@ package boofcv.alg.background.stationary;
 import boofcv.alg.background.BackgroundAlgorithmGmm;
 import boofcv.alg.background.BackgroundGmmCommon;
 import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.struct.RArray2D_F32;
+import boofcv.struct.RArray2D_S16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -47,7 +49,7 @@ public abstract class BackgroundStationaryGmm< T extends ImageBase<T>>
 
 	@Override
 	public void reset() {
-		common.model.reshape(0, 0);
+		common.reshapeModel(0, 0);
 		common.imageWidth = common.imageHeight = 0;
 	}
 
@@ -68,8 +70,7 @@ public abstract class BackgroundStationaryGmm< T extends ImageBase<T>>
 			common.imageWidth = frame.width;
 			common.imageHeight = frame.height;
 
-			common.model.reshape(frame.height, frame.width*common.modelStride);
-			common.model.zero();
+			common.reshapeModel(frame.height, frame.width*common.modelStride);
 		}
 
 		if( mask != null ) {
@@ -77,6 +78,25 @@ public abstract class BackgroundStationaryGmm< T extends ImageBase<T>>
 		}
 	}
 
+	/**
+	 * Specifies if the model should be stored in a compact format. Each parameter uses 16-bits instead of 32-bits,
+	 * which halves the memory, but parameters are rounded after every update. Weights are stored as fixed-point
+	 * and variances as half-floats. Means are fixed-point with a resolution of 1/256 for 8-bit images and half-floats
+	 * otherwise. Rows are decoded and encoded as they are processed, which adds a small amount of overhead.
+	 * Changing this discards the current model.
+	 */
+	public void setCompactModel( boolean compact ) {
+		common.compact = compact;
+		// release memory used by the previous representation
+		common.model = new RArray2D_F32(0, 0);
+		common.modelCompact = new RArray2D_S16(0, 0);
+		reset();
+	}
+
+	public boolean isCompactModel() {
+		return common.compact;
+	}
+
 	@Override
 	public float getInitialVariance() {
 		return common.initialVariance;
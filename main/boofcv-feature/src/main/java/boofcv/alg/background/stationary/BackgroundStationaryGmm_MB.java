@@ -23,6 +23,7 @@ import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
 
 import javax.annotation.Nullable;
 
@@ -34,6 +35,9 @@ import javax.annotation.Nullable;
 public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		extends BackgroundStationaryGmm<T>
 {
+	// storage for a decoded row when the model is compact
+	protected GrowQueue_F32 rowStorage = new GrowQueue_F32();
+
 	/**
 	 *
 	 * @param learningPeriod Specifies how fast it will adjust to changes in the image. Must be greater than zero.
@@ -56,27 +60,39 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		super.updateBackground(frame, mask);
 
 		common.inputWrapperMB.wrap(frame);
+		updateRows(frame, mask, 0, common.imageHeight, common.inputPixel, rowStorage);
+	}
+
+	/**
+	 * Updates the model for rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 * @param rowStorage Storage for a decoded row in the model
+	 */
+	protected void updateRows( T frame , @Nullable GrayU8 mask , int row0 , int row1 , float[] inputPixel ,
+							   GrowQueue_F32 rowStorage ) {
 		final int pixelStride = common.inputWrapperMB.getPixelStride();
-		for (int row = 0; row < common.imageHeight; row++) {
+		for (int row = row0; row < row1; row++) {
 			int inputIndex = frame.getIndex(0,row);
-			float[] dataRow = common.model.data[row];
+			float[] dataRow = common.decodeRow(row, rowStorage);
 
 			if( mask == null ) {
 				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
+					common.inputWrapperMB.getF(inputIndex,inputPixel);
 					int modelIndex = col * common.modelStride;
 
-					common.updateMixture(common.inputPixel, dataRow, modelIndex);
+					common.updateMixture(inputPixel, dataRow, modelIndex);
 				}
 			} else {
 				int indexMask = mask.startIndex + row*mask.stride;
 				for (int col = 0; col < common.imageWidth; col++, inputIndex += pixelStride) {
-					common.inputWrapperMB.getF(inputIndex,common.inputPixel);
+					common.inputWrapperMB.getF(inputIndex,inputPixel);
 					int modelIndex = col * common.modelStride;
 
-					mask.data[indexMask++] = (byte)common.updateMixture(common.inputPixel, dataRow, modelIndex);
+					mask.data[indexMask++] = (byte)common.updateMixture(inputPixel, dataRow, modelIndex);
 				}
 			}
+			common.encodeRow(row, dataRow);
 		}
 	}
 
@@ -89,17 +105,28 @@ public class BackgroundStationaryGmm_MB<T extends ImageMultiBand<T>>
 		}
 		common.unknownValue = unknownValue;
 		common.inputWrapperMB.wrap(frame);
+		segmentRows(frame, segmented, 0, common.imageHeight, common.inputPixel, rowStorage);
+	}
+
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param inputPixel Storage for a single input pixel
+	 * @param rowStorage Storage for a decoded row in the model
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , float[] inputPixel ,
+								GrowQueue_F32 rowStorage ) {
 		final int pixelStride = common.inputWrapperMB.getPixelStride();
-		for (int row = 0; row < common.imageHeight; row++) {
+		for (int row = row0; row < row1; row++) {
 			int indexIn = frame.getIndex(0,row);
 			int indexOut = segmented.startIndex + row*segmented.stride;
-			float[] dataRow = common.model.data[row];
+			float[] dataRow = common.decodeRow(row, rowStorage);
 
 			for (int col = 0; col < common.imageWidth; col++, indexIn += pixelStride) {
-				common.inputWrapperMB.getF(indexIn,common.inputPixel);
+				common.inputWrapperMB.getF(indexIn,inputPixel);
 				int modelIndex = col * common.modelStride;
 
-				segmented.data[indexOut++] = (byte)common.checkBackground(common.inputPixel, dataRow, modelIndex);
+				segmented.data[indexOut++] = (byte)common.checkBackground(inputPixel, dataRow, modelIndex);
 			}
 		}
 	}
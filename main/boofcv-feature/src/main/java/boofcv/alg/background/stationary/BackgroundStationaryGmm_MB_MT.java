@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGmm_MB}. Each pixel's mixture is independent
+ * so the image is split into bands of rows.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGmm_MB_MT<T extends ImageMultiBand<T>>
+		extends BackgroundStationaryGmm_MB<T>
+{
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 4;
+
+	// storage used by each thread
+	private final FastQueue<BlockWork> workspace;
+
+	/**
+	 * @see BackgroundStationaryGmm_MB#BackgroundStationaryGmm_MB(float, float, int, ImageType)
+	 */
+	public BackgroundStationaryGmm_MB_MT(float learningPeriod, float decayCoef,
+										 int maxGaussians, ImageType<T> imageType )
+	{
+		super(learningPeriod, decayCoef, maxGaussians, imageType);
+
+		final int numBands = imageType.getNumBands();
+		workspace = new FastQueue<BlockWork>(BlockWork.class,true) {
+			@Override
+			protected BlockWork createInstance() {
+				return new BlockWork(numBands);
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows( T frame , @Nullable GrayU8 mask , int row0 , int row1 , float[] inputPixel ,
+							   GrowQueue_F32 rowStorage ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(data,y0,y1)->
+				super.updateRows(frame,mask,y0,y1,data.pixel,data.row));
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 , float[] inputPixel ,
+								GrowQueue_F32 rowStorage ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(data,y0,y1)->
+				super.segmentRows(frame,segmented,y0,y1,data.pixel,data.row));
+	}
+
+	private static class BlockWork {
+		float[] pixel;
+		GrowQueue_F32 row = new GrowQueue_F32();
+
+		BlockWork( int numBands ) {
+			pixel = new float[numBands];
+		}
+	}
+}
@@ -23,6 +23,7 @@ import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
 
 import javax.annotation.Nullable;
 
@@ -34,6 +35,9 @@ import javax.annotation.Nullable;
 public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 		extends BackgroundStationaryGmm<T>
 {
+	// storage for a decoded row when the model is compact
+	protected GrowQueue_F32 rowStorage = new GrowQueue_F32();
+
 	/**
 	 *
 	 * @param learningPeriod Specifies how fast it will adjust to changes in the image. Must be greater than zero.
@@ -52,9 +56,19 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 		super.updateBackground(frame, mask);
 
 		common.inputWrapperG.wrap(frame);
-		for (int row = 0; row < common.imageHeight; row++) {
+		updateRows(frame, mask, 0, common.imageHeight, rowStorage);
+	}
+
+	/**
+	 * Updates the model for rows in the range [row0,row1)
+	 *
+	 * @param rowStorage Storage for a decoded row in the model
+	 */
+	protected void updateRows( T frame , @Nullable GrayU8 mask , int row0 , int row1 ,
+							   GrowQueue_F32 rowStorage ) {
+		for (int row = row0; row < row1; row++) {
 			int inputIndex = frame.startIndex + row*frame.stride;
-			float[] dataRow = common.model.data[row];
+			float[] dataRow = common.decodeRow(row, rowStorage);
 
 			if( mask == null ) {
 				for (int col = 0; col < common.imageWidth; col++) {
@@ -72,6 +86,7 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 					mask.data[indexMask++] = (byte)common.updateMixture(pixelValue, dataRow, modelIndex);
 				}
 			}
+			common.encodeRow(row, dataRow);
 		}
 	}
 
@@ -85,10 +100,20 @@ public class BackgroundStationaryGmm_SB<T extends ImageGray<T>>
 
 		common.unknownValue = unknownValue;
 		common.inputWrapperG.wrap(frame);
-		for (int row = 0; row < common.imageHeight; row++) {
+		segmentRows(frame, segmented, 0, common.imageHeight, rowStorage);
+	}
+
+	/**
+	 * Segments rows in the range [row0,row1)
+	 *
+	 * @param rowStorage Storage for a decoded row in the model
+	 */
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 ,
+								GrowQueue_F32 rowStorage ) {
+		for (int row = row0; row < row1; row++) {
 			int indexIn = frame.startIndex + row*frame.stride;
 			int indexOut = segmented.startIndex + row*segmented.stride;
-			float[] dataRow = common.model.data[row];
+			float[] dataRow = common.decodeRow(row, rowStorage);
 
 			for (int col = 0; col < common.imageWidth; col++) {
 				float pixelValue = common.inputWrapperG.getF(indexIn++);
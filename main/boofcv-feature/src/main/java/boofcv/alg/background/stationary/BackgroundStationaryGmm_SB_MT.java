@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGmm_SB}. Each pixel's mixture is independent
+ * so the image is split into bands of rows.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGmm_SB_MT<T extends ImageGray<T>>
+		extends BackgroundStationaryGmm_SB<T>
+{
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 4;
+
+	// storage for a decoded row in each thread
+	private final FastQueue<GrowQueue_F32> workspace = new FastQueue<>(GrowQueue_F32.class,true);
+
+	/**
+	 * @see BackgroundStationaryGmm_SB#BackgroundStationaryGmm_SB(float, float, int, ImageType)
+	 */
+	public BackgroundStationaryGmm_SB_MT(float learningPeriod, float decayCoef,
+										 int maxGaussians, ImageType<T> imageType )
+	{
+		super(learningPeriod, decayCoef, maxGaussians, imageType);
+	}
+
+	@Override
+	protected void updateRows( T frame , @Nullable GrayU8 mask , int row0 , int row1 ,
+							   GrowQueue_F32 rowStorage ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(storage,y0,y1)->
+				super.updateRows(frame,mask,y0,y1,storage));
+	}
+
+	@Override
+	protected void segmentRows( T frame , GrayU8 segmented , int row0 , int row1 ,
+								GrowQueue_F32 rowStorage ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(storage,y0,y1)->
+				super.segmentRows(frame,segmented,y0,y1,storage));
+	}
+}
@@ -27,6 +27,8 @@ import boofcv.struct.image.*;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 
+import java.util.List;
+
 /**
  * Base calss for dense HOG implementations.
  *
@@ -40,12 +42,17 @@ public abstract class BaseDenseHog<I extends ImageBase<I>> {
 	protected GrayF32 derivX = new GrayF32(1,1);
 	protected GrayF32 derivY = new GrayF32(1,1);
 
-	// Storage for descriptors
+	// Storage for descriptors. One TupleDesc_F64 for each location in the grid, row-major order. The descriptors
+	// are not packed into a single array because TupleDesc_F64 can't reference a sub-array and
+	// DescribeImageDense returns a list of TupleDesc_F64
 	FastQueue<TupleDesc_F64> descriptions;
 
 	// Location of each descriptor in the image, top-left corner (lower extents)
 	FastQueue<Point2D_I32> locations = new FastQueue<>(Point2D_I32.class, true);
 
+	// number of rows and columns in the grid of descriptors
+	int gridRows,gridCols;
+
 	int orientationBins; // number of orientation bins computed in a block
 	int pixelsPerCell; // number of pixels wide a cell is
 	int cellsPerBlockX;  // number of cells wide a block is
@@ -132,6 +139,69 @@ public abstract class BaseDenseHog<I extends ImageBase<I>> {
 
 	public abstract void process();
 
+	/**
+	 * Computes the shape of the regular grid that descriptors are computed in, declares storage for every
+	 * descriptor in the grid, and saves the location of each descriptor. Descriptors are stored in a row-major order.
+	 */
+	protected void declareGrid() {
+		gridRows = numberOfBlocks(derivX.height/pixelsPerCell, cellsPerBlockY);
+		gridCols = numberOfBlocks(derivX.width/pixelsPerCell, cellsPerBlockX);
+
+		descriptions.resize(gridRows*gridCols);
+		locations.resize(gridRows*gridCols);
+
+		int stepPixels = stepBlock*pixelsPerCell;
+		int index = 0;
+		for (int row = 0; row < gridRows; row++) {
+			for (int col = 0; col < gridCols; col++) {
+				locations.get(index++).set(col*stepPixels, row*stepPixels);
+			}
+		}
+	}
+
+	/**
+	 * Number of blocks which can fit along an axis with the specified number of cells
+	 */
+	private int numberOfBlocks( int cells , int cellsPerBlock ) {
+		int available = cells - cellsPerBlock + 1;
+		if( available <= 0 )
+			return 0;
+		return (available + stepBlock - 1)/stepBlock;
+	}
+
+	/**
+	 * Convenience function which returns a list of all the descriptors computed inside the specified region in
+	 * the image. References to the descriptors are returned and not copies.
+	 *
+	 * @param pixelX0 Pixel coordinate X-axis lower extent
+	 * @param pixelY0 Pixel coordinate Y-axis lower extent
+	 * @param pixelX1 Pixel coordinate X-axis upper extent
+	 * @param pixelY1 Pixel coordinate Y-axis upper extent
+	 * @param output List of descriptions
+	 */
+	public void getDescriptorsInRegion(int pixelX0 , int pixelY0 , int pixelX1 , int pixelY1 ,
+									   List<TupleDesc_F64> output ) {
+		// range of cells which a descriptor can start at
+		int cellX0 = Math.max(0,(int)Math.ceil(pixelX0/(double) pixelsPerCell));
+		int cellY0 = Math.max(0,(int)Math.ceil(pixelY0/(double) pixelsPerCell));
+
+		int cellX1 = pixelX1/ pixelsPerCell - cellsPerBlockX;
+		int cellY1 = pixelY1/ pixelsPerCell - cellsPerBlockY;
+
+		// convert into descriptor grid coordinates
+		int gridX0 = (cellX0 + stepBlock - 1)/stepBlock;
+		int gridY0 = (cellY0 + stepBlock - 1)/stepBlock;
+		int gridX1 = Math.min(gridCols-1, Math.floorDiv(cellX1,stepBlock));
+		int gridY1 = Math.min(gridRows-1, Math.floorDiv(cellY1,stepBlock));
+
+		for (int y = gridY0; y <= gridY1; y++) {
+			int index = y*gridCols + gridX0;
+			for (int x = gridX0; x <= gridX1; x++ ) {
+				output.add( descriptions.get(index++) );
+			}
+		}
+	}
+
 	/**
 	 * List of locations for each descriptor.
 	 */
@@ -166,6 +236,20 @@ public abstract class BaseDenseHog<I extends ImageBase<I>> {
 		return pixelsPerCell * cellsPerBlockY;
 	}
 
+	/**
+	 * Number of rows in the grid of descriptors
+	 */
+	public int getGridRows() {
+		return gridRows;
+	}
+
+	/**
+	 * Number of columns in the grid of descriptors
+	 */
+	public int getGridCols() {
+		return gridCols;
+	}
+
 	public int getPixelsPerCell() {
 		return pixelsPerCell;
 	}
@@ -26,6 +26,7 @@ import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_I32;
 import org.ddogleg.stats.UtilGaussian;
 
 import java.util.Arrays;
@@ -89,9 +90,6 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	protected GrayF32 orientation = new GrayF32(1,1);
 	protected GrayF64 magnitude = new GrayF64(1,1); // stored as F64 instead of F32 for speed
 
-	// the active histogram being worked on
-	double histogram[];
-
 	// spatial weights applied to each in a block
 	// stored in a row major order
 	double weights[];
@@ -176,8 +174,18 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	/**
 	 * Computes the orientation and magnitude of each pixel
 	 */
-	private void computePixelFeatures() {
-		for (int y = 0; y < derivX.height; y++) {
+	void computePixelFeatures() {
+		computePixelFeatures(0, derivX.height);
+	}
+
+	/**
+	 * Computes the orientation and magnitude of each pixel inside the specified range of rows
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void computePixelFeatures( int row0 , int row1 ) {
+		for (int y = row0; y < row1; y++) {
 			int pixelIndex = y*derivX.width;
 			int endIndex = pixelIndex+derivX.width;
 			for (; pixelIndex < endIndex; pixelIndex++ ) {
@@ -197,32 +205,34 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 */
 	@Override
 	public void process() {
-		locations.reset();
-		descriptions.reset();
-
-		int stepBlockPixelsX = pixelsPerCell *stepBlock;
-		int stepBlockPixelsY = pixelsPerCell *stepBlock;
-
-		int maxY = derivX.height - pixelsPerCell * cellsPerBlockY + 1;
-		int maxX = derivX.width - pixelsPerCell * cellsPerBlockX + 1;
+		declareGrid();
+		computeDescriptors(0, gridRows);
+	}
 
-		for (int y = 0; y < maxY; y += stepBlockPixelsY ) {
-			for (int x = 0; x < maxX; x += stepBlockPixelsX ) {
-				TupleDesc_F64 d = descriptions.grow();
+	/**
+	 * Computes the descriptors inside the specified range of rows in the descriptor grid
+	 *
+	 * @param gridRow0 First row in the grid, inclusive
+	 * @param gridRow1 Last row in the grid, exclusive
+	 */
+	protected void computeDescriptors( int gridRow0 , int gridRow1 ) {
+		for (int row = gridRow0; row < gridRow1; row++) {
+			int index = row*gridCols;
+			for (int col = 0; col < gridCols; col++, index++) {
+				Point2D_I32 p = locations.get(index);
+				TupleDesc_F64 d = descriptions.get(index);
 				Arrays.fill(d.value,0);
-				histogram = d.value;
 
 				for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
 					int blockPixelRow = cellRow* pixelsPerCell;
 					for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
 						int blockPixelCol = cellCol* pixelsPerCell;
 
-						computeCellHistogram(x+blockPixelCol, y+blockPixelRow, cellCol, cellRow);
+						computeCellHistogram(p.x+blockPixelCol, p.y+blockPixelRow, cellCol, cellRow, d.value);
 					}
 				}
 
 				DescribeSiftCommon.normalizeDescriptor(d,0.2);
-				locations.grow().set(x,y);
 			}
 		}
 	}
@@ -233,9 +243,10 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 * @param pixelY0 cell's lower extent y-axis in the image
 	 * @param cellX Location of the cell in the block x-axis
 	 * @param cellY Location of the cell in the block y-axis
+	 * @param histogram (Output) histogram for the entire block
 	 */
 	void computeCellHistogram(int pixelX0 , int pixelY0 ,
-							  int cellX , int cellY ) {
+							  int cellX , int cellY , double[] histogram ) {
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
@@ -289,32 +300,32 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 				// spatial bilinear interpolation + orientation linear interpolation
 				// + gaussian weighting (previously applied)
-				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0);
-				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0);
+				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0, histogram);
+				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0, histogram);
 
-				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0);
-				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0);
+				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0, histogram);
+				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0, histogram);
 
-				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0);
-				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0);
+				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0, histogram);
+				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0, histogram);
 
-				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1);
-				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1);
+				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1, histogram);
+				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1, histogram);
 
-				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1);
-				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1);
+				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1, histogram);
+				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1, histogram);
 
-				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1);
-				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1);
+				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1, histogram);
+				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1, histogram);
 
-				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2);
-				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2);
+				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2, histogram);
+				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2, histogram);
 
-				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2);
-				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2);
+				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2, histogram);
+				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2, histogram);
 
-				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2);
-				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2);
+				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2, histogram);
+				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2, histogram);
 
 			}
 		}
@@ -326,8 +337,9 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 * @param cellY cell coordinate
 	 * @param orientationIndex orientation coordinate
 	 * @param magnitude edge magnitude
+	 * @param histogram (Output) histogram for the entire block
 	 */
-	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude) {
+	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude, double[] histogram) {
 		// see if it's being applied to a valid cell in the histogram
 		if( cellX < 0 || cellX >= cellsPerBlockX)
 			return;
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogAlg}. Pixel orientation and magnitude are computed in
+ * parallel bands of image rows. Descriptors, including their normalization, are computed in parallel bands
+ * of rows in the descriptor grid. Each descriptor is written directly into its location in the grid.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogAlg<Input> {
+	// Minimum number of image rows processed by a thread
+	public static int MIN_BAND = 20;
+	// Minimum number of rows in the descriptor grid processed by a thread
+	public static int MIN_BAND_GRID = 1;
+
+	/**
+	 * @see DescribeDenseHogAlg#DescribeDenseHogAlg
+	 */
+	public DescribeDenseHogAlg_MT(int orientationBins, int pixelsPerCell, int cellsPerBlockX, int cellsPerBlockY,
+								  int stepBlock, ImageType<Input> imageType)
+	{
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	protected void computePixelFeatures(int row0, int row1) {
+		BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, super::computePixelFeatures);
+	}
+
+	@Override
+	protected void computeDescriptors(int gridRow0, int gridRow1) {
+		BoofConcurrency.loopBlocks(gridRow0, gridRow1, MIN_BAND_GRID, super::computeDescriptors);
+	}
+}
@@ -27,7 +27,6 @@ import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
 
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * <p>
@@ -78,23 +77,12 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 */
 	@Override
 	public void process() {
-		locations.reset();
-		descriptions.reset();
-
 		// see if the cell array needs to grow for this image.  Recycle data when growing
 		growCellArray(derivX.width, derivX.height);
+		declareGrid();
 
 		computeCellHistograms();
-
-		int cellRowMax = (cellRows - (cellsPerBlockY -1));
-		int cellColMax = (cellCols - (cellsPerBlockX -1));
-
-		for (int i = 0; i < cellRowMax; i += stepBlock) {
-			for (int j = 0; j < cellColMax; j += stepBlock) {
-				computeDescriptor(i,j);
-			}
-		}
-
+		computeDescriptors(0, gridRows);
 	}
 
 	/**
@@ -118,26 +106,16 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	}
 
 	/**
-	 * Convenience function which returns a list of all the descriptors computed inside the specified region in the image
+	 * Computes the descriptors inside the specified range of rows in the descriptor grid
 	 *
-	 * @param pixelX0 Pixel coordinate X-axis lower extent
-	 * @param pixelY0 Pixel coordinate Y-axis lower extent
-	 * @param pixelX1 Pixel coordinate X-axis upper extent
-	 * @param pixelY1 Pixel coordinate Y-axis upper extent
-	 * @param output List of descriptions
+	 * @param gridRow0 First row in the grid, inclusive
+	 * @param gridRow1 Last row in the grid, exclusive
 	 */
-	public void getDescriptorsInRegion(int pixelX0 , int pixelY0 , int pixelX1 , int pixelY1 ,
-									   List<TupleDesc_F64> output ) {
-		int gridX0 = (int)Math.ceil(pixelX0/(double) pixelsPerCell);
-		int gridY0 = (int)Math.ceil(pixelY0/(double) pixelsPerCell);
-
-		int gridX1 = pixelX1/ pixelsPerCell - cellsPerBlockX;
-		int gridY1 = pixelY1/ pixelsPerCell - cellsPerBlockY;
-
-		for (int y = gridY0; y <= gridY1; y++) {
-			int index = y*cellCols + gridX0;
-			for (int x = gridX0; x <= gridX1; x++ ) {
-				output.add( descriptions.get(index++) );
+	protected void computeDescriptors( int gridRow0 , int gridRow1 ) {
+		for (int row = gridRow0; row < gridRow1; row++) {
+			int index = row*gridCols;
+			for (int col = 0; col < gridCols; col++) {
+				computeDescriptor(row*stepBlock, col*stepBlock, descriptions.get(index++));
 			}
 		}
 	}
@@ -146,13 +124,9 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 * Compute the descriptor from the specified cells.  (row,col) to (row+w,col+w)
 	 * @param row Lower extent of cell rows
 	 * @param col Lower extent of cell columns
+	 * @param d (Output) storage for the descriptor
 	 */
-	void computeDescriptor(int row, int col) {
-		// set location to top-left pixel
-		locations.grow().set(col* pixelsPerCell,row* pixelsPerCell);
-
-		TupleDesc_F64 d = descriptions.grow();
-
+	void computeDescriptor(int row, int col, TupleDesc_F64 d) {
 		int indexDesc = 0;
 		for (int i = 0; i < cellsPerBlockY; i++) {
 			for (int j = 0; j < cellsPerBlockX; j++) {
@@ -170,17 +144,26 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 
 	/**
 	 * Compute histograms for all the cells inside the image using precomputed derivative.
-
 	 */
 	void computeCellHistograms() {
+		computeCellHistograms(0, cellRows);
+	}
+
+	/**
+	 * Compute histograms for the cells inside the specified range of cell rows
+	 *
+	 * @param cellRow0 First row of cells, inclusive
+	 * @param cellRow1 Last row of cells, exclusive
+	 */
+	protected void computeCellHistograms( int cellRow0 , int cellRow1 ) {
 
 		int width = cellCols* pixelsPerCell;
-		int height = cellRows* pixelsPerCell;
+		int height = cellRow1* pixelsPerCell;
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
-		int indexCell = 0;
-		for (int i = 0; i < height; i += pixelsPerCell) {
+		int indexCell = cellRow0*cellCols;
+		for (int i = cellRow0*pixelsPerCell; i < height; i += pixelsPerCell) {
 			for (int j = 0; j < width; j += pixelsPerCell, indexCell++ ) {
 				Cell c = cells[indexCell];
 				c.reset();
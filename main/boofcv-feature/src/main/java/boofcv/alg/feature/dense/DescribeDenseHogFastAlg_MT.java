@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogFastAlg}. Cell histograms are computed in parallel bands of
+ * cell rows. Once all the cells are known, descriptors are computed and normalized in parallel bands of rows in
+ * the descriptor grid. Each descriptor is written directly into its location in the grid.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogFastAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogFastAlg<Input> {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 2;
+
+	/**
+	 * @see DescribeDenseHogFastAlg#DescribeDenseHogFastAlg
+	 */
+	public DescribeDenseHogFastAlg_MT(int orientationBins, int pixelsPerCell, int cellsPerBlockX, int cellsPerBlockY,
+									  int stepBlock, ImageType<Input> imageType)
+	{
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	protected void computeCellHistograms(int cellRow0, int cellRow1) {
+		BoofConcurrency.loopBlocks(cellRow0, cellRow1, MIN_BAND, super::computeCellHistograms);
+	}
+
+	@Override
+	protected void computeDescriptors(int gridRow0, int gridRow1) {
+		BoofConcurrency.loopBlocks(gridRow0, gridRow1, MIN_BAND, super::computeDescriptors);
+	}
+}
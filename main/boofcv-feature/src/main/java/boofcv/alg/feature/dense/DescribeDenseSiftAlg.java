@@ -63,6 +63,9 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	// saved location of where in the image it sampled
 	FastQueue<Point2D_I32> sampleLocations = new FastQueue<>(Point2D_I32.class, true);
 
+	// number of samples along each axis
+	int numX,numY;
+
 	/**
 	 * Specifies SIFT descriptor structure and sampling frequency.
 	 * @param widthSubregion Width of sub-region in samples.  Try 4
@@ -125,22 +128,37 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 		int X0 = radius,X1 = savedAngle.width-radius;
 		int Y0 = radius,Y1 = savedAngle.height-radius;
 
-		int numX = (int)((X1-X0)/periodColumns);
-		int numY = (int)((Y1-Y0)/periodRows);
+		numX = (int)((X1-X0)/periodColumns);
+		numY = (int)((Y1-Y0)/periodRows);
+
+		descriptors.resize(numX*numY);
+		sampleLocations.resize(numX*numY);
+
+		computeDescriptors(0, numY);
+	}
+
+	/**
+	 * Computes the descriptors inside the specified range of sample rows
+	 *
+	 * @param row0 First row of samples, inclusive
+	 * @param row1 Last row of samples, exclusive
+	 */
+	protected void computeDescriptors( int row0 , int row1 ) {
+		int width = widthSubregion*widthGrid;
+		int radius = width/2;
 
-		descriptors.reset();
-		sampleLocations.reset();
+		int X0 = radius,X1 = savedAngle.width-radius;
+		int Y0 = radius,Y1 = savedAngle.height-radius;
 
-		for (int i = 0; i < numY; i++) {
+		for (int i = row0; i < row1; i++) {
 			int y = (Y1-Y0)*i/(numY-1) + Y0;
+			int index = i*numX;
 
-			for (int j = 0; j < numX; j++) {
+			for (int j = 0; j < numX; j++, index++) {
 				int x = (X1-X0)*j/(numX-1) + X0;
 
-				TupleDesc_F64 desc = descriptors.grow();
-
-				computeDescriptor(x,y,desc);
-				sampleLocations.grow().set(x,y);
+				computeDescriptor(x,y,descriptors.get(index));
+				sampleLocations.get(index).set(x,y);
 			}
 		}
 	}
@@ -149,8 +167,18 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	 * Computes the angle of each pixel and its gradient magnitude
 	 */
 	void precomputeAngles(D image) {
-		int savecIndex = 0;
-		for (int y = 0; y < image.height; y++) {
+		precomputeAngles(image, 0, image.height);
+	}
+
+	/**
+	 * Computes the angle of each pixel and its gradient magnitude inside the specified range of rows
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void precomputeAngles(D image, int row0 , int row1 ) {
+		int savecIndex = row0*image.width;
+		for (int y = row0; y < row1; y++) {
 			int pixelIndex = y*image.stride + image.startIndex;
 
 			for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++ ) {
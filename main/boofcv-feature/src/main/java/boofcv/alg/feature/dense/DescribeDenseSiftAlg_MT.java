@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseSiftAlg}. Pixel angles and magnitudes are computed in parallel
+ * bands of image rows and descriptors are computed in parallel bands of sample rows.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseSiftAlg_MT<D extends ImageGray<D>> extends DescribeDenseSiftAlg<D> {
+	// Minimum number of image rows processed by a thread
+	public static int MIN_BAND = 20;
+	// Minimum number of sample rows processed by a thread
+	public static int MIN_BAND_SAMPLES = 1;
+
+	/**
+	 * @see DescribeDenseSiftAlg#DescribeDenseSiftAlg
+	 */
+	public DescribeDenseSiftAlg_MT(int widthSubregion, int widthGrid, int numHistogramBins,
+								   double weightingSigmaFraction, double maxDescriptorElementValue,
+								   double periodColumns, double periodRows, Class<D> derivType) {
+		super(widthSubregion, widthGrid, numHistogramBins, weightingSigmaFraction, maxDescriptorElementValue,
+				periodColumns, periodRows, derivType);
+	}
+
+	@Override
+	protected void precomputeAngles(D image, int row0, int row1) {
+		BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, (y0,y1)->super.precomputeAngles(image,y0,y1));
+	}
+
+	@Override
+	protected void computeDescriptors(int row0, int row1) {
+		BoofConcurrency.loopBlocks(row0, row1, MIN_BAND_SAMPLES, super::computeDescriptors);
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftDetector;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CompleteSift}. Work is parallelized at three levels inside each octave:
+ * </p>
+ * <ol>
+ * <li>Gaussian and DoG images are computed concurrently by the scale-space, e.g. {@link boofcv.alg.feature.detect.interest.SiftScaleSpace_MT}</li>
+ * <li>Extremum search and the image gradient are computed for each DoG scale in its own thread</li>
+ * <li>Orientation and description of the found key points is done in parallel batches</li>
+ * </ol>
+ * <p>
+ * Each thread has its own copy of the extractor, orientation, and describe algorithms. Results are combined in the
+ * same order they would have been found by the single threaded implementation, making the output identical
+ * to {@link CompleteSift}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	// Detects features inside a single DoG scale and computes the gradient for that scale
+	FastQueue<ScaleWorker> scaleWorkers;
+	// Estimates orientation and describes key points in a block of detections
+	FastQueue<DescribeWorker> describeWorkers;
+
+	// detections in the current octave and the index of the scale worker they came from
+	FastQueue<ScalePoint> octaveDetections = new FastQueue<>(ScalePoint.class, false);
+	GrowQueue_I32 octaveScaleIndex = new GrowQueue_I32();
+
+	/**
+	 * Configures SIFT
+	 *
+	 * @param scaleSpace Scale-space that features are computed inside of
+	 * @param edgeR Edge threshold.  See {@link SiftDetector#SiftDetector(SiftScaleSpace, double, NonMaxLimiter)}
+	 * @param factoryExtractor Creates a new instance of the extractor for each thread
+	 * @param factoryOrientation Creates a new instance of the orientation estimator for each thread
+	 * @param factoryDescribe Creates a new instance of the describe algorithm for each thread
+	 */
+	public CompleteSift_MT(final SiftScaleSpace scaleSpace, final double edgeR,
+						   final BoofLambdas.Factory<NonMaxLimiter> factoryExtractor,
+						   final BoofLambdas.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation,
+						   final BoofLambdas.Factory<DescribePointSift<GrayF32>> factoryDescribe) {
+		super(scaleSpace, edgeR, factoryExtractor.newInstance(),
+				factoryOrientation.newInstance(), factoryDescribe.newInstance());
+
+		scaleWorkers = new FastQueue<ScaleWorker>(scaleSpace.getNumScales(),ScaleWorker.class,true) {
+			@Override
+			protected ScaleWorker createInstance() {
+				return new ScaleWorker(scaleSpace,edgeR,factoryExtractor.newInstance());
+			}
+		};
+		scaleWorkers.resize(scaleSpace.getNumScales());
+
+		final int dof = describe.getDescriptorLength();
+		describeWorkers = new FastQueue<DescribeWorker>(1,DescribeWorker.class,true) {
+			@Override
+			protected DescribeWorker createInstance() {
+				return new DescribeWorker(factoryOrientation.newInstance(),factoryDescribe.newInstance(),dof);
+			}
+		};
+	}
+
+	@Override
+	public void process(GrayF32 input) {
+		features.reset();
+		locations.reset();
+		orientations.reset();
+		detections.reset();
+
+		scaleSpace.initialize(input);
+		final int numScales = scaleSpace.getNumScales();
+
+		do {
+			pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+			// Each DoG scale is searched independently
+			BoofConcurrency.loopFor(0, numScales, i -> scaleWorkers.get(i).process(i+1));
+
+			// Combine the detections in the same order as the single threaded algorithm
+			octaveDetections.reset();
+			octaveScaleIndex.reset();
+			for (int i = 0; i < numScales; i++) {
+				FastQueue<ScalePoint> found = scaleWorkers.get(i).getDetections();
+				for (int j = 0; j < found.size; j++) {
+					ScalePoint p = detections.grow();
+					p.set(found.get(j));
+					octaveDetections.add(p);
+					octaveScaleIndex.add(i);
+				}
+			}
+
+			// Orientation and description is the most expensive step and done in batches
+			BoofConcurrency.loopBlocks(0, octaveDetections.size, describeWorkers,
+					(worker, idx0, idx1) -> worker.process(idx0, idx1));
+
+			// Add the results from each block in order
+			for (int blockIdx = 0; blockIdx < describeWorkers.size; blockIdx++) {
+				DescribeWorker worker = describeWorkers.get(blockIdx);
+				for (int i = 0; i < worker.features.size; i++) {
+					features.grow().setTo(worker.features.get(i));
+					orientations.add(worker.orientations.get(i));
+					locations.add(octaveDetections.get(worker.detectionIndex.get(i)));
+				}
+			}
+		} while( scaleSpace.computeNextOctave() );
+	}
+
+	/**
+	 * Detects features inside of a single DoG image and computes the image gradient of the scale image
+	 */
+	static class ScaleWorker extends SiftDetector {
+		// used to compute the image gradient
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.three(GrayF32.class,null);
+
+		// spacial derivative for the scale
+		GrayF32 derivX = new GrayF32(1,1);
+		GrayF32 derivY = new GrayF32(1,1);
+
+		ScaleWorker(SiftScaleSpace scaleSpace, double edgeR, NonMaxLimiter extractor) {
+			super(scaleSpace, edgeR, extractor);
+		}
+
+		void process( int scaleIndex ) {
+			detections.reset();
+			setupLocalScaleSpace(scaleIndex);
+			detectFeatures(scaleIndex);
+
+			GrayF32 input = scaleSpace.getImageScale(scaleIndex);
+			derivX.reshape(input.width,input.height);
+			derivY.reshape(input.width,input.height);
+			gradient.process(input,derivX,derivY);
+		}
+	}
+
+	/**
+	 * Computes the orientation and describes detections in a range of the detections list
+	 */
+	class DescribeWorker {
+		OrientationHistogramSift<GrayF32> orientation;
+		DescribePointSift<GrayF32> describe;
+
+		// storage for found features, their orientation, and which detection they came from
+		FastQueue<BrightFeature> features;
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_I32 detectionIndex = new GrowQueue_I32();
+
+		DescribeWorker(OrientationHistogramSift<GrayF32> orientation,
+					   DescribePointSift<GrayF32> describe, final int dof ) {
+			this.orientation = orientation;
+			this.describe = describe;
+			features = new FastQueue<BrightFeature>(BrightFeature.class,true) {
+				@Override
+				protected BrightFeature createInstance() {
+					return new BrightFeature(dof);
+				}
+			};
+		}
+
+		void process( int idx0 , int idx1 ) {
+			features.reset();
+			orientations.reset();
+			detectionIndex.reset();
+
+			int previousScale = -1;
+			for (int detIdx = idx0; detIdx < idx1; detIdx++) {
+				int scaleIdx = octaveScaleIndex.get(detIdx);
+				if( scaleIdx != previousScale ) {
+					ScaleWorker scale = scaleWorkers.get(scaleIdx);
+					orientation.setImageGradient(scale.derivX,scale.derivY);
+					describe.setImageGradient(scale.derivX,scale.derivY);
+					previousScale = scaleIdx;
+				}
+
+				ScalePoint p = octaveDetections.get(detIdx);
+
+				// adjust the image for the down sampling in each octave
+				double localX = p.x / pixelScaleToInput;
+				double localY = p.y / pixelScaleToInput;
+				double localSigma = p.scale / pixelScaleToInput;
+
+				// find potential orientations first
+				orientation.process(localX,localY,localSigma);
+
+				// describe each feature
+				GrowQueue_F64 angles = orientation.getOrientations();
+				for (int i = 0; i < angles.size; i++) {
+					BrightFeature feature = features.grow();
+					feature.white = p.white;
+					describe.process(localX,localY,localSigma,angles.get(i),feature);
+
+					orientations.add(angles.get(i));
+					detectionIndex.add(detIdx);
+				}
+			}
+		}
+	}
+}
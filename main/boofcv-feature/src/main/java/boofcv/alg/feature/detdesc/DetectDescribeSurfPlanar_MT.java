@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurfPlanar;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link DetectDescribeSurfPlanar}. Orientation estimation and description
+ * of detected features is done in parallel, with each thread having its own copy of the orientation and
+ * describe algorithms. Output is identical to the single threaded version.
+ *
+ * @param <II> Type of integral image
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeSurfPlanar_MT<II extends ImageGray<II>> extends DetectDescribeSurfPlanar<II>
+{
+	// Storage for each thread
+	FastQueue<ThreadData<II>> threadData;
+
+	public DetectDescribeSurfPlanar_MT(FastHessianFeatureDetector<II> detector,
+									   final BoofLambdas.Factory<OrientationIntegral<II>> factoryOrientation,
+									   final BoofLambdas.Factory<DescribePointSurfPlanar<II>> factoryDescribe)
+	{
+		super(detector, factoryOrientation.newInstance(), factoryDescribe.newInstance());
+
+		threadData = new FastQueue<ThreadData<II>>(1,(Class)ThreadData.class,true) {
+			@Override
+			protected ThreadData<II> createInstance() {
+				return new ThreadData<>(factoryOrientation.newInstance(),factoryDescribe.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void detect( II grayII , Planar<II> colorII ) {
+
+		// detect features
+		detector.detect(grayII);
+
+		// describe the found interest points
+		foundPoints = detector.getFoundPoints();
+		descriptions.resize(foundPoints.size());
+		featureAngles.resize(foundPoints.size());
+
+		BoofConcurrency.loopBlocks(0,foundPoints.size(),threadData,(data,idx0,idx1)->{
+			data.orientation.setImage(grayII);
+			data.describe.setImage(grayII,colorII);
+
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = foundPoints.get(i);
+				data.orientation.setObjectRadius(p.scale);
+				double angle = data.orientation.compute(p.x,p.y);
+
+				data.describe.describe(p.x, p.y, angle, p.scale, descriptions.get(i));
+				featureAngles.data[i] = angle;
+			}
+		});
+	}
+
+	/**
+	 * Algorithms used by a single thread
+	 */
+	static class ThreadData<II extends ImageGray<II>> {
+		OrientationIntegral<II> orientation;
+		DescribePointSurfPlanar<II> describe;
+
+		ThreadData(OrientationIntegral<II> orientation, DescribePointSurfPlanar<II> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
+}
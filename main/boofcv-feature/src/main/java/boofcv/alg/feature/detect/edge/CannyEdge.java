@@ -45,10 +45,10 @@ import java.util.List;
 public class CannyEdge<T extends ImageGray<T>, D extends ImageGray<D>> {
 
 	// blurs the input image
-	private BlurFilter<T> blur;
+	protected BlurFilter<T> blur;
 
 	// computes the image gradient
-	private ImageGradient<T,D> gradient;
+	protected ImageGradient<T,D> gradient;
 
 	// blurred input image
 	private T blurred;
@@ -63,7 +63,7 @@ public class CannyEdge<T extends ImageGray<T>, D extends ImageGray<D>> {
 	// edge direction in radians
 	private GrayF32 angle = new GrayF32(1,1);
 	// quantized direction
-	private GrayS8 direction = new GrayS8(1,1);
+	protected GrayS8 direction = new GrayS8(1,1);
 	// work space
 	private GrayU8 work = new GrayU8(1,1);
 
@@ -118,25 +118,34 @@ public class CannyEdge<T extends ImageGray<T>, D extends ImageGray<D>> {
 				throw new IllegalArgumentException("An output image must be specified when configured to mark edge points");
 		}
 
+		// run canny edge detector
+		computeEdgeIntensity(input);
+
+		performThresholding(threshLow, threshHigh, output);
+	}
+
+	/**
+	 * Computes the edge intensity after non-maximum suppression and the discretized edge direction
+	 *
+	 * @param input Input image. Not modified.
+	 */
+	protected void computeEdgeIntensity( T input ) {
 		// setup internal data structures
+		suppressed.reshape(input.width,input.height);
+		direction.reshape(input.width,input.height);
 		blurred.reshape(input.width,input.height);
 		derivX.reshape(input.width,input.height);
 		derivY.reshape(input.width,input.height);
 		intensity.reshape(input.width,input.height);
-		suppressed.reshape(input.width,input.height);
 		angle.reshape(input.width,input.height);
-		direction.reshape(input.width,input.height);
 		work.reshape(input.width,input.height);
 
-		// run canny edge detector
 		blur.process(input,blurred);
 		gradient.process(blurred, derivX, derivY);
 		GGradientToEdgeFeatures.intensityAbs(derivX, derivY, intensity);
 		GGradientToEdgeFeatures.direction(derivX, derivY, angle);
 		GradientToEdgeFeatures.discretizeDirection4(angle, direction);
 		GradientToEdgeFeatures.nonMaxSuppression4(intensity, direction, suppressed);
-
-		performThresholding(threshLow, threshHigh, output);
 	}
 
 	protected void performThresholding(float threshLow, float threshHigh, GrayU8 output) {
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CannyEdge}. The image is split into bands of rows. Each thread runs
+ * blur, gradient, edge intensity, direction, and non-maximum suppression on its band, extended by enough rows
+ * that the pixels inside the band are not influenced by how the extended region's border is handled. Only rows
+ * inside the band are copied into the output, making it identical to the single threaded version.
+ * Hysteresis thresholding is done using {@link HysteresisEdgeTraceMark_MT} or {@link HysteresisEdgeTracePoints_MT}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CannyEdge_MT<T extends ImageGray<T>, D extends ImageGray<D>> extends CannyEdge<T,D> {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 40;
+
+	// Computes the suppressed edge intensity inside each band
+	FastQueue<CannyEdge<T,D>> bands;
+
+	// radius of the kernel used to compute the image gradient
+	int gradientRadius;
+
+	/**
+	 * Specify internal algorithms and behavior.
+	 *
+	 * @param factoryBlur Creates the blur filter for each thread.
+	 * @param factoryGradient Creates the image gradient for each thread.
+	 * @param gradientRadius Radius of the image gradient's kernel. Used to determine how much bands are extended.
+	 * @param saveTrace Should it save a list of points that compose the objects contour/trace?
+	 */
+	public CannyEdge_MT(BoofLambdas.Factory<BlurFilter<T>> factoryBlur,
+						BoofLambdas.Factory<ImageGradient<T,D>> factoryGradient,
+						int gradientRadius, boolean saveTrace) {
+		super(factoryBlur.newInstance(), factoryGradient.newInstance(), saveTrace);
+		this.gradientRadius = gradientRadius;
+
+		if( saveTrace ) {
+			hysteresisPts = new HysteresisEdgeTracePoints_MT();
+		} else {
+			hysteresisMark = new HysteresisEdgeTraceMark_MT();
+		}
+
+		bands = new FastQueue<CannyEdge<T,D>>(1,(Class)CannyEdge.class,true) {
+			@Override
+			protected CannyEdge<T,D> createInstance() {
+				return new CannyEdge<>(factoryBlur.newInstance(),factoryGradient.newInstance(),false);
+			}
+		};
+	}
+
+	@Override
+	protected void computeEdgeIntensity( T input ) {
+		suppressed.reshape(input.width,input.height);
+		direction.reshape(input.width,input.height);
+
+		// number of rows a band needs to be extended by. The extra 1 is for non-maximum suppression
+		final int extend = blur.getRadius() + gradientRadius + 1;
+		final int minBand = Math.max(MIN_BAND,2*extend);
+
+		BoofConcurrency.loopBlocks(0,input.height,minBand,bands,(band,y0,y1)->{
+			int extY0 = Math.max(0,y0-extend);
+			int extY1 = Math.min(input.height,y1+extend);
+
+			band.computeEdgeIntensity(input.subimage(0,extY0,input.width,extY1));
+
+			// copy the rows inside the band
+			for( int y = y0; y < y1; y++ ) {
+				int indexSrc = band.suppressed.startIndex + (y-extY0)*band.suppressed.stride;
+				int indexDst = suppressed.startIndex + y*suppressed.stride;
+				System.arraycopy(band.suppressed.data,indexSrc,suppressed.data,indexDst,input.width);
+
+				indexSrc = band.direction.startIndex + (y-extY0)*band.direction.stride;
+				indexDst = direction.startIndex + y*direction.stride;
+				System.arraycopy(band.direction.data,indexSrc,direction.data,indexDst,input.width);
+			}
+		});
+	}
+}
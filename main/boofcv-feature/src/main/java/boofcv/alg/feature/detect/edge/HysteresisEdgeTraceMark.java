@@ -40,7 +40,7 @@ public class HysteresisEdgeTraceMark {
 	public static final float MARK_TRAVERSED = -1;
 
 	// reference to input intensity and direction images
-	private GrayF32 intensity; // intensity after edge non-maximum suppression
+	protected GrayF32 intensity; // intensity after edge non-maximum suppression
 	private GrayS8 direction; // 4-direction
 	// output binary image
 	private GrayU8 output;
@@ -76,6 +76,14 @@ public class HysteresisEdgeTraceMark {
 		this.lower = lower;
 		ImageMiscOps.fill(output,0);
 
+		traceEdges(upper);
+	}
+
+	/**
+	 * Searches the image in raster order for pixels above the upper threshold and traces the edge
+	 * each one belongs to.
+	 */
+	protected void traceEdges( float upper ) {
 		// step through each pixel in the image
 		for( int y = 0; y < intensity.height; y++ ) {
 			int indexInten = intensity.startIndex + y*intensity.stride;
@@ -48,7 +48,7 @@ public class HysteresisEdgeTracePoints {
 	public static final float MARK_TRAVERSED = -1;
 
 	// reference to input intensity and direction images
-	private GrayF32 intensity; // intensity after edge non-maximum suppression
+	protected GrayF32 intensity; // intensity after edge non-maximum suppression
 	private GrayS8 direction; // 4-direction
 
 	// List of found contours in the image
@@ -85,6 +85,14 @@ public class HysteresisEdgeTracePoints {
 		queuePoints.reset();
 		contours.clear();
 
+		traceEdges(upper);
+	}
+
+	/**
+	 * Searches the image in raster order for pixels above the upper threshold and traces the edge
+	 * each one belongs to.
+	 */
+	protected void traceEdges( float upper ) {
 		// step through each pixel in the image
 		for( int y = 0; y < intensity.height; y++ ) {
 			int indexInten = intensity.startIndex + y*intensity.stride;
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HysteresisEdgeTracePoints}. The search for seed pixels above the upper threshold
+ * is done in parallel bands of rows. Edges are then traced from the seeds in the same order as the single threaded
+ * version, skipping seeds which have already been traversed.
+ * </p>
+ *
+ * <p>
+ * Tracing itself is not split up into tiles. Which pixels are added to an edge depends on the order they are
+ * traversed in, since only the end points of a segment are checked against all their neighbors. Resolving
+ * tiles at their borders would not produce the same output as the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HysteresisEdgeTracePoints_MT extends HysteresisEdgeTracePoints {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 20;
+
+	// index of pixels above the upper threshold inside of each band
+	FastQueue<GrowQueue_I32> seeds = new FastQueue<>(GrowQueue_I32.class, true);
+
+	@Override
+	protected void traceEdges( float upper ) {
+		BoofConcurrency.loopBlocks(0,intensity.height,MIN_BAND,seeds,(list,y0,y1)->{
+			list.reset();
+			for( int y = y0; y < y1; y++ ) {
+				int indexInten = intensity.startIndex + y*intensity.stride;
+				int end = indexInten + intensity.width;
+
+				for( ; indexInten < end; indexInten++ ) {
+					if( intensity.data[indexInten] >= upper ) {
+						list.add(indexInten);
+					}
+				}
+			}
+		});
+
+		for( int i = 0; i < seeds.size; i++ ) {
+			GrowQueue_I32 list = seeds.get(i);
+			for( int j = 0; j < list.size; j++ ) {
+				int indexInten = list.data[j];
+				// seed might have been traversed by an edge which was traced earlier
+				if( intensity.data[indexInten] >= upper ) {
+					int pixel = indexInten - intensity.startIndex;
+					trace(pixel%intensity.stride, pixel/intensity.stride, indexInten);
+				}
+			}
+		}
+	}
+}
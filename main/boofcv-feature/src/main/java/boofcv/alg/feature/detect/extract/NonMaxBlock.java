@@ -39,6 +39,11 @@ import boofcv.struct.image.GrayF32;
  * not described in this document</p>
  *
  * <p>
+ * The search inside a single block is done by {@link NonMaxBlockSearch}. {@link NonMaxBlock_MT} divides
+ * the blocks between threads.
+ * </p>
+ *
+ * <p>
  * [1] Neubeck, A. and Van Gool, L. "Efficient non-maximum suppression" ICPR 2006
  * </p>
  *
@@ -79,29 +84,7 @@ public abstract class NonMaxBlock {
 	 * @param localMin (Output) storage for found local minimums.
 	 * @param localMax (Output) storage for found local maximums.
 	 */
-	public void process(GrayF32 intensityImage, QueueCorner localMin, QueueCorner localMax) {
-
-		this.localMin = localMin;
-		this.localMax = localMax;
-
-		endX = intensityImage.width-border;
-		endY = intensityImage.height-border;
-
-		int step = radius+1;
-
-		for( int y = border; y < endY; y += step ) {
-			int y1 = y + step;
-			if( y1 > endY ) y1 = endY;
-
-			for( int x = border; x < endX; x += step ) {
-				int x1 = x + step;
-				if( x1 > endX ) x1 = endX;
-				searchBlock(x,y,x1,y1,intensityImage);
-			}
-		}
-	}
-
-	protected abstract void searchBlock( int x0 , int y0 , int x1 , int y1 , GrayF32 img );
+	public abstract void process(GrayF32 intensityImage, QueueCorner localMin, QueueCorner localMax);
 
 	public void setSearchRadius(int radius) {
 		this.radius = radius;
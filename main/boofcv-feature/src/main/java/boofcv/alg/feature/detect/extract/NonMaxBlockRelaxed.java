@@ -28,7 +28,7 @@ import georegression.struct.point.Point2D_I32;
  *
  * @author Peter Abeles
  */
-public abstract class NonMaxBlockRelaxed extends NonMaxBlock {
+public abstract class NonMaxBlockRelaxed extends NonMaxBlockSearch {
 
 	// storage for local maximums
 	Point2D_I32 foundMax[];
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * Single threaded implementation of {@link NonMaxBlock}. Extending classes define the rule used to
+ * find the extremes inside of a single block.
+ *
+ * @author Peter Abeles
+ */
+public abstract class NonMaxBlockSearch extends NonMaxBlock {
+
+	protected NonMaxBlockSearch(boolean detectsMinimum, boolean detectsMaximum) {
+		super(detectsMinimum, detectsMaximum);
+	}
+
+	@Override
+	public void process(GrayF32 intensityImage, QueueCorner localMin, QueueCorner localMax) {
+
+		this.localMin = localMin;
+		this.localMax = localMax;
+
+		endX = intensityImage.width-border;
+		endY = intensityImage.height-border;
+
+		int step = radius+1;
+
+		for( int y = border; y < endY; y += step ) {
+			int y1 = y + step;
+			if( y1 > endY ) y1 = endY;
+
+			for( int x = border; x < endX; x += step ) {
+				int x1 = x + step;
+				if( x1 > endX ) x1 = endX;
+				searchBlock(x,y,x1,y1,intensityImage);
+			}
+		}
+	}
+
+	/**
+	 * Searches for extremes inside the block and adds the ones which are local extremes to the output.
+	 */
+	protected abstract void searchBlock( int x0 , int y0 , int x1 , int y1 , GrayF32 img );
+}
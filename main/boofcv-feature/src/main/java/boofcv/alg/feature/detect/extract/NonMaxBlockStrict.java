@@ -27,7 +27,7 @@ import boofcv.struct.image.GrayF32;
  *
  * @author Peter Abeles
  */
-public abstract class NonMaxBlockStrict extends NonMaxBlock {
+public abstract class NonMaxBlockStrict extends NonMaxBlockSearch {
 
 
 	protected NonMaxBlockStrict(boolean detectsMinimum, boolean detectsMaximum) {
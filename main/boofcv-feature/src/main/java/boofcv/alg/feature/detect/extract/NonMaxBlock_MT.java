@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link NonMaxBlock}. Since each block is independent, rows of blocks are
+ * divided between the threads. Each thread has its own copy of the block search algorithm and its own storage
+ * for the found extremes. Once finished the extremes are added in the same order as the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class NonMaxBlock_MT extends NonMaxBlock {
+
+	// Storage for each thread
+	FastQueue<ThreadData> threadData;
+
+	/**
+	 * Constructor
+	 *
+	 * @param factory Creates a new instance of the block search algorithm for each thread.
+	 */
+	public NonMaxBlock_MT( BoofLambdas.Factory<NonMaxBlockSearch> factory ) {
+		this(factory, factory.newInstance());
+	}
+
+	private NonMaxBlock_MT( BoofLambdas.Factory<NonMaxBlockSearch> factory , NonMaxBlockSearch example ) {
+		super(example.detectsMinimum, example.detectsMaximum);
+
+		threadData = new FastQueue<ThreadData>(1,ThreadData.class,true) {
+			@Override
+			protected ThreadData createInstance() {
+				return new ThreadData(factory.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void process(GrayF32 intensityImage, QueueCorner localMin, QueueCorner localMax) {
+
+		this.localMin = localMin;
+		this.localMax = localMax;
+
+		endX = intensityImage.width-border;
+		endY = intensityImage.height-border;
+
+		final int step = radius+1;
+		final int numRows = (endY-border+step-1)/step;
+
+		BoofConcurrency.loopBlocks(0,numRows,threadData,(data,row0,row1)->{
+			data.initialize(this);
+
+			for (int row = row0; row < row1; row++) {
+				int y = border + row*step;
+				int y1 = y + step;
+				if( y1 > endY ) y1 = endY;
+
+				for( int x = border; x < endX; x += step ) {
+					int x1 = x + step;
+					if( x1 > endX ) x1 = endX;
+					data.alg.searchBlock(x,y,x1,y1,intensityImage);
+				}
+			}
+		});
+
+		// add results in the same order as the single threaded version
+		for (int i = 0; i < threadData.size; i++) {
+			ThreadData data = threadData.get(i);
+			addAll(data.localMin,localMin);
+			addAll(data.localMax,localMax);
+		}
+	}
+
+	private static void addAll( QueueCorner src , QueueCorner dst ) {
+		for (int i = 0; i < src.size; i++) {
+			Point2D_I16 p = src.get(i);
+			dst.add(p.x,p.y);
+		}
+	}
+
+	/**
+	 * Algorithm and storage for a single thread
+	 */
+	static class ThreadData {
+		NonMaxBlockSearch alg;
+		QueueCorner localMin = new QueueCorner(10);
+		QueueCorner localMax = new QueueCorner(10);
+		// search radius the algorithm was last configured with
+		int radius = -1;
+
+		ThreadData(NonMaxBlockSearch alg) {
+			this.alg = alg;
+		}
+
+		/**
+		 * Copies the settings and resets the output
+		 */
+		void initialize( NonMaxBlock src ) {
+			if( radius != src.getSearchRadius() ) {
+				radius = src.getSearchRadius();
+				alg.setSearchRadius(radius);
+			}
+			alg.setThresholdMin(src.getThresholdMin());
+			alg.setThresholdMax(src.getThresholdMax());
+			alg.setBorder(src.getBorder());
+			alg.endX = src.endX;
+			alg.endY = src.endY;
+
+			localMin.reset();
+			localMax.reset();
+			alg.localMin = localMin;
+			alg.localMax = localMax;
+		}
+	}
+}
@@ -72,11 +72,11 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	// pixel index offsets for the circle
 	protected int []offsets;
 	// the image's stride.  Used to determine if the offsets need to be recomputed
-	private int stride = 0;
+	protected int stride = 0;
 
 	// list of pixels that might be corners.
-	private QueueCorner candidatesLow = new QueueCorner(10);
-	private QueueCorner candidatesHigh = new QueueCorner(10);
+	protected QueueCorner candidatesLow = new QueueCorner(10);
+	protected QueueCorner candidatesHigh = new QueueCorner(10);
 
 	// reference to the input image
 	protected T image;
@@ -121,15 +121,7 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	 * used
 	 */
 	public void process( T image , GrayF32 intensity ) {
-		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
-		candidatesLow.reset();
-		candidatesHigh.reset();
-		this.image = image;
-
-		if( stride != image.stride ) {
-			stride = image.stride;
-			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
-		}
+		int maxFeatures = initialize(image);
 		helper.setImage(image,offsets);
 
 		for (int y = radius; y < image.height-radius; y++) {
@@ -159,15 +151,7 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	 * Computes fast corner features
 	 */
 	public void process( T image ) {
-		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
-		candidatesLow.reset();
-		candidatesHigh.reset();
-		this.image = image;
-
-		if( stride != image.stride ) {
-			stride = image.stride;
-			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
-		}
+		int maxFeatures = initialize(image);
 		helper.setImage(image,offsets);
 
 		for (int y = radius; y < image.height-radius; y++) {
@@ -188,6 +172,23 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 		}
 	}
 
+	/**
+	 * Resets the list of corners and updates the circle's offsets if the image's stride has changed
+	 *
+	 * @return The maximum number of features which can be detected
+	 */
+	protected int initialize( T image ) {
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		this.image = image;
+
+		if( stride != image.stride ) {
+			stride = image.stride;
+			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
+		}
+		return (int)(maxFeaturesFraction*image.width*image.height);
+	}
+
 	public double getMaxFeaturesFraction() {
 		return maxFeaturesFraction;
 	}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link FastCornerDetector}. The image is split into row bands and each band is
+ * processed by a different thread with its own {@link FastCornerInterface helper}. Corners found in each band
+ * are then appended in band order, producing the same list of corners as the single threaded version.
+ * </p>
+ *
+ * <p>
+ * NOTE: If the maximum number of features is exceeded the list of corners is truncated at the same row as the
+ * single threaded version, but the intensity image will be computed for every row.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerDetector_MT<T extends ImageGray<T>> extends FastCornerDetector<T> {
+
+	/**
+	 * Minimum number of rows in a band
+	 */
+	public static int MIN_BAND = 10;
+
+	// Storage for each band
+	FastQueue<BandData<T>> bands;
+
+	/**
+	 * Constructor
+	 *
+	 * @param factoryHelper Creates a new instance of the image type specific helper for each thread
+	 */
+	public FastCornerDetector_MT( final BoofLambdas.Factory<FastCornerInterface<T>> factoryHelper ) {
+		super(factoryHelper.newInstance());
+
+		bands = new FastQueue<BandData<T>>(1,(Class)BandData.class,true) {
+			@Override
+			protected BandData<T> createInstance() {
+				return new BandData<>(factoryHelper.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void process( T image , GrayF32 intensity ) {
+		int maxFeatures = initialize(image);
+
+		BoofConcurrency.loopBlocks(radius,image.height-radius,MIN_BAND,bands,(band,y0,y1)->{
+			band.reset(image,offsets);
+			final FastCornerInterface<T> helper = band.helper;
+
+			for (int y = y0; y < y1; y++) {
+				int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
+				int index = image.startIndex + y*image.stride + radius;
+				for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
+
+					int result = helper.checkPixel(index);
+
+					if( result < 0 ) {
+						intensity.data[indexIntensity] = helper.scoreLower(index);
+						band.low.add(x,y);
+					} else if( result > 0) {
+						intensity.data[indexIntensity] = helper.scoreUpper(index);
+						band.high.add(x,y);
+					} else {
+						intensity.data[indexIntensity] = 0;
+					}
+				}
+			}
+		});
+
+		mergeBands(maxFeatures);
+	}
+
+	@Override
+	public void process( T image ) {
+		int maxFeatures = initialize(image);
+
+		BoofConcurrency.loopBlocks(radius,image.height-radius,MIN_BAND,bands,(band,y0,y1)->{
+			band.reset(image,offsets);
+			final FastCornerInterface<T> helper = band.helper;
+
+			for (int y = y0; y < y1; y++) {
+				int index = image.startIndex + y*image.stride + radius;
+				for (int x = radius; x < image.width-radius; x++, index++) {
+
+					int result = helper.checkPixel(index);
+
+					if( result < 0 ) {
+						band.low.add(x,y);
+					} else if( result > 0 ) {
+						band.high.add(x,y);
+					}
+				}
+			}
+		});
+
+		mergeBands(maxFeatures);
+	}
+
+	/**
+	 * Adds the corners from each band, in order. Stops after the first row where the total number of corners
+	 * is at least maxFeatures, just like the single threaded version does.
+	 */
+	void mergeBands( int maxFeatures ) {
+		for (int i = 0; i < bands.size; i++) {
+			BandData<T> band = bands.get(i);
+
+			int idxLow = 0, idxHigh = 0;
+			while( idxLow < band.low.size || idxHigh < band.high.size ) {
+				// process corners one row at a time
+				int y = Integer.MAX_VALUE;
+				if( idxLow < band.low.size )
+					y = band.low.get(idxLow).y;
+				if( idxHigh < band.high.size )
+					y = Math.min(y,band.high.get(idxHigh).y);
+
+				// the single threaded version always processes the first row before checking
+				if( y > radius && candidatesLow.size + candidatesHigh.size >= maxFeatures )
+					return;
+
+				for( ; idxLow < band.low.size; idxLow++ ) {
+					Point2D_I16 p = band.low.get(idxLow);
+					if( p.y != y )
+						break;
+					candidatesLow.add(p.x,p.y);
+				}
+				for( ; idxHigh < band.high.size; idxHigh++ ) {
+					Point2D_I16 p = band.high.get(idxHigh);
+					if( p.y != y )
+						break;
+					candidatesHigh.add(p.x,p.y);
+				}
+
+				if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
+					return;
+			}
+		}
+	}
+
+	/**
+	 * Data used by a single band
+	 */
+	static class BandData<T extends ImageGray<T>> {
+		FastCornerInterface<T> helper;
+		QueueCorner low = new QueueCorner(10);
+		QueueCorner high = new QueueCorner(10);
+
+		BandData(FastCornerInterface<T> helper) {
+			this.helper = helper;
+		}
+
+		void reset( T image , int offsets[] ) {
+			helper.setImage(image,offsets);
+			low.reset();
+			high.reset();
+		}
+	}
+}
@@ -19,6 +19,8 @@
 package boofcv.alg.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.impl.ImplIntegralImageFeatureIntensity;
+import boofcv.alg.feature.detect.intensity.impl.ImplIntegralImageFeatureIntensity_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 
@@ -45,7 +47,11 @@ public class IntegralImageFeatureIntensity {
 //		InputSanityCheck.checkSameShape(integral,intensity);
 
 		ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity);
-		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplIntegralImageFeatureIntensity_MT.hessianInner(integral,skip,size,intensity);
+		} else {
+			ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
+		}
 	}
 
 	/**
@@ -63,6 +69,10 @@ public class IntegralImageFeatureIntensity {
 //		InputSanityCheck.checkSameShape(integral,intensity);
 
 		ImplIntegralImageFeatureIntensity.hessianBorder(integral,skip,size,intensity);
-		ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplIntegralImageFeatureIntensity_MT.hessianInner(integral,skip,size,intensity);
+		} else {
+			ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,intensity);
+		}
 	}
 }
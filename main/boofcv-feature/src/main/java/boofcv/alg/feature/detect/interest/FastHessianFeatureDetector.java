@@ -92,12 +92,12 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	private int maxFeaturesPerScale;
 
 	// local sub-space
-	private GrayF32 intensity[];
+	GrayF32 intensity[];
 	private int spaceIndex = 0;
 	private QueueCorner foundFeatures = new QueueCorner(100);
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
 
 	// size of detected feature at the smallest scale
 	private int initialSize;
@@ -154,12 +154,6 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	 * @param integral Image transformed into an integral image.
 	 */
 	public void detect( II integral ) {
-		if( intensity == null ) {
-			intensity = new GrayF32[3];
-			for( int i = 0; i < intensity.length; i++ ) {
-				intensity[i] = new GrayF32(integral.width,integral.height);
-			}
-		}
 		foundPoints.reset();
 
 		// computes feature intensity every 'skip' pixels
@@ -200,6 +194,14 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		int w = integral.width/skip;
 		int h = integral.height/skip;
 
+		// allocated here so that the concurrent implementation, which overrides this function, doesn't create them
+		if( intensity == null ) {
+			intensity = new GrayF32[3];
+			for( int i = 0; i < intensity.length; i++ ) {
+				intensity[i] = new GrayF32(w,h);
+			}
+		}
+
 		// resize the output intensity image taking in account subsampling
 		for( int i = 0; i < intensity.length; i++ ) {
 			intensity[i].reshape(w,h);
@@ -232,22 +234,39 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		int index1 = (spaceIndex + 1) % 3;
 		int index2 = (spaceIndex + 2) % 3;
 
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		GrayF32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+		findLocalScaleSpaceMax(intensity[index0],intensity[index1],intensity[index2],
+				size[level],size[level]-size[level-1],skip);
+	}
+
+	/**
+	 * Looks for features which are a local maximum in the target intensity image and in the intensity images
+	 * in the scales above and below it. Found features are added to {@link #foundPoints}.
+	 *
+	 * @param intensityLower Intensity at the scale below
+	 * @param intensityTarget Intensity at the scale being searched
+	 * @param intensityUpper Intensity at the scale above
+	 * @param levelSize Size of the feature at the target scale
+	 * @param sizeStep Difference in feature size between the target scale and the one below
+	 * @param skip Sample rate of the intensity images
+	 */
+	protected void findLocalScaleSpaceMax( GrayF32 intensityLower , GrayF32 intensityTarget , GrayF32 intensityUpper,
+										   int levelSize , int sizeStep , int skip ) {
+		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensityLower, 0);
+		GrayF32 inten1 = intensityTarget;
+		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensityUpper, 0);
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
-		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.setIgnoreBorder(levelSize / (2 * skip));
+		extractor.process(inten1,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = inten1.width-ignoreRadius;
+		int ignoreHeight = inten1.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
@@ -255,7 +274,7 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
 		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
+			sortBest.process(inten1,foundFeatures,true);
 			features = sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
@@ -263,9 +282,6 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 			numberRemaining = Integer.MAX_VALUE;
 		}
 
-		int levelSize = size[level];
-		int sizeStep = levelSize-size[level-1];
-
 		// see if these local maximums are also a maximum in scale-space
 		for( int i = 0; i < features.size && numberRemaining > 0; i++ ) {
 			Point2D_I16 f = features.get(i);
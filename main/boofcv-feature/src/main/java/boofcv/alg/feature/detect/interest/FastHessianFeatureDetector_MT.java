@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link FastHessianFeatureDetector}. Instead of keeping three intensity
+ * images in a rolling buffer, the intensity of every scale in an octave is computed first. Each intensity image
+ * is computed using row bands in parallel. Then the local maximums of every scale are found in parallel, where
+ * each scale has its own non-maximum suppression algorithm. Features are added in the same order as the single
+ * threaded version, making the output identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageGray<II>> extends FastHessianFeatureDetector<II> {
+
+	// feature intensity at each scale in the octave
+	GrayF32 intensityScales[];
+
+	// Searches for local maximums in a single scale. Index 0 searches level 1
+	FastQueue<FastHessianFeatureDetector<II>> workers;
+
+	/**
+	 * See {@link FastHessianFeatureDetector#FastHessianFeatureDetector} for a description of the
+	 * parameters.
+	 *
+	 * @param factoryExtractor Creates a new instance of the extractor for each thread
+	 */
+	public FastHessianFeatureDetector_MT(final BoofLambdas.Factory<NonMaxSuppression> factoryExtractor,
+										 final int maxFeaturesPerScale,
+										 final int initialSampleRate, final int initialSize,
+										 final int numberScalesPerOctave,
+										 final int numberOfOctaves, final int scaleStepSize) {
+		super(factoryExtractor.newInstance(), maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves, scaleStepSize);
+
+		intensityScales = new GrayF32[numberScalesPerOctave];
+		for (int i = 0; i < intensityScales.length; i++) {
+			intensityScales[i] = new GrayF32(1,1);
+		}
+
+		int numWorkers = Math.max(1,numberScalesPerOctave-2);
+		workers = new FastQueue<FastHessianFeatureDetector<II>>(numWorkers,(Class)FastHessianFeatureDetector.class,true) {
+			@Override
+			protected FastHessianFeatureDetector<II> createInstance() {
+				return new FastHessianFeatureDetector<>(factoryExtractor.newInstance(), maxFeaturesPerScale,
+						initialSampleRate, initialSize, numberScalesPerOctave, numberOfOctaves, scaleStepSize);
+			}
+		};
+		workers.resize(numWorkers);
+	}
+
+	@Override
+	protected void detectOctave( II integral , int skip , int ...featureSize ) {
+		int w = integral.width/skip;
+		int h = integral.height/skip;
+
+		// compute feature intensity in each level
+		for( int i = 0; i < featureSize.length; i++ ) {
+			intensityScales[i].reshape(w,h);
+			GIntegralImageFeatureIntensity.hessian(integral,skip,featureSize[i],intensityScales[i]);
+		}
+
+		// find maximum in scale space
+		BoofConcurrency.loopFor(1,featureSize.length-1,level->{
+			FastHessianFeatureDetector<II> worker = workers.get(level-1);
+			worker.foundPoints.reset();
+			worker.findLocalScaleSpaceMax(intensityScales[level-1],intensityScales[level],intensityScales[level+1],
+					featureSize[level],featureSize[level]-featureSize[level-1],skip);
+		});
+
+		// Add the features in order of scale
+		for (int level = 1; level < featureSize.length-1; level++) {
+			FastQueue<ScalePoint> found = workers.get(level-1).foundPoints;
+			for (int i = 0; i < found.size; i++) {
+				foundPoints.grow().set(found.get(i));
+			}
+		}
+	}
+}
@@ -168,28 +168,35 @@ public class SiftDetector {
 		detections.reset();
 
 		do {
-			// scale from octave to input image
-			pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
-
 			// detect features in the image
 			for (int j = 1; j < scaleSpace.getNumScales()+1; j++) {
-
-				// not really sure how to compute the scale for features found at a particular DoG image
-				// using the average resulted in less visually appealing circles in a test image
-				sigmaLower  = scaleSpace.computeSigmaScale( j - 1);
-				sigmaTarget = scaleSpace.computeSigmaScale( j    );
-				sigmaUpper  = scaleSpace.computeSigmaScale( j + 1);
-
-				// grab the local DoG scale space images
-				dogLower  = scaleSpace.getDifferenceOfGaussian(j-1);
-				dogTarget = scaleSpace.getDifferenceOfGaussian(j  );
-				dogUpper  = scaleSpace.getDifferenceOfGaussian(j+1);
-
+				setupLocalScaleSpace(j);
 				detectFeatures(j);
 			}
 		} while( scaleSpace.computeNextOctave() );
 	}
 
+	/**
+	 * Selects the local DoG scale-space around the specified scale in the current octave
+	 *
+	 * @param scaleIndex Index of the target DoG image in the current octave
+	 */
+	protected void setupLocalScaleSpace( int scaleIndex ) {
+		// scale from octave to input image
+		pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+		// not really sure how to compute the scale for features found at a particular DoG image
+		// using the average resulted in less visually appealing circles in a test image
+		sigmaLower  = scaleSpace.computeSigmaScale( scaleIndex - 1);
+		sigmaTarget = scaleSpace.computeSigmaScale( scaleIndex    );
+		sigmaUpper  = scaleSpace.computeSigmaScale( scaleIndex + 1);
+
+		// grab the local DoG scale space images
+		dogLower  = scaleSpace.getDifferenceOfGaussian(scaleIndex-1);
+		dogTarget = scaleSpace.getDifferenceOfGaussian(scaleIndex  );
+		dogUpper  = scaleSpace.getDifferenceOfGaussian(scaleIndex+1);
+	}
+
 	/**
 	 * Detect features inside the Difference-of-Gaussian image at the current scale
 	 *
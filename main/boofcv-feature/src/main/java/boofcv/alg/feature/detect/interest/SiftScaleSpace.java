@@ -223,6 +223,16 @@ public class SiftScaleSpace {
 
 		for (int i = 1; i < numScales+3; i++) {
 			differenceOfGaussian[i-1].reshape(tempImage0.width, tempImage0.height);
+		}
+		computeDifferenceOfGaussian();
+	}
+
+	/**
+	 * Computes the DoG images from the scale images in the current octave. DoG images must already be
+	 * the correct shape.
+	 */
+	protected void computeDifferenceOfGaussian() {
+		for (int i = 1; i < numScales+3; i++) {
 			PixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]);
 		}
 	}
@@ -238,7 +248,7 @@ public class SiftScaleSpace {
 	/**
 	 * Applies the separable kernel to the input image and stores the results in the output image.
 	 */
-	void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
+	protected void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
 		tempBlur.reshape(input.width, input.height);
 		GConvolveImageOps.horizontalNormalized(kernel, input, tempBlur);
 		GConvolveImageOps.verticalNormalized(kernel, tempBlur,output);
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.filter.convolve.ConvolveImageNormalized_MT;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * Concurrent implementation of {@link SiftScaleSpace}. Each scale image depends on the one before it, so
+ * the Gaussian blur is parallelized internally by splitting the image into bands. DoG images are independent
+ * of each other and are computed in parallel. Output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class SiftScaleSpace_MT extends SiftScaleSpace {
+
+	/**
+	 * @see SiftScaleSpace#SiftScaleSpace(int, int, int, double)
+	 */
+	public SiftScaleSpace_MT(int firstOctave, int lastOctave, int numScales, double sigma0) {
+		super(firstOctave, lastOctave, numScales, sigma0);
+	}
+
+	@Override
+	protected void computeDifferenceOfGaussian() {
+		BoofConcurrency.loopFor(1, numScales+3, i ->
+				PixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]));
+	}
+
+	@Override
+	protected void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
+		tempBlur.reshape(input.width, input.height);
+		ConvolveImageNormalized_MT.horizontal(kernel, input, tempBlur);
+		ConvolveImageNormalized_MT.vertical(kernel, tempBlur, output);
+	}
+}
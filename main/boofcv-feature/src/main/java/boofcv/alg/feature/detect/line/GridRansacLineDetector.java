@@ -72,10 +72,10 @@ public abstract class GridRansacLineDetector<D extends ImageGray<D>> {
 	protected int maxDetectLines;
 
 	// extracts lines
-	private ModelMatcher<LinePolar2D_F32,Edgel> robustMatcher;
+	protected ModelMatcher<LinePolar2D_F32,Edgel> robustMatcher;
 
 	// list of lines found in each
-	private MatrixOfList<LineSegment2D_F32> foundLines = new MatrixOfList<>(1, 1);
+	protected MatrixOfList<LineSegment2D_F32> foundLines = new MatrixOfList<>(1, 1);
 
 	/**
 	 * Specifies major configuration parameters.
@@ -105,26 +105,45 @@ public abstract class GridRansacLineDetector<D extends ImageGray<D>> {
 	{
 		InputSanityCheck.checkSameShape(derivX,derivY,binaryEdges);
 
-		int w = derivX.width-regionSize+1;
-		int h = derivY.height-regionSize+1;
-
 		foundLines.reshape(derivX.width / regionSize, derivX.height / regionSize);
 		foundLines.reset();
 
-		// avoid partial regions/other image edge conditions by being at least the region's radius away
-		for( int y = 0; y < h; y += regionSize) {
-			int gridY = y/regionSize;
-			// index of the top left pixel in the region being considered
-			// possible over optimization
-			int index = binaryEdges.startIndex + y*binaryEdges.stride;
-			for( int x = 0; x < w; x+= regionSize , index += regionSize) {
-				int gridX = x/regionSize;
-				// detects edgels inside the region
-				detectEdgels(index,x,y,derivX,derivY,binaryEdges);
-
-				// find lines inside the region using RANSAC
-				findLinesInRegion(foundLines.get(gridX,gridY));
-			}
+		processGridRows(derivX,derivY,binaryEdges);
+	}
+
+	/**
+	 * Finds lines in every row of the grid
+	 */
+	protected void processGridRows( D derivX , D derivY , GrayU8 binaryEdges ) {
+		for( int gridY = 0; gridY < foundLines.height; gridY++ ) {
+			processGridRow(gridY,derivX,derivY,binaryEdges,edgels,robustMatcher);
+		}
+	}
+
+	/**
+	 * Finds lines inside each region along a single row in the grid
+	 *
+	 * @param gridY Which row in the grid is processed
+	 * @param edgels Storage for edgels
+	 * @param robustMatcher Robust model matcher used to find lines
+	 */
+	protected void processGridRow( int gridY , D derivX , D derivY , GrayU8 binaryEdges ,
+								   FastQueue<Edgel> edgels ,
+								   ModelMatcher<LinePolar2D_F32,Edgel> robustMatcher ) {
+		// avoid partial regions/other image edge conditions by only considering complete regions
+		int w = derivX.width-regionSize+1;
+		int y = gridY*regionSize;
+
+		// index of the top left pixel in the region being considered
+		// possible over optimization
+		int index = binaryEdges.startIndex + y*binaryEdges.stride;
+		for( int x = 0; x < w; x+= regionSize , index += regionSize) {
+			int gridX = x/regionSize;
+			// detects edgels inside the region
+			detectEdgels(index,x,y,derivX,derivY,binaryEdges,edgels);
+
+			// find lines inside the region using RANSAC
+			findLinesInRegion(edgels,robustMatcher,foundLines.get(gridX,gridY));
 		}
 	}
 
@@ -145,15 +164,21 @@ public abstract class GridRansacLineDetector<D extends ImageGray<D>> {
 	 * @param derivX contains image derivative x-axis
 	 * @param derivY contains image derivative y-axis
 	 * @param binaryEdges Mark indicting which pixels are edges along a line
+	 * @param edgels (Output) Found edgels
 	 */
-	protected abstract void detectEdgels( int index0 , int x0 , int y0 , D derivX , D derivY , GrayU8 binaryEdges);
+	protected abstract void detectEdgels( int index0 , int x0 , int y0 , D derivX , D derivY , GrayU8 binaryEdges,
+										  FastQueue<Edgel> edgels );
 
 	/**
 	 * Searches for lines inside inside the region..
 	 *
+	 * @param edgels Edgels inside the region
+	 * @param robustMatcher Robust model matcher used to find lines
 	 * @param gridLines Where the found lines are stored.
 	 */
-	private void findLinesInRegion( List<LineSegment2D_F32> gridLines ) {
+	private void findLinesInRegion( FastQueue<Edgel> edgels ,
+									ModelMatcher<LinePolar2D_F32,Edgel> robustMatcher ,
+									List<LineSegment2D_F32> gridLines ) {
 
 		List<Edgel> list = edgels.copyIntoList(null);
 
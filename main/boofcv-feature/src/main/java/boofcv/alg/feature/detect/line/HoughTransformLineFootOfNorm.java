@@ -28,6 +28,7 @@ import georegression.struct.line.LineParametric2D_F32;
 import georegression.struct.point.Point2D_I16;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
 
 /**
  * <p>
@@ -69,6 +70,8 @@ public class HoughTransformLineFootOfNorm {
 	QueueCorner candidates = new QueueCorner(10);
 	// line intensities for later pruning
 	GrowQueue_F32 foundIntensity = new GrowQueue_F32(10);
+	// index of the transform pixel each edge pixel voted for
+	GrowQueue_I32 votes = new GrowQueue_I32();
 
 	/**
 	 * Specifies parameters of transform.
@@ -100,14 +103,51 @@ public class HoughTransformLineFootOfNorm {
 		originY = derivX.height/2;
 		candidates.reset();
 
+		if( !(derivX instanceof GrayF32 || derivX instanceof GrayS16 || derivX instanceof GrayS32) )
+			throw new IllegalArgumentException("Unsupported derivative image type: "+derivX.getClass().getSimpleName());
+
+		computeVotes(derivX,derivY,binary);
+	}
+
+	/**
+	 * Finds the transform pixel which each edge pixel votes for then adds the votes to the transform
+	 */
+	protected void computeVotes( ImageGray derivX , ImageGray derivY , GrayU8 binary ) {
+		votes.reset();
+		findVotes(derivX,derivY,binary,0,binary.height,votes);
+		applyVotes(votes);
+	}
+
+	/**
+	 * Finds the index of the transform pixel each edge pixel inside the range of rows votes for. Votes which
+	 * lie outside the transform are discarded.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 * @param votes (Output) Index of transform pixels. Not reset.
+	 */
+	protected void findVotes( ImageGray derivX , ImageGray derivY , GrayU8 binary ,
+							  int row0 , int row1 , GrowQueue_I32 votes ) {
 		if( derivX instanceof GrayF32)
-			_transform((GrayF32)derivX,(GrayF32)derivY,binary);
+			_findVotes((GrayF32)derivX,(GrayF32)derivY,binary,row0,row1,votes);
 		else if( derivX instanceof GrayS16)
-			_transform((GrayS16)derivX,(GrayS16)derivY,binary);
-		else if( derivX instanceof GrayS32)
-			_transform((GrayS32)derivX,(GrayS32)derivY,binary);
+			_findVotes((GrayS16)derivX,(GrayS16)derivY,binary,row0,row1,votes);
 		else
-			throw new IllegalArgumentException("Unsupported derivative image type: "+derivX.getClass().getSimpleName());
+			_findVotes((GrayS32)derivX,(GrayS32)derivY,binary,row0,row1,votes);
+	}
+
+	/**
+	 * Increments the transform at each vote while keeping track of candidate pixels, so that a sparse search
+	 * can be done to detect lines.
+	 */
+	protected void applyVotes( GrowQueue_I32 votes ) {
+		for( int i = 0; i < votes.size; i++ ) {
+			int index = votes.data[i];
+			if( transform.data[index]++ == 1 ) {
+				int pixel = index - transform.startIndex;
+				candidates.add(pixel % transform.stride, pixel / transform.stride);
+			}
+		}
 	}
 
 	/**
@@ -149,6 +189,23 @@ public class HoughTransformLineFootOfNorm {
 	 */
 	public void parameterize( int x , int y , float derivX , float derivY )
 	{
+		int index = footIndex(x,y,derivX,derivY);
+		if( index >= 0 ) {
+			// keep track of candidate pixels so that a sparse search can be done
+			// to detect lines
+			if( transform.data[index]++ == 1 ) {
+				int pixel = index - transform.startIndex;
+				candidates.add(pixel % transform.stride, pixel / transform.stride);
+			}
+		}
+	}
+
+	/**
+	 * Computes the index of the transform pixel which the foot of norm lies at.
+	 *
+	 * @return index of the pixel in the transform or -1 if outside the transform
+	 */
+	protected int footIndex( int x , int y , float derivX , float derivY ) {
 		// put the point in a new coordinate system centered at the image's origin
 		// this minimizes error, which is a function of distance from origin
 		x -= originX;
@@ -160,13 +217,9 @@ public class HoughTransformLineFootOfNorm {
 		int x0 = (int)(v*derivX) + originX;
 		int y0 = (int)(v*derivY) + originY;
 
-		if( transform.isInBounds(x0,y0)) {
-			int index = transform.startIndex+y0*transform.stride+x0;
-			// keep track of candidate pixels so that a sparse search can be done
-			// to detect lines
-			if( transform.data[index]++ == 1 )
-				candidates.add(x0,y0);
-		}
+		if( transform.isInBounds(x0,y0))
+			return transform.startIndex+y0*transform.stride+x0;
+		return -1;
 	}
 
 	/**
@@ -188,49 +241,55 @@ public class HoughTransformLineFootOfNorm {
 		return foundIntensity.data;
 	}
 
-	private void _transform(GrayF32 derivX , GrayF32 derivY , GrayU8 binary )
+	private void _findVotes(GrayF32 derivX , GrayF32 derivY , GrayU8 binary ,
+							int row0 , int row1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = row0; y < row1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					int vote = footIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( vote >= 0 )
+						votes.add(vote);
 				}
 			}
 		}
 	}
 
-	private void _transform(GrayS16 derivX , GrayS16 derivY , GrayU8 binary )
+	private void _findVotes(GrayS16 derivX , GrayS16 derivY , GrayU8 binary ,
+							int row0 , int row1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = row0; y < row1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					int vote = footIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( vote >= 0 )
+						votes.add(vote);
 				}
 			}
 		}
 	}
 
-	private void _transform(GrayS32 derivX , GrayS32 derivY , GrayU8 binary )
+	private void _findVotes(GrayS32 derivX , GrayS32 derivY , GrayU8 binary ,
+							int row0 , int row1 , GrowQueue_I32 votes )
 	{
-		// apply the transform to the entire image
-		for( int y = 0; y < binary.height; y++ ) {
+		for( int y = row0; y < row1; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int end = start + binary.width;
 
 			for( int index = start; index < end; index++ ) {
 				if( binary.data[index] != 0 ) {
 					int x = index-start;
-					parameterize(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					int vote = footIndex(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y));
+					if( vote >= 0 )
+						votes.add(vote);
 				}
 			}
 		}
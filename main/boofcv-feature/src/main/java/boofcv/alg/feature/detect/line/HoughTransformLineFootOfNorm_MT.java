@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link HoughTransformLineFootOfNorm}. Each edge pixel only votes for a single
+ * pixel in the transform, so instead of a thread local transform each band of rows saves the location of its
+ * votes in a sparse list. The lists are then added to the transform in the same order as the single threaded
+ * implementation, making the transform and the order of candidates identical.
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLineFootOfNorm_MT extends HoughTransformLineFootOfNorm {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 20;
+
+	// votes found inside each band of rows
+	FastQueue<GrowQueue_I32> bandVotes = new FastQueue<>(GrowQueue_I32.class, true);
+
+	public HoughTransformLineFootOfNorm_MT(NonMaxSuppression extractor, int minDistanceFromOrigin) {
+		super(extractor, minDistanceFromOrigin);
+	}
+
+	@Override
+	protected void computeVotes( ImageGray derivX , ImageGray derivY , GrayU8 binary ) {
+		BoofConcurrency.loopBlocks(0,binary.height,MIN_BAND,bandVotes,(votes,y0,y1)->{
+			votes.reset();
+			findVotes(derivX,derivY,binary,y0,y1,votes);
+		});
+
+		for( int i = 0; i < bandVotes.size; i++ ) {
+			applyVotes(bandVotes.get(i));
+		}
+	}
+}
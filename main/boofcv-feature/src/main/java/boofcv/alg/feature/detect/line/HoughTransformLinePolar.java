@@ -119,6 +119,13 @@ public class HoughTransformLinePolar {
 		originY = binary.height/2;
 		r_max = Math.sqrt(originX*originX+originY*originY);
 
+		computeVotes(binary);
+	}
+
+	/**
+	 * Adds the votes from every edge pixel in the binary image to the transform
+	 */
+	protected void computeVotes( GrayU8 binary ) {
 		for( int y = 0; y < binary.height; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
 			int stop = start + binary.width;
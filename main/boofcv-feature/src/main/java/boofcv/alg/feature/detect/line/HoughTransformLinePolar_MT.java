@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link HoughTransformLinePolar}. Edge pixels are first found and saved in a list.
+ * Then the transform is split up along the angle axis with each thread voting for every edge pixel but only inside
+ * of its own rows in the transform. Since each bin is only modified by a single thread there is no need
+ * for a thread local transform and the output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLinePolar_MT extends HoughTransformLinePolar {
+	// Minimum number of angles processed by a thread
+	public static int MIN_ANGLES = 10;
+
+	// coordinates of edge pixels relative to the origin. (x,y) interleaved
+	GrowQueue_I32 points = new GrowQueue_I32();
+
+	public HoughTransformLinePolar_MT(NonMaxSuppression extractor, int numBinsRange, int numBinsAngle) {
+		super(extractor, numBinsRange, numBinsAngle);
+	}
+
+	@Override
+	protected void computeVotes( GrayU8 binary ) {
+		points.reset();
+		for( int y = 0; y < binary.height; y++ ) {
+			int start = binary.startIndex + y*binary.stride;
+			int stop = start + binary.width;
+
+			for( int index = start; index < stop; index++ ) {
+				if( binary.data[index] != 0 ) {
+					points.add(index-start-originX);
+					points.add(y-originY);
+				}
+			}
+		}
+
+		BoofConcurrency.loopBlocks(0,transform.height,MIN_ANGLES,this::computeVotes);
+	}
+
+	/**
+	 * Adds votes from all the edge pixels to the specified range of angles
+	 */
+	protected void computeVotes( int angle0 , int angle1 ) {
+		int w2 = transform.width/2;
+		int N = points.size;
+		int[] points = this.points.data;
+
+		// Point major order is used since consecutive points tend to vote for the same bin at the same angle
+		for( int j = 0; j < N; j += 2 ) {
+			int x = points[j];
+			int y = points[j+1];
+
+			for( int i = angle0; i < angle1; i++ ) {
+				// see parameterize() for a description of the math
+				double p = x*tableTrig.c[i] + y*tableTrig.s[i];
+
+				int col = (int)Math.floor(p * w2 / r_max) + w2;
+				transform.data[transform.startIndex + i*transform.stride + col]++;
+			}
+		}
+	}
+}
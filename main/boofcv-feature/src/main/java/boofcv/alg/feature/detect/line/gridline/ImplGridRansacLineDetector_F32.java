@@ -24,6 +24,7 @@ import boofcv.struct.image.GrayU8;
 import georegression.metric.UtilAngle;
 import georegression.struct.line.LinePolar2D_F32;
 import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Implementation of {@link GridRansacLineDetector} for {@link GrayF32}
@@ -38,7 +39,7 @@ public class ImplGridRansacLineDetector_F32 extends GridRansacLineDetector<GrayF
 
 	protected void detectEdgels(int index0 , int x0 , int y0 ,
 								GrayF32 derivX , GrayF32 derivY ,
-								GrayU8 binaryEdges) {
+								GrayU8 binaryEdges, FastQueue<Edgel> edgels ) {
 
 		edgels.reset();
 		for( int y = 0; y < regionSize; y++ ) {
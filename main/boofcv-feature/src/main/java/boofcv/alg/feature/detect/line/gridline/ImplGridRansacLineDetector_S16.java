@@ -24,6 +24,7 @@ import boofcv.struct.image.GrayU8;
 import georegression.metric.UtilAngle;
 import georegression.struct.line.LinePolar2D_F32;
 import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Implementation of {@link boofcv.alg.feature.detect.line.GridRansacLineDetector} for {@link GrayS16}
@@ -40,7 +41,7 @@ public class ImplGridRansacLineDetector_S16 extends GridRansacLineDetector<GrayS
 
 	protected void detectEdgels(int index0 , int x0 , int y0 ,
 								GrayS16 derivX , GrayS16 derivY ,
-								GrayU8 binaryEdges) {
+								GrayU8 binaryEdges, FastQueue<Edgel> edgels ) {
 
 		edgels.reset();
 		for( int y = 0; y < regionSize; y++ ) {
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line.gridline;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.line.LinePolar2D_F32;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link ImplGridRansacLineDetector_S16}. Each row in the grid is processed
+ * in parallel. Rows have their own edgel storage and robust matcher, which is always used for the same row.
+ * Random number generators inside the matcher are therefore not shared between rows, making the
+ * output independent of the number of threads.
+ *
+ * @author Peter Abeles
+ */
+public class ImplGridRansacLineDetector_S16_MT extends ImplGridRansacLineDetector_S16 {
+
+	// storage and matcher for each row in the grid
+	FastQueue<RowWorker> workers;
+
+	/**
+	 * Specifies major configuration parameters.
+	 *
+	 * @param regionSize Length of each side in a square region.  Try 40.
+	 * @param maxDetectLines Maximum number of lines which can be detected in a region.  Try 10.
+	 * @param factoryMatcher Creates a new instance of the robust model matcher for each row in the grid.
+	 */
+	public ImplGridRansacLineDetector_S16_MT(int regionSize, int maxDetectLines,
+										   BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher) {
+		super(regionSize, maxDetectLines, factoryMatcher.newInstance());
+
+		workers = new FastQueue<RowWorker>(1,RowWorker.class,true) {
+			@Override
+			protected RowWorker createInstance() {
+				return new RowWorker(factoryMatcher.newInstance());
+			}
+		};
+	}
+
+	@Override
+	protected void processGridRows(GrayS16 derivX, GrayS16 derivY, GrayU8 binaryEdges) {
+		workers.resize(foundLines.height);
+		BoofConcurrency.loopFor(0,foundLines.height,gridY->{
+			RowWorker w = workers.get(gridY);
+			processGridRow(gridY,derivX,derivY,binaryEdges,w.edgels,w.robustMatcher);
+		});
+	}
+
+	static class RowWorker {
+		FastQueue<Edgel> edgels = new FastQueue<>(30, Edgel.class, true);
+		ModelMatcher<LinePolar2D_F32,Edgel> robustMatcher;
+
+		RowWorker(ModelMatcher<LinePolar2D_F32, Edgel> robustMatcher) {
+			this.robustMatcher = robustMatcher;
+		}
+	}
+}
@@ -48,26 +48,8 @@ public abstract class BaseTemplateIntensity<T extends ImageBase<T>>
 	@Override
 	public void process(T template) {
 		this.template = template;
-		intensity.reshape(image.width, image.height);
-
-		int w = image.width - template.width;
-		int h = image.height - template.height;
-
-		borderX0 = template.width / 2;
-		borderY0 = template.height / 2;
-		borderX1 = template.width-borderX0;
-		borderY1 = template.height-borderY0;
-
-		for (int y = 0; y < h; y++) {
-			int index = intensity.startIndex + (y + borderY0) * intensity.stride + borderX0;
-			for (int x = 0; x < w; x++) {
-				intensity.data[index++] = evaluate(x, y);
-			}
-		}
-
-		// deference to avoid causing a memory leak
-		this.template = null;
 		this.mask = null;
+		computeIntensity();
 	}
 
 	@Override
@@ -79,26 +61,53 @@ public abstract class BaseTemplateIntensity<T extends ImageBase<T>>
 
 		this.template = template;
 		this.mask = mask;
+		computeIntensity();
+	}
+
+	private void computeIntensity() {
 		intensity.reshape(image.width, image.height);
 
-		int w = image.width - template.width;
 		int h = image.height - template.height;
 
 		borderX0 = template.width / 2;
 		borderY0 = template.height / 2;
+		borderX1 = template.width-borderX0;
+		borderY1 = template.height-borderY0;
 
-		for (int y = 0; y < h; y++) {
-			int index = intensity.startIndex + (y + borderY0) * intensity.stride + borderX0;
-			for (int x = 0; x < w; x++) {
-				intensity.data[index++] = evaluateMask(x, y);
-			}
-		}
+		processRows(0,h);
 
 		// deference to avoid causing a memory leak
 		this.template = null;
 		this.mask = null;
 	}
 
+	/**
+	 * Computes the match intensity for every template location with a top left corner inside the specified
+	 * range of rows. If a mask has been specified then it's used.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void processRows( int row0 , int row1 ) {
+		int w = image.width - template.width;
+
+		if( mask == null ) {
+			for (int y = row0; y < row1; y++) {
+				int index = intensity.startIndex + (y + borderY0) * intensity.stride + borderX0;
+				for (int x = 0; x < w; x++) {
+					intensity.data[index++] = evaluate(x, y);
+				}
+			}
+		} else {
+			for (int y = row0; y < row1; y++) {
+				int index = intensity.startIndex + (y + borderY0) * intensity.stride + borderX0;
+				for (int x = 0; x < w; x++) {
+					intensity.data[index++] = evaluateMask(x, y);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Evaluate the template at the specified location.
 	 *
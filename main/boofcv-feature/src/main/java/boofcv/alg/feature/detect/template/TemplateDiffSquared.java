@@ -18,10 +18,13 @@
 
 package boofcv.alg.feature.detect.template;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * Scores the difference between the template and the image using difference squared error.
@@ -30,29 +33,116 @@ import boofcv.struct.image.ImageBase;
  *
  * <p> error = -1*Sum<sub>(o,u)</sub> [I(x,y) - T(x-o,y-u)]^2 </p>
  *
+ * <p>
+ * Without a mask the error is expanded into Sum I<sup>2</sup> - 2*Sum I*T + Sum T<sup>2</sup>. The sum of the
+ * image's squared values is found in constant time from an integral image, which is computed once in
+ * {@link #setInputImage}, and the template's sum is computed once per template. Only the correlation is
+ * computed for each location. Note that the image can't be modified after it has been passed in.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public abstract class TemplateDiffSquared<T extends ImageBase<T>>
 		extends BaseTemplateIntensity<T> {
 	// IF MORE IMAGE TYPES ARE ADDED CREATE A GENERATOR FOR THIS CLASS
 
+	// integral image of the input image's squared values. Has one more row and column than the image
+	protected double[] integralSq = new double[0];
+	protected int integralStride;
+
+	// sum of the template's squared values
+	protected double templateSq;
+
+	@Override
+	public void setInputImage(T image) {
+		super.setInputImage(image);
+
+		integralStride = image.width+1;
+		int N = integralStride*(image.height+1);
+		if( integralSq.length < N ) {
+			integralSq = new double[N];
+		} else {
+			Arrays.fill(integralSq,0,integralStride,0);
+		}
+		computeIntegral(image);
+	}
+
+	@Override
+	public void process(T template) {
+		templateSq = sumSquared(template);
+		super.process(template);
+	}
+
+	/**
+	 * Computes the integral image of squared values. The first row has already been set to zero.
+	 */
+	protected abstract void computeIntegral( T image );
+
+	/**
+	 * Computes the sum of the template's squared values
+	 */
+	protected abstract double sumSquared( T template );
+
+	/**
+	 * Sums the squared image values inside the template's region
+	 *
+	 * @param tl_x Template's top left corner x-coordinate
+	 * @param tl_y Template's top left corner y-coordinate
+	 */
+	protected double regionSumSq( int tl_x , int tl_y ) {
+		int index00 = tl_y*integralStride + tl_x;
+		int index10 = index00 + template.height*integralStride;
+		return integralSq[index10+template.width] - integralSq[index10] - integralSq[index00+template.width] + integralSq[index00];
+	}
+
 	public static class F32 extends TemplateDiffSquared<GrayF32> {
 		@Override
 		protected float evaluate(int tl_x, int tl_y) {
 
-			float total = 0;
+			double cross = 0;
 
 			for (int y = 0; y < template.height; y++) {
 				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
 				int templateIndex = template.startIndex + y * template.stride;
 
+				float rowCross = 0;
 				for (int x = 0; x < template.width; x++) {
-					float error = image.data[imageIndex++] - template.data[templateIndex++];
-					total += error * error;
+					rowCross += image.data[imageIndex++]*template.data[templateIndex++];
 				}
+				cross += rowCross;
 			}
 
-			return -total;
+			// round off error can cause it to be slightly negative
+			return -(float)Math.max(0,regionSumSq(tl_x,tl_y) - 2*cross + templateSq);
+		}
+
+		@Override
+		protected double sumSquared(GrayF32 template) {
+			double total = 0;
+			for (int y = 0; y < template.height; y++) {
+				int index = template.startIndex + y * template.stride;
+				for (int x = 0; x < template.width; x++) {
+					double v = template.data[index++];
+					total += v*v;
+				}
+			}
+			return total;
+		}
+
+		@Override
+		protected void computeIntegral(GrayF32 image) {
+			for (int y = 0; y < image.height; y++) {
+				int imageIndex = image.startIndex + y*image.stride;
+				int index = (y+1)*integralStride;
+				integralSq[index++] = 0;
+
+				double rowSq = 0;
+				for (int x = 0; x < image.width; x++, index++) {
+					double v = image.data[imageIndex++];
+					rowSq += v*v;
+					integralSq[index] = integralSq[index-integralStride] + rowSq;
+				}
+			}
 		}
 
 		@Override
@@ -78,25 +168,50 @@ public abstract class TemplateDiffSquared<T extends ImageBase<T>>
 		@Override
 		protected float evaluate(int tl_x, int tl_y) {
 
-			float total = 0;
-
-			// Reduce change of numerical overflow and delay conversion to float
-			float div = 255.0f*255.0f;
+			long cross = 0;
 
 			for (int y = 0; y < template.height; y++) {
 				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
 				int templateIndex = template.startIndex + y * template.stride;
 
-				int rowTotal = 0;
+				int rowCross = 0;
 				for (int x = 0; x < template.width; x++) {
-					int error = (image.data[imageIndex++] & 0xFF) - (template.data[templateIndex++] & 0xFF);
-					rowTotal += error * error;
+					rowCross += (image.data[imageIndex++] & 0xFF)*(template.data[templateIndex++] & 0xFF);
 				}
+				cross += rowCross;
+			}
 
-				total += rowTotal / div;
+			// All the sums are integers so this is exact. Divide to keep the same scale as the masked version
+			return -(float)((regionSumSq(tl_x,tl_y) - 2*cross + templateSq)/(255.0*255.0));
+		}
+
+		@Override
+		protected double sumSquared(GrayU8 template) {
+			long total = 0;
+			for (int y = 0; y < template.height; y++) {
+				int index = template.startIndex + y * template.stride;
+				for (int x = 0; x < template.width; x++) {
+					int v = template.data[index++] & 0xFF;
+					total += v*v;
+				}
 			}
+			return total;
+		}
 
-			return -total;
+		@Override
+		protected void computeIntegral(GrayU8 image) {
+			for (int y = 0; y < image.height; y++) {
+				int imageIndex = image.startIndex + y*image.stride;
+				int index = (y+1)*integralStride;
+				integralSq[index++] = 0;
+
+				long rowSq = 0;
+				for (int x = 0; x < image.width; x++, index++) {
+					int v = image.data[imageIndex++] & 0xFF;
+					rowSq += v*v;
+					integralSq[index] = integralSq[index-integralStride] + rowSq;
+				}
+			}
 		}
 
 		@Override
@@ -126,6 +241,32 @@ public abstract class TemplateDiffSquared<T extends ImageBase<T>>
 		}
 	}
 
+	/**
+	 * Concurrent implementation of {@link F32}
+	 */
+	public static class F32_MT extends F32 {
+		// Minimum number of rows processed by a thread
+		public static int MIN_BAND = 4;
+
+		@Override
+		protected void processRows(int row0, int row1) {
+			BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, super::processRows);
+		}
+	}
+
+	/**
+	 * Concurrent implementation of {@link U8}
+	 */
+	public static class U8_MT extends U8 {
+		// Minimum number of rows processed by a thread
+		public static int MIN_BAND = 4;
+
+		@Override
+		protected void processRows(int row0, int row1) {
+			BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, super::processRows);
+		}
+	}
+
 	@Override
 	public boolean isBorderProcessed() {
 		return false;
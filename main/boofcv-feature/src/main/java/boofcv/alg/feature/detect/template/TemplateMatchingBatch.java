@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.template;
+
+import boofcv.struct.feature.Match;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searches for multiple templates inside the same image. Information which only depends on the image, such as
+ * integral images or its Fourier transform, is computed once when the image is passed in and then reused by
+ * every template. Each template has its own list of matches. Templates are processed one at a time, if the
+ * intensity algorithm is concurrent then each template's intensity image is computed in parallel. When there
+ * are many small templates {@link TemplateMatchingBatch_MT} will make better use of the threads.
+ *
+ * @author Peter Abeles
+ */
+public class TemplateMatchingBatch<T extends ImageBase<T>> {
+
+	// finds the matches for a single template
+	protected TemplateMatching<T> matcher;
+
+	// all the templates which are being searched for
+	protected List<Target<T>> targets = new ArrayList<>();
+
+	/**
+	 * Specifies internal algorithm
+	 *
+	 * @param matcher Finds matches for a single template
+	 */
+	public TemplateMatchingBatch(TemplateMatching<T> matcher) {
+		this.matcher = matcher;
+	}
+
+	/**
+	 * Adjust how close to objects can be found to each other
+	 *
+	 * @param radius Distance in pixels.  Try using the template's radius or 2
+	 */
+	public void setMinimumSeparation(int radius) {
+		matcher.setMinimumSeparation(radius);
+	}
+
+	/**
+	 * Adds a template to the list of templates which are searched for.
+	 *
+	 * @param template   Template being searched for
+	 * @param mask       Optional mask.  Same size as template.  0 = pixel is transparent, values larger than zero
+	 *                   determine how influential the pixel is.  Can be null.
+	 * @param maxMatches The maximum number of matches it will return for this template
+	 * @return Index of the template
+	 */
+	public int addTemplate(T template, T mask , int maxMatches) {
+		Target<T> t = new Target<>();
+		t.template = template;
+		t.mask = mask;
+		t.maxMatches = maxMatches;
+		targets.add(t);
+		return targets.size()-1;
+	}
+
+	/**
+	 * Removes all the templates
+	 */
+	public void clearTemplates() {
+		targets.clear();
+	}
+
+	/**
+	 * Specifies the input image which the templates are to be found inside.
+	 *
+	 * @param image Image being processed
+	 */
+	public void setImage(T image ) {
+		matcher.setImage(image);
+	}
+
+	/**
+	 * Searches for every template inside the image
+	 */
+	public void process() {
+		for (int i = 0; i < targets.size(); i++) {
+			process(matcher, targets.get(i));
+		}
+	}
+
+	/**
+	 * Searches for a single template and copies the matches into its results
+	 */
+	protected static <T extends ImageBase<T>> void process( TemplateMatching<T> matcher , Target<T> t ) {
+		matcher.setTemplate(t.template, t.mask, t.maxMatches);
+		matcher.process();
+
+		FastQueue<Match> found = matcher.getResults();
+		t.results.reset();
+		for (int j = 0; j < found.size; j++) {
+			Match a = found.get(j);
+			Match b = t.results.grow();
+			b.set(a.x,a.y);
+			b.score = a.score;
+		}
+	}
+
+	/**
+	 * Returns the matches found for the specified template. The location is the location of the top left corner
+	 * of the template.  Score is the first score with higher number being better
+	 *
+	 * @param which Index of the template
+	 * @return List of found templates
+	 */
+	public FastQueue<Match> getResults( int which ) {
+		return targets.get(which).results;
+	}
+
+	public int getTotalTemplates() {
+		return targets.size();
+	}
+
+	public TemplateMatching<T> getMatcher() {
+		return matcher;
+	}
+
+	protected static class Target<T> {
+		T template;
+		T mask;
+		int maxMatches;
+		FastQueue<Match> results = new FastQueue<>(10, Match.class, true);
+	}
+}
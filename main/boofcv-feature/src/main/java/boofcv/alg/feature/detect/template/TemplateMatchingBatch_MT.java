@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.template;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link TemplateMatchingBatch}. Instead of splitting each template's intensity
+ * image into row bands, which leaves most of the threads idle when the templates are small, the templates
+ * are divided between the threads. Each thread has its own {@link TemplateMatching} and intensity instance,
+ * which should be single threaded. The image is passed to each thread's matcher once per call to
+ * {@link #process()}.
+ * </p>
+ *
+ * <p>
+ * If there are only a few large templates then {@link TemplateMatchingBatch} with a concurrent intensity
+ * algorithm is the better choice.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TemplateMatchingBatch_MT<T extends ImageBase<T>> extends TemplateMatchingBatch<T> {
+
+	// Matcher for each thread
+	FastQueue<TemplateMatching<T>> threadMatchers;
+
+	// settings which are passed to each thread's matcher
+	int minimumSeparation = -1;
+	T image;
+
+	/**
+	 * Constructor
+	 *
+	 * @param factory Creates a new matcher for each thread. Its intensity algorithm should be single threaded.
+	 */
+	public TemplateMatchingBatch_MT( BoofLambdas.Factory<TemplateMatching<T>> factory ) {
+		super(factory.newInstance());
+
+		threadMatchers = new FastQueue<TemplateMatching<T>>(1,(Class)TemplateMatching.class,true) {
+			@Override
+			protected TemplateMatching<T> createInstance() {
+				return factory.newInstance();
+			}
+		};
+	}
+
+	@Override
+	public void setMinimumSeparation(int radius) {
+		super.setMinimumSeparation(radius);
+		this.minimumSeparation = radius;
+	}
+
+	@Override
+	public void setImage(T image) {
+		this.image = image;
+	}
+
+	@Override
+	public void process() {
+		BoofConcurrency.loopBlocks(0,targets.size(),threadMatchers,(matcher,idx0,idx1)->{
+			if( minimumSeparation >= 0 )
+				matcher.setMinimumSeparation(minimumSeparation);
+			matcher.setImage(image);
+
+			for (int i = idx0; i < idx1; i++) {
+				process(matcher, targets.get(i));
+			}
+		});
+	}
+}
@@ -15,114 +15,380 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package boofcv.alg.feature.detect.template;
 
-import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageBase;
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.filter.misc.AverageDownSampleOps;
+import boofcv.alg.misc.GImageStatistics;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.*;
+
+import java.util.Arrays;
 
 /**
+ * <p>
  * Template matching which uses normalized cross correlation (NCC).
+ * </p>
+ *
+ * <p>
+ * The mean and standard deviation of the image inside each template region are found in constant time using
+ * integral images of the pixel values and squared pixel values, which are computed once in
+ * {@link #setInputImage}. Since the template's mean is subtracted from the template before the search starts,
+ * the correlation only requires a single pass through the region. Note that the image can't be modified
+ * after it has been passed in.
+ * </p>
+ *
+ * <p>
+ * For large templates the correlation between the image and the mean subtracted template is computed for every
+ * location at once using the Fourier transform. The normalization is the same for both approaches. Which one is
+ * used is selected using the template's area, see {@link #setFourierMinimumArea(int)}. The image's Fourier
+ * transform is only computed once, the first time a template needs it.
+ * </p>
+ *
+ * <p>
+ * Optionally, the number of locations the template is evaluated at can be reduced with a coarse-to-fine search.
+ * See {@link #setPruning(boolean, float)}. Locations which are pruned are assigned a score of
+ * -Float.MAX_VALUE. It's turned off by default since a match which has a poor score at the coarse scale
+ * will be missed.
+ * </p>
  *
  * @author Peter Abeles
  */
 public abstract class TemplateNCC <T extends ImageBase<T>>
 		extends BaseTemplateIntensity<T>
 {
+	// integral images of the input image's values and squared values. Has one more row and column than the image
+	protected double[] integralSum = new double[0];
+	protected double[] integralSq = new double[0];
+	protected int integralStride;
+
+	// template with its mean subtracted. Multiplied by the mask if one is used
+	protected float[] templateCentered = new float[0];
+	// sum of all the elements in templateCentered
+	protected float templateCenteredSum;
+
+	protected float area;
+	protected float templateMean;
+	protected float templateSigma;
+
+	// The Fourier transform is used if the template has at least this many pixels
+	protected int fourierMinimumArea = 100;
+	// true if the correlation for the current template was computed using the Fourier transform
+	protected boolean fourier;
+	protected DiscreteFourierTransform<GrayF64,InterleavedF64> dft;
+	// copy of the image and the flipped template which the Fourier transform can be applied to
+	protected GrayF64 imageF64 = new GrayF64(1,1);
+	protected GrayF64 templateF64 = new GrayF64(1,1);
+	protected InterleavedF64 fftImage = new InterleavedF64(1,1,2);
+	protected InterleavedF64 fftTemplate = new InterleavedF64(1,1,2);
+	protected InterleavedF64 fftMult = new InterleavedF64(1,1,2);
+	// correlation between the image and mean subtracted template for every top left corner
+	protected GrayF64 correlation = new GrayF64(1,1);
+	// true if fftImage has been computed for the current image
+	protected boolean fftImageValid;
+
+	// If true then a coarse-to-fine search is used
+	protected boolean pruning = false;
+	// Locations are only evaluated if a nearby normalized coarse score is at least this value
+	protected float pruneThreshold;
+	// true if the current template is searched for using a coarse-to-fine search
+	protected boolean pruneTemplate;
+	// computes the match intensity at the coarse scale
+	protected TemplateNCC<T> coarse;
+	protected T coarseImage, coarseTemplate, coarseMask;
+	// true if coarseImage has been computed for the current image
+	protected boolean coarseImageValid;
+	// threshold for the coarse intensity image
+	protected float coarseThreshold;
+
+	@Override
+	public void setInputImage(T image) {
+		super.setInputImage(image);
+
+		integralStride = image.width+1;
+		int N = integralStride*(image.height+1);
+		if( integralSum.length < N ) {
+			integralSum = new double[N];
+			integralSq = new double[N];
+		} else {
+			Arrays.fill(integralSum,0,integralStride,0);
+			Arrays.fill(integralSq,0,integralStride,0);
+		}
+		computeIntegral(image);
+
+		fftImageValid = false;
+		coarseImageValid = false;
+	}
+
 	@Override
 	public void process(T template) {
 		setupTemplate(template);
+		prepareSearch(template,null);
 		super.process(template);
 	}
 
+	@Override
+	public void process(T template, T mask) {
+		if( mask == null ) {
+			process(template);
+			return;
+		}
+		setupTemplate(template);
+		setupMask(mask);
+		prepareSearch(template,mask);
+		super.process(template, mask);
+	}
+
 	/**
-	 * Precompute statistical information on the template
+	 * Decides how the template will be searched for and computes everything which needs to be done before
+	 * individual locations are evaluated
 	 */
-	public abstract void setupTemplate( T template );
+	private void prepareSearch( T template , T mask ) {
+		fourier = template.width*template.height >= fourierMinimumArea;
+		if( fourier )
+			computeCorrelationFourier(template.width,template.height);
+
+		// the coarse template needs to be large enough for the search to be meaningful
+		pruneTemplate = pruning && template.width >= 4 && template.height >= 4;
+		if( pruneTemplate )
+			searchCoarse(template,mask);
+	}
 
-	public static class F32 extends TemplateNCC<GrayF32> {
+	/**
+	 * Computes the correlation between the image and the mean subtracted template for every location by
+	 * multiplying their Fourier transforms. The template is flipped so that multiplication computes the
+	 * correlation instead of the convolution. Since the template is always fully inside the image there is no
+	 * wrap around for locations which are evaluated.
+	 */
+	protected void computeCorrelationFourier( int templateWidth , int templateHeight ) {
+		final int w = image.width, h = image.height;
+
+		if( dft == null )
+			dft = DiscreteFourierTransformOps.createTransformF64();
+
+		if( !fftImageValid ) {
+			imageF64.reshape(w,h);
+			GConvertImage.convert(image,imageF64);
+			fftImage.reshape(w,h);
+			dft.forward(imageF64,fftImage);
+			fftImageValid = true;
+		}
+
+		templateF64.reshape(w,h);
+		ImageMiscOps.fill(templateF64,0);
+		int index = 0;
+		for (int y = 0; y < templateHeight; y++) {
+			int row = y == 0 ? 0 : (h-y)*w;
+			for (int x = 0; x < templateWidth; x++) {
+				templateF64.data[row + (x == 0 ? 0 : w-x)] = templateCentered[index++];
+			}
+		}
 
-		float area;
-		float templateMean;
-		float templateSigma;
+		fftTemplate.reshape(w,h);
+		fftMult.reshape(w,h);
+		correlation.reshape(w,h);
+		dft.forward(templateF64,fftTemplate);
+		DiscreteFourierTransformOps.multiplyComplex(fftImage,fftTemplate,fftMult);
+		dft.inverse(fftMult,correlation);
+	}
 
-		@Override
-		protected float evaluate(int tl_x, int tl_y) {
+	/**
+	 * Computes the match intensity using the image and template down sampled by a factor of two
+	 */
+	protected void searchCoarse( T template , T mask ) {
+		if( coarse == null ) {
+			coarse = createCoarse();
+			coarse.setFourierMinimumArea(fourierMinimumArea);
+			coarseImage = image.createNew(1,1);
+			coarseTemplate = image.createNew(1,1);
+			coarseMask = image.createNew(1,1);
+		}
 
-			float top = 0;
-			float imageMean = 0;
-			float imageSigma = 0;
+		if( !coarseImageValid ) {
+			AverageDownSampleOps.reshapeDown(coarseImage,image.width,image.height,2);
+			AverageDownSampleOps.down(image,2,coarseImage);
+			coarse.setInputImage(coarseImage);
+			coarseImageValid = true;
+		}
 
-			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
+		AverageDownSampleOps.reshapeDown(coarseTemplate,template.width,template.height,2);
+		AverageDownSampleOps.down(template,2,coarseTemplate);
 
-				for (int x = 0; x < template.width; x++) {
-					imageMean += image.data[imageIndex++];
-				}
+		// the coarse image needs to be larger than the coarse template
+		if( coarseTemplate.width >= coarseImage.width || coarseTemplate.height >= coarseImage.height ) {
+			pruneTemplate = false;
+			return;
+		}
+
+		if( mask == null ) {
+			coarse.process(coarseTemplate);
+			coarseThreshold = pruneThreshold*coarse.area;
+		} else {
+			AverageDownSampleOps.reshapeDown(coarseMask,mask.width,mask.height,2);
+			AverageDownSampleOps.down(mask,2,coarseMask);
+			coarse.process(coarseTemplate,coarseMask);
+			coarseThreshold = pruneThreshold*(float)GImageStatistics.sum(coarseMask);
+		}
+	}
+
+	/**
+	 * Returns true if the coarse score near the specified location is good enough for it to be evaluated
+	 */
+	protected boolean isCoarseCandidate( int tl_x , int tl_y ) {
+		GrayF32 intensity = coarse.getIntensity();
+		int borderX0 = coarse.getBorderX0();
+		int borderY0 = coarse.getBorderY0();
+
+		// range of valid top left corners at the coarse scale
+		int maxX = coarseImage.width - coarseTemplate.width - 1;
+		int maxY = coarseImage.height - coarseTemplate.height - 1;
+
+		int x0 = Math.max(0,tl_x/2-1), x1 = Math.min(maxX,tl_x/2+1);
+		int y0 = Math.max(0,tl_y/2-1), y1 = Math.min(maxY,tl_y/2+1);
+
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				if( intensity.unsafe_get(x+borderX0,y+borderY0) >= coarseThreshold )
+					return true;
 			}
+		}
+		return false;
+	}
 
-			imageMean /= area;
+	/**
+	 * Precompute statistical information on the template and the mean subtracted template
+	 */
+	public abstract void setupTemplate( T template );
 
-			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
-				int templateIndex = template.startIndex + y * template.stride;
+	/**
+	 * Multiplies the mean subtracted template by the mask
+	 */
+	protected abstract void setupMask( T mask );
 
-				for (int x = 0; x < template.width; x++) {
-					float templateVal = template.data[templateIndex++];
+	/**
+	 * Computes the integral images. The first row has already been set to zero.
+	 */
+	protected abstract void computeIntegral( T image );
 
-					float diff = image.data[imageIndex++] - imageMean;
-					imageSigma += diff*diff;
+	/**
+	 * Computes the correlation between the image and the mean subtracted template
+	 *
+	 * @param tl_x Template's top left corner x-coordinate
+	 * @param tl_y Template's top left corner y-coordinate
+	 */
+	protected abstract float correlate( int tl_x , int tl_y );
 
-					top += diff*(templateVal-templateMean);
-				}
-			}
-			imageSigma = (float)Math.sqrt(imageSigma/area);
+	/**
+	 * Creates a new single threaded instance of the same type, used to search at the coarse scale
+	 */
+	protected abstract TemplateNCC<T> createCoarse();
 
-			// technically top should be divided by area, but that won't change the solution
-			return top/(imageSigma*templateSigma);
+	@Override
+	protected float evaluate(int tl_x, int tl_y) {
+		if( pruneTemplate && !isCoarseCandidate(tl_x,tl_y) )
+			return -Float.MAX_VALUE;
+
+		float top;
+		if( fourier )
+			top = (float)correlation.data[tl_y*correlation.width + tl_x];
+		else
+			top = correlate(tl_x,tl_y);
+
+		return normalize(top, tl_x, tl_y);
+	}
+
+	@Override
+	protected float evaluateMask(int tl_x, int tl_y) {
+		// the mask has already been applied to the template
+		return evaluate(tl_x, tl_y);
+	}
+
+	/**
+	 * Sums the integral image inside the template's region
+	 *
+	 * @param tl_x Template's top left corner x-coordinate
+	 * @param tl_y Template's top left corner y-coordinate
+	 */
+	protected double regionSum( double[] integral , int tl_x , int tl_y ) {
+		int index00 = tl_y*integralStride + tl_x;
+		int index10 = index00 + template.height*integralStride;
+		return integral[index10+template.width] - integral[index10] - integral[index00+template.width] + integral[index00];
+	}
+
+	/**
+	 * Computes the final score from the correlation between the image and the mean subtracted template.
+	 *
+	 * @param top Sum of the image multiplied by the mean subtracted template
+	 * @param tl_x Template's top left corner x-coordinate
+	 * @param tl_y Template's top left corner y-coordinate
+	 */
+	protected float normalize( float top , int tl_x , int tl_y ) {
+		double imageMean = regionSum(integralSum,tl_x,tl_y)/area;
+		double imageVariance = regionSum(integralSq,tl_x,tl_y)/area - imageMean*imageMean;
+		float imageSigma = (float)Math.sqrt(Math.max(0,imageVariance));
+
+		// remove the image mean from the correlation
+		top -= (float)(imageMean*templateCenteredSum);
+
+		// technically top should be divided by area, but that won't change the solution
+		return top/(imageSigma*templateSigma);
+	}
+
+	/**
+	 * Declares storage for the mean subtracted template
+	 */
+	protected void declareTemplate( T template ) {
+		area = template.width*template.height;
+		if( templateCentered.length < template.width*template.height )
+			templateCentered = new float[template.width*template.height];
+	}
+
+	/**
+	 * Computes the template's standard deviation and the sum of the mean subtracted template
+	 */
+	protected void computeTemplateStatistics() {
+		templateSigma = 0;
+		templateCenteredSum = 0;
+		int N = (int)area;
+		for (int i = 0; i < N; i++) {
+			float diff = templateCentered[i];
+			templateSigma += diff*diff;
+			templateCenteredSum += diff;
 		}
+		templateSigma = (float)Math.sqrt(templateSigma/area);
+	}
+
+	public static class F32 extends TemplateNCC<GrayF32> {
 
 		@Override
-		protected float evaluateMask(int tl_x, int tl_y) {
+		protected float correlate(int tl_x, int tl_y) {
 
 			float top = 0;
-			float imageMean = 0;
-			float imageSigma = 0;
 
+			int templateIndex = 0;
 			for (int y = 0; y < template.height; y++) {
 				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
+				int end = imageIndex + template.width;
 
-				for (int x = 0; x < template.width; x++) {
-					imageMean += image.data[imageIndex++];
+				while( imageIndex < end ) {
+					top += image.data[imageIndex++]*templateCentered[templateIndex++];
 				}
 			}
 
-			imageMean /= area;
-
-			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
-				int templateIndex = template.startIndex + y * template.stride;
-				int maskIndex = mask.startIndex + y * mask.stride;
-
-				for (int x = 0; x < template.width; x++) {
-					float templateVal = template.data[templateIndex++];
-
-					float diff = image.data[imageIndex++] - imageMean;
-					imageSigma += diff*diff;
-
-					top += mask.data[maskIndex++]*diff*(templateVal-templateMean);
-				}
-			}
-			imageSigma = (float)Math.sqrt(imageSigma/area);
+			return top;
+		}
 
-			// technically top should be divided by area, but that won't change the solution
-			return top/(imageSigma*templateSigma);
+		@Override
+		protected TemplateNCC<GrayF32> createCoarse() {
+			return new F32();
 		}
 
 		@Override
 		public void setupTemplate(GrayF32 template) {
-			area = template.width*template.height;
+			declareTemplate(template);
 
 			templateMean = 0;
 
@@ -136,134 +402,204 @@ public abstract class TemplateNCC <T extends ImageBase<T>>
 
 			templateMean /= area;
 
-			templateSigma = 0;
-
+			int index = 0;
 			for (int y = 0; y < template.height; y++) {
 				int templateIndex = template.startIndex + y * template.stride;
 
 				for (int x = 0; x < template.width; x++) {
-					float diff = template.data[templateIndex++] - templateMean;
-					templateSigma += diff*diff;
+					templateCentered[index++] = template.data[templateIndex++] - templateMean;
 				}
 			}
 
-			templateSigma = (float)Math.sqrt(templateSigma/area);
+			computeTemplateStatistics();
+		}
+
+		@Override
+		protected void setupMask(GrayF32 mask) {
+			templateCenteredSum = 0;
+			int index = 0;
+			for (int y = 0; y < mask.height; y++) {
+				int maskIndex = mask.startIndex + y * mask.stride;
+
+				for (int x = 0; x < mask.width; x++, index++) {
+					templateCentered[index] *= mask.data[maskIndex++];
+					templateCenteredSum += templateCentered[index];
+				}
+			}
+		}
+
+		@Override
+		protected void computeIntegral(GrayF32 image) {
+			for (int y = 0; y < image.height; y++) {
+				int imageIndex = image.startIndex + y*image.stride;
+				int index = (y+1)*integralStride;
+				integralSum[index] = 0;
+				integralSq[index++] = 0;
+
+				double rowSum = 0, rowSq = 0;
+				for (int x = 0; x < image.width; x++, index++) {
+					double v = image.data[imageIndex++];
+					rowSum += v;
+					rowSq += v*v;
+					integralSum[index] = integralSum[index-integralStride] + rowSum;
+					integralSq[index] = integralSq[index-integralStride] + rowSq;
+				}
+			}
 		}
 	}
 
 	public static class U8 extends TemplateNCC<GrayU8> {
 
-		float area;
-		float templateMean;
-		float templateSigma;
-
 		@Override
-		protected float evaluate(int tl_x, int tl_y) {
+		protected float correlate(int tl_x, int tl_y) {
 
 			float top = 0;
-			int imageSum = 0;
-			float imageMean = 0;
-			float imageSigma = 0;
 
+			int templateIndex = 0;
 			for (int y = 0; y < template.height; y++) {
 				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
+				int end = imageIndex + template.width;
 
-				for (int x = 0; x < template.width; x++) {
-					imageSum += image.data[imageIndex++] & 0xFF;
+				while( imageIndex < end ) {
+					top += (image.data[imageIndex++] & 0xFF)*templateCentered[templateIndex++];
 				}
 			}
 
-			imageMean = imageSum/area;
-
-			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
-				int templateIndex = template.startIndex + y * template.stride;
-
-				for (int x = 0; x < template.width; x++) {
-					int templateVal = template.data[templateIndex++] & 0xFF;
-
-					float diff = (image.data[imageIndex++] & 0xFF) - imageMean;
-					imageSigma += diff*diff;
-
-					top += diff*(templateVal-templateMean);
-				}
-			}
-			imageSigma = (float)Math.sqrt(imageSigma/area);
+			return top;
+		}
 
-			// technically top should be divided by area, but that won't change the solution
-			return top/(imageSigma*templateSigma);
+		@Override
+		protected TemplateNCC<GrayU8> createCoarse() {
+			return new U8();
 		}
 
 		@Override
-		protected float evaluateMask(int tl_x, int tl_y) {
+		public void setupTemplate(GrayU8 template) {
+			declareTemplate(template);
 
-			float top = 0;
-			int imageSum = 0;
-			float imageMean = 0;
-			float imageSigma = 0;
+			int templateSum = 0;
 
 			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
+				int templateIndex = template.startIndex + y * template.stride;
 
 				for (int x = 0; x < template.width; x++) {
-					imageSum += image.data[imageIndex++] & 0xFF;
+					templateSum += template.data[templateIndex++] & 0xFF;
 				}
 			}
 
-			imageMean = imageSum/area;
+			templateMean = templateSum/area;
 
+			int index = 0;
 			for (int y = 0; y < template.height; y++) {
-				int imageIndex = image.startIndex + (tl_y + y) * image.stride + tl_x;
 				int templateIndex = template.startIndex + y * template.stride;
-				int maskIndex = mask.startIndex + y * mask.stride;
 
 				for (int x = 0; x < template.width; x++) {
-					int templateVal = template.data[templateIndex++] & 0xFF;
-					int m = mask.data[maskIndex++] & 0xFF;
-
-					float diff = (image.data[imageIndex++] & 0xFF) - imageMean;
-					imageSigma += diff*diff;
-
-					top += m*diff*(templateVal-templateMean);
+					templateCentered[index++] = (template.data[templateIndex++] & 0xFF) - templateMean;
 				}
 			}
-			imageSigma = (float)Math.sqrt(imageSigma/area);
 
-			// technically top should be divided by area, but that won't change the solution
-			return top/(imageSigma*templateSigma);
+			computeTemplateStatistics();
 		}
 
 		@Override
-		public void setupTemplate(GrayU8 template) {
-			area = template.width*template.height;
-
-			templateMean = 0;
-
-			for (int y = 0; y < template.height; y++) {
-				int templateIndex = template.startIndex + y * template.stride;
+		protected void setupMask(GrayU8 mask) {
+			templateCenteredSum = 0;
+			int index = 0;
+			for (int y = 0; y < mask.height; y++) {
+				int maskIndex = mask.startIndex + y * mask.stride;
 
-				for (int x = 0; x < template.width; x++) {
-					templateMean += template.data[templateIndex++] & 0xFF;
+				for (int x = 0; x < mask.width; x++, index++) {
+					templateCentered[index] *= mask.data[maskIndex++] & 0xFF;
+					templateCenteredSum += templateCentered[index];
 				}
 			}
+		}
 
-			templateMean /= area;
+		@Override
+		protected void computeIntegral(GrayU8 image) {
+			for (int y = 0; y < image.height; y++) {
+				int imageIndex = image.startIndex + y*image.stride;
+				int index = (y+1)*integralStride;
+				integralSum[index] = 0;
+				integralSq[index++] = 0;
+
+				long rowSum = 0, rowSq = 0;
+				for (int x = 0; x < image.width; x++, index++) {
+					int v = image.data[imageIndex++] & 0xFF;
+					rowSum += v;
+					rowSq += v*v;
+					integralSum[index] = integralSum[index-integralStride] + rowSum;
+					integralSq[index] = integralSq[index-integralStride] + rowSq;
+				}
+			}
+		}
+	}
 
-			templateSigma = 0;
+	/**
+	 * Concurrent implementation of {@link F32}
+	 */
+	public static class F32_MT extends F32 {
+		// Minimum number of rows processed by a thread
+		public static int MIN_BAND = 4;
 
-			for (int y = 0; y < template.height; y++) {
-				int templateIndex = template.startIndex + y * template.stride;
+		@Override
+		protected void processRows(int row0, int row1) {
+			BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, super::processRows);
+		}
+	}
 
-				for (int x = 0; x < template.width; x++) {
-					float diff = (template.data[templateIndex++] & 0xFF) - templateMean;
-					templateSigma += diff*diff;
-				}
-			}
+	/**
+	 * Concurrent implementation of {@link U8}
+	 */
+	public static class U8_MT extends U8 {
+		// Minimum number of rows processed by a thread
+		public static int MIN_BAND = 4;
 
-			templateSigma = (float)Math.sqrt(templateSigma/area);
+		@Override
+		protected void processRows(int row0, int row1) {
+			BoofConcurrency.loopBlocks(row0, row1, MIN_BAND, super::processRows);
 		}
 	}
 
+	/**
+	 * Specifies when the Fourier transform is used to compute the correlation
+	 *
+	 * @param area The Fourier transform is used if the template has at least this many pixels.
+	 *             Set to Integer.MAX_VALUE to never use it.
+	 */
+	public void setFourierMinimumArea( int area ) {
+		this.fourierMinimumArea = area;
+		if( coarse != null )
+			coarse.setFourierMinimumArea(area);
+	}
+
+	public int getFourierMinimumArea() {
+		return fourierMinimumArea;
+	}
+
+	/**
+	 * Turns the coarse-to-fine search on or off. The match intensity is first computed with the image and template
+	 * down sampled by a factor of two. A location is then only evaluated if a coarse location next to it has a
+	 * score which is at least the threshold. The coarse score is divided by the template's area, or the sum of
+	 * the mask's values if there is a mask, so that it is approximately the NCC between -1 and 1. Templates
+	 * which are less than 4 pixels wide or tall are never pruned.
+	 *
+	 * @param enabled true to turn on the coarse-to-fine search
+	 * @param threshold Minimum normalized coarse score. Try 0.5
+	 */
+	public void setPruning( boolean enabled , float threshold ) {
+		this.pruning = enabled;
+		this.pruneThreshold = threshold;
+	}
+
+	public boolean isPruning() {
+		return pruning;
+	}
+
+	public float getPruneThreshold() {
+		return pruneThreshold;
+	}
+
 	@Override
 	public boolean isBorderProcessed() {
 		return false;
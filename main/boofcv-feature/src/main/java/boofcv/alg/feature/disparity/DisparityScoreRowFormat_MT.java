@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DisparityScoreRowFormat}. The image is split into horizontal bands which
+ * overlap by the vertical border of the algorithm. Each band is processed by its own instance of the single
+ * threaded algorithm, which has its own score buffers and {@link DisparitySelect}. Since every band produces
+ * the disparity for a unique set of rows, the output is the same as the single threaded algorithm.
+ * </p>
+ *
+ * <p>
+ * The rows in the overlapping region are scored by both bands, which is a small amount of redundant work
+ * if the bands are much taller than the region being matched. For floating point images the running sums
+ * start at a different row, so scores can differ by round off error, which only matters when two disparities
+ * have almost the same score.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DisparityScoreRowFormat_MT<Input extends ImageGray<Input>, Disparity extends ImageGray<Disparity>>
+		extends DisparityScoreRowFormat<Input, Disparity>
+{
+	/**
+	 * Minimum number of disparity rows computed by a single band
+	 */
+	public static int MIN_BAND = 20;
+
+	// Used to look up the border and image types
+	DisparityScoreRowFormat<Input, Disparity> example;
+
+	// Storage for each band
+	FastQueue<BandData<Input,Disparity>> bands;
+
+	/**
+	 * Constructor
+	 *
+	 * @param factory Creates a new instance of the single threaded algorithm for each band. All instances must
+	 *                have the same configuration.
+	 */
+	public DisparityScoreRowFormat_MT( BoofLambdas.Factory<DisparityScoreRowFormat<Input, Disparity>> factory ) {
+		this(factory, factory.newInstance());
+	}
+
+	private DisparityScoreRowFormat_MT( BoofLambdas.Factory<DisparityScoreRowFormat<Input, Disparity>> factory ,
+										DisparityScoreRowFormat<Input, Disparity> example ) {
+		super(example.minDisparity, example.maxDisparity, example.radiusX, example.radiusY);
+		this.example = example;
+
+		bands = new FastQueue<BandData<Input,Disparity>>(1,(Class)BandData.class,true) {
+			@Override
+			protected BandData<Input,Disparity> createInstance() {
+				return new BandData<>(factory.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void _process( Input left , Input right , Disparity disparity ) {
+		final int borderY = getBorderY();
+		final int minBand = Math.max(MIN_BAND, 2*borderY);
+
+		BoofConcurrency.loopBlocks(borderY,left.height-borderY,minBand,bands,(band,y0,y1)->{
+			// rows which need to be read to compute the disparity in rows y0 to y1-1
+			int top = y0-borderY;
+			int bottom = y1+borderY;
+
+			band.left = left.subimage(0,top,left.width,bottom,band.left);
+			band.right = right.subimage(0,top,right.width,bottom,band.right);
+			band.disparity = disparity.subimage(0,top,disparity.width,bottom,band.disparity);
+
+			band.alg.process(band.left,band.right,band.disparity);
+		});
+	}
+
+	@Override
+	public Class<Input> getInputType() {
+		return example.getInputType();
+	}
+
+	@Override
+	public Class<Disparity> getDisparityType() {
+		return example.getDisparityType();
+	}
+
+	@Override
+	public int getBorderX() {
+		return example.getBorderX();
+	}
+
+	@Override
+	public int getBorderY() {
+		return example.getBorderY();
+	}
+
+	/**
+	 * Algorithm and sub-images used by a single band
+	 */
+	static class BandData<Input extends ImageGray<Input>, Disparity extends ImageGray<Disparity>> {
+		DisparityScoreRowFormat<Input, Disparity> alg;
+		Input left, right;
+		Disparity disparity;
+
+		BandData(DisparityScoreRowFormat<Input, Disparity> alg) {
+			this.alg = alg;
+		}
+	}
+}
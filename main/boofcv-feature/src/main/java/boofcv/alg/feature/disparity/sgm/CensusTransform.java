@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * The census transform encodes the local structure around each pixel as a bit string. Each pixel in a square
+ * region, excluding the center pixel, is compared against the center pixel. If it's greater than the center
+ * then the corresponding bit is set to 1. The distance between two descriptors is their Hamming distance.
+ * Since only the relative order of pixel values is encoded, it is robust to changes in brightness between images.
+ * Pixels outside the image are handled by clamping their coordinates to the image border.
+ * </p>
+ *
+ * <p>
+ * [1] Zabih, Ramin, and John Woodfill. "Non-parametric local transforms for computing visual correspondence."
+ * ECCV 1994.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CensusTransform {
+
+	/**
+	 * Applies the census transform to an image of any supported type
+	 *
+	 * @param type Which sampling pattern to use
+	 * @param input (Input) Image
+	 * @param output (Output) Census descriptor for each pixel. Reshaped to match the input.
+	 */
+	public static <T extends ImageGray<T>> void transform( CensusType type , T input , GrayS32 output ) {
+		if( input instanceof GrayU8 ) {
+			transform(type.radius, (GrayU8)input, output);
+		} else if( input instanceof GrayF32 ) {
+			transform(type.radius, (GrayF32)input, output);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+input.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Census transform for {@link GrayU8}
+	 *
+	 * @param radius Radius of the square sample region
+	 * @param input (Input) Image
+	 * @param output (Output) Census descriptor for each pixel. Reshaped to match the input.
+	 */
+	public static void transform( int radius , GrayU8 input , GrayS32 output ) {
+		output.reshape(input.width,input.height);
+		int offsets[] = sampleOffsets(radius,input.stride);
+
+		for (int y = radius; y < input.height-radius; y++) {
+			int indexIn = input.startIndex + y*input.stride + radius;
+			int indexOut = output.startIndex + y*output.stride + radius;
+			for (int x = radius; x < input.width-radius; x++, indexIn++) {
+				int center = input.data[indexIn] & 0xFF;
+
+				int bits = 0;
+				for (int i = 0; i < offsets.length; i++) {
+					if( (input.data[indexIn+offsets[i]] & 0xFF) > center )
+						bits |= 1 << i;
+				}
+				output.data[indexOut++] = bits;
+			}
+		}
+
+		// handle the image border by clamping the sample coordinates
+		for (int y = 0; y < input.height; y++) {
+			boolean borderRow = y < radius || y >= input.height-radius || input.width <= 2*radius;
+			for (int x = 0; x < input.width; x++) {
+				if( !borderRow && x == radius ) {
+					x = Math.max(x,input.width-radius-1);
+					continue;
+				}
+				int center = input.unsafe_get(x,y);
+				int bits = 0, bit = 0;
+				for (int i = -radius; i <= radius; i++) {
+					int yy = clamp(y+i,input.height);
+					for (int j = -radius; j <= radius; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( input.unsafe_get(clamp(x+j,input.width),yy) > center )
+							bits |= 1 << bit;
+						bit++;
+					}
+				}
+				output.unsafe_set(x,y,bits);
+			}
+		}
+	}
+
+	/**
+	 * Census transform for {@link GrayF32}
+	 *
+	 * @param radius Radius of the square sample region
+	 * @param input (Input) Image
+	 * @param output (Output) Census descriptor for each pixel. Reshaped to match the input.
+	 */
+	public static void transform( int radius , GrayF32 input , GrayS32 output ) {
+		output.reshape(input.width,input.height);
+		int offsets[] = sampleOffsets(radius,input.stride);
+
+		for (int y = radius; y < input.height-radius; y++) {
+			int indexIn = input.startIndex + y*input.stride + radius;
+			int indexOut = output.startIndex + y*output.stride + radius;
+			for (int x = radius; x < input.width-radius; x++, indexIn++) {
+				float center = input.data[indexIn];
+
+				int bits = 0;
+				for (int i = 0; i < offsets.length; i++) {
+					if( input.data[indexIn+offsets[i]] > center )
+						bits |= 1 << i;
+				}
+				output.data[indexOut++] = bits;
+			}
+		}
+
+		// handle the image border by clamping the sample coordinates
+		for (int y = 0; y < input.height; y++) {
+			boolean borderRow = y < radius || y >= input.height-radius || input.width <= 2*radius;
+			for (int x = 0; x < input.width; x++) {
+				if( !borderRow && x == radius ) {
+					x = Math.max(x,input.width-radius-1);
+					continue;
+				}
+				float center = input.unsafe_get(x,y);
+				int bits = 0, bit = 0;
+				for (int i = -radius; i <= radius; i++) {
+					int yy = clamp(y+i,input.height);
+					for (int j = -radius; j <= radius; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						if( input.unsafe_get(clamp(x+j,input.width),yy) > center )
+							bits |= 1 << bit;
+						bit++;
+					}
+				}
+				output.unsafe_set(x,y,bits);
+			}
+		}
+	}
+
+	/**
+	 * Index offsets of each sample point relative to the center pixel, in row-major order and skipping
+	 * the center pixel.
+	 */
+	static int[] sampleOffsets( int radius , int stride ) {
+		int width = radius*2+1;
+		int offsets[] = new int[width*width-1];
+		int index = 0;
+		for (int i = -radius; i <= radius; i++) {
+			for (int j = -radius; j <= radius; j++) {
+				if( i == 0 && j == 0 )
+					continue;
+				offsets[index++] = i*stride + j;
+			}
+		}
+		return offsets;
+	}
+
+	private static int clamp( int value , int length ) {
+		if( value < 0 )
+			return 0;
+		if( value >= length )
+			return length-1;
+		return value;
+	}
+}
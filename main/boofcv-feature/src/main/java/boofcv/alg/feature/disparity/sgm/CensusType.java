@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+/**
+ * Different sampling patterns for the census transform. Each pixel in the square region, other than the center,
+ * is compared against the center pixel and contributes one bit to the descriptor.
+ *
+ * @author Peter Abeles
+ */
+public enum CensusType {
+	/**
+	 * 3x3 square region. 8 bits
+	 */
+	BLOCK_3_3(1),
+	/**
+	 * 5x5 square region. 24 bits
+	 */
+	BLOCK_5_5(2);
+
+	final int radius;
+
+	CensusType(int radius) {
+		this.radius = radius;
+	}
+
+	/**
+	 * Radius of the square region
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Number of bits in the descriptor
+	 */
+	public int getBits() {
+		int width = radius*2+1;
+		return width*width-1;
+	}
+}
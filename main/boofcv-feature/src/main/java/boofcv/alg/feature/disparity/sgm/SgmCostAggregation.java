@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Aggregates the matching cost along 1D paths through the image, as is done in Semi Global Matching (SGM) [1].
+ * The cost along path r at pixel p and disparity d is:
+ * </p>
+ * <pre>
+ * L(p,d) = C(p,d) + min( L(p-r,d) , L(p-r,d-1) + P1 , L(p-r,d+1) + P1 , min_k L(p-r,k) + P2 ) - min_k L(p-r,k)
+ * </pre>
+ * <p>
+ * where P1 is the penalty for a small change in disparity and P2 the penalty for a large change. The aggregated
+ * cost is the sum of L along each path. Paths are horizontal and vertical, optionally including the four
+ * diagonal directions. Costs and aggregated costs are stored in short arrays with the same layout, where
+ * the index of pixel (x,y) and disparity d is (y*width + x)*rangeDisparity + d.
+ * </p>
+ *
+ * <p>
+ * Since every path is bounded by {@link SgmCostHamming#MAX_COST} + P2, the aggregated cost from 8 paths will
+ * fit inside a short if P2 &le; {@link #MAX_PENALTY}.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation {
+
+	/**
+	 * Largest allowed penalty. Prevents the aggregated cost from overflowing.
+	 */
+	public static final int MAX_PENALTY = Short.MAX_VALUE/8 - SgmCostHamming.MAX_COST;
+
+	// penalty for a change in disparity of one
+	protected int penaltySmallChange = 200;
+	// penalty for a larger change in disparity
+	protected int penaltyLargeChange = 2000;
+	// number of paths which are considered. 4 or 8
+	protected int numberOfPaths = 8;
+
+	// shape of the cost volume
+	protected int width, height, rangeDisparity;
+
+	// cost of each pixel and disparity
+	protected short[] costs;
+	// sum of path costs
+	protected short[] aggregated = new short[0];
+
+	// the (x,y) coordinate of the first pixel in each path
+	protected GrowQueue_I32 pathStarts = new GrowQueue_I32();
+
+	// workspace for processing a path
+	private PathWorkspace workspace = new PathWorkspace();
+
+	/**
+	 * Aggregates the cost along each path
+	 *
+	 * @param costs Cost of each pixel and disparity
+	 * @param width Image width
+	 * @param height Image height
+	 * @param rangeDisparity Number of disparity values
+	 */
+	public void process( short[] costs , int width , int height , int rangeDisparity ) {
+		if( costs.length < width*height*rangeDisparity )
+			throw new IllegalArgumentException("Cost array is too small");
+
+		this.costs = costs;
+		this.width = width;
+		this.height = height;
+		this.rangeDisparity = rangeDisparity;
+
+		int N = width*height*rangeDisparity;
+		if( aggregated.length < N )
+			aggregated = new short[N];
+		else
+			java.util.Arrays.fill(aggregated,0,N,(short)0);
+
+		aggregate( 1, 0);
+		aggregate(-1, 0);
+		aggregate( 0, 1);
+		aggregate( 0,-1);
+
+		if( numberOfPaths == 8 ) {
+			aggregate( 1, 1);
+			aggregate(-1, 1);
+			aggregate( 1,-1);
+			aggregate(-1,-1);
+		}
+	}
+
+	/**
+	 * Aggregates the cost along every path which goes in the specified direction
+	 */
+	protected void aggregate( int dx , int dy ) {
+		computePathStarts(dx, dy);
+		processPaths(dx, dy, 0, pathStarts.size/2, workspace);
+	}
+
+	/**
+	 * Finds the first pixel in every path in the specified direction. A pixel is the start of a path if the
+	 * pixel before it is outside the image.
+	 */
+	protected void computePathStarts( int dx , int dy ) {
+		pathStarts.reset();
+		int y0 = dy > 0 ? 0 : height-1;
+		if( dy != 0 ) {
+			for (int x = 0; x < width; x++) {
+				pathStarts.add(x);
+				pathStarts.add(y0);
+			}
+		}
+		if( dx != 0 ) {
+			int x0 = dx > 0 ? 0 : width-1;
+			for (int y = 0; y < height; y++) {
+				if( dy != 0 && y == y0 )
+					continue;
+				pathStarts.add(x0);
+				pathStarts.add(y);
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the cost along a set of paths which go in the same direction. Paths which go in the same
+	 * direction never cross each other.
+	 *
+	 * @param idx0 Index of the first path, inclusive
+	 * @param idx1 Index of the last path, exclusive
+	 */
+	protected void processPaths( int dx , int dy , int idx0 , int idx1 , PathWorkspace work ) {
+		work.resize(rangeDisparity);
+
+		for (int path = idx0; path < idx1; path++) {
+			int x = pathStarts.get(path*2);
+			int y = pathStarts.get(path*2+1);
+
+			// first pixel in the path has no previous cost
+			int index = (y*width + x)*rangeDisparity;
+			int minPrevious = Integer.MAX_VALUE;
+			for (int d = 0; d < rangeDisparity; d++) {
+				int c = costs[index+d];
+				work.previous[d] = c;
+				aggregated[index+d] += c;
+				if( c < minPrevious )
+					minPrevious = c;
+			}
+
+			x += dx; y += dy;
+			while( x >= 0 && y >= 0 && x < width && y < height ) {
+				index = (y*width + x)*rangeDisparity;
+				minPrevious = computeCost(index, minPrevious, work.previous, work.current);
+
+				int[] tmp = work.previous;
+				work.previous = work.current;
+				work.current = tmp;
+
+				x += dx; y += dy;
+			}
+		}
+	}
+
+	/**
+	 * Computes the path cost at a pixel and adds it to the aggregated cost
+	 *
+	 * @param index Index of the pixel's first disparity
+	 * @param minPrevious Minimum path cost at the previous pixel
+	 * @param previous Path cost at the previous pixel
+	 * @param current (Output) Path cost at this pixel
+	 * @return The minimum path cost at this pixel
+	 */
+	final int computeCost( int index , int minPrevious , int[] previous , int[] current ) {
+		int largeChange = minPrevious + penaltyLargeChange;
+		int minCurrent = Integer.MAX_VALUE;
+
+		for (int d = 0; d < rangeDisparity; d++) {
+			int best = previous[d];
+			if( d > 0 )
+				best = Math.min(best, previous[d-1] + penaltySmallChange);
+			if( d < rangeDisparity-1 )
+				best = Math.min(best, previous[d+1] + penaltySmallChange);
+			best = Math.min(best, largeChange);
+
+			int c = costs[index+d] + best - minPrevious;
+			current[d] = c;
+			aggregated[index+d] += c;
+			if( c < minCurrent )
+				minCurrent = c;
+		}
+		return minCurrent;
+	}
+
+	/**
+	 * Specifies the penalties
+	 *
+	 * @param penaltySmallChange Penalty for a change in disparity of one. P1.
+	 * @param penaltyLargeChange Penalty for a larger change in disparity. P2. Must be &ge; P1.
+	 */
+	public void setPenalties( int penaltySmallChange , int penaltyLargeChange ) {
+		if( penaltySmallChange < 0 || penaltyLargeChange < penaltySmallChange )
+			throw new IllegalArgumentException("Penalties must be positive and small <= large");
+		if( penaltyLargeChange > MAX_PENALTY )
+			throw new IllegalArgumentException("Large penalty can't be more than "+MAX_PENALTY);
+		this.penaltySmallChange = penaltySmallChange;
+		this.penaltyLargeChange = penaltyLargeChange;
+	}
+
+	public int getPenaltySmallChange() {
+		return penaltySmallChange;
+	}
+
+	public int getPenaltyLargeChange() {
+		return penaltyLargeChange;
+	}
+
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	/**
+	 * Specifies the number of paths which are aggregated
+	 *
+	 * @param numberOfPaths 4 for horizontal and vertical paths. 8 to also include diagonal paths.
+	 */
+	public void setNumberOfPaths(int numberOfPaths) {
+		if( numberOfPaths != 4 && numberOfPaths != 8 )
+			throw new IllegalArgumentException("Number of paths must be 4 or 8");
+		this.numberOfPaths = numberOfPaths;
+	}
+
+	/**
+	 * Sum of path costs. Same layout as the input costs.
+	 */
+	public short[] getAggregated() {
+		return aggregated;
+	}
+
+	/**
+	 * Storage for the path cost at the previous and current pixel
+	 */
+	public static class PathWorkspace {
+		int[] previous = new int[0];
+		int[] current = new int[0];
+
+		void resize( int rangeDisparity ) {
+			if( previous.length < rangeDisparity ) {
+				previous = new int[rangeDisparity];
+				current = new int[rangeDisparity];
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+/**
+ * <p>
+ * Variant of {@link SgmCostAggregation} which processes the image one row at a time and only needs to store
+ * the cost of the previous row. This reduces the memory from O(width*height*disparity) to O(width*disparity)
+ * at the cost of only being able to aggregate along paths which come from rows which have already been
+ * seen. The five causal paths are used: left to right, right to left, top to bottom and the two diagonals which
+ * go from top to bottom.
+ * </p>
+ *
+ * <p>
+ * Rows must be processed in order, starting with the first row in the image.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregationStreaming {
+
+	// penalty for a change in disparity of one
+	int penaltySmallChange = 200;
+	// penalty for a larger change in disparity
+	int penaltyLargeChange = 2000;
+
+	// shape of a cost row
+	int width, rangeDisparity;
+
+	// path cost in the previous row for paths going down, down-right, and down-left
+	int[] previousDown = new int[0], previousRight = new int[0], previousLeft = new int[0];
+	// path cost in the current row
+	int[] currentDown = new int[0], currentRight = new int[0], currentLeft = new int[0];
+	// minimum path cost at each pixel
+	int[] minPreviousDown = new int[0], minPreviousRight = new int[0], minPreviousLeft = new int[0];
+	int[] minCurrentDown = new int[0], minCurrentRight = new int[0], minCurrentLeft = new int[0];
+
+	// path cost for horizontal paths at a single pixel
+	int[] horizontalA = new int[0], horizontalB = new int[0];
+
+	// if true then the next row is the first row in the image
+	boolean firstRow;
+
+	/**
+	 * Prepares to process a new image
+	 *
+	 * @param width Image width
+	 * @param rangeDisparity Number of disparity values
+	 */
+	public void initialize( int width , int rangeDisparity ) {
+		this.width = width;
+		this.rangeDisparity = rangeDisparity;
+
+		int N = width*rangeDisparity;
+		if( previousDown.length < N ) {
+			previousDown = new int[N]; previousRight = new int[N]; previousLeft = new int[N];
+			currentDown = new int[N]; currentRight = new int[N]; currentLeft = new int[N];
+		}
+		if( minPreviousDown.length < width ) {
+			minPreviousDown = new int[width]; minPreviousRight = new int[width]; minPreviousLeft = new int[width];
+			minCurrentDown = new int[width]; minCurrentRight = new int[width]; minCurrentLeft = new int[width];
+		}
+		if( horizontalA.length < rangeDisparity ) {
+			horizontalA = new int[rangeDisparity];
+			horizontalB = new int[rangeDisparity];
+		}
+		firstRow = true;
+	}
+
+	/**
+	 * Aggregates the cost for the next row in the image
+	 *
+	 * @param costs (Input) Cost for each pixel and disparity in the row. index = x*rangeDisparity + d
+	 * @param aggregated (Output) Sum of path costs. Same layout as costs.
+	 */
+	public void process( short[] costs , short[] aggregated ) {
+		final int N = width*rangeDisparity;
+		for (int i = 0; i < N; i++) {
+			aggregated[i] = 0;
+		}
+
+		horizontal(costs, aggregated, 0, width, 1);
+		horizontal(costs, aggregated, width-1, -1, -1);
+
+		for (int x = 0; x < width; x++) {
+			int index = x*rangeDisparity;
+			if( firstRow ) {
+				minCurrentDown[x] = start(costs, index, currentDown, aggregated);
+				minCurrentRight[x] = start(costs, index, currentRight, aggregated);
+				minCurrentLeft[x] = start(costs, index, currentLeft, aggregated);
+				continue;
+			}
+			minCurrentDown[x] = step(costs, index, previousDown, index,
+					minPreviousDown[x], currentDown, aggregated);
+			if( x > 0 )
+				minCurrentRight[x] = step(costs, index, previousRight, index-rangeDisparity,
+						minPreviousRight[x-1], currentRight, aggregated);
+			else
+				minCurrentRight[x] = start(costs, index, currentRight, aggregated);
+			if( x < width-1 )
+				minCurrentLeft[x] = step(costs, index, previousLeft, index+rangeDisparity,
+						minPreviousLeft[x+1], currentLeft, aggregated);
+			else
+				minCurrentLeft[x] = start(costs, index, currentLeft, aggregated);
+		}
+		firstRow = false;
+
+		// the current row becomes the previous row
+		int[] tmp;
+		tmp = previousDown; previousDown = currentDown; currentDown = tmp;
+		tmp = previousRight; previousRight = currentRight; currentRight = tmp;
+		tmp = previousLeft; previousLeft = currentLeft; currentLeft = tmp;
+		tmp = minPreviousDown; minPreviousDown = minCurrentDown; minCurrentDown = tmp;
+		tmp = minPreviousRight; minPreviousRight = minCurrentRight; minCurrentRight = tmp;
+		tmp = minPreviousLeft; minPreviousLeft = minCurrentLeft; minCurrentLeft = tmp;
+	}
+
+	/**
+	 * Aggregates along a horizontal path
+	 */
+	private void horizontal( short[] costs , short[] aggregated , int x0 , int x1 , int step ) {
+		int[] previous = horizontalA;
+		int[] current = horizontalB;
+		int index = x0*rangeDisparity;
+
+		int minPrevious = Integer.MAX_VALUE;
+		for (int d = 0; d < rangeDisparity; d++) {
+			int c = costs[index+d];
+			previous[d] = c;
+			aggregated[index+d] += c;
+			if( c < minPrevious )
+				minPrevious = c;
+		}
+
+		for (int x = x0+step; x != x1; x += step) {
+			index = x*rangeDisparity;
+			minPrevious = step(costs, index, previous, 0, minPrevious, current, 0, aggregated);
+			int[] tmp = previous; previous = current; current = tmp;
+		}
+	}
+
+	/**
+	 * First pixel in a path
+	 */
+	private int start( short[] costs , int index , int[] current , short[] aggregated ) {
+		int minCurrent = Integer.MAX_VALUE;
+		for (int d = 0; d < rangeDisparity; d++) {
+			int c = costs[index+d];
+			current[index+d] = c;
+			aggregated[index+d] += c;
+			if( c < minCurrent )
+				minCurrent = c;
+		}
+		return minCurrent;
+	}
+
+	private int step( short[] costs , int index , int[] previous , int indexPrevious , int minPrevious ,
+					  int[] current , short[] aggregated ) {
+		return step(costs,index,previous,indexPrevious,minPrevious,current,index,aggregated);
+	}
+
+	/**
+	 * Computes the path cost at a pixel given the path cost at the previous pixel in the path
+	 *
+	 * @return minimum path cost at this pixel
+	 */
+	private int step( short[] costs , int index , int[] previous , int indexPrevious , int minPrevious ,
+					  int[] current , int indexCurrent , short[] aggregated ) {
+		int largeChange = minPrevious + penaltyLargeChange;
+		int minCurrent = Integer.MAX_VALUE;
+
+		for (int d = 0; d < rangeDisparity; d++) {
+			int best = previous[indexPrevious+d];
+			if( d > 0 )
+				best = Math.min(best, previous[indexPrevious+d-1] + penaltySmallChange);
+			if( d < rangeDisparity-1 )
+				best = Math.min(best, previous[indexPrevious+d+1] + penaltySmallChange);
+			best = Math.min(best, largeChange);
+
+			int c = costs[index+d] + best - minPrevious;
+			current[indexCurrent+d] = c;
+			aggregated[index+d] += c;
+			if( c < minCurrent )
+				minCurrent = c;
+		}
+		return minCurrent;
+	}
+
+	/**
+	 * Specifies the penalties
+	 *
+	 * @param penaltySmallChange Penalty for a change in disparity of one. P1.
+	 * @param penaltyLargeChange Penalty for a larger change in disparity. P2. Must be &ge; P1.
+	 */
+	public void setPenalties( int penaltySmallChange , int penaltyLargeChange ) {
+		if( penaltySmallChange < 0 || penaltyLargeChange < penaltySmallChange )
+			throw new IllegalArgumentException("Penalties must be positive and small <= large");
+		if( penaltyLargeChange > SgmCostAggregation.MAX_PENALTY )
+			throw new IllegalArgumentException("Large penalty can't be more than "+SgmCostAggregation.MAX_PENALTY);
+		this.penaltySmallChange = penaltySmallChange;
+		this.penaltyLargeChange = penaltyLargeChange;
+	}
+}
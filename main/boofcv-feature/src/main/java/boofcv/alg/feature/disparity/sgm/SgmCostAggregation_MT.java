@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link SgmCostAggregation}. Paths which go in the same direction never visit the
+ * same pixel, so the paths in each direction are divided between the threads. Since the aggregated cost is an
+ * integer sum the output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation_MT extends SgmCostAggregation {
+
+	// workspace for each thread
+	FastQueue<PathWorkspace> workspaces = new FastQueue<>(PathWorkspace.class,true);
+
+	@Override
+	protected void aggregate( int dx , int dy ) {
+		computePathStarts(dx, dy);
+		BoofConcurrency.loopBlocks(0,pathStarts.size/2,workspaces,(work,idx0,idx1)->
+				processPaths(dx, dy, idx0, idx1, work));
+	}
+}
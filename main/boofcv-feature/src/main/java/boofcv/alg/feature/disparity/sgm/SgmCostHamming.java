@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.struct.image.GrayS32;
+
+/**
+ * <p>
+ * Computes the matching cost between census descriptors in the left and right image using the Hamming distance.
+ * The distance is scaled so that a cost of {@link #MAX_COST} indicates that every bit is different. Costs are
+ * stored as shorts with the disparity being the inner most index, i.e. index = x*rangeDisparity + d.
+ * </p>
+ *
+ * <p>
+ * Disparities which would sample outside the right image are assigned a cost of {@link #MAX_COST}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostHamming {
+
+	/**
+	 * The largest possible cost
+	 */
+	public static final int MAX_COST = 1023;
+
+	// minimum disparity and the number of disparity values considered
+	int minDisparity;
+	int rangeDisparity;
+
+	// look up table from number of different bits to cost
+	short[] bitsToCost = new short[0];
+
+	/**
+	 * Configures the cost function
+	 *
+	 * @param minDisparity Minimum disparity
+	 * @param rangeDisparity Number of disparity values which are considered
+	 * @param numberOfBits Number of bits in the census descriptor
+	 */
+	public void configure( int minDisparity , int rangeDisparity , int numberOfBits ) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = rangeDisparity;
+
+		bitsToCost = new short[numberOfBits+1];
+		for (int i = 0; i <= numberOfBits; i++) {
+			bitsToCost[i] = (short)(i*MAX_COST/numberOfBits);
+		}
+	}
+
+	/**
+	 * Computes the cost for every pixel and disparity in a single row
+	 *
+	 * @param left Census transform of left image
+	 * @param right Census transform of right image
+	 * @param y The row being processed
+	 * @param costs (Output) Storage for the costs
+	 * @param offset Index of the first element in costs which is written to
+	 */
+	public void process( GrayS32 left , GrayS32 right , int y , short[] costs , int offset ) {
+		int indexLeft = left.startIndex + y*left.stride;
+		int rowRight = right.startIndex + y*right.stride;
+
+		for (int x = 0; x < left.width; x++) {
+			int descLeft = left.data[indexLeft++];
+
+			// disparities which sample inside the right image
+			int numValid = Math.max(0,Math.min(rangeDisparity, x-minDisparity+1));
+
+			int indexRight = rowRight + x - minDisparity;
+			for (int d = 0; d < numValid; d++) {
+				costs[offset++] = bitsToCost[Integer.bitCount(descLeft ^ right.data[indexRight--])];
+			}
+			for (int d = numValid; d < rangeDisparity; d++) {
+				costs[offset++] = MAX_COST;
+			}
+		}
+	}
+
+	public int getMinDisparity() {
+		return minDisparity;
+	}
+
+	public int getRangeDisparity() {
+		return rangeDisparity;
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Stereo disparity using Semi Global Matching (SGM) [1]. The matching cost between pixels is the Hamming distance
+ * between their {@link CensusTransform census} descriptors. Costs are then aggregated along multiple 1D paths
+ * by {@link SgmCostAggregation}, which smooths the disparity while preserving discontinuities. The disparity at
+ * each pixel is selected from the aggregated cost by a {@link DisparitySelect}, e.g. the same selectors that are
+ * used by rectangular region disparity, including sub-pixel.
+ * </p>
+ *
+ * <p>
+ * By default the entire cost volume is stored, which requires width*height*rangeDisparity*2*2 bytes. If memory
+ * is a concern then {@link #setStreamRows streaming} can be turned on. Then only the cost of a single row is
+ * stored and aggregation is only done along the five paths which come from rows above, see
+ * {@link SgmCostAggregationStreaming}.
+ * </p>
+ *
+ * <p>
+ * The selected disparity is relative to minDisparity, the same as {@link DisparitySelect}. Pixels with
+ * x &lt; minDisparity are not modified.
+ * </p>
+ *
+ * <p>
+ * [1] Hirschmuller, Heiko. "Stereo processing by semiglobal matching and mutual information."
+ * IEEE Transactions on pattern analysis and machine intelligence 30.2 (2007): 328-341.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparity<T extends ImageGray<T>, DI extends ImageGray<DI>> {
+
+	// which census sampling pattern is used
+	protected CensusType census;
+	// range of disparities which are considered. min inclusive and max exclusive
+	protected int minDisparity, maxDisparity, rangeDisparity;
+
+	// computes the cost of each pixel and disparity
+	protected SgmCostHamming costHamming = new SgmCostHamming();
+	// aggregates the cost over the entire image
+	protected SgmCostAggregation aggregation;
+	// aggregates the cost one row at a time
+	protected SgmCostAggregationStreaming streaming = new SgmCostAggregationStreaming();
+	// selects the disparity from the aggregated cost
+	protected DisparitySelect<int[],DI> select;
+
+	// if true then the cost is aggregated one row at a time
+	protected boolean streamRows = false;
+
+	// census descriptors
+	protected GrayS32 censusLeft = new GrayS32(1,1);
+	protected GrayS32 censusRight = new GrayS32(1,1);
+
+	// matching cost. index = (y*width + x)*rangeDisparity + d
+	protected short[] costs = new short[0];
+	// storage for a single row of costs when streaming
+	protected short[] aggregatedRow = new short[0];
+	// scores for a single row in the format expected by DisparitySelect
+	protected int[] scores = new int[0];
+
+	Class<T> inputType;
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param census Which census sampling pattern is used
+	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
+	 * @param maxDisparity Maximum disparity that it will calculate. Exclusive.
+	 * @param select Selects the best disparity given the aggregated cost
+	 * @param inputType Type of input image
+	 */
+	public SgmStereoDisparity( CensusType census , int minDisparity , int maxDisparity ,
+							   DisparitySelect<int[],DI> select , Class<T> inputType ) {
+		if( maxDisparity <= 0 )
+			throw new IllegalArgumentException("Max disparity must be greater than zero");
+		if( minDisparity < 0 || minDisparity >= maxDisparity )
+			throw new IllegalArgumentException("Min disparity must be >= 0 and < maxDisparity");
+
+		this.census = census;
+		this.minDisparity = minDisparity;
+		this.maxDisparity = maxDisparity;
+		this.rangeDisparity = maxDisparity-minDisparity;
+		this.select = select;
+		this.inputType = inputType;
+		this.aggregation = createAggregation();
+
+		costHamming.configure(minDisparity, rangeDisparity, census.getBits());
+	}
+
+	/**
+	 * Creates the algorithm used to aggregate the cost over the entire image
+	 */
+	protected SgmCostAggregation createAggregation() {
+		return new SgmCostAggregation();
+	}
+
+	/**
+	 * Computes the disparity between the two rectified images
+	 *
+	 * @param left (Input) Left rectified image
+	 * @param right (Input) Right rectified image
+	 * @param disparity (Output) Disparity image. Must be the same shape as the input images.
+	 */
+	public void process( T left , T right , DI disparity ) {
+		if( left.width != right.width || left.height != right.height )
+			throw new IllegalArgumentException("Left and right images must have the same shape");
+		if( left.width != disparity.width || left.height != disparity.height )
+			throw new IllegalArgumentException("Disparity image must have the same shape as the input");
+
+		CensusTransform.transform(census, left, censusLeft);
+		CensusTransform.transform(census, right, censusRight);
+
+		if( streamRows ) {
+			processStreaming(disparity);
+		} else {
+			int N = left.width*left.height*rangeDisparity;
+			if( costs.length < N )
+				costs = new short[N];
+			computeCosts();
+			aggregation.process(costs, left.width, left.height, rangeDisparity);
+			selectDisparity(disparity);
+		}
+	}
+
+	/**
+	 * Computes the cost for every pixel and disparity in the image
+	 */
+	protected void computeCosts() {
+		int W = censusLeft.width;
+		for (int y = 0; y < censusLeft.height; y++) {
+			costHamming.process(censusLeft, censusRight, y, costs, y*W*rangeDisparity);
+		}
+	}
+
+	/**
+	 * Selects the disparity for every pixel from the aggregated cost
+	 */
+	protected void selectDisparity( DI disparity ) {
+		declareScores(disparity.width);
+		select.configure(disparity, minDisparity, maxDisparity, 0);
+		short[] aggregated = aggregation.getAggregated();
+		for (int y = 0; y < disparity.height; y++) {
+			convertToScores(aggregated, y*disparity.width*rangeDisparity, disparity.width, scores);
+			select.process(y, scores);
+		}
+	}
+
+	/**
+	 * Aggregates the cost and selects the disparity one row at a time
+	 */
+	protected void processStreaming( DI disparity ) {
+		int W = disparity.width;
+		int N = W*rangeDisparity;
+		if( costs.length < N )
+			costs = new short[N];
+		if( aggregatedRow.length < N )
+			aggregatedRow = new short[N];
+		declareScores(W);
+
+		streaming.initialize(W, rangeDisparity);
+		select.configure(disparity, minDisparity, maxDisparity, 0);
+		for (int y = 0; y < disparity.height; y++) {
+			costHamming.process(censusLeft, censusRight, y, costs, 0);
+			streaming.process(costs, aggregatedRow);
+			convertToScores(aggregatedRow, 0, W, scores);
+			select.process(y, scores);
+		}
+	}
+
+	protected void declareScores( int width ) {
+		if( scores.length < width*rangeDisparity )
+			scores = new int[width*rangeDisparity];
+	}
+
+	/**
+	 * Converts a row of aggregated cost into the format used by {@link DisparitySelect}. Columns with
+	 * x &ge; minDisparity are copied and the index of column x and disparity d is d*width + x - minDisparity
+	 *
+	 * @param aggregated (Input) aggregated cost
+	 * @param offset Index of the first element in the row
+	 * @param width Image width
+	 * @param scores (Output) scores
+	 */
+	protected void convertToScores( short[] aggregated , int offset , int width , int[] scores ) {
+		for (int x = minDisparity; x < width; x++) {
+			int index = offset + x*rangeDisparity;
+			int indexScore = x - minDisparity;
+			for (int d = 0; d < rangeDisparity; d++, indexScore += width) {
+				scores[indexScore] = aggregated[index+d];
+			}
+		}
+	}
+
+	/**
+	 * Specifies the penalties used when aggregating the cost
+	 *
+	 * @param penaltySmallChange Penalty for a change in disparity of one. P1.
+	 * @param penaltyLargeChange Penalty for a larger change in disparity. P2.
+	 */
+	public void setPenalties( int penaltySmallChange , int penaltyLargeChange ) {
+		aggregation.setPenalties(penaltySmallChange, penaltyLargeChange);
+		streaming.setPenalties(penaltySmallChange, penaltyLargeChange);
+	}
+
+	/**
+	 * Number of paths used when aggregating the entire cost volume. 4 or 8. Ignored when streaming.
+	 */
+	public void setNumberOfPaths( int numberOfPaths ) {
+		aggregation.setNumberOfPaths(numberOfPaths);
+	}
+
+	/**
+	 * If true then the cost is computed and aggregated one row at a time, reducing memory usage
+	 */
+	public void setStreamRows( boolean streamRows ) {
+		this.streamRows = streamRows;
+	}
+
+	public boolean isStreamRows() {
+		return streamRows;
+	}
+
+	public CensusType getCensus() {
+		return census;
+	}
+
+	public int getMinDisparity() {
+		return minDisparity;
+	}
+
+	public int getMaxDisparity() {
+		return maxDisparity;
+	}
+
+	public Class<T> getInputType() {
+		return inputType;
+	}
+
+	public Class<DI> getDisparityType() {
+		return select.getDisparityType();
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SgmStereoDisparity}. The cost of each row is computed in parallel, the
+ * paths in each direction are aggregated in parallel by {@link SgmCostAggregation_MT} and the disparity is
+ * selected in parallel for different bands of rows. Each thread has its own {@link DisparitySelect}. The output
+ * is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * When streaming rows each row depends on the previous row and the single threaded code is used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparity_MT<T extends ImageGray<T>, DI extends ImageGray<DI>>
+		extends SgmStereoDisparity<T,DI>
+{
+	// Used to create a DisparitySelect for each thread
+	BoofLambdas.Factory<DisparitySelect<int[],DI>> factorySelect;
+
+	// storage for each thread
+	FastQueue<ThreadData<DI>> threadData;
+
+	/**
+	 * @see SgmStereoDisparity#SgmStereoDisparity
+	 *
+	 * @param factorySelect Creates a new instance of the disparity selector
+	 */
+	public SgmStereoDisparity_MT( CensusType census , int minDisparity , int maxDisparity ,
+								  BoofLambdas.Factory<DisparitySelect<int[],DI>> factorySelect ,
+								  Class<T> inputType ) {
+		super(census, minDisparity, maxDisparity, factorySelect.newInstance(), inputType);
+		this.factorySelect = factorySelect;
+		this.threadData = new FastQueue<ThreadData<DI>>(1,(Class)ThreadData.class,true) {
+			@Override
+			protected ThreadData<DI> createInstance() {
+				return new ThreadData<>(factorySelect.newInstance());
+			}
+		};
+	}
+
+	@Override
+	protected SgmCostAggregation createAggregation() {
+		return new SgmCostAggregation_MT();
+	}
+
+	@Override
+	protected void computeCosts() {
+		int W = censusLeft.width;
+		BoofConcurrency.loopFor(0, censusLeft.height, y ->
+				costHamming.process(censusLeft, censusRight, y, costs, y*W*rangeDisparity));
+	}
+
+	@Override
+	protected void selectDisparity( DI disparity ) {
+		final int W = disparity.width;
+		final short[] aggregated = aggregation.getAggregated();
+		BoofConcurrency.loopBlocks(0, disparity.height, threadData, (data, y0, y1) -> {
+			if( data.scores.length < W*rangeDisparity )
+				data.scores = new int[W*rangeDisparity];
+			data.select.configure(disparity, minDisparity, maxDisparity, 0);
+			for (int y = y0; y < y1; y++) {
+				convertToScores(aggregated, y*W*rangeDisparity, W, data.scores);
+				data.select.process(y, data.scores);
+			}
+		});
+	}
+
+	static class ThreadData<DI extends ImageGray<DI>> {
+		DisparitySelect<int[],DI> select;
+		int[] scores = new int[0];
+
+		ThreadData(DisparitySelect<int[], DI> select) {
+			this.select = select;
+		}
+	}
+}
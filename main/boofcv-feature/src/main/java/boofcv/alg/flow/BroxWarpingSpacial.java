@@ -62,29 +62,29 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	protected float gamma;
 
 	// relaxation parameter for SOR  0 < w < 2.  Recommended default is 1.9
-	private float SOR_RELAXATION;
+	protected float SOR_RELAXATION;
 
 	// number of iterations for inner and outer loops
-	private int numOuter;
-	private int numInner;
+	protected int numOuter;
+	protected int numInner;
 	// maximum number of iterations for SOR
-	private int maxIterationsSor;
+	protected int maxIterationsSor;
 	// convergence tolerance for SOR
-	private float convergeTolerance;
+	protected float convergeTolerance;
 
 	// derivative of first image
-	private GrayF32 deriv1X = new GrayF32(1,1);
-	private GrayF32 deriv1Y = new GrayF32(1,1);
+	protected GrayF32 deriv1X = new GrayF32(1,1);
+	protected GrayF32 deriv1Y = new GrayF32(1,1);
 
 	// derivatives of second image
-	private GrayF32 deriv2X = new GrayF32(1,1);
-	private GrayF32 deriv2Y = new GrayF32(1,1);
-	private GrayF32 deriv2XX = new GrayF32(1,1);
-	private GrayF32 deriv2YY = new GrayF32(1,1);
-	private GrayF32 deriv2XY = new GrayF32(1,1);
+	protected GrayF32 deriv2X = new GrayF32(1,1);
+	protected GrayF32 deriv2Y = new GrayF32(1,1);
+	protected GrayF32 deriv2XX = new GrayF32(1,1);
+	protected GrayF32 deriv2YY = new GrayF32(1,1);
+	protected GrayF32 deriv2XY = new GrayF32(1,1);
 
-	private ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
-	private ImageHessian<GrayF32> hessian = FactoryDerivative.hessianThree(GrayF32.class);
+	protected ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
+	protected ImageHessian<GrayF32> hessian = FactoryDerivative.hessianThree(GrayF32.class);
 
 	// flow estimation at the start of the iteration
 	protected GrayF32 flowU = new GrayF32(1,1); // flow along x-axis
@@ -242,7 +242,6 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 								GrayF32 deriv2XX , GrayF32 deriv2YY, GrayF32 deriv2XY) {
 
 		int N = image1.width*image1.height;
-		int stride = image1.stride;
 
 		// outer Taylor expansion iterations
 		for( int indexOuter = 0; indexOuter < numOuter; indexOuter++ ) {
@@ -275,41 +274,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 						deriv2X, deriv2Y, deriv2XX, deriv2YY, deriv2XY,
 						du, dv, psiData, psiGradient);
 
-				float error;
-				int iter = 0;
-
-				do {
-					// inner SOR iteration.
-					error = 0;
-
-					// inner portion
-					for (int y = 1; y < image1.height - 1; y++) {
-						int i = y * image1.width + 1;
-						for (int x = 1; x < image1.width - 1; x++, i++) {
-							error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
-						}
-					}
-
-					// border regions require special treatment
-					int y0 = 0;
-					int y1 = image1.height-1;
-					for (int x = 0; x < image1.width; x++ ) {
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x, y0), s(x + 1, y0), s(x - 1, y0), s(x, y0 - 1), s(x, y0 + 1));
-
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x, y1), s(x + 1, y1), s(x - 1, y1), s(x, y1 - 1), s(x, y1 + 1));
-					}
-
-					int x0 = 0;
-					int x1 = image1.width-1;
-					for (int y = 1; y < image1.height - 1; y++) {
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x0, y), s(x0 - 1, y), s(x0 + 1, y), s(x0, y - 1), s(x0, y + 1));
-						error += iterationSor(image1, deriv1X, deriv1Y,
-								s(x1, y), s(x1 - 1, y), s(x1 + 1, y), s(x1, y - 1), s(x1, y + 1));
-					}
-				} while (error > convergeTolerance * image1.width * image1.height && ++iter < maxIterationsSor);
+				solveSor(image1, deriv1X, deriv1Y);
 			}
 
 			// update the flow with the motion increments
@@ -318,6 +283,49 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 		}
 	}
 
+	/**
+	 * Solves for the motion increments using Successive Over-Relaxation
+	 */
+	protected void solveSor( GrayF32 image1 , GrayF32 deriv1X , GrayF32 deriv1Y ) {
+		int stride = image1.stride;
+
+		float error;
+		int iter = 0;
+
+		do {
+			// inner SOR iteration.
+			error = 0;
+
+			// inner portion
+			for (int y = 1; y < image1.height - 1; y++) {
+				int i = y * image1.width + 1;
+				for (int x = 1; x < image1.width - 1; x++, i++) {
+					error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+				}
+			}
+
+			// border regions require special treatment
+			int y0 = 0;
+			int y1 = image1.height-1;
+			for (int x = 0; x < image1.width; x++ ) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y0), s(x + 1, y0), s(x - 1, y0), s(x, y0 - 1), s(x, y0 + 1));
+
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y1), s(x + 1, y1), s(x - 1, y1), s(x, y1 - 1), s(x, y1 + 1));
+			}
+
+			int x0 = 0;
+			int x1 = image1.width-1;
+			for (int y = 1; y < image1.height - 1; y++) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x0, y), s(x0 - 1, y), s(x0 + 1, y), s(x0, y - 1), s(x0, y + 1));
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x1, y), s(x1 - 1, y), s(x1 + 1, y), s(x1, y - 1), s(x1, y + 1));
+			}
+		} while (error > convergeTolerance * image1.width * image1.height && ++iter < maxIterationsSor);
+	}
+
 	/**
 	 * Inner SOR iteration step
 	 *
@@ -327,8 +335,8 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	 * @param ipy (x,y+1)
 	 * @param imy (x,y-1)
 	 */
-	private float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
-							   int i, int ipx, int imx, int ipy, int imy) {
+	protected float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
+								 int i, int ipx, int imx, int ipy, int imy) {
 		float w = SOR_RELAXATION;
 
 		// these variables could be precomputed once.  See equation 11
@@ -374,11 +382,17 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Equation 5.  Psi_s
 	 */
-	private void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
-								  GrayF32 psiSmooth ) {
-		int N = derivFlowUX.width * derivFlowUX.height;
+	protected void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
+									GrayF32 psiSmooth ) {
+		computePsiSmooth(ux, uy, vx, vy, psiSmooth, 0, derivFlowUX.width * derivFlowUX.height);
+	}
 
-		for( int i = 0; i < N; i++ ) {
+	/**
+	 * Equation 5.  Psi_s for pixels with an index from idx0 to idx1-1
+	 */
+	protected void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
+									GrayF32 psiSmooth , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
 			float vux = ux.data[i];
 			float vuy = uy.data[i];
 			float vvx = vx.data[i];
@@ -400,9 +414,20 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
 											 GrayF32 du, GrayF32 dv,
 											 GrayF32 psiData, GrayF32 psiGradient ) {
-		int N = image1.width * image1.height;
+		computePsiDataPsiGradient(image1, image2, deriv1x, deriv1y, deriv2x, deriv2y, deriv2xx, deriv2yy, deriv2xy,
+				du, dv, psiData, psiGradient, 0, image1.width * image1.height);
+	}
 
-		for( int i = 0; i < N; i++ ) {
+	/**
+	 * Compute Psi-data and Psi-gradient for pixels with an index from idx0 to idx1-1
+	 */
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
 
 			float du_ = du.data[i];
 			float dv_ = dv.data[i];
@@ -425,13 +450,31 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Computes the divergence for u,v, and d. Equation 8 and Equation 10.
 	 */
-	private void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
-							   GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
+	protected void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
+								 GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
 
+		// compute the inside pixel
+		computeDivUVD(u, v, psi, divU, divV, divD, 1, psi.height-1);
+
+		// handle the image borders
+		for( int x = 0; x < psi.width; x++ ) {
+			computeDivUVD_safe(x,0,u,v,psi,divU,divV,divD);
+			computeDivUVD_safe(x,psi.height-1,u,v,psi,divU,divV,divD);
+		}
+		for( int y = 1; y < psi.height-1; y++ ) {
+			computeDivUVD_safe(0,y,u,v,psi,divU,divV,divD);
+			computeDivUVD_safe(psi.width-1,y,u,v,psi,divU,divV,divD);
+		}
+	}
+
+	/**
+	 * Computes the divergence for u,v, and d for inner pixels in rows y0 to y1-1
+	 */
+	protected void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
+								 GrayF32 divU , GrayF32 divV , GrayF32 divD , int y0 , int y1 ) {
 		final int stride = psi.stride;
 
-		// compute the inside pixel
-		for (int y = 1; y < psi.height-1; y++) {
+		for (int y = y0; y < y1; y++) {
 
 			// index of the current pixel
 			int index = y*stride + 1;
@@ -458,16 +501,6 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 				divD.data[index] = coef0 + coef1 + coef2 + coef3;
 			}
 		}
-
-		// handle the image borders
-		for( int x = 0; x < psi.width; x++ ) {
-			computeDivUVD_safe(x,0,u,v,psi,divU,divV,divD);
-			computeDivUVD_safe(x,psi.height-1,u,v,psi,divU,divV,divD);
-		}
-		for( int y = 1; y < psi.height-1; y++ ) {
-			computeDivUVD_safe(0,y,u,v,psi,divU,divV,divD);
-			computeDivUVD_safe(psi.width-1,y,u,v,psi,divU,divV,divD);
-		}
 	}
 
 	protected void computeDivUVD_safe(int x , int y ,
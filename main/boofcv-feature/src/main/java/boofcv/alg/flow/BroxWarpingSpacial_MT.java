@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BroxWarpingSpacial}. Image warping, flow interpolation, and the per pixel
+ * robust weights and divergence are computed in row bands. Each thread has its own interpolation. The two image
+ * pyramids are built at the same time.
+ * </p>
+ *
+ * <p>
+ * The SOR solver uses red-black ordering. The smoothness term only couples a pixel to its 4-connect neighbors,
+ * which always have the other color, so all the pixels of one color can be updated in parallel. This converges to
+ * the same solution as the lexicographic ordering used in the single threaded version but the results are not
+ * identical. Results do not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BroxWarpingSpacial_MT<T extends ImageGray<T>> extends BroxWarpingSpacial<T> {
+
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	// interpolation for each thread
+	private FastQueue<InterpolatePixelS<GrayF32>> interps;
+
+	// change in flow for each row during an SOR iteration. Summed in order to ensure deterministic results
+	private float rowError[] = new float[0];
+
+	/**
+	 * @see BroxWarpingSpacial#BroxWarpingSpacial
+	 *
+	 * @param config Configuration parameters
+	 * @param factoryInterp Creates interpolation for image flow between image layers and warping.
+	 */
+	public BroxWarpingSpacial_MT(ConfigBroxWarping config,
+								 BoofLambdas.Factory<InterpolatePixelS<GrayF32>> factoryInterp ) {
+		super(config, factoryInterp.newInstance());
+
+		interps = new FastQueue<InterpolatePixelS<GrayF32>>(1,(Class)InterpolatePixelS.class,true) {
+			@Override
+			protected InterpolatePixelS<GrayF32> createInstance() {
+				InterpolatePixelS<GrayF32> interp = factoryInterp.newInstance();
+				interp.setBorder(FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED));
+				return interp;
+			}
+		};
+	}
+
+	@Override
+	protected void processPyramids(GrayF32 norm1, GrayF32 norm2) {
+		BoofConcurrency.loopFor(0,2,i->{
+			if( i == 0 )
+				pyr1.process(norm1);
+			else
+				pyr2.process(norm2);
+		});
+	}
+
+	@Override
+	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
+		float scaleX = (float)prev.width/(float)curr.width;
+		float scaleY = (float)prev.height/(float)curr.height;
+
+		float scale = (float)prev.width/(float)curr.width;
+
+		BoofConcurrency.loopBlocks(0,curr.height,MIN_BAND,interps,(interp,y0,y1)->{
+			interp.setImage(prev);
+			for( int y = y0; y < y1; y++ ) {
+				int indexCurr = y*curr.width;
+				float yy = y*scaleY;
+				for( int x = 0; x < curr.width; x++ ) {
+					float xx = x*scaleX;
+					if( interp.isInFastBounds(xx,yy)) {
+						curr.data[indexCurr++] = interp.get_fast(xx, yy) / scale;
+					} else {
+						curr.data[indexCurr++] = interp.get(xx, yy) / scale;
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX, GrayF32 flowY, GrayF32 after) {
+		BoofConcurrency.loopBlocks(0,before.height,MIN_BAND,interps,(interp,y0,y1)->{
+			interp.setImage(before);
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float wx = x + flowX.data[pixelIndex];
+					float wy = y + flowY.data[pixelIndex];
+
+					after.data[pixelIndex] = interp.get(wx, wy);
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void computePsiSmooth(GrayF32 ux, GrayF32 uy, GrayF32 vx, GrayF32 vy, GrayF32 psiSmooth) {
+		final int width = ux.width;
+		BoofConcurrency.loopBlocks(0,ux.height,MIN_BAND,(y0,y1)->
+				computePsiSmooth(ux,uy,vx,vy,psiSmooth,y0*width,y1*width));
+	}
+
+	@Override
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient) {
+		final int width = image1.width;
+		BoofConcurrency.loopBlocks(0,image1.height,MIN_BAND,(y0,y1)->
+				computePsiDataPsiGradient(image1,image2,deriv1x,deriv1y,deriv2x,deriv2y,deriv2xx,deriv2yy,deriv2xy,
+						du,dv,psiData,psiGradient,y0*width,y1*width));
+	}
+
+	@Override
+	protected void computeDivUVD(GrayF32 u, GrayF32 v, GrayF32 psi, GrayF32 divU, GrayF32 divV, GrayF32 divD) {
+		BoofConcurrency.loopBlocks(1,psi.height-1,MIN_BAND,(y0,y1)->
+				computeDivUVD(u,v,psi,divU,divV,divD,y0,y1));
+
+		for( int x = 0; x < psi.width; x++ ) {
+			computeDivUVD_safe(x,0,u,v,psi,divU,divV,divD);
+			computeDivUVD_safe(x,psi.height-1,u,v,psi,divU,divV,divD);
+		}
+		for( int y = 1; y < psi.height-1; y++ ) {
+			computeDivUVD_safe(0,y,u,v,psi,divU,divV,divD);
+			computeDivUVD_safe(psi.width-1,y,u,v,psi,divU,divV,divD);
+		}
+	}
+
+	@Override
+	protected void solveSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y) {
+		final int height = image1.height;
+
+		if( rowError.length < height )
+			rowError = new float[height];
+
+		float error;
+		int iter = 0;
+
+		do {
+			// inner SOR iteration. Update all the red pixels then all the black pixels
+			for( int color = 0; color < 2; color++ ) {
+				final boolean first = color == 0;
+				final int _color = color;
+				BoofConcurrency.loopBlocks(0,height,MIN_BAND,(y0,y1)->{
+					for( int y = y0; y < y1; y++ ) {
+						float e = iterationRow(image1,deriv1X,deriv1Y,y,(y+_color)%2);
+						rowError[y] = first ? e : rowError[y] + e;
+					}
+				});
+			}
+
+			// sum the error from each row in order
+			error = 0;
+			for( int y = 0; y < height; y++ ) {
+				error += rowError[y];
+			}
+		} while (error > convergeTolerance * image1.width * image1.height && ++iter < maxIterationsSor);
+	}
+
+	/**
+	 * SOR iteration for every other pixel in row 'y', starting at x = offsetX
+	 *
+	 * @return Sum of the squared change in flow
+	 */
+	private float iterationRow( GrayF32 image1 , GrayF32 deriv1X , GrayF32 deriv1Y , int y , int offsetX ) {
+		final int width = image1.width;
+		final int stride = image1.stride;
+		float error = 0;
+
+		boolean borderRow = y == 0 || y == image1.height-1;
+		int i = y*width + offsetX;
+		for( int x = offsetX; x < width; x += 2, i += 2 ) {
+			if( borderRow || x == 0 || x == width-1 ) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y), s(x + 1, y), s(x - 1, y), s(x, y + 1), s(x, y - 1));
+			} else {
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+		return error;
+	}
+}
@@ -82,13 +82,20 @@ public abstract class DenseFlowPyramidBase<T extends ImageGray<T>> {
 		imageNormalization(image1, image2, norm1, norm2);
 
 		// create image pyramid
-		pyr1.process(norm1);
-		pyr2.process(norm2);
+		processPyramids(norm1, norm2);
 
 		// compute flow from pyramid
 		process(pyr1, pyr2);
 	}
 
+	/**
+	 * Computes the image pyramid for each of the normalized images
+	 */
+	protected void processPyramids( GrayF32 norm1 , GrayF32 norm2 ) {
+		pyr1.process(norm1);
+		pyr2.process(norm2);
+	}
+
 	/**
 	 * Takes the flow from the previous lower resolution layer and uses it to initialize the flow
 	 * in the current layer.  Adjusts for change in image scale.
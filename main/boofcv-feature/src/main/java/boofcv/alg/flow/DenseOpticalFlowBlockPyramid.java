@@ -120,55 +120,11 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 			// will be set inside of checkNeighbors.
 			Arrays.fill(scores,0,N,Float.MAX_VALUE);
 
-			int x1 = prev.width-regionRadius;
-			int y1 = prev.height-regionRadius;
-
 			if( i == numLayers-1 ) {
 				// the top most layer in the pyramid has no hint
-				for( int y = regionRadius; y < y1; y++ ) {
-					for( int x = regionRadius; x < x1; x++ ) {
-						extractTemplate(x,y,prev);
-						float score = findFlow(x,y,curr,tmp);
-
-						if( tmp.isValid() )
-							checkNeighbors(x,y,tmp, flowCurrLayer,score);
-						else
-							flowCurrLayer.unsafe_get(x, y).markInvalid();
-					}
-				}
+				processLayer(prev, curr, 0);
 			} else {
-				// for all the other layers use the hint of the previous layer to start its search
-				double scale = pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i);
-				for( int y = regionRadius; y < y1; y++ ) {
-					for( int x = regionRadius; x < x1; x++ ) {
-						// grab the flow in higher level pyramid
-						ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
-						if( !p.isValid() )
-							continue;
-
-						// get the template around the current point in this layer
-						extractTemplate(x,y,prev);
-
-						// add the flow from the higher layer (adjusting for scale and rounding) as the start of
-						// this search
-						int deltaX = (int)(p.x*scale+0.5);
-						int deltaY = (int)(p.y*scale+0.5);
-
-						int startX = x + deltaX;
-						int startY = y + deltaY;
-
-						float score = findFlow(startX,startY,curr,tmp);
-
-						// find flow only does it relative to the starting point
-						tmp.x += deltaX;
-						tmp.y += deltaY;
-
-						if( tmp.isValid() )
-							checkNeighbors(x,y,tmp, flowCurrLayer,score);
-						else
-							flowCurrLayer.unsafe_get(x,y).markInvalid();
-					}
-				}
+				processLayer(prev, curr, pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i));
 			}
 
 			// swap the flow images
@@ -178,6 +134,66 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Computes the flow for a single layer in the pyramid. Results are written into {@link #flowCurrLayer}.
+	 *
+	 * @param prev Layer from the previous image
+	 * @param curr Layer from the current image
+	 * @param scale Scale factor between this layer and the one above it, which provides the hint.
+	 *              If zero then this is the top most layer and there is no hint.
+	 */
+	protected void processLayer( T prev , T curr , double scale ) {
+		int x1 = prev.width-regionRadius;
+		int y1 = prev.height-regionRadius;
+
+		if( scale == 0 ) {
+			// the top most layer in the pyramid has no hint
+			for( int y = regionRadius; y < y1; y++ ) {
+				for( int x = regionRadius; x < x1; x++ ) {
+					extractTemplate(x,y,prev);
+					float score = findFlow(x,y,curr,tmp);
+
+					if( tmp.isValid() )
+						checkNeighbors(x,y,tmp, flowCurrLayer,score);
+					else
+						flowCurrLayer.unsafe_get(x, y).markInvalid();
+				}
+			}
+		} else {
+			// for all the other layers use the hint of the previous layer to start its search
+			for( int y = regionRadius; y < y1; y++ ) {
+				for( int x = regionRadius; x < x1; x++ ) {
+					// grab the flow in higher level pyramid
+					ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
+					if( !p.isValid() )
+						continue;
+
+					// get the template around the current point in this layer
+					extractTemplate(x,y,prev);
+
+					// add the flow from the higher layer (adjusting for scale and rounding) as the start of
+					// this search
+					int deltaX = (int)(p.x*scale+0.5);
+					int deltaY = (int)(p.y*scale+0.5);
+
+					int startX = x + deltaX;
+					int startY = y + deltaY;
+
+					float score = findFlow(startX,startY,curr,tmp);
+
+					// find flow only does it relative to the starting point
+					tmp.x += deltaX;
+					tmp.y += deltaY;
+
+					if( tmp.isValid() )
+						checkNeighbors(x,y,tmp, flowCurrLayer,score);
+					else
+						flowCurrLayer.unsafe_get(x,y).markInvalid();
+				}
+			}
+		}
+	}
+
 	/**
 	 * Performs an exhaustive search centered around (cx,cy) for the region in 'curr' which is the best
 	 * match for the template.  Results are written into 'flow'
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowBlockPyramid}. Each layer is processed in two steps. First
+ * the exhaustive search for every region center is done in row bands, with each thread using its own
+ * algorithm instance to store the template. The result for each center is saved. Then each output pixel
+ * is assigned its flow by visiting every center whose region contains it, in the same order the single threaded
+ * version would. Since a pixel only depends on the centers which contain it, the second step can also be done
+ * in row bands and the output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowBlockPyramid_MT<T extends ImageGray<T>> extends DenseOpticalFlowBlockPyramid<T> {
+
+	// score assigned to a center which was skipped because its hint was invalid
+	private static final float SKIPPED = -1;
+
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 4;
+
+	// single threaded instance. Used when template functions are invoked directly
+	private DenseOpticalFlowBlockPyramid<T> single;
+
+	// algorithm instance for each thread. Only used for its template and search functions
+	private FastQueue<DenseOpticalFlowBlockPyramid<T>> workspace;
+
+	// found flow and its score when each pixel is the region's center
+	private ImageFlow centerFlow = new ImageFlow(1,1);
+	private float centerScores[] = new float[0];
+
+	/**
+	 * Creates the concurrent algorithm
+	 *
+	 * @param factory Creates single threaded instances with the desired configuration.
+	 */
+	public DenseOpticalFlowBlockPyramid_MT( BoofLambdas.Factory<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		this(factory, factory.newInstance());
+	}
+
+	private DenseOpticalFlowBlockPyramid_MT( BoofLambdas.Factory<DenseOpticalFlowBlockPyramid<T>> factory,
+											 DenseOpticalFlowBlockPyramid<T> single ) {
+		super(single.searchRadius, single.regionRadius,
+				single.maxError/((2*single.regionRadius+1)*(2*single.regionRadius+1)),
+				(Class)single.template.getClass());
+		this.single = single;
+
+		workspace = new FastQueue<DenseOpticalFlowBlockPyramid<T>>(1,(Class)DenseOpticalFlowBlockPyramid.class,true) {
+			@Override
+			protected DenseOpticalFlowBlockPyramid<T> createInstance() {
+				return factory.newInstance();
+			}
+		};
+	}
+
+	@Override
+	protected void processLayer( T prev , T curr , double scale ) {
+		centerFlow.reshape(prev.width, prev.height);
+		int N = prev.width*prev.height;
+		if( centerScores.length < N )
+			centerScores = new float[N];
+
+		// find the flow for each center
+		int y1 = prev.height-regionRadius;
+		BoofConcurrency.loopBlocks(regionRadius,y1,MIN_BAND,workspace,(alg,idx0,idx1)->{
+			for( int y = idx0; y < idx1; y++ )
+				searchRow(alg,y,prev,curr,scale);
+		});
+
+		// assign the flow for each pixel using the centers which contain it
+		BoofConcurrency.loopBlocks(0,prev.height,MIN_BAND,(idx0,idx1)->{
+			for( int y = idx0; y < idx1; y++ )
+				for( int x = 0; x < prev.width; x++ )
+					assignPixel(x,y,prev.width,prev.height);
+		});
+	}
+
+	/**
+	 * Searches for the flow of every region centered along row 'y'. Mirrors the single threaded search
+	 */
+	private void searchRow( DenseOpticalFlowBlockPyramid<T> alg , int y , T prev , T curr , double scale ) {
+		int x1 = prev.width-regionRadius;
+		int index = y*prev.width + regionRadius;
+		for( int x = regionRadius; x < x1; x++ , index++ ) {
+			ImageFlow.D flow = centerFlow.data[index];
+
+			if( scale == 0 ) {
+				alg.extractTemplate(x,y,prev);
+				centerScores[index] = alg.findFlow(x,y,curr,flow);
+			} else {
+				ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
+				if( !p.isValid() ) {
+					centerScores[index] = SKIPPED;
+					continue;
+				}
+
+				alg.extractTemplate(x,y,prev);
+
+				int deltaX = (int)(p.x*scale+0.5);
+				int deltaY = (int)(p.y*scale+0.5);
+
+				centerScores[index] = alg.findFlow(x+deltaX,y+deltaY,curr,flow);
+
+				flow.x += deltaX;
+				flow.y += deltaY;
+			}
+		}
+	}
+
+	/**
+	 * Applies the result from every center whose region contains the pixel in the same order as
+	 * {@link #checkNeighbors} would have been called.
+	 */
+	private void assignPixel( int px , int py , int width , int height ) {
+		int index = py*width + px;
+		ImageFlow.D f = flowCurrLayer.data[index];
+		float s = scores[index];
+
+		int cy0 = Math.max(regionRadius, py-regionRadius);
+		int cy1 = Math.min(height-regionRadius-1, py+regionRadius);
+		int cx0 = Math.max(regionRadius, px-regionRadius);
+		int cx1 = Math.min(width-regionRadius-1, px+regionRadius);
+
+		for( int cy = cy0; cy <= cy1; cy++ ) {
+			int indexC = cy*width + cx0;
+			for( int cx = cx0; cx <= cx1; cx++, indexC++ ) {
+				float score = centerScores[indexC];
+				if( score == SKIPPED )
+					continue;
+				ImageFlow.D flow = centerFlow.data[indexC];
+
+				if( !flow.isValid() ) {
+					if( indexC == index )
+						f.markInvalid();
+				} else if( s > score ) {
+					f.set(flow);
+					s = score;
+				} else if( s == score ) {
+					// Pick solution with the least motion when ambiguous
+					float m0 = f.x*f.x + f.y*f.y;
+					float m1 = flow.x*flow.x + flow.y*flow.y;
+					if( m1 < m0 ) {
+						f.set(flow);
+						s = score;
+					}
+				}
+			}
+		}
+		scores[index] = s;
+	}
+
+	@Override
+	protected void extractTemplate(int cx, int cy, T prev) {
+		single.extractTemplate(cx, cy, prev);
+	}
+
+	@Override
+	protected float computeError(int cx, int cy, T curr) {
+		return single.computeError(cx, cy, curr);
+	}
+}
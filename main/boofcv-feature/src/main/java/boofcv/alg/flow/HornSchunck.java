@@ -116,18 +116,39 @@ public abstract class HornSchunck<T extends ImageBase<T>, D extends ImageBase<D>
 	/**
 	 * Inner function for computing optical flow
 	 */
-	protected abstract void findFlow( D derivX , D derivY , D derivT , ImageFlow output );
+	protected void findFlow( D derivX , D derivY , D derivT , ImageFlow output ) {
+		int N = output.width*output.height;
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			innerAverageFlow(output,averageFlow);
+
+			updateFlow(derivX,derivY,derivT,output,0,N);
+		}
+	}
+
+	/**
+	 * Updates the flow estimate from the average flow for pixels with an index from idx0 to idx1-1
+	 */
+	protected abstract void updateFlow( D derivX , D derivY , D derivT , ImageFlow output , int idx0 , int idx1 );
 
 
 	/**
 	 * Computes average flow using an 8-connect neighborhood for the inner image
 	 */
 	protected static void innerAverageFlow( ImageFlow flow , ImageFlow averageFlow ) {
+		innerAverageFlow(flow, averageFlow, 1, flow.height-1);
+	}
+
+	/**
+	 * Computes average flow using an 8-connect neighborhood for inner image pixels in rows y0 to y1-1
+	 */
+	protected static void innerAverageFlow( ImageFlow flow , ImageFlow averageFlow , int y0 , int y1 ) {
 
 		int endX = flow.width-1;
-		int endY = flow.height-1;
 
-		for( int y = 1; y < endY; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int index = flow.width*y + 1;
 			for( int x = 1; x < endX; x++ , index++) {
 				ImageFlow.D average = averageFlow.data[index];
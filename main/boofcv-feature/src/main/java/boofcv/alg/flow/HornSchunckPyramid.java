@@ -48,24 +48,24 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 		extends DenseFlowPyramidBase<T>
 {
 	// used to weight the error of image brightness and smoothness of velocity flow
-	private float alpha2;
+	protected float alpha2;
 
 	// relaxation parameter for SOR  0 < w < 2.  Recommended default is 1.9
-	private float SOR_RELAXATION;
+	protected float SOR_RELAXATION;
 
 	// number of warps for outer loop
-	private int numWarps;
+	protected int numWarps;
 	// maximum number of iterations in inner loop
-	private int maxInnerIterations;
+	protected int maxInnerIterations;
 	// convergence tolerance
-	private float convergeTolerance;
+	protected float convergeTolerance;
 
 	// computes the image gradient
-	private ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
+	protected ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
 
 	// image gradient second image
-	private GrayF32 deriv2X = new GrayF32(1,1);
-	private GrayF32 deriv2Y = new GrayF32(1,1);
+	protected GrayF32 deriv2X = new GrayF32(1,1);
+	protected GrayF32 deriv2Y = new GrayF32(1,1);
 
 	// found flow for the most recently processed layer.  Final output is stored here
 	protected GrayF32 flowX = new GrayF32(1,1);
@@ -292,7 +292,7 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 	/**
 	 * SOR iteration for border pixels
 	 */
-	private float iterationSorSafe(GrayF32 image1, int x, int y, int pixelIndex) {
+	protected float iterationSorSafe(GrayF32 image1, int x, int y, int pixelIndex) {
 		float w = SOR_RELAXATION;
 
 		float uf;
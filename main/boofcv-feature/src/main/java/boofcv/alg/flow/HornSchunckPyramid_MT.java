@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HornSchunckPyramid}. Image warping and flow interpolation are done in
+ * row bands with each thread having its own interpolation. The two image pyramids are built at the same time.
+ * </p>
+ *
+ * <p>
+ * SOR updates each pixel using the latest values of its 8-connect neighbors, which makes the traditional order
+ * sequential. Here pixels are split into four colors by the parity of their x and y coordinates. No two pixels
+ * of the same color are neighbors, so each color can be updated in parallel. This is a different ordering of the
+ * same linear system, so it converges to the same solution, but the results are not identical to the single
+ * threaded version. Results do not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunckPyramid_MT<T extends ImageGray<T>> extends HornSchunckPyramid<T> {
+
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	// interpolation for each thread
+	private FastQueue<InterpolatePixelS<GrayF32>> interps;
+
+	// change in flow for each row during an SOR iteration. Summed in order to ensure deterministic results
+	private float rowError[] = new float[0];
+
+	/**
+	 * @see HornSchunckPyramid#HornSchunckPyramid
+	 *
+	 * @param config Configuration parameters
+	 * @param factoryInterp Creates interpolation for image flow between image layers and warping.
+	 */
+	public HornSchunckPyramid_MT(ConfigHornSchunckPyramid config,
+								 BoofLambdas.Factory<InterpolatePixelS<GrayF32>> factoryInterp ) {
+		super(config, factoryInterp.newInstance());
+
+		interps = new FastQueue<InterpolatePixelS<GrayF32>>(1,(Class)InterpolatePixelS.class,true) {
+			@Override
+			protected InterpolatePixelS<GrayF32> createInstance() {
+				InterpolatePixelS<GrayF32> interp = factoryInterp.newInstance();
+				interp.setBorder(FactoryImageBorder.single(GrayF32.class, BorderType.EXTENDED));
+				return interp;
+			}
+		};
+	}
+
+	@Override
+	protected void processPyramids(GrayF32 norm1, GrayF32 norm2) {
+		BoofConcurrency.loopFor(0,2,i->{
+			if( i == 0 )
+				pyr1.process(norm1);
+			else
+				pyr2.process(norm2);
+		});
+	}
+
+	@Override
+	protected void interpolateFlowScale(GrayF32 prev, GrayF32 curr) {
+		float scaleX = (float)(prev.width-1)/(float)(curr.width-1)*0.999f;
+		float scaleY = (float)(prev.height-1)/(float)(curr.height-1)*0.999f;
+
+		float scale = (float)prev.width/(float)curr.width;
+
+		BoofConcurrency.loopBlocks(0,curr.height,MIN_BAND,interps,(interp,y0,y1)->{
+			interp.setImage(prev);
+			for( int y = y0; y < y1; y++ ) {
+				int indexCurr = y*curr.width;
+				for( int x = 0; x < curr.width; x++ ) {
+					curr.data[indexCurr++] = interp.get(x*scaleX,y*scaleY)/scale;
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX, GrayF32 flowY, GrayF32 after) {
+		BoofConcurrency.loopBlocks(0,before.height,MIN_BAND,interps,(interp,y0,y1)->{
+			interp.setImage(before);
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float wx = x + flowX.data[pixelIndex];
+					float wy = y + flowY.data[pixelIndex];
+
+					if( wx < 0 || wx > before.width-1 || wy < 0 || wy > before.height-1 ) {
+						after.data[pixelIndex] = 0;
+					} else {
+						after.data[pixelIndex] = interp.get(wx, wy);
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void processLayer(GrayF32 image1, GrayF32 image2, GrayF32 derivX2, GrayF32 derivY2) {
+		final int height = image1.height;
+
+		if( rowError.length < height )
+			rowError = new float[height];
+
+		// outer Taylor expansion iterations
+		for( int warp = 0; warp < numWarps; warp++ ) {
+
+			initFlowX.setTo(flowX);
+			initFlowY.setTo(flowY);
+
+			warpImageTaylor(derivX2, initFlowX, initFlowY, warpDeriv2X);
+			warpImageTaylor(derivY2, initFlowX, initFlowY, warpDeriv2Y);
+			warpImageTaylor(image2, initFlowX, initFlowY, warpImage2);
+
+			float error;
+			int iter = 0;
+
+			do {
+				// inner SOR iteration. One pass for each color
+				for( int color = 0; color < 4; color++ ) {
+					final int offsetX = color%2;
+					final int offsetY = color/2;
+					final boolean first = offsetX == 0;
+
+					// rows of this color are processed in blocks
+					int numRows = (height - offsetY + 1)/2;
+					BoofConcurrency.loopBlocks(0,numRows,MIN_BAND/2,(idx0,idx1)->{
+						for( int i = idx0; i < idx1; i++ ) {
+							int y = offsetY + 2*i;
+							float e = iterationRow(image1, y, offsetX);
+							rowError[y] = first ? e : rowError[y] + e;
+						}
+					});
+				}
+
+				// sum the error from each row in order
+				error = 0;
+				for( int y = 0; y < height; y++ ) {
+					error += rowError[y];
+				}
+			} while( error > convergeTolerance*image1.width*image1.height && ++iter < maxInnerIterations);
+		}
+	}
+
+	/**
+	 * SOR iteration for every other pixel in row 'y', starting at x = offsetX
+	 *
+	 * @return Sum of the squared change in flow
+	 */
+	private float iterationRow( GrayF32 image1 , int y , int offsetX ) {
+		final float w = SOR_RELAXATION;
+		final int width = image1.width;
+		float error = 0;
+
+		boolean borderRow = y == 0 || y == image1.height-1;
+		int pixelIndex = y*width + offsetX;
+		for( int x = offsetX; x < width; x += 2, pixelIndex += 2 ) {
+			if( borderRow || x == 0 || x == width-1 ) {
+				error += iterationSorSafe(image1,x,y,pixelIndex);
+				continue;
+			}
+
+			float ui = initFlowX.data[pixelIndex];
+			float vi = initFlowY.data[pixelIndex];
+
+			float u = flowX.data[pixelIndex];
+			float v = flowY.data[pixelIndex];
+
+			float I1 = image1.data[pixelIndex];
+			float I2 = warpImage2.data[pixelIndex];
+
+			float I2x = warpDeriv2X.data[pixelIndex];
+			float I2y = warpDeriv2Y.data[pixelIndex];
+
+			float AU = A(x,y,flowX);
+			float AV = A(x,y,flowY);
+
+			float uf,vf;
+			flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
+			flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
+
+			error += (uf - u)*(uf - u) + (vf - v)*(vf - v);
+		}
+		return error;
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * Concurrent implementation of {@link HornSchunck_F32}. The average flow and the flow update are both computed
+ * from the previous iteration's estimate, which allows each iteration to be split into row bands without
+ * changing the output.
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunck_F32_MT extends HornSchunck_F32 {
+
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	public HornSchunck_F32_MT(float alpha, int numIterations) {
+		super(alpha, numIterations);
+	}
+
+	@Override
+	protected void findFlow(GrayF32 derivX , GrayF32 derivY , GrayF32 derivT , ImageFlow output) {
+		final int width = output.width;
+		final int height = output.height;
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			BoofConcurrency.loopBlocks(1,height-1,MIN_BAND,(y0,y1)->
+					innerAverageFlow(output,averageFlow,y0,y1));
+
+			BoofConcurrency.loopBlocks(0,height,MIN_BAND,(y0,y1)->
+					updateFlow(derivX,derivY,derivT,output,y0*width,y1*width));
+		}
+	}
+}
@@ -148,31 +148,21 @@ public class HornSchunck_U8 extends HornSchunck<GrayU8,GrayS16> {
 	}
 
 	@Override
-	protected void findFlow(GrayS16 derivX , GrayS16 derivY ,
-							GrayS16 derivT , ImageFlow output) {
+	protected void updateFlow(GrayS16 derivX, GrayS16 derivY, GrayS16 derivT, ImageFlow output, int idx0, int idx1) {
+		for( int i = idx0; i < idx1; i++ ) {
+			float dx = derivX.data[i];
+			float dy = derivY.data[i];
+			float dt = derivT.data[i];
 
-		int N = output.width*output.height;
+			ImageFlow.D aveFlow = averageFlow.data[i];
 
-		for( int iter = 0; iter < numIterations; iter++ ) {
+			float u = aveFlow.x;
+			float v = aveFlow.y;
 
-			borderAverageFlow(output,averageFlow);
-			innerAverageFlow(output,averageFlow);
-
-			for( int i = 0; i < N; i++ ) {
-				float dx = derivX.data[i];
-				float dy = derivY.data[i];
-				float dt = derivT.data[i];
-
-				ImageFlow.D aveFlow = averageFlow.data[i];
-
-				float u = aveFlow.x;
-				float v = aveFlow.y;
-
-				ImageFlow.D flow = output.data[i];
-				float r = (dx*u + dy*v + dt)/(alpha2 + dx*dx + dy*dy);
-				flow.x = u - dx*r;
-				flow.y = v - dy*r;
-			}
+			ImageFlow.D flow = output.data[i];
+			float r = (dx*u + dy*v + dt)/(alpha2 + dx*dx + dy*dy);
+			flow.x = u - dx*r;
+			flow.y = v - dy*r;
 		}
 	}
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04.Edge;
+
+/**
+ * <p>
+ * Stable least significant digit radix sort for {@link Edge}, ordered by weight from smallest to largest. The
+ * float weight is converted into an integer key with the same ordering and then sorted 8-bits at a time. Passes
+ * where every edge has the same digit are skipped, which is common since edge weights tend to have a narrow range.
+ * Unlike a comparison sort, the order of edges with identical weights is preserved.
+ * </p>
+ *
+ * <p>
+ * Storage is recycled between calls. Each thread needs its own instance.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RadixSortEdges {
+	// keys and edges which are being sorted
+	private int[] keysA = new int[0];
+	private int[] keysB = new int[0];
+	private Edge[] edgesA = new Edge[0];
+	private Edge[] edgesB = new Edge[0];
+
+	// number of elements with each digit value
+	private final int[] histogram = new int[256];
+
+	/**
+	 * Sorts the edges inside the specified range
+	 *
+	 * @param edges Array being sorted. Modified.
+	 * @param idx0 First element, inclusive
+	 * @param idx1 Last element, exclusive
+	 */
+	public void sort( Edge[] edges , int idx0 , int idx1 ) {
+		final int N = idx1-idx0;
+		if( N <= 1 )
+			return;
+
+		if( keysA.length < N ) {
+			keysA = new int[N];
+			keysB = new int[N];
+			edgesA = new Edge[N];
+			edgesB = new Edge[N];
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			Edge e = edges[idx0+i];
+			edgesA[i] = e;
+			keysA[i] = toKey(e.sortValue);
+		}
+
+		int[] keysSrc = keysA, keysDst = keysB;
+		Edge[] edgesSrc = edgesA, edgesDst = edgesB;
+
+		for( int shift = 0; shift < 32; shift += 8 ) {
+			if( !computeHistogram(keysSrc,N,shift) )
+				continue;
+
+			for( int i = 0; i < N; i++ ) {
+				int digit = (keysSrc[i] >>> shift) & 0xFF;
+				int index = histogram[digit]++;
+				keysDst[index] = keysSrc[i];
+				edgesDst[index] = edgesSrc[i];
+			}
+
+			int[] tmpKeys = keysSrc; keysSrc = keysDst; keysDst = tmpKeys;
+			Edge[] tmpEdges = edgesSrc; edgesSrc = edgesDst; edgesDst = tmpEdges;
+		}
+
+		System.arraycopy(edgesSrc,0,edges,idx0,N);
+
+		// don't hold on to references of edges
+		for( int i = 0; i < N; i++ ) {
+			edgesA[i] = null;
+			edgesB[i] = null;
+		}
+	}
+
+	/**
+	 * Counts the number of times each digit appears and converts it into the index the digit's first element
+	 * will be written to.
+	 *
+	 * @return false if every key has the same digit and the pass can be skipped
+	 */
+	private boolean computeHistogram( int[] keys , int N , int shift ) {
+		for( int i = 0; i < histogram.length; i++ ) {
+			histogram[i] = 0;
+		}
+		for( int i = 0; i < N; i++ ) {
+			histogram[(keys[i] >>> shift) & 0xFF]++;
+		}
+
+		int total = 0;
+		for( int i = 0; i < histogram.length; i++ ) {
+			int count = histogram[i];
+			if( count == N )
+				return false;
+			histogram[i] = total;
+			total += count;
+		}
+		return true;
+	}
+
+	/**
+	 * Converts the float into an int which has the same ordering when the bits are treated as unsigned
+	 */
+	static int toKey( float value ) {
+		int bits = Float.floatToRawIntBits(value);
+		// negative numbers have all their bits flipped, positive numbers just the sign bit
+		return bits ^ ((bits >> 31) | 0x80000000);
+	}
+}
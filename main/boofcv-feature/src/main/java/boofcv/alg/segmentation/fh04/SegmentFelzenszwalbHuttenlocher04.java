@@ -201,10 +201,26 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 
 //		System.out.println("Sort time " + (time1 - time0));
 
-		// examine each edge to see if it can connect two regions
-		for( int i = 0; i < edges.size(); i++ ) {
+		mergeRegions(edges.data,0,edges.size,edgesNotMatched);
+
+//		long time2 = System.currentTimeMillis();
+//		System.out.println("Edge merge time " + (time2 - time1));
+	}
+
+	/**
+	 * Examines each edge in the sorted list to see if it can connect two regions.  Edges which don't cause a merge
+	 * are added to 'notMatched'.  Only the nodes referenced by the edges are read or modified, which allows
+	 * edges that touch disjoint sets of nodes to be processed at the same time.
+	 *
+	 * @param edges Array of edges sorted by weight
+	 * @param idx0 First edge, inclusive
+	 * @param idx1 Last edge, exclusive
+	 * @param notMatched (Output) Edges which did not cause a merge
+	 */
+	protected void mergeRegions( Edge[] edges , int idx0 , int idx1 , FastQueue<Edge> notMatched ) {
+		for( int i = idx0; i < idx1; i++ ) {
 			// compare the two nodes connected by the edge to see if their regions they should be merged
-			Edge e = edges.get(i);
+			Edge e = edges[i];
 
 			int rootA = find(e.indexA);
 			int rootB = find(e.indexB);
@@ -231,12 +247,9 @@ public class SegmentFelzenszwalbHuttenlocher04<T extends ImageBase<T>> {
 				// Update the size of regionA
 				regionSize.data[rootA] = sizeA + sizeB;
 			} else {
-				edgesNotMatched.add(e);
+				notMatched.add(e);
 			}
 		}
-
-//		long time2 = System.currentTimeMillis();
-//		System.out.println("Edge merge time " + (time2 - time1));
 	}
 
 	/**
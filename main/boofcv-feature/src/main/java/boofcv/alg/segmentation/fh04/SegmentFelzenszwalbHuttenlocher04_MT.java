@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentFelzenszwalbHuttenlocher04}. The image is divided into horizontal
+ * tiles. Edges which connect two pixels inside the same tile are merged independently for each tile and
+ * edges which cross between tiles (seams) are merged afterwards. Edges are sorted using {@link RadixSortEdges},
+ * which is stable, instead of a comparison sort.
+ * </p>
+ *
+ * <p>
+ * Edges are still processed from smallest to largest weight inside each tile and along the seams, but since
+ * tiles are processed before the seams the order is different from the single thread version. As noted in
+ * {@link SegmentFelzenszwalbHuttenlocher04} the algorithm is sensitive to the order of edges, so the regions
+ * will not be identical to the single thread version. Tiles are {@link #TILE_HEIGHT} rows tall, so the
+ * layout only depends on the image's height and the output is the same for any number of threads.
+ * Approximate sorting is not supported and {@link #configureApproximateSort} will throw an exception.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentFelzenszwalbHuttenlocher04_MT<T extends ImageBase<T>>
+		extends SegmentFelzenszwalbHuttenlocher04<T>
+{
+	// Number of rows in a tile. Fixed so that the output doesn't depend on the number of threads
+	public static int TILE_HEIGHT = 40;
+
+	// Minimum number of edges processed by a thread when partitioning edges
+	public static int MIN_EDGES = 10_000;
+
+	// which tile each row belongs to
+	private GrowQueue_I32 rowToTile = new GrowQueue_I32();
+	// Edges rearranged so that the edges of each tile are contiguous. Seam edges come last
+	private Edge[] partitioned = new Edge[0];
+	// index of the first edge in each segment inside of 'partitioned'. Has numTiles+2 elements
+	private GrowQueue_I32 segmentStart = new GrowQueue_I32();
+
+	// Storage for each tile and the seams
+	private FastQueue<Segment> segments = new FastQueue<>(Segment.class, true);
+	// Storage for each block of edges when partitioning
+	private FastQueue<BlockCounts> blocks = new FastQueue<>(BlockCounts.class, true);
+
+	public SegmentFelzenszwalbHuttenlocher04_MT(float k, int minimumSize, FhEdgeWeights<T> computeWeights) {
+		super(k, minimumSize, computeWeights);
+	}
+
+	/**
+	 * Not supported. Edges are always sorted with {@link RadixSortEdges}.
+	 */
+	@Override
+	public void configureApproximateSort( int numBins ) {
+		throw new IllegalArgumentException("Approximate sort isn't supported by the concurrent implementation");
+	}
+
+	@Override
+	protected void mergeRegions() {
+		final int numTiles = Math.max(1, graph.height/TILE_HEIGHT);
+		// each tile is a segment and the seams are the last segment
+		final int numSegments = numTiles+1;
+
+		rowToTile.resize(graph.height);
+		for( int tile = 0; tile < numTiles; tile++ ) {
+			int y0 = graph.height*tile/numTiles;
+			int y1 = graph.height*(tile+1)/numTiles;
+			for( int y = y0; y < y1; y++ ) {
+				rowToTile.data[y] = tile;
+			}
+		}
+
+		partitionEdges(numSegments);
+
+		segments.resize(numSegments);
+		for( int i = 0; i < numSegments; i++ ) {
+			segments.get(i).notMatched.reset();
+		}
+
+		// sort the edges in each segment
+		BoofConcurrency.loopFor(0, numSegments, i ->
+				segments.get(i).sorter.sort(partitioned, segmentStart.data[i], segmentStart.data[i+1]));
+
+		// Tiles don't share any nodes so they can be merged independently
+		BoofConcurrency.loopFor(0, numTiles, i -> {
+			Segment s = segments.get(i);
+			mergeRegions(partitioned, segmentStart.data[i], segmentStart.data[i+1], s.notMatched);
+		});
+
+		// Seams connect tiles together and are merged after all the tiles
+		mergeRegions(partitioned, segmentStart.data[numTiles], segmentStart.data[numSegments],
+				segments.get(numTiles).notMatched);
+
+		// Combine unmatched edges and sort them so that small regions are merged in order of weight
+		edgesNotMatched.reset();
+		for( int i = 0; i < numSegments; i++ ) {
+			FastQueue<Edge> notMatched = segments.get(i).notMatched;
+			for( int j = 0; j < notMatched.size; j++ ) {
+				edgesNotMatched.add(notMatched.data[j]);
+			}
+			notMatched.reset();
+		}
+		segments.get(0).sorter.sort(edgesNotMatched.data, 0, edgesNotMatched.size);
+	}
+
+	/**
+	 * Rearranges the edges so that edges inside the same tile are contiguous, followed by edges along the seams.
+	 * The relative order of edges is preserved.
+	 */
+	private void partitionEdges( int numSegments ) {
+		final int N = edges.size;
+		if( partitioned.length < N ) {
+			partitioned = new Edge[N];
+		}
+
+		// count the number of edges in each segment for each block
+		BoofConcurrency.loopBlocks(0, N, MIN_EDGES, blocks, (b, idx0, idx1) -> {
+			b.counts.resize(numSegments);
+			b.counts.fill(0);
+			for( int i = idx0; i < idx1; i++ ) {
+				b.counts.data[segment(edges.data[i], numSegments)]++;
+			}
+		});
+
+		// convert counts into the location each block writes to
+		segmentStart.resize(numSegments+1);
+		int total = 0;
+		for( int segment = 0; segment < numSegments; segment++ ) {
+			segmentStart.data[segment] = total;
+			for( int block = 0; block < blocks.size; block++ ) {
+				GrowQueue_I32 counts = blocks.get(block).counts;
+				int count = counts.data[segment];
+				counts.data[segment] = total;
+				total += count;
+			}
+		}
+		segmentStart.data[numSegments] = total;
+
+		// copy the edges. Blocks are identical to the ones above since the range is the same
+		BoofConcurrency.loopBlocks(0, N, MIN_EDGES, blocks, (b, idx0, idx1) -> {
+			int[] location = b.counts.data;
+			for( int i = idx0; i < idx1; i++ ) {
+				Edge e = edges.data[i];
+				partitioned[location[segment(e, numSegments)]++] = e;
+			}
+		});
+	}
+
+	/**
+	 * Returns the tile the edge is contained inside of or numSegments-1 if it crosses a seam
+	 */
+	private int segment( Edge e , int numSegments ) {
+		int tileA = rowToTile.data[e.indexA/graph.width];
+		int tileB = rowToTile.data[e.indexB/graph.width];
+		return tileA == tileB ? tileA : numSegments-1;
+	}
+
+	/**
+	 * Storage for a tile or the seams
+	 */
+	public static class Segment {
+		public RadixSortEdges sorter = new RadixSortEdges();
+		public FastQueue<Edge> notMatched = new FastQueue<>(Edge.class, false);
+	}
+
+	/**
+	 * Number of edges in each segment for a block of edges
+	 */
+	public static class BlockCounts {
+		public GrowQueue_I32 counts = new GrowQueue_I32();
+	}
+}
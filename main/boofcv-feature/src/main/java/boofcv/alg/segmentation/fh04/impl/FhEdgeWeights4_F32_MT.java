@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+
+import static boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04.Edge;
+
+/**
+ * Concurrent implementation of {@link FhEdgeWeights4_F32}. Edges between inner pixels are computed in bands of rows,
+ * with each row writing to its own predefined location, so the edges are identical to the single thread version.
+ *
+ * @author Peter Abeles
+ */
+public class FhEdgeWeights4_F32_MT extends FhEdgeWeights4_F32 {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	@Override
+	protected void processInner(GrayF32 input, int row0, int row1, Edge[] edges, int offset) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,(y0,y1)->super.processInner(input,y0,y1,edges,offset));
+	}
+}
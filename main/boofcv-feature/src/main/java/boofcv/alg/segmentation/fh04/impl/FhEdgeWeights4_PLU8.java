@@ -55,9 +55,32 @@ public class FhEdgeWeights4_PLU8 implements FhEdgeWeights<Planar<GrayU8>> {
 		int h = input.height-1;
 
 		// First consider the inner pixels
+		int offset = edges.size;
+		edges.resize(offset + Math.max(0,h)*innerEdgesPerRow(input.width));
+		processInner(input,0,h,edges.data,offset);
+
+		// Handle border pixels
 		for( int y = 0; y < h; y++ ) {
+			checkAround(w,y,input,edges);
+		}
+
+		for( int x = 0; x < w; x++ ) {
+			checkAround(x,h,input,edges);
+		}
+	}
+
+	/**
+	 * Computes the weight of edges between inner pixels in the specified rows. Edges for row 'y' are written
+	 * starting at index offset + y*{@link #innerEdgesPerRow}(width) and rows can be processed independently.
+	 */
+	protected void processInner(Planar<GrayU8> input, int row0, int row1, Edge[] edges, int offset) {
+		final int w = input.width-1;
+		final int edgesPerRow = innerEdgesPerRow(input.width);
+
+		for( int y = row0; y < row1; y++ ) {
 			int indexSrc = input.startIndex + y*input.stride + 0;
 			int indexDst =                  + y*input.width  + 0;
+			int indexEdge = offset + y*edgesPerRow;
 
 			for( int x = 0; x < w; x++ , indexSrc++ , indexDst++ ) {
 
@@ -75,8 +98,8 @@ public class FhEdgeWeights4_PLU8 implements FhEdgeWeights<Planar<GrayU8>> {
 					weight2 += diff2*diff2;
 				}
 
-				Edge e1 = edges.grow();
-				Edge e2 = edges.grow();
+				Edge e1 = edges[indexEdge++];
+				Edge e2 = edges[indexEdge++];
 
 				e1.sortValue = (float)Math.sqrt(weight1);
 				e1.indexA = indexDst;
@@ -88,15 +111,13 @@ public class FhEdgeWeights4_PLU8 implements FhEdgeWeights<Planar<GrayU8>> {
 
 			}
 		}
+	}
 
-		// Handle border pixels
-		for( int y = 0; y < h; y++ ) {
-			checkAround(w,y,input,edges);
-		}
-
-		for( int x = 0; x < w; x++ ) {
-			checkAround(x,h,input,edges);
-		}
+	/**
+	 * Number of edges computed for each row of inner pixels
+	 */
+	protected static int innerEdgesPerRow( int width ) {
+		return Math.max(0,2*(width-1));
 	}
 
 	private void checkAround( int x , int y ,
@@ -44,17 +44,40 @@ public class FhEdgeWeights4_U8 implements FhEdgeWeights<GrayU8> {
 		int h = input.height-1;
 
 		// First consider the inner pixels
+		int offset = edges.size;
+		edges.resize(offset + Math.max(0,h)*innerEdgesPerRow(input.width));
+		processInner(input,0,h,edges.data,offset);
+
+		// Handle border pixels
 		for( int y = 0; y < h; y++ ) {
+			checkAround(w,y,input,edges);
+		}
+
+		for( int x = 0; x < w; x++ ) {
+			checkAround(x,h,input,edges);
+		}
+	}
+
+	/**
+	 * Computes the weight of edges between inner pixels in the specified rows. Edges for row 'y' are written
+	 * starting at index offset + y*{@link #innerEdgesPerRow}(width) and rows can be processed independently.
+	 */
+	protected void processInner(GrayU8 input, int row0, int row1, Edge[] edges, int offset) {
+		final int w = input.width-1;
+		final int edgesPerRow = innerEdgesPerRow(input.width);
+
+		for( int y = row0; y < row1; y++ ) {
 			int indexSrc = input.startIndex + y*input.stride + 0;
 			int indexDst =                  + y*input.width  + 0;
+			int indexEdge = offset + y*edgesPerRow;
 
 			for( int x = 0; x < w; x++ , indexSrc++ , indexDst++ ) {
 				int color0 = input.data[indexSrc]& 0xFF;              // (x,y)
 				int color1 = input.data[indexSrc+1]& 0xFF;            // (x+1,y)
 				int color2 = input.data[indexSrc+input.stride]& 0xFF; // (x,y+1)
 
-				Edge e1 = edges.grow();
-				Edge e2 = edges.grow();
+				Edge e1 = edges[indexEdge++];
+				Edge e2 = edges[indexEdge++];
 
 				e1.sortValue = Math.abs(color1-color0);
 				e1.indexA = indexDst;
@@ -65,14 +88,13 @@ public class FhEdgeWeights4_U8 implements FhEdgeWeights<GrayU8> {
 				e2.indexB = indexDst+input.width;
 			}
 		}
-		// Handle border pixels
-		for( int y = 0; y < h; y++ ) {
-			checkAround(w,y,input,edges);
-		}
+	}
 
-		for( int x = 0; x < w; x++ ) {
-			checkAround(x,h,input,edges);
-		}
+	/**
+	 * Number of edges computed for each row of inner pixels
+	 */
+	protected static int innerEdgesPerRow( int width ) {
+		return Math.max(0,2*(width-1));
 	}
 	private void checkAround( int x , int y ,
 							  GrayU8 input ,
@@ -44,17 +44,41 @@ public class FhEdgeWeights8_F32 implements FhEdgeWeights<GrayF32> {
 		int h = input.height-1;
 
 		// First consider the inner pixels
+		int offset = edges.size;
+		edges.resize(offset + Math.max(0,h)*innerEdgesPerRow(input.width));
+		processInner(input,0,h,edges.data,offset);
+
+		// Handle border pixels
 		for( int y = 0; y < h; y++ ) {
+			checkAround(0,y,input,edges);
+			checkAround(w,y,input,edges);
+		}
+
+		for( int x = 0; x < w; x++ ) {
+			checkAround(x,h,input,edges);
+		}
+	}
+
+	/**
+	 * Computes the weight of edges between inner pixels in the specified rows. Edges for row 'y' are written
+	 * starting at index offset + y*{@link #innerEdgesPerRow}(width) and rows can be processed independently.
+	 */
+	protected void processInner(GrayF32 input, int row0, int row1, Edge[] edges, int offset) {
+		final int w = input.width-1;
+		final int edgesPerRow = innerEdgesPerRow(input.width);
+
+		for( int y = row0; y < row1; y++ ) {
 			int indexSrc = input.startIndex + y*input.stride + 1;
 			int indexDst =                  + y*input.width  + 1;
+			int indexEdge = offset + y*edgesPerRow;
 
 			for( int x = 1; x < w; x++ , indexSrc++ , indexDst++ ) {
 				float color0 = input.data[indexSrc];              // (x,y)
 				float color1 = input.data[indexSrc+1];            // (x+1,y)
 				float color2 = input.data[indexSrc+input.stride]; // (x,y+1)
 
-				Edge e1 = edges.grow();
-				Edge e2 = edges.grow();
+				Edge e1 = edges[indexEdge++];
+				Edge e2 = edges[indexEdge++];
 
 				e1.sortValue = Math.abs(color1-color0);
 				e1.indexA = indexDst;
@@ -67,8 +91,8 @@ public class FhEdgeWeights8_F32 implements FhEdgeWeights<GrayF32> {
 				float color3 = input.data[indexSrc+1+input.stride]; // (x+1,y+1)
 				float color4 = input.data[indexSrc-1+input.stride]; // (x-1,y+1)
 
-				Edge e3 = edges.grow();
-				Edge e4 = edges.grow();
+				Edge e3 = edges[indexEdge++];
+				Edge e4 = edges[indexEdge++];
 
 				e3.sortValue = Math.abs(color3-color0);
 				e3.indexA = indexDst;
@@ -79,15 +103,13 @@ public class FhEdgeWeights8_F32 implements FhEdgeWeights<GrayF32> {
 				e4.indexB = indexDst-1+input.width;
 			}
 		}
-		// Handle border pixels
-		for( int y = 0; y < h; y++ ) {
-			checkAround(0,y,input,edges);
-			checkAround(w,y,input,edges);
-		}
+	}
 
-		for( int x = 0; x < w; x++ ) {
-			checkAround(x,h,input,edges);
-		}
+	/**
+	 * Number of edges computed for each row of inner pixels
+	 */
+	protected static int innerEdgesPerRow( int width ) {
+		return Math.max(0,4*(width-2));
 	}
 	private void checkAround( int x , int y ,
 							  GrayF32 input ,
@@ -39,6 +39,9 @@ public class MergeRegionMeanShift extends RegionMergeTree
 	// Search radius in pixels when looking for regions to merge with
 	private int searchRadius;
 
+	// Regions which a region is to be merged with
+	private GrowQueue_I32 candidates = new GrowQueue_I32();
+
 	/**
 	 * Configures MergeRegionMeanShift
 	 *
@@ -85,46 +88,69 @@ public class MergeRegionMeanShift extends RegionMergeTree
 									FastQueue<Point2D_I32> modeLocation,
 									GrayS32 pixelToRegion  ) {
 		for( int targetId = 0; targetId < modeLocation.size &&!stopRequested; targetId++ ) {
+			candidates.reset();
+			findMergeCandidates(targetId,regionColor,modeLocation,pixelToRegion,candidates);
+
+			for( int i = 0; i < candidates.size; i++ ) {
+				// mark the two regions as merged
+				markMerge(targetId, candidates.data[i]);
+			}
+		}
+	}
 
-			float[] color = regionColor.get(targetId);
-			Point2D_I32 location = modeLocation.get(targetId);
-
-			int x0 = location.x-searchRadius;
-			int x1 = location.x+searchRadius+1;
-			int y0 = location.y-searchRadius;
-			int y1 = location.y+searchRadius+1;
-
-			// ensure that all pixels it examines are inside the image
-			if( x0 < 0 ) x0 = 0;
-			if( x1 > pixelToRegion.width ) x1 = pixelToRegion.width;
-			if( y0 < 0 ) y0 = 0;
-			if( y1 > pixelToRegion.height ) y1 = pixelToRegion.height;
-
-			// look at the local neighborhood
-			for( int y = y0; y < y1; y++ ) {
-				for( int x = x0; x < x1; x++ ) {
-					int candidateId = pixelToRegion.unsafe_get(x,y);
-
-					// see if it is the same region
-					if( candidateId == targetId )
-						continue;
-
-					// see if the mode is near by
-					Point2D_I32 p = modeLocation.get(candidateId);
-					if( p.distance2(location) <= maxSpacialDistanceSq ) {
-
-						// see if the color is similar
-						float[] candidateColor = regionColor.get(candidateId);
-						float colorDistance = SegmentMeanShiftSearch.distanceSq(color,candidateColor);
-
-						if( colorDistance <= maxColorDistanceSq ) {
-							// mark the two regions as merged
-							markMerge(targetId, candidateId);
-						}
+	/**
+	 * Searches the local area around the target region's mode for regions which it should be merged with. The
+	 * candidates are added in the order they are encountered. If a region is encountered multiple times in a row
+	 * it is only added once, since marking the same merge twice in a row has no effect.
+	 *
+	 * @param targetId The region being examined
+	 * @param candidates (Output) Regions which the target should be merged with
+	 */
+	protected void findMergeCandidates( int targetId ,
+										FastQueue<float[]> regionColor,
+										FastQueue<Point2D_I32> modeLocation,
+										GrayS32 pixelToRegion ,
+										GrowQueue_I32 candidates ) {
+		float[] color = regionColor.get(targetId);
+		Point2D_I32 location = modeLocation.get(targetId);
+
+		int x0 = location.x-searchRadius;
+		int x1 = location.x+searchRadius+1;
+		int y0 = location.y-searchRadius;
+		int y1 = location.y+searchRadius+1;
+
+		// ensure that all pixels it examines are inside the image
+		if( x0 < 0 ) x0 = 0;
+		if( x1 > pixelToRegion.width ) x1 = pixelToRegion.width;
+		if( y0 < 0 ) y0 = 0;
+		if( y1 > pixelToRegion.height ) y1 = pixelToRegion.height;
+
+		// look at the local neighborhood
+		for( int y = y0; y < y1; y++ ) {
+			for( int x = x0; x < x1; x++ ) {
+				int candidateId = pixelToRegion.unsafe_get(x,y);
+
+				// see if it is the same region
+				if( candidateId == targetId )
+					continue;
+
+				// it was just added
+				if( candidates.size > 0 && candidates.data[candidates.size-1] == candidateId )
+					continue;
+
+				// see if the mode is near by
+				Point2D_I32 p = modeLocation.get(candidateId);
+				if( p.distance2(location) <= maxSpacialDistanceSq ) {
+
+					// see if the color is similar
+					float[] candidateColor = regionColor.get(candidateId);
+					float colorDistance = SegmentMeanShiftSearch.distanceSq(color,candidateColor);
+
+					if( colorDistance <= maxColorDistanceSq ) {
+						candidates.add(candidateId);
 					}
 				}
 			}
-
 		}
 	}
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayS32;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link MergeRegionMeanShift}. Regions are split into blocks and each thread
+ * finds merge candidates for regions in its block. Merges are then marked in the same order as the single
+ * threaded version, producing identical results.
+ *
+ * @author Peter Abeles
+ */
+public class MergeRegionMeanShift_MT extends MergeRegionMeanShift {
+
+	// Minimum number of regions processed by a thread
+	public static int MIN_BLOCK = 20;
+
+	// Storage for each thread. Pairs of target and candidate regions
+	private final FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class,true);
+
+	/**
+	 * @see MergeRegionMeanShift#MergeRegionMeanShift(int, float)
+	 */
+	public MergeRegionMeanShift_MT(int maxSpacialDistance, float maxColorDistance) {
+		super(maxSpacialDistance, maxColorDistance);
+	}
+
+	@Override
+	protected void markMergeRegions(FastQueue<float[]> regionColor,
+									FastQueue<Point2D_I32> modeLocation,
+									GrayS32 pixelToRegion) {
+		BoofConcurrency.loopBlocks(0,modeLocation.size,MIN_BLOCK,workspace,(pairs,idx0,idx1)->{
+			pairs.reset();
+			GrowQueue_I32 candidates = new GrowQueue_I32();
+			for( int targetId = idx0; targetId < idx1 && !stopRequested; targetId++ ) {
+				candidates.reset();
+				findMergeCandidates(targetId,regionColor,modeLocation,pixelToRegion,candidates);
+				for (int i = 0; i < candidates.size; i++) {
+					pairs.add(targetId);
+					pairs.add(candidates.data[i]);
+				}
+			}
+		});
+
+		// mark the merges in block order
+		for (int block = 0; block < workspace.size; block++) {
+			GrowQueue_I32 pairs = workspace.get(block);
+			for (int i = 0; i < pairs.size; i += 2) {
+				markMerge(pairs.data[i],pairs.data[i+1]);
+			}
+		}
+	}
+}
@@ -120,9 +120,7 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 			findAdjacentRegions(pixelToRegion);
 
 			// Select the closest match to merge into
-			for( int i = 0; i < pruneGraph.size; i++ ) {
-				selectMerge(i,regionColor);
-			}
+			selectMerges(regionColor);
 
 			// Do the usual merge stuff
 			performMerge(pixelToRegion,regionMemberCount);
@@ -170,7 +168,18 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 	}
 
 	protected void adjacentInner4(GrayS32 pixelToRegion) {
-		for( int y = 0; y < pixelToRegion.height-1; y++ ) {
+		adjacentInner4(pixelToRegion,0,pixelToRegion.height-1,pruneGraph);
+	}
+
+	/**
+	 * Examines inner pixels in the specified rows using a 4-connect rule
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive. Must be less than the image height.
+	 * @param graph (Output) Nodes which connections to regions being pruned are added to
+	 */
+	protected void adjacentInner4(GrayS32 pixelToRegion, int row0, int row1, FastQueue<Node> graph) {
+		for( int y = row0; y < row1; y++ ) {
 			int indexImg = pixelToRegion.startIndex + pixelToRegion.stride*y;
 			for( int x = 0; x < pixelToRegion.width-1; x++ , indexImg++ ) {
 
@@ -186,11 +195,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneB = segmentPruneFlag.data[regionB];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionB);
 					}
 					if( pruneB ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionB));
+						Node n = graph.get(segmentToPruneID.get(regionB));
 						n.connect(regionA);
 					}
 				}
@@ -199,11 +208,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneC = segmentPruneFlag.data[regionC];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionC);
 					}
 					if( pruneC ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionC));
+						Node n = graph.get(segmentToPruneID.get(regionC));
 						n.connect(regionA);
 					}
 				}
@@ -212,7 +221,18 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 	}
 
 	protected void adjacentInner8(GrayS32 pixelToRegion) {
-		for( int y = 0; y < pixelToRegion.height-1; y++ ) {
+		adjacentInner8(pixelToRegion,0,pixelToRegion.height-1,pruneGraph);
+	}
+
+	/**
+	 * Examines inner pixels in the specified rows using an 8-connect rule
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive. Must be less than the image height.
+	 * @param graph (Output) Nodes which connections to regions being pruned are added to
+	 */
+	protected void adjacentInner8(GrayS32 pixelToRegion, int row0, int row1, FastQueue<Node> graph) {
+		for( int y = row0; y < row1; y++ ) {
 			int indexImg = pixelToRegion.startIndex + pixelToRegion.stride*y+1;
 			for( int x = 1; x < pixelToRegion.width-1; x++ , indexImg++ ) {
 
@@ -233,11 +253,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneB = segmentPruneFlag.data[regionB];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionB);
 					}
 					if( pruneB ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionB));
+						Node n = graph.get(segmentToPruneID.get(regionB));
 						n.connect(regionA);
 					}
 				}
@@ -246,11 +266,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneC = segmentPruneFlag.data[regionC];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionC);
 					}
 					if( pruneC ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionC));
+						Node n = graph.get(segmentToPruneID.get(regionC));
 						n.connect(regionA);
 					}
 				}
@@ -259,11 +279,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneD = segmentPruneFlag.data[regionD];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionD);
 					}
 					if( pruneD ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionD));
+						Node n = graph.get(segmentToPruneID.get(regionD));
 						n.connect(regionA);
 					}
 				}
@@ -272,11 +292,11 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 					boolean pruneE = segmentPruneFlag.data[regionE];
 
 					if( pruneA ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionA));
+						Node n = graph.get(segmentToPruneID.get(regionA));
 						n.connect(regionE);
 					}
 					if( pruneE ) {
-						Node n = pruneGraph.get(segmentToPruneID.get(regionE));
+						Node n = graph.get(segmentToPruneID.get(regionE));
 						n.connect(regionA);
 					}
 				}
@@ -334,6 +354,17 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 		}
 	}
 
+	/**
+	 * Selects which segment each segment that's being pruned is merged into
+	 *
+	 * @param regionColor List of region colors
+	 */
+	protected void selectMerges( FastQueue<float[]> regionColor ) {
+		for( int i = 0; i < pruneGraph.size; i++ ) {
+			selectMerge(i,regionColor);
+		}
+	}
+
 	/**
 	 * Examine edges for the specified node and select node which it is the best match for it to merge with
 	 *
@@ -341,6 +372,17 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 	 * @param regionColor List of region colors
 	 */
 	protected void selectMerge( int pruneId , FastQueue<float[]> regionColor ) {
+		markMerge(pruneGraph.get(pruneId).segment, findBestMatch(pruneId, regionColor));
+	}
+
+	/**
+	 * Examine edges for the specified node and find the segment which is the most similar to it
+	 *
+	 * @param pruneId The prune Id of the segment which is to be merged into another segment
+	 * @param regionColor List of region colors
+	 * @return ID of the segment it's the most similar to
+	 */
+	protected int findBestMatch( int pruneId , FastQueue<float[]> regionColor ) {
 		// Grab information on the region which is being pruned
 		Node n = pruneGraph.get(pruneId);
 		float[] targetColor = regionColor.get(n.segment);
@@ -364,7 +406,7 @@ public class MergeSmallRegions<T extends ImageBase<T>> extends RegionMergeTree {
 		if( bestId == -1 )
 			throw new RuntimeException("No neighbors?  Something went really wrong.");
 
-		markMerge(n.segment, bestId);
+		return bestId;
 	}
 
 	/**
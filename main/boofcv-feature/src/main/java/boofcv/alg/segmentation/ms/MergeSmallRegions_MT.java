@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.segmentation.ComputeRegionMeanColor;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link MergeSmallRegions}. Adjacent regions are found in bands of rows with each
+ * band using its own graph. The graphs are then combined in band order, so edges are in the same order as
+ * the single threaded version. The best match for each pruned region is found in parallel and the merges
+ * are marked in order, producing identical results.
+ *
+ * @author Peter Abeles
+ */
+public class MergeSmallRegions_MT<T extends ImageBase<T>> extends MergeSmallRegions<T> {
+
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 10;
+
+	// Graph for each band of rows
+	private final FastQueue<FastQueue<Node>> workspace =
+			new FastQueue<FastQueue<Node>>((Class)FastQueue.class,true) {
+				@Override
+				protected FastQueue<Node> createInstance() {
+					return new FastQueue<>(Node.class, true);
+				}
+			};
+
+	// Best match for each pruned region
+	private final GrowQueue_I32 bestMatch = new GrowQueue_I32();
+
+	/**
+	 * @see MergeSmallRegions#MergeSmallRegions(int, ConnectRule, ComputeRegionMeanColor)
+	 */
+	public MergeSmallRegions_MT(int minimumSize, ConnectRule rule, ComputeRegionMeanColor<T> computeColor) {
+		super(minimumSize, rule, computeColor);
+	}
+
+	@Override
+	protected void findAdjacentRegions(GrayS32 pixelToRegion) {
+		// -------- Do the inner pixels first
+		BoofConcurrency.loopBlocks(0,pixelToRegion.height-1,MIN_BAND,workspace,(graph,y0,y1)->{
+			graph.reset();
+			for (int i = 0; i < pruneGraph.size; i++) {
+				graph.grow().init(pruneGraph.data[i].segment);
+			}
+
+			if( connect.length == 4 )
+				adjacentInner4(pixelToRegion,y0,y1,graph);
+			else if( connect.length == 8 )
+				adjacentInner8(pixelToRegion,y0,y1,graph);
+		});
+
+		// Combine the graphs in order of rows
+		for (int block = 0; block < workspace.size; block++) {
+			FastQueue<Node> graph = workspace.get(block);
+			for (int i = 0; i < pruneGraph.size; i++) {
+				GrowQueue_I32 edges = graph.data[i].edges;
+				Node n = pruneGraph.data[i];
+				for (int j = 0; j < edges.size; j++) {
+					n.connect(edges.data[j]);
+				}
+			}
+		}
+
+		adjacentBorder(pixelToRegion);
+	}
+
+	@Override
+	protected void selectMerges(FastQueue<float[]> regionColor) {
+		bestMatch.resize(pruneGraph.size);
+		BoofConcurrency.loopBlocks(0,pruneGraph.size,(idx0,idx1)->{
+			for (int i = idx0; i < idx1; i++) {
+				bestMatch.data[i] = findBestMatch(i,regionColor);
+			}
+		});
+
+		for (int i = 0; i < pruneGraph.size; i++) {
+			markMerge(pruneGraph.get(i).segment, bestMatch.data[i]);
+		}
+	}
+}
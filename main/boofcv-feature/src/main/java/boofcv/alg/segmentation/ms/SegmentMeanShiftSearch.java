@@ -18,11 +18,13 @@
 
 package boofcv.alg.segmentation.ms;
 
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
 import org.ddogleg.struct.GrowQueue_I32;
 import org.ddogleg.struct.Stoppable;
 
@@ -85,8 +87,11 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 	// specifies the maximum Euclidean distance squared for the color components
 	protected float maxColorDistanceSq;
 
-	// converts a pixel location into the index of the mode that mean-shift converged to
+	// converts a pixel location into the index of the mode that mean-shift converged to. While searching it
+	// contains the pixel index of the mode instead
 	protected GrayS32 pixelToMode = new GrayS32(1,1);
+	// While searching, the image row that the first row in pixelToMode corresponds to
+	protected int pixelToModeY0;
 
 	// Quick look up for the index of a mode from an image pixel.  It is possible for a pixel that is a mode
 	// to have mean-shift converge to a different pixel
@@ -101,6 +106,9 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 	// storage for segment colors
 	protected FastQueue<float[]> modeColor;
 
+	// Color of the peak which mean-shift converged to for each pixel a search was started at
+	protected GrowQueue_F32 peakColor = new GrowQueue_F32();
+
 	// quick lookup for spacial distance
 	protected float[] spacialTable;
 
@@ -165,7 +173,101 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>>
 	 *
 	 * @param image Input image
 	 */
-	public abstract void process( T image );
+	public void process( T image ) {
+		initialize(image);
+		peakColor.resize(image.width*image.height*getImageType().getNumBands());
+
+		// use mean shift to find the peak of each pixel in the image
+		searchRows(0, image.height);
+		if( stopRequested )
+			return;
+
+		assignModes();
+	}
+
+	/**
+	 * Initializes data structures used when searching
+	 */
+	protected void initialize( T image ) {
+		initialize(image,0,image.height);
+	}
+
+	/**
+	 * Initializes data structures used when searching, but {@link #pixelToMode} will only contain the specified
+	 * rows. Pixels outside of these rows are treated as not having a mode yet when searching.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void initialize( T image , int row0 , int row1 ) {
+		this.image = image;
+		this.stopRequested = false;
+
+		pixelToModeY0 = row0;
+		pixelToMode.reshape(image.width, row1-row0);
+		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
+		ImageMiscOps.fill(pixelToMode, -1);
+	}
+
+	/**
+	 * Runs mean-shift from each pixel inside the specified rows which hasn't already been assigned a mode.
+	 * The pixel index of the mode is written to {@link #pixelToMode} and the color of the peak to
+	 * {@link #peakColor}. The rows must be inside the ones passed to {@link #initialize(ImageBase, int, int)}.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected abstract void searchRows( int row0 , int row1 );
+
+	/**
+	 * Goes through pixels in the order they were searched and converts the mode's pixel index into the
+	 * mode's index. Each time a new mode is encountered it's added to the list of modes.
+	 */
+	protected void assignModes() {
+		final int numBands = getImageType().getNumBands();
+
+		modeLocation.reset();
+		modeColor.reset();
+		modeMemberCount.reset();
+
+		quickMode.reshape(image.width, image.height);
+		// mark all pixels are not being a mode
+		ImageMiscOps.fill(quickMode,-1);
+
+		final int N = image.width*image.height;
+		for( int indexImg = 0; indexImg < N; indexImg++ ) {
+			int modePixelIndex = pixelToMode.data[indexImg];
+
+			// get index in the list of peaks
+			int modeIndex = quickMode.data[modePixelIndex];
+			// If the mode is new add it to the list
+			if( modeIndex < 0 ) {
+				modeIndex = this.modeLocation.size();
+				this.modeLocation.grow().set(modePixelIndex%image.width, modePixelIndex/image.width);
+				// Save the peak's color
+				float[] color = modeColor.grow();
+				System.arraycopy(peakColor.data,indexImg*numBands,color,0,numBands);
+				// Mark the mode in the segment image
+				quickMode.data[modePixelIndex] = modeIndex;
+				// Set the initial count to zero. This will be incremented below
+				modeMemberCount.add(0);
+			}
+
+			// add this pixel to the membership list
+			modeMemberCount.data[modeIndex]++;
+			pixelToMode.data[indexImg] = modeIndex;
+		}
+	}
+
+	/**
+	 * Returns the index of the pixel in {@link #pixelToMode} or -1 if the pixel is outside of the rows being searched
+	 */
+	protected int modeIndex( int x , int y ) {
+		y -= pixelToModeY0;
+		if( y < 0 || y >= pixelToMode.height )
+			return -1;
+		return pixelToMode.getIndex(x,y);
+	}
 
 	/**
 	 * Returns the Euclidean distance squared between the two vectors
@@ -19,12 +19,10 @@
 package boofcv.alg.segmentation.ms;
 
 import boofcv.alg.interpolate.InterpolatePixelMB;
-import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_F32;
-import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 
 import java.util.Arrays;
@@ -68,37 +66,21 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 		modeColor = new ColorQueue_F32(numBands);
 	}
 
-	/**
-	 * Performs mean-shift clustering on the input image
-	 *
-	 * @param image Input image
-	 */
 	@Override
-	public void process( T image ) {
-		// initialize data structures
-		this.image = image;
-		this.stopRequested = false;
-
-		modeLocation.reset();
-		modeColor.reset();
-		modeMemberCount.reset();
-
+	protected void initialize( T image , int row0 , int row1 ) {
+		super.initialize(image,row0,row1);
 		interpolate.setImage(image);
+	}
 
-		pixelToMode.reshape(image.width, image.height);
-		quickMode.reshape(image.width, image.height);
-		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
-		ImageMiscOps.fill(pixelToMode, -1);
-		// mark all pixels are not being a mode
-		ImageMiscOps.fill(quickMode,-1);
-
-		// use mean shift to find the peak of each pixel in the image
-		int indexImg = 0;
-		for( int y = 0; y < image.height && !stopRequested; y++ ) {
-			for( int x = 0; x < image.width; x++ , indexImg++ ) {
-				if( pixelToMode.data[indexImg] != -1 ) {
-					int peakIndex = pixelToMode.data[indexImg];
-					modeMemberCount.data[peakIndex]++;
+	@Override
+	protected void searchRows( int row0 , int row1 ) {
+		final int numBands = meanColor.length;
+
+		for( int y = row0; y < row1 && !stopRequested; y++ ) {
+			int indexImg = y*image.width;
+			int indexMode = (y-pixelToModeY0)*image.width;
+			for( int x = 0; x < image.width; x++ , indexImg++, indexMode++ ) {
+				if( pixelToMode.data[indexMode] != -1 ) {
 					continue;
 				}
 
@@ -111,22 +93,8 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 
 				int modePixelIndex = modeY*image.width + modeX;
 
-				// get index in the list of peaks
-				int modeIndex = quickMode.data[modePixelIndex];
-				// If the mode is new add it to the list
-				if( modeIndex < 0 ) {
-					modeIndex = this.modeLocation.size();
-					this.modeLocation.grow().set(modeX, modeY);
-					// Save the peak's color
-					savePeakColor(meanColor);
-					// Mark the mode in the segment image
-					quickMode.data[modePixelIndex] = modeIndex;
-					// Set the initial count to zero. This will be incremented when it is traversed later on
-					modeMemberCount.add(0);
-				}
-
-				// add this pixel to the membership list
-				modeMemberCount.data[modeIndex]++;
+				// Save the peak's color. Only used if this is the first pixel with this mode
+				System.arraycopy(meanColor,0,peakColor.data,indexImg*numBands,numBands);
 
 				// Add all pixels it traversed through to the membership of this mode
 				// This is an approximate of mean-shift
@@ -135,9 +103,9 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 					int px = (int)(p.x+0.5f);
 					int py = (int)(p.y+0.5f);
 
-					int index = pixelToMode.getIndex(px,py);
-					if( pixelToMode.data[index] == -1 ) {
-						pixelToMode.data[index] = modeIndex;
+					int index = modeIndex(px,py);
+					if( index != -1 && pixelToMode.data[index] == -1 ) {
+						pixelToMode.data[index] = modePixelIndex;
 					}
 				}
 			}
@@ -229,13 +197,12 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 				int px = (int)(peakX+0.5f);
 				int py = (int)(peakY+0.5f);
 
-				int index = pixelToMode.getIndex(px,py);
-				int modeIndex = pixelToMode.data[index];
-				if( modeIndex != -1 ) {
+				int index = modeIndex(px,py);
+				int modePixelIndex = index == -1 ? -1 : pixelToMode.data[index];
+				if( modePixelIndex != -1 ) {
 					// it already knows the solution so stop searching
-					Point2D_I32 modeP = modeLocation.get(modeIndex);
-					this.modeX = modeP.x;
-					this.modeY = modeP.y;
+					this.modeX = modePixelIndex%image.width;
+					this.modeY = modePixelIndex/image.width;
 					return;
 				}
 			}
@@ -267,11 +234,4 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 			sum[i] += pixel[i]*weight;
 		}
 	}
-
-	protected void savePeakColor( float[] a ) {
-		float[] b = modeColor.grow();
-		for( int i = 0; i < a.length; i++ ) {
-			b[i] = a[i];
-		}
-	}
 }
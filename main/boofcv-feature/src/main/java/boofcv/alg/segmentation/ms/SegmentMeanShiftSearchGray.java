@@ -19,12 +19,10 @@
 package boofcv.alg.segmentation.ms;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
-import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.feature.ColorQueue_F32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import georegression.struct.point.Point2D_F32;
-import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 
 /**
@@ -54,37 +52,19 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 		modeColor = new ColorQueue_F32(1);
 	}
 
-	/**
-	 * Performs mean-shift clustering on the input image
-	 *
-	 * @param image Input image
-	 */
 	@Override
-	public void process( T image ) {
-		// initialize data structures
-		this.image = image;
-		this.stopRequested = false;
-
-		modeLocation.reset();
-		modeColor.reset();
-		modeMemberCount.reset();
-
+	protected void initialize( T image , int row0 , int row1 ) {
+		super.initialize(image,row0,row1);
 		interpolate.setImage(image);
+	}
 
-		pixelToMode.reshape(image.width, image.height);
-		quickMode.reshape(image.width, image.height);
-		// mark as -1 so it knows which pixels have been assigned a mode already and can skip them
-		ImageMiscOps.fill(pixelToMode, -1);
-		// mark all pixels are not being a mode
-		ImageMiscOps.fill(quickMode,-1);
-
-		// use mean shift to find the peak of each pixel in the image
-		int indexImg = 0;
-		for( int y = 0; y < image.height&& !stopRequested; y++ ) {
-			for( int x = 0; x < image.width; x++ , indexImg++) {
-				if( pixelToMode.data[indexImg] != -1 ) {
-					int peakIndex = pixelToMode.data[indexImg];
-					modeMemberCount.data[peakIndex]++;
+	@Override
+	protected void searchRows( int row0 , int row1 ) {
+		for( int y = row0; y < row1 && !stopRequested; y++ ) {
+			int indexImg = y*image.width;
+			int indexMode = (y-pixelToModeY0)*image.width;
+			for( int x = 0; x < image.width; x++ , indexImg++, indexMode++) {
+				if( pixelToMode.data[indexMode] != -1 ) {
 					continue;
 				}
 
@@ -97,22 +77,8 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 
 				int modePixelIndex = modeY*image.width + modeX;
 
-				// get index in the list of peaks
-				int modeIndex = quickMode.data[modePixelIndex];
-				// If the mode is new add it to the list
-				if( modeIndex < 0 ) {
-					modeIndex = this.modeLocation.size();
-					this.modeLocation.grow().set(modeX, modeY);
-					// Save the peak's color
-					modeColor.grow()[0] = meanGray;
-					// Mark the mode in the segment image
-					quickMode.data[modePixelIndex] = modeIndex;
-					// Set the initial count to zero. This will be incremented when it is traversed later on
-					modeMemberCount.add(0);
-				}
-
-				// add this pixel to the membership list
-				modeMemberCount.data[modeIndex]++;
+				// Save the peak's color. Only used if this is the first pixel with this mode
+				peakColor.data[indexImg] = meanGray;
 
 				// Add all pixels it traversed through to the membership of this mode
 				// This is an approximate of mean-shift
@@ -121,9 +87,9 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 					int px = (int)(p.x+0.5f);
 					int py = (int)(p.y+0.5f);
 
-					int index = pixelToMode.getIndex(px,py);
-					if( pixelToMode.data[index] == -1 ) {
-						pixelToMode.data[index] = modeIndex;
+					int index = modeIndex(px,py);
+					if( index != -1 && pixelToMode.data[index] == -1 ) {
+						pixelToMode.data[index] = modePixelIndex;
 					}
 				}
 			}
@@ -215,13 +181,12 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 				int px = (int)(peakX+0.5f);
 				int py = (int)(peakY+0.5f);
 
-				int index = pixelToMode.getIndex(px,py);
-				int modeIndex = pixelToMode.data[index];
-				if( modeIndex != -1 ) {
+				int index = modeIndex(px,py);
+				int modePixelIndex = index == -1 ? -1 : pixelToMode.data[index];
+				if( modePixelIndex != -1 ) {
 					// it already knows the solution so stop searching
-					Point2D_I32 modeP = modeLocation.get(modeIndex);
-					this.modeX = modeP.x;
-					this.modeY = modeP.y;
+					this.modeX = modePixelIndex%image.width;
+					this.modeY = modePixelIndex/image.width;
 					return;
 				}
 			}
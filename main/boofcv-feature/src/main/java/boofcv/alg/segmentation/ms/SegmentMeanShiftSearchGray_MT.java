@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentMeanShiftSearchGray}. The image is split into bands of
+ * {@link #BAND_HEIGHT} rows and the bands are divided between the threads. Each thread searches from the
+ * pixels inside a band using its own interpolation, trajectory history, and modes for the band's pixels. The
+ * modes are then assigned in the same order as the single threaded version.
+ * </p>
+ *
+ * <p>
+ * If 'fast' is false the output is identical to the single threaded version. When 'fast' is true trajectories
+ * are only shared between pixels inside the same band. The bands don't depend on the number of threads, so
+ * the output is always the same but will be different from the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentMeanShiftSearchGray_MT<T extends ImageGray<T>> extends SegmentMeanShiftSearchGray<T> {
+
+	// Number of rows in a band. The last band in the image can be taller
+	public static int BAND_HEIGHT = 40;
+
+	// Search used by each thread. Has its own interpolation and image of modes
+	private final FastQueue<SegmentMeanShiftSearchGray<T>> workers;
+
+	/**
+	 * @see SegmentMeanShiftSearchGray#SegmentMeanShiftSearchGray
+	 *
+	 * @param factoryInterp Creates the interpolation used by each thread
+	 */
+	public SegmentMeanShiftSearchGray_MT(int maxIterations, float convergenceTol,
+										 BoofLambdas.Factory<InterpolatePixelS<T>> factoryInterp,
+										 int radiusX , int radiusY , float maxColorDistance,
+										 boolean fast ) {
+		super(maxIterations,convergenceTol,factoryInterp.newInstance(),radiusX,radiusY,maxColorDistance,fast);
+
+		workers = new FastQueue<SegmentMeanShiftSearchGray<T>>((Class)SegmentMeanShiftSearchGray.class,true) {
+			@Override
+			protected SegmentMeanShiftSearchGray<T> createInstance() {
+				SegmentMeanShiftSearchGray<T> worker = new SegmentMeanShiftSearchGray<>(maxIterations,
+						convergenceTol,factoryInterp.newInstance(),radiusX,radiusY,maxColorDistance,fast);
+				// peak colors are written directly into shared storage
+				worker.peakColor = peakColor;
+				return worker;
+			}
+		};
+	}
+
+	@Override
+	protected void searchRows( int row0 , int row1 ) {
+		final int numBands = Math.max(1,(row1-row0)/BAND_HEIGHT);
+
+		BoofConcurrency.loopBlocks(0,numBands,workers,(worker,band0,band1)->{
+			for (int band = band0; band < band1 && !stopRequested; band++) {
+				int y0 = row0 + band*BAND_HEIGHT;
+				int y1 = band+1 == numBands ? row1 : y0 + BAND_HEIGHT;
+
+				worker.initialize(image,y0,y1);
+				worker.searchRows(y0,y1);
+				System.arraycopy(worker.pixelToMode.data,0,
+						pixelToMode.data,(y0-pixelToModeY0)*image.width,(y1-y0)*image.width);
+			}
+		});
+	}
+
+	@Override
+	public void requestStop() {
+		super.requestStop();
+		for (int i = 0; i < workers.size; i++) {
+			workers.get(i).requestStop();
+		}
+	}
+}
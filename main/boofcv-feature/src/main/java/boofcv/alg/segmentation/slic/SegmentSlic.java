@@ -271,7 +271,18 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 	 * Computes how far away each cluster is from each pixel.  Expectation step.
 	 */
 	protected void computeClusterDistance() {
-		for( int i = 0; i < pixels.size; i++ ) {
+		computeClusterDistance(0,input.height);
+	}
+
+	/**
+	 * Computes the distance of each cluster from pixels inside the specified rows.  Clusters are always
+	 * processed in the same order, making the list in each pixel independent of how the rows are split up.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void computeClusterDistance( int row0 , int row1 ) {
+		for( int i = row0*input.width; i < row1*input.width; i++ ) {
 			pixels.data[i].reset();
 		}
 
@@ -286,9 +297,9 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 			int y0 = centerY - gridInterval; int y1 = centerY + gridInterval + 1;
 
 			if( x0 < 0 ) x0 = 0;
-			if( y0 < 0 ) y0 = 0;
+			if( y0 < row0 ) y0 = row0;
 			if( x1 > input.width ) x1 = input.width;
-			if( y1 > input.height ) y1 = input.height;
+			if( y1 > row1 ) y1 = row1;
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexPixel = y*input.width + x0;
@@ -340,6 +351,68 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 		}
 	}
 
+	/**
+	 * Converts the distance of each cluster into weights for all pixels inside the specified rows
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void computeWeights( int row0 , int row1 ) {
+		for( int i = row0*input.width; i < row1*input.width; i++ ) {
+			pixels.data[i].computeWeights();
+		}
+	}
+
+	/**
+	 * Updates the specified clusters by only examining pixels inside of each cluster's search region.  Weights
+	 * must have already been computed and the pixels filled in by {@link #computeClusterDistance()} using
+	 * the cluster's current location.  Pixels are visited in the same order as {@link #updateClusters()},
+	 * producing identical results, and each cluster is only modified while it is being processed.
+	 *
+	 * @param cluster0 First cluster, inclusive
+	 * @param cluster1 Last cluster, exclusive
+	 */
+	protected void updateClusters( int cluster0 , int cluster1 ) {
+		for( int i = cluster0; i < cluster1 && !stopRequested; i++ ) {
+			Cluster c = clusters.data[i];
+
+			// search bounds used when the pixels were filled in
+			int centerX = (int)(c.x + 0.5f);
+			int centerY = (int)(c.y + 0.5f);
+
+			int x0 = centerX - gridInterval; int x1 = centerX + gridInterval + 1;
+			int y0 = centerY - gridInterval; int y1 = centerY + gridInterval + 1;
+
+			if( x0 < 0 ) x0 = 0;
+			if( y0 < 0 ) y0 = 0;
+			if( x1 > input.width ) x1 = input.width;
+			if( y1 > input.height ) y1 = input.height;
+
+			c.reset();
+
+			for( int y = y0; y < y1; y++ ) {
+				int indexPixel = y*input.width + x0;
+				int indexInput = input.startIndex + y*input.stride + x0;
+
+				for( int x = x0; x < x1; x++ , indexPixel++ , indexInput++ ) {
+					Pixel p = pixels.data[indexPixel];
+
+					for( int j = 0; j < p.clusters.size; j++ ) {
+						ClusterDistance d = p.clusters.data[j];
+						if( d.cluster != c )
+							continue;
+						c.x += x*d.distance;
+						c.y += y*d.distance;
+						c.totalWeight += d.distance;
+						addColor(c.color,indexInput,d.distance);
+					}
+				}
+			}
+
+			c.update();
+		}
+	}
+
 	/**
 	 * Selects which region each pixel belongs to based on which cluster it is the closest to
 	 */
@@ -359,8 +432,35 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 		regionMemberCount.resize(clusters.size());
 		regionMemberCount.fill(0);
 
-		int indexPixel = 0;
+		assignLabelsToPixels(pixelToRegions,0,pixelToRegions.height);
+
 		for( int y = 0; y < pixelToRegions.height; y++ ) {
+			int indexOutput = pixelToRegions.startIndex + y*pixelToRegions.stride;
+			for( int x =0; x < pixelToRegions.width; x++ , indexOutput++) {
+				int best = pixelToRegions.data[indexOutput];
+
+				if( best == -1 ) {
+					regionColor.grow();
+					best = regionMemberCount.size();
+					regionMemberCount.add(0);
+					pixelToRegions.data[indexOutput] = best;
+				}
+
+				regionMemberCount.data[best]++;
+			}
+		}
+	}
+
+	/**
+	 * Assigns each pixel in the specified rows to the cluster it is closest to.  If no cluster is
+	 * associated with a pixel then it is set to -1.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 */
+	protected void assignLabelsToPixels( GrayS32 pixelToRegions , int row0 , int row1 ) {
+		for( int y = row0; y < row1; y++ ) {
+			int indexPixel = y*pixelToRegions.width;
 			int indexOutput = pixelToRegions.startIndex + y*pixelToRegions.stride;
 			for( int x =0; x < pixelToRegions.width; x++ , indexPixel++ , indexOutput++) {
 				Pixel p = pixels.data[indexPixel];
@@ -377,14 +477,8 @@ public abstract class SegmentSlic<T extends ImageBase<T>>
 						best = d.cluster.id;
 					}
 				}
-				if( best == -1 ) {
-					regionColor.grow();
-					best = regionMemberCount.size();
-					regionMemberCount.add(0);
-				}
 
 				pixelToRegions.data[indexOutput] = best;
-				regionMemberCount.data[best]++;
 			}
 		}
 	}
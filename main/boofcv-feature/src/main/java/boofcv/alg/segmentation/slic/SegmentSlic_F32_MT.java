@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.slic;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+
+/**
+ * Concurrent implementation of {@link SegmentSlic_F32}. Cluster distances, weights, and labels are computed
+ * in bands of rows with each band only writing to its own pixels. Clusters are updated in parallel with each
+ * cluster summing over its own search region in the same order as the single threaded code, so the output
+ * is identical.
+ *
+ * @author Peter Abeles
+ */
+public class SegmentSlic_F32_MT extends SegmentSlic_F32 {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 8;
+
+	public SegmentSlic_F32_MT(int numberOfRegions, float m, int totalIterations,
+							 ConnectRule connectRule) {
+		super(numberOfRegions, m, totalIterations, connectRule);
+	}
+
+	@Override
+	protected void computeClusterDistance( int row0 , int row1 ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,(y0,y1)->super.computeClusterDistance(y0,y1));
+	}
+
+	@Override
+	protected void updateClusters() {
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND,(y0,y1)->computeWeights(y0,y1));
+		BoofConcurrency.loopBlocks(0,clusters.size,(c0,c1)->updateClusters(c0,c1));
+	}
+
+	@Override
+	protected void assignLabelsToPixels( GrayS32 pixelToRegions , int row0 , int row1 ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,(y0,y1)->super.assignLabelsToPixels(pixelToRegions,y0,y1));
+	}
+}
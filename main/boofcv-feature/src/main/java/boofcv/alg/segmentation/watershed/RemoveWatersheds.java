@@ -21,6 +21,8 @@ package boofcv.alg.segmentation.watershed;
 import boofcv.struct.image.GrayS32;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import java.util.Arrays;
+
 /**
  * Examines a segmented image created by {@link WatershedVincentSoille1991} and merged watershed pixels
  * into neighboring regions.  Since there is no good rule for which region the pixel should be
@@ -30,6 +32,9 @@ import org.ddogleg.struct.GrowQueue_I32;
  */
 public class RemoveWatersheds {
 
+	// value assigned to watershed pixels which have yet to be merged
+	protected static final int UNASSIGNED = Integer.MIN_VALUE;
+
 	// relative indexes of connected pixels
 	private int connect[] = new int[4];
 
@@ -37,6 +42,9 @@ public class RemoveWatersheds {
 	private GrowQueue_I32 open = new GrowQueue_I32();
 	private GrowQueue_I32 open2 = new GrowQueue_I32();
 
+	// storage for region sizes when the user doesn't request them
+	private GrowQueue_I32 work = new GrowQueue_I32();
+
 	/**
 	 * Removes watersheds from the segmented image.  The input image must be the entire original
 	 * segmented image and assumes the outside border is filled with values < 0.  To access
@@ -48,27 +56,34 @@ public class RemoveWatersheds {
 	 * @param segmented Entire segmented image (including border of -1 values) with watersheds
 	 */
 	public void remove( GrayS32 segmented ) {
+		remove(segmented, work);
+	}
+
+	/**
+	 * Same as {@link #remove(GrayS32)} but also computes the number of pixels in each region.  Region ID's are
+	 * adjusted, watersheds found, and pixels counted in a single pass through the image.  After that only
+	 * watershed pixels are examined.
+	 *
+	 * @param segmented Entire segmented image (including border of -1 values) with watersheds
+	 * @param regionSizes (Output) Number of pixels in each region after watersheds have been removed
+	 */
+	public void remove( GrayS32 segmented , GrowQueue_I32 regionSizes ) {
 		// very quick sanity check
 		if( segmented.get(0,0) >= 0 )
 			throw new IllegalArgumentException("The segmented image must contain a border of -1 valued pixels.  See" +
 					" JavaDoc for important details you didn't bother to read about.");
 
 		open.reset();
+		regionSizes.reset();
 
 		connect[0] = -1;
 		connect[1] =  1;
 		connect[2] = segmented.stride;
 		connect[3] = -segmented.stride;
 
-		// step through the inner pixels and find watershed pixels
-		for( int y = 1; y < segmented.height-1; y++ ) {
-			int index = y*segmented.stride + 1;
-			for( int x = 1; x < segmented.width-1; x++ , index++ ) {
-				if( segmented.data[index] == 0 ) {
-					open.add( index );
-				}
-			}
-		}
+		// Watershed pixels have a value of 0 and will be removed. So change the region ID numbers by 1
+		// while finding the watersheds
+		scanRows(segmented,1,segmented.height-1,open,regionSizes);
 
 		// assign region values to watersheds until they are all assigned
 		while( open.size != 0 ) {
@@ -77,16 +92,18 @@ public class RemoveWatersheds {
 				int index = open.get(i);
 				// assign it to the first valid region it finds
 				for( int j = 0; j < 4; j++ ) {
-					// the outside border in the enlarged segmented image will have -1 and watersheds are 0
+					// the outside border in the enlarged segmented image will have -1 and unassigned
+					// watersheds are negative
 					int r =  segmented.data[index+connect[j]];
-					if( r > 0 ) {
+					if( r >= 0 ) {
 						segmented.data[index] = r;
+						regionSizes.data[r]++;
 						break;
 					}
 				}
 
 				// see if it was not assigned a region
-				if( segmented.data[index] == 0 ) {
+				if( segmented.data[index] == UNASSIGNED ) {
 					open2.add(index);
 				}
 			}
@@ -96,12 +113,37 @@ public class RemoveWatersheds {
 			open = open2;
 			open2 = tmp;
 		}
+	}
 
-		// watershed pixels have a value of 0 and have been removed. So change the region ID numbers by 1
-		for( int y = 1; y < segmented.height-1; y++ ) {
+	/**
+	 * Reduces the ID of each region by one inside the rows, counts the number of pixels in each region, and
+	 * adds watershed pixels to the list in raster order.
+	 *
+	 * @param watersheds (Output) Index of watershed pixels are added to this list
+	 * @param regionSizes (Output) Pixel count for each region.  Grown as needed and values are added to it.
+	 */
+	protected void scanRows( GrayS32 segmented , int row0 , int row1 ,
+							 GrowQueue_I32 watersheds , GrowQueue_I32 regionSizes ) {
+		for( int y = row0; y < row1; y++ ) {
 			int index = y*segmented.stride + 1;
 			for( int x = 1; x < segmented.width-1; x++ , index++ ) {
-				segmented.data[index]--;
+				int region = segmented.data[index];
+				if( region == 0 ) {
+					segmented.data[index] = UNASSIGNED;
+					watersheds.add(index);
+					continue;
+				}
+				segmented.data[index] = --region;
+
+				// pixels which were never assigned to a region have negative values
+				if( region < 0 )
+					continue;
+				if( region >= regionSizes.size ) {
+					int before = regionSizes.size;
+					regionSizes.extend(region+1);
+					Arrays.fill(regionSizes.data,before,regionSizes.size,0);
+				}
+				regionSizes.data[region]++;
 			}
 		}
 	}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.watershed;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayS32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link RemoveWatersheds}.  The pass which adjusts region ID's, finds watersheds,
+ * and counts pixels is done in bands of rows.  Watersheds are then assigned to regions in a single thread, in
+ * the same order, so the output is identical.
+ *
+ * @author Peter Abeles
+ */
+public class RemoveWatersheds_MT extends RemoveWatersheds {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 20;
+
+	// watersheds and region sizes for each band
+	private FastQueue<BandResults> workspace = new FastQueue<>(BandResults.class, true);
+
+	@Override
+	protected void scanRows( GrayS32 segmented , int row0 , int row1 ,
+							 GrowQueue_I32 watersheds , GrowQueue_I32 regionSizes ) {
+		BoofConcurrency.loopBlocks(row0,row1,MIN_BAND,workspace,(band,y0,y1)->{
+			band.watersheds.reset();
+			band.regionSizes.reset();
+			super.scanRows(segmented,y0,y1,band.watersheds,band.regionSizes);
+		});
+
+		// combine the results in band order so that watersheds are in raster order
+		for( int i = 0; i < workspace.size; i++ ) {
+			BandResults band = workspace.get(i);
+			watersheds.addAll(band.watersheds);
+
+			GrowQueue_I32 sizes = band.regionSizes;
+			int before = regionSizes.size;
+			if( sizes.size > before ) {
+				regionSizes.extend(sizes.size);
+				for( int j = before; j < sizes.size; j++ ) {
+					regionSizes.data[j] = 0;
+				}
+			}
+			for( int j = 0; j < sizes.size; j++ ) {
+				regionSizes.data[j] += sizes.data[j];
+			}
+		}
+	}
+
+	public static class BandResults {
+		public GrowQueue_I32 watersheds = new GrowQueue_I32();
+		public GrowQueue_I32 regionSizes = new GrowQueue_I32();
+	}
+}
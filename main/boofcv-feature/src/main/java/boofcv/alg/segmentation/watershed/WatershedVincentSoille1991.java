@@ -25,6 +25,8 @@ import boofcv.struct.image.GrayU8;
 import org.ddogleg.struct.CircularQueue_I32;
 import org.ddogleg.struct.GrowQueue_I32;
 
+import java.util.Arrays;
+
 /**
  * <p>
  * Fast watershed based upon Vincient and Soille's 1991 paper [1].  Watershed segments an image using the idea
@@ -56,6 +58,8 @@ import org.ddogleg.struct.GrowQueue_I32;
  * <li>Connectivity is handled by child sub-classes.  An index of neighbors could have been used, but the
  * additional additional array access/loop slows things down a little bit.</li>
  * <li>Watersheds are included.  To remove them using {@link RemoveWatersheds}</li>
+ * <li>Pixels are sorted into a bucket queue, one bucket for each intensity value, stored in a single array.</li>
+ * <li>{@link #removeWatersheds()} also computes the size of each region, see {@link #getRegionSizes()}.</li>
  * <li>Pixel values are assumed to range from 0 to 255, inclusive.</li>
  * </ul>
  * </p>
@@ -79,9 +83,12 @@ public abstract class WatershedVincentSoille1991 {
 	// index of the marker pixel.  Fictitious
 	public static final int MARKER_PIXEL = -1;
 
-	// histogram for sorting the image.  8-bits so 256 possible values
-	// each element refers to a pixel in the input image
-	protected GrowQueue_I32 histogram[] = new GrowQueue_I32[256];
+	// Bucket queue for sorting the image.  8-bits so 256 possible values.  Contains the index of every pixel in
+	// the output image.  Pixels with a value of 'i' are stored from levelStart[i] to levelStart[i+1]-1
+	protected GrowQueue_I32 sortedPixels = new GrowQueue_I32();
+	protected int levelStart[] = new int[257];
+	// work space for counting the number of pixels at each level
+	protected int levelCounts[] = new int[256];
 
 	// Output image.  This is im_o in the paper.
 	// The output image has a 1-pixel wide border which means that bound checks don't need
@@ -101,15 +108,14 @@ public abstract class WatershedVincentSoille1991 {
 	// FIFO circular queue
 	protected CircularQueue_I32 fifo = new CircularQueue_I32();
 
+	// pixels which have had their distance modified and are not in the current level
+	protected GrowQueue_I32 modifiedDistance = new GrowQueue_I32();
+
 	// used to remove watersheds
 	protected RemoveWatersheds removeWatersheds = new RemoveWatersheds();
 	boolean removedWatersheds;
-
-	public WatershedVincentSoille1991() {
-		for( int i = 0; i < histogram.length; i++ ) {
-			histogram[i] = new GrowQueue_I32();
-		}
-	}
+	// number of pixels in each region after watersheds have been removed
+	protected GrowQueue_I32 regionSizes = new GrowQueue_I32();
 
 	/**
 	 * Perform watershed segmentation on the provided input image.  New basins are created at each local minima.
@@ -119,27 +125,22 @@ public abstract class WatershedVincentSoille1991 {
 	public void process( GrayU8 input ) {
 		// input = im_0
 
-		removedWatersheds = false;
-		output.reshape(input.width+2,input.height+2);
-		distance.reshape(input.width+2,input.height+2);
-
-		ImageMiscOps.fill(output, INIT);
-		ImageMiscOps.fill(distance, 0);
-		fifo.reset();
+		initialize(input);
 
 		// sort pixels
 		sortPixels(input);
 
 		currentLabel = 0;
 
-		for( int i = 0; i < histogram.length; i++ ) {
-			GrowQueue_I32 level = histogram[i];
-			if( level.size == 0 )
+		for( int i = 0; i < levelCounts.length; i++ ) {
+			final int start = levelStart[i];
+			final int end = levelStart[i+1];
+			if( start == end )
 				continue;
 
 			// Go through each pixel at this level and mark them according to their neighbors
-			for( int j = 0; j < level.size; j++ ) {
-				int index = level.data[j];
+			for( int j = start; j < end; j++ ) {
+				int index = sortedPixels.data[j];
 				output.data[index] = MASK;
 
 				// see if its neighbors has been labeled, if so set its distance and add to queue
@@ -168,9 +169,11 @@ public abstract class WatershedVincentSoille1991 {
 				checkNeighborsAssign(p);
 			}
 
+			resetModifiedDistance();
+
 			// see if new minima have been discovered
-			for( int j = 0; j < level.size; j++ ) {
-				int index = level.get(j);
+			for( int j = start; j < end; j++ ) {
+				int index = sortedPixels.data[j];
 				// distance associated with p is reset to 0
 				distance.data[index] = 0;
 
@@ -207,13 +210,7 @@ public abstract class WatershedVincentSoille1991 {
 	public void process(GrayU8 input , GrayS32 seeds ) {
 		InputSanityCheck.checkSameShape(input,seeds);
 
-		removedWatersheds = false;
-		output.reshape(input.width+2,input.height+2);
-		distance.reshape(input.width+2,input.height+2);
-
-		ImageMiscOps.fill(output, INIT);
-		ImageMiscOps.fill(distance, 0);
-		fifo.reset();
+		initialize(input);
 
 		// copy the seeds into the output directory
 		for( int y = 0; y < seeds.height; y++ ) {
@@ -231,14 +228,15 @@ public abstract class WatershedVincentSoille1991 {
 		sortPixels(input);
 
 		// perform watershed
-		for( int i = 0; i < histogram.length; i++ ) {
-			GrowQueue_I32 level = histogram[i];
-			if( level.size == 0 )
+		for( int i = 0; i < levelCounts.length; i++ ) {
+			final int start = levelStart[i];
+			final int end = levelStart[i+1];
+			if( start == end )
 				continue;
 
 			// Go through each pixel at this level and mark them according to their neighbors
-			for( int j = 0; j < level.size; j++ ) {
-				int index = level.data[j];
+			for( int j = start; j < end; j++ ) {
+				int index = sortedPixels.data[j];
 
 				// If not has not already been labeled by a seed then try assigning it values
 				// from its neighbors
@@ -270,12 +268,39 @@ public abstract class WatershedVincentSoille1991 {
 				checkNeighborsAssign(p);
 			}
 
-			// Ensure that all pixels have a distance of zero
-			// Could probably do this a bit more intelligently...
-			ImageMiscOps.fill(distance, 0);
+			// Ensure that all pixels have a distance of zero.  Only pixels in this level or pixels which
+			// were added to the queue can have a non-zero distance
+			for( int j = start; j < end; j++ ) {
+				distance.data[sortedPixels.data[j]] = 0;
+			}
+			resetModifiedDistance();
 		}
 	}
 
+	/**
+	 * Declares and initializes data structures for the input image
+	 */
+	protected void initialize( GrayU8 input ) {
+		removedWatersheds = false;
+		output.reshape(input.width+2,input.height+2);
+		distance.reshape(input.width+2,input.height+2);
+
+		ImageMiscOps.fill(output, INIT);
+		ImageMiscOps.fill(distance, 0);
+		fifo.reset();
+		modifiedDistance.reset();
+	}
+
+	/**
+	 * Sets the distance of pixels added to the queue to zero
+	 */
+	protected void resetModifiedDistance() {
+		for( int i = 0; i < modifiedDistance.size; i++ ) {
+			distance.data[modifiedDistance.data[i]] = 0;
+		}
+		modifiedDistance.reset();
+	}
+
 	/**
 	 * See if a neighbor has a label ( &gt; 0 ) or has been assigned WSHED ( == 0 ).  If so
 	 * set distance of pixel index to 1 and add it to fifo.
@@ -316,6 +341,7 @@ public abstract class WatershedVincentSoille1991 {
 			}
 		} else if( regionNeighbor == MASK && distanceNeighbor == 0) {
 			distance.data[indexNeighbor] = currentDistance + 1;
+			modifiedDistance.add(indexNeighbor);
 			fifo.add(indexNeighbor);
 		}
 	}
@@ -336,20 +362,52 @@ public abstract class WatershedVincentSoille1991 {
 	}
 
 	/**
-	 * Very fast histogram based sorting.  Index of each pixel is placed inside a list for its intensity level.
+	 * Very fast histogram based sorting.  Index of each pixel is placed inside the bucket for its intensity level.
+	 * Inside a bucket pixels are in the same order as a raster scan.
 	 */
 	protected void sortPixels(GrayU8 input) {
-		// initialize histogram
-		for( int i = 0; i < histogram.length; i++ ) {
-			histogram[i].reset();
+		Arrays.fill(levelCounts,0);
+		countLevels(input,0,input.height,levelCounts);
+
+		int total = 0;
+		for( int i = 0; i < levelCounts.length; i++ ) {
+			levelStart[i] = total;
+			total += levelCounts[i];
+			// counts now refer to where the next pixel in this level is written
+			levelCounts[i] = levelStart[i];
 		}
-		// sort by creating a histogram
-		for( int y = 0; y < input.height; y++ ) {
+		levelStart[levelCounts.length] = total;
+		sortedPixels.resize(total);
+
+		placePixels(input,0,input.height,levelCounts);
+	}
+
+	/**
+	 * Counts the number of pixels with each intensity value inside the rows
+	 *
+	 * @param counts (Output) Number of pixels at each level.  Values are added to it.
+	 */
+	protected void countLevels(GrayU8 input , int row0 , int row1 , int counts[] ) {
+		for( int y = row0; y < row1; y++ ) {
+			int index = input.startIndex + y*input.stride;
+			for (int x = 0; x < input.width; x++ , index++ ) {
+				counts[input.data[index] & 0xFF]++;
+			}
+		}
+	}
+
+	/**
+	 * Places the output image index of pixels inside the rows into their buckets
+	 *
+	 * @param location Where the next pixel at each level is written to in sortedPixels.  Modified.
+	 */
+	protected void placePixels(GrayU8 input , int row0 , int row1 , int location[] ) {
+		for( int y = row0; y < row1; y++ ) {
 			int index = input.startIndex + y*input.stride;
 			int indexOut = (y+1)*output.stride + 1;
 			for (int x = 0; x < input.width; x++ , index++ , indexOut++) {
 				int value = input.data[index] & 0xFF;
-				histogram[value].add(indexOut);
+				sortedPixels.data[location[value]++] = indexOut;
 			}
 		}
 	}
@@ -372,11 +430,19 @@ public abstract class WatershedVincentSoille1991 {
 	}
 
 	/**
-	 * Removes watershed pixels from the output image by merging them into an arbitrary neighbor.
+	 * Removes watershed pixels from the output image by merging them into an arbitrary neighbor.  The size
+	 * of each region is computed at the same time, see {@link #getRegionSizes()}.
 	 */
 	public void removeWatersheds() {
 		removedWatersheds = true;
-		removeWatersheds.remove(output);
+		removeWatersheds.remove(output,regionSizes);
+	}
+
+	/**
+	 * Number of pixels in each region.  Only valid after {@link #removeWatersheds()} has been called.
+	 */
+	public GrowQueue_I32 getRegionSizes() {
+		return regionSizes;
 	}
 
 	/**
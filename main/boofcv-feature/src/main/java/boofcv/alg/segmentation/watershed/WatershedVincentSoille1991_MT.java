@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.watershed;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementations of {@link WatershedVincentSoille1991}.  Pixels are sorted into the bucket queue
+ * using bands of rows and {@link RemoveWatersheds_MT} is used to remove watersheds.  The flooding is done in a
+ * single thread since the location of watersheds depends on the order in which pixels are processed.  The
+ * output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class WatershedVincentSoille1991_MT {
+	// Minimum number of rows processed by a thread
+	public static int MIN_BAND = 20;
+
+	/**
+	 * Concurrent implementation of {@link WatershedVincentSoille1991.Connect4}
+	 */
+	public static class Connect4 extends WatershedVincentSoille1991.Connect4 {
+		private FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class, true);
+
+		public Connect4() {
+			removeWatersheds = new RemoveWatersheds_MT();
+		}
+
+		@Override
+		protected void sortPixels(GrayU8 input) {
+			sortPixelsBands(this,input,workspace);
+		}
+	}
+
+	/**
+	 * Concurrent implementation of {@link WatershedVincentSoille1991.Connect8}
+	 */
+	public static class Connect8 extends WatershedVincentSoille1991.Connect8 {
+		private FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class, true);
+
+		public Connect8() {
+			removeWatersheds = new RemoveWatersheds_MT();
+		}
+
+		@Override
+		protected void sortPixels(GrayU8 input) {
+			sortPixelsBands(this,input,workspace);
+		}
+	}
+
+	/**
+	 * Sorts the pixels by counting the number of pixels at each level for each band, then each band
+	 * places its pixels into its own portion of each bucket.  The order inside each bucket is the same as
+	 * the single threaded version.
+	 */
+	static void sortPixelsBands( WatershedVincentSoille1991 alg , GrayU8 input ,
+								 FastQueue<GrowQueue_I32> workspace ) {
+		final int numLevels = alg.levelCounts.length;
+
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND,workspace,(counts,y0,y1)->{
+			counts.resize(numLevels);
+			counts.fill(0);
+			alg.countLevels(input,y0,y1,counts.data);
+		});
+
+		// convert the counts into the location each band writes its first pixel at each level
+		int total = 0;
+		for( int level = 0; level < numLevels; level++ ) {
+			alg.levelStart[level] = total;
+			for( int band = 0; band < workspace.size; band++ ) {
+				GrowQueue_I32 counts = workspace.get(band);
+				int count = counts.data[level];
+				counts.data[level] = total;
+				total += count;
+			}
+		}
+		alg.levelStart[numLevels] = total;
+		alg.sortedPixels.resize(total);
+
+		// bands are identical to the ones above since the range is the same
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND,workspace,(location,y0,y1)->
+				alg.placePixels(input,y0,y1,location.data));
+	}
+}
@@ -105,8 +105,26 @@ public class BinaryEllipseDetector<T extends ImageGray<T>> {
 		intensityCheck.setImage(gray);
 
 		List<BinaryEllipseDetectorPixel.Found> found = ellipseDetector.getFound();
+		refineAndCheck(found, 0, found.size(), ellipseRefiner, intensityCheck, results);
+	}
 
-		for( BinaryEllipseDetectorPixel.Found f : found ) {
+	/**
+	 * Refines the ellipses and removes ones which have edges which are not intense enough. Image must already
+	 * have been passed in to the refine and intensity check algorithms.
+	 *
+	 * @param found Ellipses which were found in the binary image
+	 * @param idx0 First ellipse, inclusive
+	 * @param idx1 Last ellipse, exclusive
+	 * @param ellipseRefiner Sub pixel edge refinement. If null the refinement step is skipped
+	 * @param intensityCheck Computes the intensity of the edge
+	 * @param results (Output) Storage for ellipses which passed all the checks. Not reset.
+	 */
+	protected void refineAndCheck( List<BinaryEllipseDetectorPixel.Found> found , int idx0 , int idx1 ,
+								   SnapToEllipseEdge<T> ellipseRefiner,
+								   EdgeIntensityEllipse<T> intensityCheck ,
+								   FastQueue<EllipseInfo> results ) {
+		for( int i = idx0; i < idx1; i++ ) {
+			BinaryEllipseDetectorPixel.Found f = found.get(i);
 
 			if( !intensityCheck.process(f.ellipse) ) {
 				if( verbose ) System.out.println("Rejecting ellipse. Initial fit didn't have intense enough edge");
@@ -211,5 +229,12 @@ public class BinaryEllipseDetector<T extends ImageGray<T>> {
 		 * Average pixel intensity along the outside of the fitted ellipse
 		 */
 		public double averageOutside;
+
+		public void setTo( EllipseInfo src ) {
+			ellipse.set(src.ellipse);
+			contour = src.contour;
+			averageInside = src.averageInside;
+			averageOutside = src.averageOutside;
+		}
 	}
 }
@@ -83,21 +83,15 @@ public class BinaryEllipseDetectorPixel {
 	private BinaryLabelContourFinder contourFinder;
 	private GrayS32 labeled = new GrayS32(1,1);
 
-	private FitEllipseAlgebraic_F64 algebraic = new FitEllipseAlgebraic_F64();
-
-	private ClosestPointEllipseAngle_F64 closestPoint = new ClosestPointEllipseAngle_F64(1e-4f,15);
+	// fits ellipses to contours and contains the work space for the fit
+	ContourFitter fitter = new ContourFitter();
 
 	// transforms which can be used to handle lens distortion
 	protected PixelTransform2_F32 distToUndist;
 
 	private boolean verbose = false;
 
-	private FastQueue<Point2D_F64> pointsF = new FastQueue<>(Point2D_F64.class, true);
-
-	private FastQueue<Found> found = new FastQueue<>(Found.class, true);
-
-	// temporary storage for a contour
-	private FastQueue<Point2D_I32> contourTmp = new FastQueue<>(Point2D_I32.class,true);
+	FastQueue<Found> found = new FastQueue<>(Found.class, true);
 
 	public BinaryEllipseDetectorPixel(ConnectRule connectRule ) {
 		contourFinder = FactoryBinaryContourFinder.linearChang2004();
@@ -133,72 +127,15 @@ public class BinaryEllipseDetectorPixel {
 
 		contourFinder.process(binary, labeled);
 
-		List<ContourPacked> blobs = contourFinder.getContours();
-		for (int i = 0; i < blobs.size(); i++) {
-			ContourPacked c = blobs.get(i);
-
-			contourFinder.loadContour(c.externalIndex,contourTmp);
-			proccessContour(contourTmp.toList());
-
-			if(internalContour) {
-				for( int j = 0; j < c.internalIndexes.size(); j++ ) {
-					contourFinder.loadContour(c.internalIndexes.get(j),contourTmp);
-					proccessContour(contourTmp.toList());
-				}
-			}
-		}
+		findEllipses();
 	}
 
-	private void proccessContour(List<Point2D_I32> contour) {
-		if (contour.size() < minimumContour || (maximumContour > 0 && contour.size() > maximumContour) ) {
-			if( verbose )
-				System.out.println("Rejecting: too small (or large) "+contour.size());
-			return;
-		}
-
-		// discard shapes which touch the image border
-		if( touchesBorder(contour) )
-			return;
-
-		pointsF.reset();
-		undistortContour(contour,pointsF);
-
-		// fit it to an ellipse.  This will just be approximate.  The more precise technique is much slower
-		if( !algebraic.process(pointsF.toList())) {
-			if( verbose )
-				System.out.println("Rejecting: algebraic fit failed. size = "+pointsF.size());
-			return;
-		}
-
-		EllipseQuadratic_F64 quad = algebraic.getEllipse();
-		Found f = found.grow();
-		UtilEllipse_F64.convert(quad,f.ellipse);
-
-		boolean accepted = true;
-
-		if( f.ellipse.b <= minimumMinorAxis ) {
-			if( verbose )
-				System.out.println("Rejecting: Minor axis too small. size = "+f.ellipse.b);
-			accepted = false;
-		} else if( !isApproximatelyElliptical(f.ellipse,pointsF.toList(),20)) {
-			if( verbose )
-				System.out.println("Rejecting: Not approximately elliptical. size = "+pointsF.size());
-			accepted = false;
-		} else if( f.ellipse.a > maxMajorToMinorRatio*f.ellipse.b ) {
-			if( verbose )
-				System.out.println("Rejecting: Major to minor axis length ratio too extreme = "+pointsF.size());
-			accepted = false;
-		}
-
-		if( accepted ) {
-			if (verbose)
-				System.out.println("Success!  size = " + pointsF.size());
-
-			adjustElipseForBinaryBias(f.ellipse);
-			f.contour = contour;
-		} else {
-			found.removeTail();
-		}
+	/**
+	 * Fits ellipses to all the contours which were found
+	 */
+	protected void findEllipses() {
+		List<ContourPacked> blobs = contourFinder.getContours();
+		fitter.process(blobs,0,blobs.size(),found);
 	}
 
 	/**
@@ -251,33 +188,7 @@ public class BinaryEllipseDetectorPixel {
 	 * Look at the maximum distance contour points are from the ellipse and see if they exceed a maximum threshold
 	 */
 	boolean isApproximatelyElliptical(EllipseRotated_F64 ellipse , List<Point2D_F64> points , int maxSamples ) {
-
-		closestPoint.setEllipse(ellipse);
-
-		double maxDistance2 = maxDistanceFromEllipse*maxDistanceFromEllipse;
-
-		if( points.size() <= maxSamples ) {
-			for( int i = 0; i < points.size(); i++ ) {
-				Point2D_F64 p = points.get(i);
-				closestPoint.process(p);
-				double d = closestPoint.getClosest().distance2(p);
-
-				if( d > maxDistance2 ) {
-					return false;
-				}
-			}
-		} else {
-			for (int i = 0; i < maxSamples; i++) {
-				Point2D_F64 p = points.get( i*points.size()/maxSamples );
-				closestPoint.process(p);
-				double d = closestPoint.getClosest().distance2(p);
-
-				if( d > maxDistance2 ) {
-					return false;
-				}
-			}
-		}
-		return true;
+		return fitter.isApproximatelyElliptical(ellipse, points, maxSamples);
 	}
 
 	public BinaryLabelContourFinder getContourFinder() {
@@ -344,6 +255,132 @@ public class BinaryEllipseDetectorPixel {
 		return found.toList();
 	}
 
+	/**
+	 * Fits ellipses to contours and rejects contours which don't meet the requirements. Contains its own copy of
+	 * each algorithm which has internal state and its own work space, allowing different contours to be processed
+	 * by different threads at the same time.
+	 */
+	protected class ContourFitter {
+		FitEllipseAlgebraic_F64 algebraic = new FitEllipseAlgebraic_F64();
+
+		ClosestPointEllipseAngle_F64 closestPoint = new ClosestPointEllipseAngle_F64(1e-4f,15);
+
+		FastQueue<Point2D_F64> pointsF = new FastQueue<>(Point2D_F64.class, true);
+
+		// temporary storage for a contour
+		FastQueue<Point2D_I32> contourTmp = new FastQueue<>(Point2D_I32.class,true);
+
+		/**
+		 * Fits ellipses to contours in the specified range. Ellipses which pass all the tests are added to
+		 * the output in the same order as their contours.
+		 *
+		 * @param blobs All the contours
+		 * @param idx0 First contour, inclusive
+		 * @param idx1 Last contour, exclusive
+		 * @param output (Output) Storage for found ellipses. Not reset.
+		 */
+		public void process( List<ContourPacked> blobs, int idx0, int idx1, FastQueue<Found> output ) {
+			for (int i = idx0; i < idx1; i++) {
+				ContourPacked c = blobs.get(i);
+
+				contourFinder.loadContour(c.externalIndex,contourTmp);
+				proccessContour(contourTmp.toList(),output);
+
+				if(internalContour) {
+					for( int j = 0; j < c.internalIndexes.size(); j++ ) {
+						contourFinder.loadContour(c.internalIndexes.get(j),contourTmp);
+						proccessContour(contourTmp.toList(),output);
+					}
+				}
+			}
+		}
+
+		private void proccessContour(List<Point2D_I32> contour, FastQueue<Found> output) {
+			if (contour.size() < minimumContour || (maximumContour > 0 && contour.size() > maximumContour) ) {
+				if( verbose )
+					System.out.println("Rejecting: too small (or large) "+contour.size());
+				return;
+			}
+
+			// discard shapes which touch the image border
+			if( touchesBorder(contour) )
+				return;
+
+			pointsF.reset();
+			undistortContour(contour,pointsF);
+
+			// fit it to an ellipse.  This will just be approximate.  The more precise technique is much slower
+			if( !algebraic.process(pointsF.toList())) {
+				if( verbose )
+					System.out.println("Rejecting: algebraic fit failed. size = "+pointsF.size());
+				return;
+			}
+
+			EllipseQuadratic_F64 quad = algebraic.getEllipse();
+			Found f = output.grow();
+			UtilEllipse_F64.convert(quad,f.ellipse);
+
+			boolean accepted = true;
+
+			if( f.ellipse.b <= minimumMinorAxis ) {
+				if( verbose )
+					System.out.println("Rejecting: Minor axis too small. size = "+f.ellipse.b);
+				accepted = false;
+			} else if( !isApproximatelyElliptical(f.ellipse,pointsF.toList(),20)) {
+				if( verbose )
+					System.out.println("Rejecting: Not approximately elliptical. size = "+pointsF.size());
+				accepted = false;
+			} else if( f.ellipse.a > maxMajorToMinorRatio*f.ellipse.b ) {
+				if( verbose )
+					System.out.println("Rejecting: Major to minor axis length ratio too extreme = "+pointsF.size());
+				accepted = false;
+			}
+
+			if( accepted ) {
+				if (verbose)
+					System.out.println("Success!  size = " + pointsF.size());
+
+				adjustElipseForBinaryBias(f.ellipse);
+				f.setContour(contour);
+			} else {
+				output.removeTail();
+			}
+		}
+
+		/**
+		 * Look at the maximum distance contour points are from the ellipse and see if they exceed a maximum threshold
+		 */
+		boolean isApproximatelyElliptical(EllipseRotated_F64 ellipse , List<Point2D_F64> points , int maxSamples ) {
+
+			closestPoint.setEllipse(ellipse);
+
+			double maxDistance2 = maxDistanceFromEllipse*maxDistanceFromEllipse;
+
+			if( points.size() <= maxSamples ) {
+				for( int i = 0; i < points.size(); i++ ) {
+					Point2D_F64 p = points.get(i);
+					closestPoint.process(p);
+					double d = closestPoint.getClosest().distance2(p);
+
+					if( d > maxDistance2 ) {
+						return false;
+					}
+				}
+			} else {
+				for (int i = 0; i < maxSamples; i++) {
+					Point2D_F64 p = points.get( i*points.size()/maxSamples );
+					closestPoint.process(p);
+					double d = closestPoint.getClosest().distance2(p);
+
+					if( d > maxDistance2 ) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
 	public static class Found {
 		/**
 		 * Computed ellipse in undistorted pixel coordinates
@@ -353,5 +390,24 @@ public class BinaryEllipseDetectorPixel {
 		 * Contour in distorted pixel coordinates
 		 */
 		public List<Point2D_I32> contour;
+
+		// storage for the contour
+		private FastQueue<Point2D_I32> contourStorage = new FastQueue<>(Point2D_I32.class,true);
+
+		/**
+		 * Saves a copy of the contour
+		 */
+		public void setContour( List<Point2D_I32> contour ) {
+			contourStorage.reset();
+			for (int i = 0; i < contour.size(); i++) {
+				contourStorage.grow().set(contour.get(i));
+			}
+			this.contour = contourStorage.toList();
+		}
+
+		public void setTo( Found src ) {
+			ellipse.set(src.ellipse);
+			setContour(src.contour);
+		}
 	}
 }
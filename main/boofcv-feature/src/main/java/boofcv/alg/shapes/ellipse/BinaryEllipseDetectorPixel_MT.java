@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.ellipse;
+
+import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BinaryEllipseDetectorPixel}. Contours are found using a single thread and then
+ * split into blocks. Each thread fits ellipses to the contours in its block using its own work space. Found ellipses
+ * are combined in block order, making the output identical to the single threaded implementation.
+ * </p>
+ *
+ * <p>
+ * If lens distortion has been specified then ellipses are found using a single thread. The transform for lens
+ * distortion has internal state and can't be shared between threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryEllipseDetectorPixel_MT extends BinaryEllipseDetectorPixel {
+
+	// Minimum number of contours processed by a thread
+	public static int MIN_BLOCK = 20;
+
+	// Fits ellipses to a block of contours
+	FastQueue<FitWorker> workers = new FastQueue<FitWorker>(1,FitWorker.class,true) {
+		@Override
+		protected FitWorker createInstance() {
+			return new FitWorker();
+		}
+	};
+
+	public BinaryEllipseDetectorPixel_MT(ConnectRule connectRule) {
+		super(connectRule);
+	}
+
+	public BinaryEllipseDetectorPixel_MT() {
+	}
+
+	@Override
+	protected void findEllipses() {
+		if( distToUndist != null ) {
+			super.findEllipses();
+			return;
+		}
+
+		final List<ContourPacked> blobs = getContourFinder().getContours();
+
+		BoofConcurrency.loopBlocks(0, blobs.size(), MIN_BLOCK, workers, (worker, idx0, idx1) -> {
+			worker.found.reset();
+			worker.fitter.process(blobs, idx0, idx1, worker.found);
+		});
+
+		// Add the ellipses in the same order they would have been found by a single thread
+		for (int blockIdx = 0; blockIdx < workers.size; blockIdx++) {
+			FastQueue<Found> blockFound = workers.get(blockIdx).found;
+			for (int i = 0; i < blockFound.size; i++) {
+				found.grow().setTo(blockFound.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Fits ellipses to a block of contours and stores the results
+	 */
+	class FitWorker {
+		ContourFitter fitter = new ContourFitter();
+
+		// ellipses found in this block
+		FastQueue<Found> found = new FastQueue<>(Found.class, true);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.ellipse;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.distort.PixelTransform2_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BinaryEllipseDetector}. Ellipses are refined and checked in parallel with
+ * each thread having its own copy of {@link SnapToEllipseEdge} and {@link EdgeIntensityEllipse}. Results are
+ * combined in block order, making the output identical to the single threaded implementation. To fit ellipses
+ * to contours in parallel pass in {@link BinaryEllipseDetectorPixel_MT}.
+ * </p>
+ *
+ * <p>
+ * If lens distortion has been specified then ellipses are refined using a single thread. The transforms
+ * for lens distortion have internal state and can't be shared between threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryEllipseDetector_MT<T extends ImageGray<T>> extends BinaryEllipseDetector<T> {
+
+	// Minimum number of ellipses processed by a thread
+	public static int MIN_BLOCK = 5;
+
+	// Refines and checks a block of ellipses
+	FastQueue<ThreadData> threadData;
+
+	// true if lens distortion has been specified
+	boolean lensDistortion = false;
+
+	/**
+	 * Configures the detector
+	 *
+	 * @param ellipseDetector Detector which uses pixel precise edges
+	 * @param factoryRefiner Creates a new instance of the sub pixel edge refinement for each thread.
+	 *                       If null the refinement step is skipped
+	 * @param factoryCheck Creates a new instance of the edge intensity check for each thread
+	 * @param inputType Input image type
+	 */
+	public BinaryEllipseDetector_MT(BinaryEllipseDetectorPixel ellipseDetector,
+									@Nullable final BoofLambdas.Factory<SnapToEllipseEdge<T>> factoryRefiner,
+									final BoofLambdas.Factory<EdgeIntensityEllipse<T>> factoryCheck,
+									Class<T> inputType) {
+		super(ellipseDetector, factoryRefiner == null ? null : factoryRefiner.newInstance(),
+				factoryCheck.newInstance(), inputType);
+
+		threadData = new FastQueue<ThreadData>(1,(Class)ThreadData.class,true) {
+			@Override
+			protected ThreadData createInstance() {
+				return new ThreadData(factoryRefiner == null ? null : factoryRefiner.newInstance(),
+						factoryCheck.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void setLensDistortion(PixelTransform2_F32 distToUndist, PixelTransform2_F32 undistToDist) {
+		super.setLensDistortion(distToUndist, undistToDist);
+		lensDistortion = distToUndist != null || undistToDist != null;
+	}
+
+	@Override
+	public void process(final T gray, GrayU8 binary) {
+		if( lensDistortion ) {
+			super.process(gray, binary);
+			return;
+		}
+
+		results.reset();
+
+		ellipseDetector.process(binary);
+
+		// needed if an ellipse is refined later on
+		if( ellipseRefiner != null)
+			ellipseRefiner.setImage(gray);
+		intensityCheck.setImage(gray);
+
+		final List<BinaryEllipseDetectorPixel.Found> found = ellipseDetector.getFound();
+
+		BoofConcurrency.loopBlocks(0, found.size(), MIN_BLOCK, threadData, (data, idx0, idx1) -> {
+			if( data.ellipseRefiner != null )
+				data.ellipseRefiner.setImage(gray);
+			data.intensityCheck.setImage(gray);
+			data.results.reset();
+			refineAndCheck(found, idx0, idx1, data.ellipseRefiner, data.intensityCheck, data.results);
+		});
+
+		// Add the ellipses in the same order they would have been found by a single thread
+		for (int blockIdx = 0; blockIdx < threadData.size; blockIdx++) {
+			FastQueue<EllipseInfo> blockResults = threadData.get(blockIdx).results;
+			for (int i = 0; i < blockResults.size; i++) {
+				results.grow().setTo(blockResults.get(i));
+			}
+		}
+	}
+
+	class ThreadData {
+		SnapToEllipseEdge<T> ellipseRefiner;
+		EdgeIntensityEllipse<T> intensityCheck;
+
+		// ellipses which passed all the checks in this block
+		FastQueue<EllipseInfo> results = new FastQueue<>(EllipseInfo.class, true);
+
+		ThreadData(SnapToEllipseEdge<T> ellipseRefiner, EdgeIntensityEllipse<T> intensityCheck) {
+			this.ellipseRefiner = ellipseRefiner;
+			this.intensityCheck = intensityCheck;
+		}
+	}
+}
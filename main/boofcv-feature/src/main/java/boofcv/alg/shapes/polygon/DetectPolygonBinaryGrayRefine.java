@@ -46,16 +46,8 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 
 	AdjustPolygonForThresholdBias adjustForBias;
 
-	// Refines the edges using the contour alone
-	private RefinePolygonToContour refineContour;
-
-	// Refines the edges using the gray scale image
-	private RefinePolygonToGray<T> refineGray;
-
-	// Used to remove false positives
-	private EdgeIntensityPolygon<T> edgeIntensity;
-
-	private Polygon2D_F64 work = new Polygon2D_F64();
+	// Refines the polygons and contains the work space for refinement
+	PolygonRefiner refiner;
 
 	// useful for customization
 	AdjustBeforeRefineEdge functionAdjust;
@@ -81,15 +73,12 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 										 double minimumRefineEdgeIntensity ,
 										 boolean adjustForThresholdBias ) {
 		this.detector = detector;
-		this.refineContour = refineContour;
-		this.refineGray = refineGray;
 		this.minimumRefineEdgeIntensity = minimumRefineEdgeIntensity;
 		if( adjustForThresholdBias ) {
 			this.adjustForBias = new AdjustPolygonForThresholdBias();
 		}
 
-		this.edgeIntensity = new EdgeIntensityPolygon<>(1, 1.5, 15,
-				detector.getInputType());
+		this.refiner = new PolygonRefiner(refineContour, refineGray, adjustForBias);
 	}
 
 	/**
@@ -120,9 +109,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 								  @Nullable PixelTransform2_F32 undistToDist )
 	{
 		detector.setLensDistortion(width, height, distToUndist, undistToDist);
-		if( refineGray != null )
-			refineGray.setLensDistortion(width, height, distToUndist, undistToDist);
-		edgeIntensity.setTransform(undistToDist);
+		refiner.setLensDistortion(width, height, distToUndist, undistToDist);
 	}
 
 	/**
@@ -130,9 +117,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	 */
 	public void clearLensDistortion() {
 		detector.clearLensDistortion();
-		if( refineGray != null )
-			refineGray.clearLensDistortion();
-		edgeIntensity.setTransform(null);
+		refiner.clearLensDistortion();
 	}
 
 	public void resetRuntimeProfiling() {
@@ -147,9 +132,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	 */
 	public void process(T gray , GrayU8 binary ) {
 		detector.process(gray,binary);
-		if( refineGray != null )
-			refineGray.setImage(gray);
-		edgeIntensity.setImage(gray);
+		refiner.setImage(gray);
 
 		long time0 = System.nanoTime();
 		FastQueue<DetectPolygonFromContour.Info> detections = detector.getFound();
@@ -181,57 +164,7 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	 * @return true if successful or false if not
 	 */
 	public boolean refine( DetectPolygonFromContour.Info info ) {
-		double before,after;
-		if( edgeIntensity.computeEdge(info.polygon,!detector.isOutputClockwise()) ) {
-			before = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
-		} else {
-			return false;
-		}
-
-		boolean success = false;
-
-		if( refineContour != null ) {
-			List<Point2D_I32> contour = detector.getContour(info);
-			refineContour.process(contour,info.splits,work);
-
-			if( adjustForBias != null )
-				adjustForBias.process(work, detector.isOutputClockwise());
-
-			if( edgeIntensity.computeEdge(work,!detector.isOutputClockwise()) ) {
-				after = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
-				if( after > before ) {
-					info.edgeInside = edgeIntensity.getAverageInside();
-					info.edgeOutside = edgeIntensity.getAverageOutside();
-					info.polygon.set(work);
-					success = true;
-					before = after;
-				}
-			}
-		}
-
-		if( functionAdjust != null ) {
-			functionAdjust.adjust(info, detector.isOutputClockwise());
-		}
-
-		if( refineGray != null ) {
-			work.vertexes.resize(info.polygon.size());
-			if( refineGray.refine(info.polygon,work) ) {
-				if( edgeIntensity.computeEdge(work,!detector.isOutputClockwise()) ) {
-					after = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
-
-					// basically, unless it diverged stick with this optimization
-					// a near tie
-					if( after*1.5 > before ) {
-						info.edgeInside = edgeIntensity.getAverageInside();
-						info.edgeOutside = edgeIntensity.getAverageOutside();
-						info.polygon.set(work);
-						success = true;
-					}
-				}
-			}
-		}
-
-		return success;
+		return refiner.refine(info);
 	}
 
 	/**
@@ -313,6 +246,126 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		return milliAdjustBias.getAverage();
 	}
 
+	/**
+	 * Refines the fit of a polygon to the image. Contains its own copy of each algorithm which has internal
+	 * state and its own work space, allowing different polygons to be refined by different threads at the
+	 * same time.
+	 */
+	protected class PolygonRefiner {
+		AdjustPolygonForThresholdBias adjustForBias;
+
+		// Refines the edges using the contour alone
+		RefinePolygonToContour refineContour;
+
+		// Refines the edges using the gray scale image
+		RefinePolygonToGray<T> refineGray;
+
+		// Used to remove false positives
+		EdgeIntensityPolygon<T> edgeIntensity;
+
+		Polygon2D_F64 work = new Polygon2D_F64();
+
+		// storage for the contour a polygon was fit to
+		FastQueue<Point2D_I32> contour = new FastQueue<>(Point2D_I32.class,true);
+
+		/**
+		 * @param refineContour Refines the polygon produce a better fit against the contour. Can be null.
+		 * @param refineGray Refine the edges to the input gray scale image. Can be null.
+		 * @param adjustForBias Adjusts contour polygons for the bias caused by thresholding. Can be null.
+		 */
+		protected PolygonRefiner(@Nullable RefinePolygonToContour refineContour,
+								 @Nullable RefinePolygonToGray<T> refineGray,
+								 @Nullable AdjustPolygonForThresholdBias adjustForBias) {
+			this.refineContour = refineContour;
+			this.refineGray = refineGray;
+			this.adjustForBias = adjustForBias;
+			this.edgeIntensity = new EdgeIntensityPolygon<>(1, 1.5, 15, detector.getInputType());
+		}
+
+		public void setImage( T gray ) {
+			if( refineGray != null )
+				refineGray.setImage(gray);
+			edgeIntensity.setImage(gray);
+		}
+
+		public void setLensDistortion(int width , int height ,
+									  @Nullable PixelTransform2_F32 distToUndist ,
+									  @Nullable PixelTransform2_F32 undistToDist ) {
+			if( refineGray != null )
+				refineGray.setLensDistortion(width, height, distToUndist, undistToDist);
+			edgeIntensity.setTransform(undistToDist);
+		}
+
+		public void clearLensDistortion() {
+			if( refineGray != null )
+				refineGray.clearLensDistortion();
+			edgeIntensity.setTransform(null);
+		}
+
+		/**
+		 * Refines the fit to the specified polygon. Only info.polygon is modified
+		 * @param info The polygon and related info
+		 * @return true if successful or false if not
+		 */
+		public boolean refine( DetectPolygonFromContour.Info info ) {
+			double before,after;
+			if( edgeIntensity.computeEdge(info.polygon,!detector.isOutputClockwise()) ) {
+				before = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
+			} else {
+				return false;
+			}
+
+			boolean success = false;
+
+			if( refineContour != null ) {
+				List<Point2D_I32> contour = detector.getContour(info,this.contour);
+				refineContour.process(contour,info.splits,work);
+
+				if( adjustForBias != null )
+					adjustForBias.process(work, detector.isOutputClockwise());
+
+				if( edgeIntensity.computeEdge(work,!detector.isOutputClockwise()) ) {
+					after = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
+					if( after > before ) {
+						info.edgeInside = edgeIntensity.getAverageInside();
+						info.edgeOutside = edgeIntensity.getAverageOutside();
+						info.polygon.set(work);
+						success = true;
+						before = after;
+					}
+				}
+			}
+
+			if( functionAdjust != null ) {
+				functionAdjust.adjust(info, detector.isOutputClockwise());
+			}
+
+			if( refineGray != null ) {
+				work.vertexes.resize(info.polygon.size());
+				if( refineGray.refine(info.polygon,work) ) {
+					if( edgeIntensity.computeEdge(work,!detector.isOutputClockwise()) ) {
+						after = edgeIntensity.getAverageOutside() - edgeIntensity.getAverageInside();
+
+						// basically, unless it diverged stick with this optimization
+						// a near tie
+						if( after*1.5 > before ) {
+							info.edgeInside = edgeIntensity.getAverageInside();
+							info.edgeOutside = edgeIntensity.getAverageOutside();
+							info.polygon.set(work);
+							success = true;
+						}
+					}
+				}
+			}
+
+			return success;
+		}
+	}
+
+	/**
+	 * Used to adjust a polygon before its edges are refined. Must be thread safe if used with
+	 * {@link DetectPolygonBinaryGrayRefine_MT}.
+	 */
 	public interface AdjustBeforeRefineEdge {
 		void adjust( DetectPolygonFromContour.Info info , boolean clockwise );
 	}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.polygon;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DetectPolygonBinaryGrayRefine}. Polygons are refined in parallel with each
+ * thread having its own copy of the refinement algorithms. Polygons are modified in place, so the order and the
+ * results are the same as the single threaded implementation.
+ * To fit polygons to contours in parallel pass in {@link DetectPolygonFromContour_MT}.
+ * </p>
+ *
+ * <p>
+ * If lens distortion has been specified then refinement is done using a single thread. The transforms
+ * for lens distortion have internal state and can't be shared between threads. If an
+ * {@link AdjustBeforeRefineEdge} is provided it must be thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DetectPolygonBinaryGrayRefine_MT<T extends ImageGray<T>> extends DetectPolygonBinaryGrayRefine<T> {
+
+	// Minimum number of polygons processed by a thread
+	public static int MIN_BLOCK = 5;
+
+	// Refines a block of polygons
+	FastQueue<PolygonRefiner> refiners;
+
+	// Image which was last processed
+	T gray;
+
+	/**
+	 * Configures the polygon detector
+	 *
+	 * @param detector Fits a polygon to a contour
+	 * @param factoryRefineContour Creates a new instance of contour refinement for each thread. Can be null.
+	 * @param factoryRefineGray Creates a new instance of gray scale refinement for each thread. Can be null.
+	 * @param minimumRefineEdgeIntensity Threshold for pruning shapes. Must have this edge intensity. Try 6
+	 * @param adjustForThresholdBias Should it adjust contour polygons for the bias caused by thresholding?
+	 */
+	public DetectPolygonBinaryGrayRefine_MT(DetectPolygonFromContour<T> detector,
+											@Nullable final BoofLambdas.Factory<RefinePolygonToContour> factoryRefineContour,
+											@Nullable final BoofLambdas.Factory<RefinePolygonToGray<T>> factoryRefineGray,
+											double minimumRefineEdgeIntensity,
+											boolean adjustForThresholdBias) {
+		super(detector,
+				factoryRefineContour == null ? null : factoryRefineContour.newInstance(),
+				factoryRefineGray == null ? null : factoryRefineGray.newInstance(),
+				minimumRefineEdgeIntensity, adjustForThresholdBias);
+
+		refiners = new FastQueue<PolygonRefiner>(1,(Class)PolygonRefiner.class,true) {
+			@Override
+			protected PolygonRefiner createInstance() {
+				return new PolygonRefiner(
+						factoryRefineContour == null ? null : factoryRefineContour.newInstance(),
+						factoryRefineGray == null ? null : factoryRefineGray.newInstance(),
+						adjustForBias == null ? null : new AdjustPolygonForThresholdBias());
+			}
+		};
+	}
+
+	@Override
+	public void process(T gray, GrayU8 binary) {
+		this.gray = gray;
+		super.process(gray, binary);
+	}
+
+	@Override
+	public void refineAll() {
+		if( detector.getDistToUndist() != null ) {
+			super.refineAll();
+			return;
+		}
+
+		final List<DetectPolygonFromContour.Info> detections = detector.getFound().toList();
+
+		BoofConcurrency.loopBlocks(0, detections.size(), MIN_BLOCK, refiners, (refiner, idx0, idx1) -> {
+			refiner.setImage(gray);
+			for (int i = idx0; i < idx1; i++) {
+				refiner.refine(detections.get(i));
+			}
+		});
+	}
+}
@@ -80,12 +80,8 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	private BinaryContourInterface.Padded contourPadded;
 	int imageWidth,imageHeight; // input image shape
 
-	// finds the initial polygon around a target candidate
-	private PointsToPolyline contourToPolyline;
-	private GrowQueue_I32 splits = new GrowQueue_I32();
-
-	// Used to prune false positives
-	private ContourEdgeIntensity<T> contourEdgeIntensity;
+	// fits polygons to contours and contains the work space for the fit
+	ContourFitter fitter;
 
 	// extera information for found shapes
 	FastQueue<Info> foundInfo = new FastQueue<>(Info.class, true);
@@ -93,10 +89,6 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	// true if points touching the border are NOT pruned
 	private boolean canTouchBorder;
 
-	// work space for initial polygon
-	private Polygon2D_F64 polygonWork = new Polygon2D_F64(); // undistorted pixel coordinate
-	private Polygon2D_F64 polygonDistorted = new Polygon2D_F64(); // distorted pixel coordinates;
-
 	// should the order of the polygon be on clockwise order on output?
 	private boolean outputClockwise;
 
@@ -109,20 +101,16 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	double contourEdgeThreshold;
 
 	// helper used to customize low level behaviors internally
-	private PolygonHelper helper;
-
-	// storage space for contour in undistorted pixels
-	private FastQueue<Point2D_I32> undistorted = new FastQueue<>(Point2D_I32.class,true);
+	PolygonHelper helper;
 
 	// type of input gray scale image it can process
 	private Class<T> inputType;
 
-	// indicates which corners touch the border
-	private GrowQueue_B borderCorners = new GrowQueue_B();
+	// parameters for the contour edge intensity
+	private double tangentEdgeIntensity;
 
 	// temporary storage for a contour
 	private FastQueue<Point2D_I32> contourTmp = new FastQueue<>(Point2D_I32.class,true);
-	List<Point2D_I32> polygonPixel = new ArrayList<>();
 
 	// times for internal profiling
 	MovingAverage milliContour = new MovingAverage(0.8);
@@ -147,25 +135,21 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 									Class<T> inputType) {
 
 		this.minimumContourConfig = minimumContour.copy(); // local copy so that external can be modified
-		this.contourToPolyline = contourToPolyline;
 		this.outputClockwise = outputClockwise;
 		this.canTouchBorder = touchBorder;
 		this.contourEdgeThreshold = contourEdgeThreshold;
 		this.contourFinder = contourFinder;
 		this.inputType = inputType;
+		this.tangentEdgeIntensity = tangentEdgeIntensity;
 
 		if( contourFinder instanceof BinaryContourInterface.Padded) {
 			contourPadded = (BinaryContourInterface.Padded)contourFinder;
 		}
 
-		if( !this.contourToPolyline.isLoop() )
+		if( !contourToPolyline.isLoop() )
 			throw new IllegalArgumentException("ContourToPolygon must be configured for loops");
 
-		if( contourEdgeThreshold > 0 ) {
-			this.contourEdgeIntensity = new ContourEdgeIntensity<>(30, 1, tangentEdgeIntensity, inputType);
-		}
-
-		polygonWork = new Polygon2D_F64(1);
+		this.fitter = new ContourFitter(contourToPolyline, contourEdgeThreshold > 0);
 	}
 
 	/**
@@ -229,8 +213,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		}
 		foundInfo.reset();
 
-		if( contourEdgeIntensity != null )
-			contourEdgeIntensity.setImage(gray);
+		fitter.setImage(gray);
 
 		long time0 = System.nanoTime();
 
@@ -278,146 +261,9 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	 * Finds blobs in the binary image.  Then looks for blobs that meet size and shape requirements.  See code
 	 * below for the requirements.  Those that remain are considered to be target candidates.
 	 */
-	private void findCandidateShapes() {
-
-		// find blobs where all 4 edges are lines
+	protected void findCandidateShapes() {
 		List<ContourPacked> blobs = contourFinder.getContours();
-		for (int i = 0; i < blobs.size(); i++) {
-			ContourPacked c = blobs.get(i);
-
-			contourTmp.reset();
-			contourFinder.loadContour(c.externalIndex,contourTmp);
-			if( contourTmp.size() >= minimumContour) {
-				float edgeInside=-1,edgeOutside=-1;
-
-//				System.out.println("----- candidate "+contourTmp.size()+"  "+contourTmp.get(0));
-
-				// ignore shapes which touch the image border
-				boolean touchesBorder = touchesBorder(contourTmp.toList());
-				if( !canTouchBorder && touchesBorder ) {
-					if( verbose ) System.out.println("rejected polygon, touched border");
-					continue;
-				}
-
-				if( helper != null )
-					if( !helper.filterContour(contourTmp.toList(),touchesBorder,true) )
-						continue;
-
-				// filter out contours which are noise
-				if( contourEdgeIntensity != null ) {
-					contourEdgeIntensity.process(contourTmp.toList(),true);
-					edgeInside = contourEdgeIntensity.getInsideAverage();
-					edgeOutside = contourEdgeIntensity.getOutsideAverage();
-
-					// take the ABS because CCW/CW isn't known yet
-					if( Math.abs(edgeOutside-edgeInside) < contourEdgeThreshold ) {
-						if( verbose ) System.out.println("rejected polygon. contour edge intensity");
-						continue;
-					}
-				}
-
-				// remove lens distortion
-				List<Point2D_I32> undistorted;
-				if( distToUndist != null ) {
-					undistorted = this.undistorted.toList();
-					removeDistortionFromContour(contourTmp.toList(),this.undistorted);
-					if( helper != null )
-						if( !helper.filterContour(this.undistorted.toList(),touchesBorder,false) )
-							continue;
-				} else {
-					undistorted = contourTmp.toList();
-				}
-
-				if( helper != null ) {
-					helper.configureBeforePolyline(contourToPolyline,touchesBorder);
-				}
-
-				// Find the initial approximate fit of a polygon to the contour
-				if( !contourToPolyline.process(undistorted,splits) ) {
-					if( verbose ) System.out.println("rejected polygon initial fit failed. contour size = "+contourTmp.size());
-					continue;
-				}
-
-				// determine the polygon's orientation
-				polygonPixel.clear();
-				for (int j = 0; j < splits.size; j++) {
-					polygonPixel.add(undistorted.get(splits.get(j)));
-				}
-
-				boolean isCCW = UtilPolygons2D_I32.isCCW(polygonPixel);
-
-				// Now that the orientation is known it can check to see if it's actually trying to fit to a
-				// white blob instead of a black blob
-				if( contourEdgeIntensity != null ) {
-					// before it assumed it was CCW
-					if( !isCCW ) {
-						float tmp = edgeInside;
-						edgeInside = edgeOutside;
-						edgeOutside = tmp;
-					}
-
-					if( edgeInside > edgeOutside ) {
-						if( verbose ) System.out.println("White blob. Rejected");
-						continue;
-					}
-				}
-
-				// see if it should be flipped so that the polygon has the correct orientation
-				if( outputClockwise == isCCW ) {
-					flip(splits.data,splits.size);
-				}
-
-				// convert the format of the initial crude polygon
-				polygonWork.vertexes.resize(splits.size());
-				polygonDistorted.vertexes.resize(splits.size());
-				for (int j = 0; j < splits.size(); j++) {
-					Point2D_I32 p = undistorted.get( splits.get(j) );
-					Point2D_I32 q = contourTmp.get( splits.get(j));
-					polygonWork.get(j).set(p.x,p.y);
-					polygonDistorted.get(j).set(q.x,q.y);
-				}
-
-				if( touchesBorder ) {
-					determineCornersOnBorder(polygonDistorted, borderCorners);
-				} else {
-					borderCorners.resize(0);
-				}
-
-				if( helper != null ) {
-					if( !helper.filterPixelPolygon(polygonWork,polygonDistorted,borderCorners,touchesBorder) ) {
-						if( verbose ) System.out.println("rejected by helper.filterPixelPolygon()");
-						continue;
-					}
-				}
-
-				// make sure it's big enough
-				double area = Area2D_F64.polygonSimple(polygonWork);
-
-				if( area < minimumArea ) {
-					if( verbose ) System.out.println("Rejected area");
-					continue;
-				}
-
-				// Get the storage for a new polygon. This is recycled and has already been cleaned up
-				Info info = foundInfo.grow();
-
-				if( distToUndist != null ) {
-					// changed the save points in the packed contour list with undistorted coordinates
-					contourFinder.writeContour(c.externalIndex,undistorted);
-				}
-
-				// save results
-				info.splits.setTo(splits);
-				info.contourTouchesBorder = touchesBorder;
-				info.external = true;
-				info.edgeInside = edgeInside;
-				info.edgeOutside = edgeOutside;
-				info.contour = c;
-				info.polygon.set(polygonWork);
-				info.polygonDistorted.set(polygonDistorted);
-				info.borderCorners.setTo(borderCorners);
-			}
-		}
+		fitter.process(blobs,0,blobs.size(),foundInfo);
 	}
 
 	// TODO move into ddogleg? primitive flip  <--- I think this is specific to polygons
@@ -453,9 +299,20 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	 * @return List of points in the contour
 	 */
 	public List<Point2D_I32> getContour( Info info ) {
-		contourTmp.reset();
-		contourFinder.loadContour(info.contour.externalIndex,contourTmp);
-		return contourTmp.toList();
+		return getContour(info,contourTmp);
+	}
+
+	/**
+	 * Returns the undistorted contour for a shape and stores it in the provided storage. Can be called
+	 * by multiple threads at once so long as each has its own storage.
+	 * @param info Which shape
+	 * @param storage (Output) Storage for the contour
+	 * @return List of points in the contour
+	 */
+	public List<Point2D_I32> getContour( Info info , FastQueue<Point2D_I32> storage ) {
+		storage.reset();
+		contourFinder.loadContour(info.contour.externalIndex,storage);
+		return storage.toList();
 	}
 
 //	/**
@@ -533,11 +390,11 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	}
 
 	public boolean isConvex() {
-		return contourToPolyline.isConvex();
+		return fitter.contourToPolyline.isConvex();
 	}
 
 	public void setConvex(boolean convex) {
-		contourToPolyline.setConvex(convex);
+		fitter.contourToPolyline.setConvex(convex);
 	}
 
 	public boolean isOutputClockwise() {
@@ -556,16 +413,16 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		if( max < min )
 			throw new IllegalArgumentException("The max must be >= the min");
 
-		this.contourToPolyline.setMinimumSides(min);
-		this.contourToPolyline.setMaximumSides(max);
+		fitter.contourToPolyline.setMinimumSides(min);
+		fitter.contourToPolyline.setMaximumSides(max);
 	}
 
 	public int getMinimumSides() {
-		return contourToPolyline.getMinimumSides();
+		return fitter.contourToPolyline.getMinimumSides();
 	}
 
 	public int getMaximumSides() {
-		return contourToPolyline.getMaximumSides();
+		return fitter.contourToPolyline.getMaximumSides();
 	}
 
 	public void setOutputClockwise(boolean outputClockwise) {
@@ -611,6 +468,205 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		return milliShapes.getAverage();
 	}
 
+	/**
+	 * Fits polygons to contours and rejects contours which don't meet the requirements. Contains its own copy of
+	 * each algorithm which has internal state and its own work space, allowing different contours to be processed
+	 * by different threads at the same time.
+	 */
+	protected class ContourFitter {
+		// finds the initial polygon around a target candidate
+		PointsToPolyline contourToPolyline;
+		GrowQueue_I32 splits = new GrowQueue_I32();
+
+		// Used to prune false positives
+		ContourEdgeIntensity<T> contourEdgeIntensity;
+
+		// work space for initial polygon
+		Polygon2D_F64 polygonWork = new Polygon2D_F64(1); // undistorted pixel coordinate
+		Polygon2D_F64 polygonDistorted = new Polygon2D_F64(); // distorted pixel coordinates;
+
+		// storage space for contour in undistorted pixels
+		FastQueue<Point2D_I32> undistorted = new FastQueue<>(Point2D_I32.class,true);
+
+		// indicates which corners touch the border
+		GrowQueue_B borderCorners = new GrowQueue_B();
+
+		// temporary storage for a contour
+		FastQueue<Point2D_I32> contourTmp = new FastQueue<>(Point2D_I32.class,true);
+		List<Point2D_I32> polygonPixel = new ArrayList<>();
+
+		// true if the helper modified contourToPolyline's configuration in the last call to process
+		boolean configuredByHelper;
+
+		/**
+		 * @param contourToPolyline Fits a crude polygon to the shape's binary contour
+		 * @param checkEdgeIntensity If true then the contour's edge intensity is used to prune contours
+		 */
+		protected ContourFitter(PointsToPolyline contourToPolyline, boolean checkEdgeIntensity) {
+			this.contourToPolyline = contourToPolyline;
+			if( checkEdgeIntensity ) {
+				this.contourEdgeIntensity = new ContourEdgeIntensity<>(30, 1, tangentEdgeIntensity, inputType);
+			}
+		}
+
+		public void setImage( T gray ) {
+			if( contourEdgeIntensity != null )
+				contourEdgeIntensity.setImage(gray);
+		}
+
+		/**
+		 * Fits polygons to contours in the specified range. Polygons which pass all the tests are added to
+		 * the output in the same order as their contours.
+		 *
+		 * @param blobs All the contours
+		 * @param idx0 First contour, inclusive
+		 * @param idx1 Last contour, exclusive
+		 * @param output (Output) Storage for found polygons. Not reset.
+		 */
+		public void process( List<ContourPacked> blobs, int idx0, int idx1, FastQueue<Info> output ) {
+			configuredByHelper = false;
+
+			// find blobs where all 4 edges are lines
+			for (int i = idx0; i < idx1; i++) {
+				ContourPacked c = blobs.get(i);
+
+				contourTmp.reset();
+				contourFinder.loadContour(c.externalIndex,contourTmp);
+				if( contourTmp.size() >= minimumContour) {
+					float edgeInside=-1,edgeOutside=-1;
+
+//					System.out.println("----- candidate "+contourTmp.size()+"  "+contourTmp.get(0));
+
+					// ignore shapes which touch the image border
+					boolean touchesBorder = touchesBorder(contourTmp.toList());
+					if( !canTouchBorder && touchesBorder ) {
+						if( verbose ) System.out.println("rejected polygon, touched border");
+						continue;
+					}
+
+					if( helper != null )
+						if( !helper.filterContour(contourTmp.toList(),touchesBorder,true) )
+							continue;
+
+					// filter out contours which are noise
+					if( contourEdgeIntensity != null ) {
+						contourEdgeIntensity.process(contourTmp.toList(),true);
+						edgeInside = contourEdgeIntensity.getInsideAverage();
+						edgeOutside = contourEdgeIntensity.getOutsideAverage();
+
+						// take the ABS because CCW/CW isn't known yet
+						if( Math.abs(edgeOutside-edgeInside) < contourEdgeThreshold ) {
+							if( verbose ) System.out.println("rejected polygon. contour edge intensity");
+							continue;
+						}
+					}
+
+					// remove lens distortion
+					List<Point2D_I32> undistorted;
+					if( distToUndist != null ) {
+						undistorted = this.undistorted.toList();
+						removeDistortionFromContour(contourTmp.toList(),this.undistorted);
+						if( helper != null )
+							if( !helper.filterContour(this.undistorted.toList(),touchesBorder,false) )
+								continue;
+					} else {
+						undistorted = contourTmp.toList();
+					}
+
+					if( helper != null ) {
+						helper.configureBeforePolyline(contourToPolyline,touchesBorder);
+						configuredByHelper = true;
+					}
+
+					// Find the initial approximate fit of a polygon to the contour
+					if( !contourToPolyline.process(undistorted,splits) ) {
+						if( verbose ) System.out.println("rejected polygon initial fit failed. contour size = "+contourTmp.size());
+						continue;
+					}
+
+					// determine the polygon's orientation
+					polygonPixel.clear();
+					for (int j = 0; j < splits.size; j++) {
+						polygonPixel.add(undistorted.get(splits.get(j)));
+					}
+
+					boolean isCCW = UtilPolygons2D_I32.isCCW(polygonPixel);
+
+					// Now that the orientation is known it can check to see if it's actually trying to fit to a
+					// white blob instead of a black blob
+					if( contourEdgeIntensity != null ) {
+						// before it assumed it was CCW
+						if( !isCCW ) {
+							float tmp = edgeInside;
+							edgeInside = edgeOutside;
+							edgeOutside = tmp;
+						}
+
+						if( edgeInside > edgeOutside ) {
+							if( verbose ) System.out.println("White blob. Rejected");
+							continue;
+						}
+					}
+
+					// see if it should be flipped so that the polygon has the correct orientation
+					if( outputClockwise == isCCW ) {
+						flip(splits.data,splits.size);
+					}
+
+					// convert the format of the initial crude polygon
+					polygonWork.vertexes.resize(splits.size());
+					polygonDistorted.vertexes.resize(splits.size());
+					for (int j = 0; j < splits.size(); j++) {
+						Point2D_I32 p = undistorted.get( splits.get(j) );
+						Point2D_I32 q = contourTmp.get( splits.get(j));
+						polygonWork.get(j).set(p.x,p.y);
+						polygonDistorted.get(j).set(q.x,q.y);
+					}
+
+					if( touchesBorder ) {
+						determineCornersOnBorder(polygonDistorted, borderCorners);
+					} else {
+						borderCorners.resize(0);
+					}
+
+					if( helper != null ) {
+						if( !helper.filterPixelPolygon(polygonWork,polygonDistorted,borderCorners,touchesBorder) ) {
+							if( verbose ) System.out.println("rejected by helper.filterPixelPolygon()");
+							continue;
+						}
+					}
+
+					// make sure it's big enough
+					double area = Area2D_F64.polygonSimple(polygonWork);
+
+					if( area < minimumArea ) {
+						if( verbose ) System.out.println("Rejected area");
+						continue;
+					}
+
+					// Get the storage for a new polygon. This is recycled and has already been cleaned up
+					Info info = output.grow();
+
+					if( distToUndist != null ) {
+						// changed the save points in the packed contour list with undistorted coordinates
+						contourFinder.writeContour(c.externalIndex,undistorted);
+					}
+
+					// save results
+					info.splits.setTo(splits);
+					info.contourTouchesBorder = touchesBorder;
+					info.external = true;
+					info.edgeInside = edgeInside;
+					info.edgeOutside = edgeOutside;
+					info.contour = c;
+					info.polygon.set(polygonWork);
+					info.polygonDistorted.set(polygonDistorted);
+					info.borderCorners.setTo(borderCorners);
+				}
+			}
+		}
+	}
+
 	public static class Info
 	{
 		/**
@@ -659,6 +715,18 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 			return contour.internalIndexes.size > 0;
 		}
 
+		public void setTo( Info src ) {
+			external = src.external;
+			edgeInside = src.edgeInside;
+			edgeOutside = src.edgeOutside;
+			contourTouchesBorder = src.contourTouchesBorder;
+			borderCorners.setTo(src.borderCorners);
+			polygon.set(src.polygon);
+			polygonDistorted.set(src.polygonDistorted);
+			splits.setTo(src.splits);
+			contour = src.contour;
+		}
+
 		public void reset() {
 			external = false;
 			edgeInside = edgeOutside = -1;
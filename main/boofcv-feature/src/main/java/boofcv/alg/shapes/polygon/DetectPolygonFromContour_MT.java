@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.polygon;
+
+import boofcv.abst.filter.binary.BinaryContourFinder;
+import boofcv.abst.shapes.polyline.PointsToPolyline;
+import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DetectPolygonFromContour}. Contours are found using a single thread and then
+ * split into blocks. Each thread fits polygons to the contours in its block using its own copy of
+ * {@link PointsToPolyline}. Found polygons are combined in block order, making the output identical to the
+ * single threaded implementation.
+ * </p>
+ *
+ * <p>
+ * If lens distortion has been specified then polygons are found using a single thread. The transforms
+ * for lens distortion have internal state and can't be shared between threads. If a {@link PolygonHelper} is
+ * provided it must be thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DetectPolygonFromContour_MT<T extends ImageGray<T>> extends DetectPolygonFromContour<T> {
+
+	// Minimum number of contours processed by a thread
+	public static int MIN_BLOCK = 20;
+
+	// Fits polygons to a block of contours
+	FastQueue<FitWorker> workers;
+
+	// Image being processed
+	T gray;
+
+	/**
+	 * Configures the detector. See {@link DetectPolygonFromContour} for a description of most parameters.
+	 *
+	 * @param factoryPolyline Creates a new instance of the polyline fitter for each thread
+	 */
+	public DetectPolygonFromContour_MT(final BoofLambdas.Factory<PointsToPolyline> factoryPolyline,
+									   ConfigLength minimumContour,
+									   boolean outputClockwise,
+									   boolean touchBorder,
+									   double contourEdgeThreshold,
+									   double tangentEdgeIntensity,
+									   BinaryContourFinder contourFinder,
+									   Class<T> inputType) {
+		super(factoryPolyline.newInstance(), minimumContour, outputClockwise, touchBorder,
+				contourEdgeThreshold, tangentEdgeIntensity, contourFinder, inputType);
+
+		workers = new FastQueue<FitWorker>(1,(Class)FitWorker.class,true) {
+			@Override
+			protected FitWorker createInstance() {
+				return new FitWorker(factoryPolyline.newInstance());
+			}
+		};
+	}
+
+	@Override
+	public void process(T gray, GrayU8 binary) {
+		this.gray = gray;
+		super.process(gray, binary);
+		this.gray = null;
+	}
+
+	@Override
+	protected void findCandidateShapes() {
+		if( distToUndist != null ) {
+			super.findCandidateShapes();
+			return;
+		}
+
+		final List<ContourPacked> blobs = getContourFinder().getContours();
+
+		BoofConcurrency.loopBlocks(0, blobs.size(), MIN_BLOCK, workers, (worker, idx0, idx1) -> {
+			worker.fitter.setImage(gray);
+			copyConfiguration(fitter.contourToPolyline, worker.fitter.contourToPolyline);
+			worker.reset();
+			worker.fitter.process(blobs, idx0, idx1, worker.found);
+		});
+
+		// Add the polygons in the same order they would have been found by a single thread
+		for (int blockIdx = 0; blockIdx < workers.size; blockIdx++) {
+			FastQueue<Info> found = workers.get(blockIdx).found;
+			for (int i = 0; i < found.size; i++) {
+				foundInfo.grow().setTo(found.get(i));
+			}
+		}
+
+		// The helper can modify the polyline's configuration. Make sure it's in the same state
+		// it would be in after being processed by a single thread
+		for (int blockIdx = workers.size-1; blockIdx >= 0; blockIdx--) {
+			ContourFitter worker = workers.get(blockIdx).fitter;
+			if( worker.configuredByHelper ) {
+				copyConfiguration(worker.contourToPolyline, fitter.contourToPolyline);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Copies the settings which can be changed after the polyline fitter has been created
+	 */
+	static void copyConfiguration( PointsToPolyline src , PointsToPolyline dst ) {
+		dst.setConvex(src.isConvex());
+		dst.setMinimumSides(src.getMinimumSides());
+		dst.setMaximumSides(src.getMaximumSides());
+	}
+
+	/**
+	 * Fits polygons to a block of contours and stores the results
+	 */
+	class FitWorker {
+		ContourFitter fitter;
+
+		// polygons found in this block
+		FastQueue<Info> found = new FastQueue<>(Info.class, true);
+
+		FitWorker(PointsToPolyline contourToPolyline) {
+			fitter = new ContourFitter(contourToPolyline, DetectPolygonFromContour_MT.this.fitter.contourEdgeIntensity != null);
+		}
+
+		void reset() {
+			// reset individually to ensure references to contours are nulled from last time
+			for (int i = 0; i < found.size; i++) {
+				found.get(i).reset();
+			}
+			found.reset();
+		}
+	}
+}
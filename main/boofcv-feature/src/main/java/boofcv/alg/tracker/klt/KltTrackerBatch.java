@@ -0,0 +1,631 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.struct.image.GrayF32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Batch implementation of the {@link KltTracker} for tracking a large number of features in a {@link GrayF32}
+ * image. Instead of storing each feature in its own {@link KltFeature} the features are stored as a structure of
+ * arrays. Positions and gradient matrices are stored in float arrays and all the templates are stored in a single
+ * contiguous array, where the template for feature i starts at index i*L, and L is the number of pixels in a
+ * template. Bilinear interpolation is done inline instead of through {@link boofcv.alg.interpolate.InterpolateRectangle}.
+ * This removes most of the per-feature overhead when tracking tens of thousands of features.
+ * </p>
+ *
+ * <p>
+ * The tracking algorithm is the same as {@link KltTracker} and every feature has the same radius. For features
+ * which are entirely inside the image the results are identical to {@link KltTracker} when using bilinear
+ * interpolation. Pixels in a template which are outside the image are marked with NaN and skipped, the same as
+ * in {@link KltTracker}.
+ * </p>
+ *
+ * <p>
+ * {@link #track(int, int, Workspace)} can be called from different threads at the same time, as long as each
+ * thread has its own {@link Workspace} and processes a different range of features.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KltTrackerBatch {
+
+	// tracker configuration
+	protected KltConfig config;
+
+	// radius of every feature
+	protected int radius;
+	// width of a template
+	protected int widthFeature;
+	// number of pixels in a template
+	protected int lengthFeature;
+
+	// input image and gradient
+	protected GrayF32 image, derivX, derivY;
+
+	// allowed feature bounds
+	float allowedLeft, allowedRight, allowedTop, allowedBottom;
+	// bounds for checking to see if it is out of the image
+	float outsideLeft, outsideRight, outsideTop, outsideBottom;
+
+	// number of features
+	protected int size;
+	// location of each feature
+	protected float[] x = new float[0], y = new float[0];
+	// spatial gradient matrix of each feature
+	protected float[] Gxx = new float[0], Gyy = new float[0], Gxy = new float[0];
+	// true if every pixel in the template is inside the image
+	protected boolean[] complete = new boolean[0];
+	// result of the last time the feature was tracked
+	protected KltTrackFault[] faults = new KltTrackFault[0];
+	// average error at the end of the last time the feature was tracked
+	protected float[] errors = new float[0];
+	// templates of all features. The template of feature i starts at index i*lengthFeature
+	protected float[] desc = new float[0], descX = new float[0], descY = new float[0];
+
+	// workspace used by the single threaded functions
+	protected Workspace workspace = new Workspace();
+
+	/**
+	 * Configures the tracker
+	 *
+	 * @param config Tracker configuration
+	 * @param radius Radius of every feature
+	 */
+	public KltTrackerBatch(KltConfig config, int radius) {
+		this.config = config;
+		this.radius = radius;
+		this.widthFeature = radius*2+1;
+		this.lengthFeature = widthFeature*widthFeature;
+	}
+
+	/**
+	 * Sets the current image it should be tracking with.
+	 *
+	 * @param image  Original input image.
+	 * @param derivX Image derivative along the x-axis
+	 * @param derivY Image derivative along the y-axis
+	 */
+	public void setImage(GrayF32 image, GrayF32 derivX, GrayF32 derivY) {
+		InputSanityCheck.checkSameShape(image, derivX, derivY);
+
+		this.image = image;
+		this.derivX = derivX;
+		this.derivY = derivY;
+
+		allowedLeft = radius;
+		allowedTop = radius;
+		allowedRight = image.width - radius-1;
+		allowedBottom = image.height - radius-1;
+
+		outsideLeft = -radius;
+		outsideTop = -radius;
+		outsideRight = image.width + radius-1;
+		outsideBottom = image.height + radius-1;
+	}
+
+	/**
+	 * Removes all features
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Adds a new feature at the specified location. The description is not set.
+	 *
+	 * @return Index of the new feature
+	 */
+	public int addFeature( float x , float y ) {
+		if( size == this.x.length )
+			grow(Math.max(16,size*2));
+
+		this.x[size] = x;
+		this.y[size] = y;
+		this.faults[size] = KltTrackFault.SUCCESS;
+		return size++;
+	}
+
+	/**
+	 * Removes the feature at the specified index by moving the last feature into its place
+	 */
+	public void removeSwap( int index ) {
+		int last = size-1;
+		if( index != last ) {
+			x[index] = x[last];
+			y[index] = y[last];
+			Gxx[index] = Gxx[last];
+			Gyy[index] = Gyy[last];
+			Gxy[index] = Gxy[last];
+			complete[index] = complete[last];
+			faults[index] = faults[last];
+			errors[index] = errors[last];
+			System.arraycopy(desc,last*lengthFeature,desc,index*lengthFeature,lengthFeature);
+			System.arraycopy(descX,last*lengthFeature,descX,index*lengthFeature,lengthFeature);
+			System.arraycopy(descY,last*lengthFeature,descY,index*lengthFeature,lengthFeature);
+		}
+		size--;
+	}
+
+	/**
+	 * Increases the storage so that it can hold the specified number of features
+	 */
+	protected void grow( int capacity ) {
+		x = Arrays.copyOf(x,capacity);
+		y = Arrays.copyOf(y,capacity);
+		Gxx = Arrays.copyOf(Gxx,capacity);
+		Gyy = Arrays.copyOf(Gyy,capacity);
+		Gxy = Arrays.copyOf(Gxy,capacity);
+		complete = Arrays.copyOf(complete,capacity);
+		faults = Arrays.copyOf(faults,capacity);
+		errors = Arrays.copyOf(errors,capacity);
+		desc = Arrays.copyOf(desc,capacity*lengthFeature);
+		descX = Arrays.copyOf(descX,capacity*lengthFeature);
+		descY = Arrays.copyOf(descY,capacity*lengthFeature);
+	}
+
+	/**
+	 * Sets the feature's description using the current image and its current location.
+	 *
+	 * @param index Index of the feature
+	 * @return true if the description is valid
+	 */
+	public boolean setDescription( int index ) {
+		float fx = x[index], fy = y[index];
+		if( isFullyOutside(fx,fy) )
+			return false;
+
+		int offset = index*lengthFeature;
+		float tl_x = fx - radius, tl_y = fy - radius;
+
+		sampleRegion(image, tl_x, tl_y, desc, offset);
+		sampleRegion(derivX, tl_x, tl_y, descX, offset);
+		sampleRegion(derivY, tl_x, tl_y, descY, offset);
+
+		int total = 0;
+		float Gxx = 0, Gyy = 0, Gxy = 0;
+		for (int i = offset; i < offset+lengthFeature; i++) {
+			if( Float.isNaN(desc[i]) )
+				continue;
+			total++;
+
+			float dX = descX[i];
+			float dY = descY[i];
+
+			Gxx += dX * dX;
+			Gyy += dY * dY;
+			Gxy += dX * dY;
+		}
+
+		this.Gxx[index] = Gxx;
+		this.Gyy[index] = Gyy;
+		this.Gxy[index] = Gxy;
+		this.complete[index] = total == lengthFeature;
+
+		float det = Gxx * Gyy - Gxy * Gxy;
+
+		return (det >= config.minDeterminant*total);
+	}
+
+	/**
+	 * Tracks every feature. Results can be retrieved by {@link #getFault(int)}.
+	 */
+	public void trackAll() {
+		track(0,size,workspace);
+	}
+
+	/**
+	 * Tracks a single feature
+	 *
+	 * @param index Index of the feature
+	 * @return The result of tracking
+	 */
+	public KltTrackFault track( int index ) {
+		track(index,index+1,workspace);
+		return faults[index];
+	}
+
+	/**
+	 * Tracks a range of features. The result for each feature is saved and can be retrieved
+	 * by {@link #getFault(int)}.
+	 *
+	 * @param idx0 First feature, inclusive
+	 * @param idx1 Last feature, exclusive
+	 * @param work Workspace. Each thread must have its own.
+	 */
+	public void track( int idx0 , int idx1 , Workspace work ) {
+		if( work.current.length < lengthFeature )
+			work.current = new float[lengthFeature];
+
+		for (int index = idx0; index < idx1; index++) {
+			faults[index] = trackFeature(index, work);
+		}
+	}
+
+	/**
+	 * Updates the feature's location. Same algorithm as {@link KltTracker#track(KltFeature)}
+	 */
+	protected KltTrackFault trackFeature( int index , Workspace work ) {
+		final float[] current = work.current;
+		float fx = x[index], fy = y[index];
+
+		// sanity check to make sure it is actually inside the image
+		if( isFullyOutside(fx,fy) )
+			return KltTrackFault.OUT_OF_BOUNDS;
+
+		// save the original location so that a drifting fault can be detected
+		final float origX = fx, origY = fy;
+		final int offset = index*lengthFeature;
+		final boolean complete = this.complete[index];
+
+		float Gxx = 0, Gyy = 0, Gxy = 0, det = 0;
+
+		if( complete ) {
+			// see if the determinant is too small
+			Gxx = this.Gxx[index];
+			Gyy = this.Gyy[index];
+			Gxy = this.Gxy[index];
+			det = Gxx * Gyy - Gxy * Gxy;
+			if (det < config.minDeterminant*lengthFeature) {
+				return KltTrackFault.FAILED;
+			}
+		}
+
+		KltTrackFault result = null;
+		for (int iter = 0; iter < config.maxIterations; iter++) {
+			float Ex = 0, Ey = 0;
+
+			if( complete && isFullyInside(fx, fy) ) {
+				if( isStrictlyInside(fx - radius, fy - radius) ) {
+					computeE(fx - radius, fy - radius, offset, work);
+					Ex = work.Ex;
+					Ey = work.Ey;
+				} else {
+					sampleRegionBorder(image, fx - radius, fy - radius, current, 0);
+					for (int i = 0; i < lengthFeature; i++) {
+						// compute the difference between the previous and the current image
+						float d = desc[offset+i] - current[i];
+
+						Ex += d * descX[offset+i];
+						Ey += d * descY[offset+i];
+					}
+				}
+			} else {
+				sampleRegion(image, fx - radius, fy - radius, current, 0);
+
+				// when part of the region is outside the image G needs to be recomputed
+				int total = 0;
+				Gxx = 0; Gyy = 0; Gxy = 0;
+
+				for (int i = 0; i < lengthFeature; i++) {
+					float template = desc[offset+i];
+					float c = current[i];
+
+					// if the description was outside of the image here skip it
+					if( Float.isNaN(template) || Float.isNaN(c))
+						continue;
+
+					total++;
+
+					float dX = descX[offset+i];
+					float dY = descY[offset+i];
+
+					float d = template - c;
+
+					Ex += d * dX;
+					Ey += d * dY;
+
+					Gxx += dX * dX;
+					Gyy += dY * dY;
+					Gxy += dX * dY;
+				}
+
+				det = Gxx * Gyy - Gxy * Gxy;
+				if (det <= config.minDeterminant*total) {
+					result = KltTrackFault.FAILED;
+					break;
+				}
+			}
+
+			// solve for D
+			float dx = (Gyy * Ex - Gxy * Ey) / det;
+			float dy = (Gxx * Ey - Gxy * Ex) / det;
+
+			fx += dx;
+			fy += dy;
+
+			// see if it moved outside of the image
+			if( isFullyOutside(fx, fy) ) {
+				result = KltTrackFault.OUT_OF_BOUNDS;
+				break;
+			}
+
+			// see if it has moved more than possible if it is really tracking a target
+			// this happens in regions with little texture
+			if (Math.abs(fx - origX) > widthFeature || Math.abs(fy - origY) > widthFeature) {
+				result = KltTrackFault.DRIFTED;
+				break;
+			}
+
+			// see if it has converged to a solution
+			if (Math.abs(dx) < config.minPositionDelta && Math.abs(dy) < config.minPositionDelta) {
+				break;
+			}
+		}
+
+		// the position is updated even if tracking fails
+		x[index] = fx;
+		y[index] = fy;
+
+		if( result != null )
+			return result;
+
+		float error = computeError(offset, current);
+		errors[index] = error;
+		if( error > config.maxPerPixelError )
+			return KltTrackFault.LARGE_ERROR;
+
+		return KltTrackFault.SUCCESS;
+	}
+
+	/**
+	 * Samples the current image and computes the residual times the gradient in a single pass. The region
+	 * must be strictly inside the image.
+	 */
+	private void computeE( float tl_x , float tl_y , int offset , Workspace work ) {
+		final float[] data = image.data;
+		final float[] current = work.current;
+		final int stride = image.stride;
+
+		int xt = (int) tl_x;
+		int yt = (int) tl_y;
+		float ax = tl_x - xt;
+		float ay = tl_y - yt;
+
+		float bx = 1.0f - ax;
+		float by = 1.0f - ay;
+
+		float a0 = bx * by;
+		float a1 = ax * by;
+		float a2 = ax * ay;
+		float a3 = bx * ay;
+
+		float Ex = 0, Ey = 0;
+		int indexDesc = offset;
+		int indexCurrent = 0;
+		for (int i = 0; i < widthFeature; i++) {
+			int index = image.startIndex + (yt + i) * stride + xt;
+
+			float XY = data[index];
+			float Xy = data[index + stride];
+
+			int indexEnd = index + widthFeature;
+			for (; index < indexEnd; index++, indexDesc++) {
+				float xY = data[index + 1];
+				float xy = data[index + stride + 1];
+
+				float value = a0 * XY + a1 * xY + a2 * xy + a3 * Xy;
+				current[indexCurrent++] = value;
+
+				// compute the difference between the previous and the current image
+				float d = desc[indexDesc] - value;
+				Ex += d * descX[indexDesc];
+				Ey += d * descY[indexDesc];
+
+				XY = xY;
+				Xy = xy;
+			}
+		}
+		work.Ex = Ex;
+		work.Ey = Ey;
+	}
+
+	/**
+	 * True if the region can be sampled without checking the image border
+	 */
+	private boolean isStrictlyInside( float tl_x , float tl_y ) {
+		return tl_x >= 0 && tl_y >= 0 &&
+				(int)tl_x + widthFeature < image.width && (int)tl_y + widthFeature < image.height;
+	}
+
+	/**
+	 * Average absolute difference between the template and the current region, ignoring pixels outside the image
+	 */
+	private float computeError( int offset , float[] current ) {
+		float error = 0;
+		int total = 0;
+		for (int i = 0; i < lengthFeature; i++) {
+			float template = desc[offset+i];
+			if( Float.isNaN(template) || Float.isNaN(current[i]))
+				continue;
+
+			// compute the difference between the previous and the current image
+			error += Math.abs(template - current[i]);
+			total++;
+		}
+		return error / total;
+	}
+
+	/**
+	 * Samples a square region with bilinear interpolation. Pixels outside the image are set to NaN.
+	 *
+	 * @param input Image being sampled
+	 * @param tl_x x-coordinate of top-left corner
+	 * @param tl_y y-coordinate of top-left corner
+	 * @param output Storage for the region
+	 * @param offset Index of the first element in the output
+	 */
+	protected void sampleRegion( GrayF32 input , float tl_x , float tl_y , float[] output , int offset ) {
+		int xt = (int) tl_x;
+		int yt = (int) tl_y;
+
+		if( !isStrictlyInside(tl_x, tl_y) ) {
+			sampleRegionBorder(input, tl_x, tl_y, output, offset);
+			return;
+		}
+
+		final float[] data = input.data;
+		final int stride = input.stride;
+
+		float ax = tl_x - xt;
+		float ay = tl_y - yt;
+
+		float bx = 1.0f - ax;
+		float by = 1.0f - ay;
+
+		float a0 = bx * by;
+		float a1 = ax * by;
+		float a2 = ax * ay;
+		float a3 = bx * ay;
+
+		for (int i = 0; i < widthFeature; i++) {
+			int index = input.startIndex + (yt + i) * stride + xt;
+
+			float XY = data[index];
+			float Xy = data[index + stride];
+
+			int indexEnd = index + widthFeature;
+			for (; index < indexEnd; index++) {
+				float xY = data[index + 1];
+				float xy = data[index + stride + 1];
+
+				output[offset++] = a0 * XY + a1 * xY + a2 * xy + a3 * Xy;
+				XY = xY;
+				Xy = xy;
+			}
+		}
+	}
+
+	/**
+	 * Samples a region which touches or goes outside the image border
+	 */
+	private void sampleRegionBorder( GrayF32 input , float tl_x , float tl_y , float[] output , int offset ) {
+		final int maxX = input.width-1;
+		final int maxY = input.height-1;
+
+		for (int i = 0; i < widthFeature; i++) {
+			float py = tl_y + i;
+			if( py < 0 || py > maxY ) {
+				Arrays.fill(output,offset,offset+widthFeature,Float.NaN);
+				offset += widthFeature;
+				continue;
+			}
+			int y0 = (int)py;
+			int y1 = Math.min(y0+1,maxY);
+			float ay = py - y0;
+			float by = 1.0f - ay;
+
+			for (int j = 0; j < widthFeature; j++) {
+				float px = tl_x + j;
+				if( px < 0 || px > maxX ) {
+					output[offset++] = Float.NaN;
+					continue;
+				}
+				int x0 = (int)px;
+				int x1 = Math.min(x0+1,maxX);
+				float ax = px - x0;
+				float bx = 1.0f - ax;
+
+				output[offset++] = bx*by*input.unsafe_get(x0,y0) + ax*by*input.unsafe_get(x1,y0) +
+						ax*ay*input.unsafe_get(x1,y1) + bx*ay*input.unsafe_get(x0,y1);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the features is entirely enclosed inside of the image.
+	 */
+	public boolean isFullyInside(float x, float y) {
+		if (x < allowedLeft || x > allowedRight)
+			return false;
+		if (y < allowedTop || y > allowedBottom)
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * Returns true if the features is entirely outside of the image.
+	 */
+	public boolean isFullyOutside(float x, float y) {
+		if (x < outsideLeft || x > outsideRight)
+			return true;
+		if (y < outsideTop || y > outsideBottom)
+			return true;
+
+		return false;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public float getX( int index ) {
+		return x[index];
+	}
+
+	public float getY( int index ) {
+		return y[index];
+	}
+
+	public void setPosition( int index , float x , float y ) {
+		this.x[index] = x;
+		this.y[index] = y;
+	}
+
+	/**
+	 * Result from the last time the feature was tracked
+	 */
+	public KltTrackFault getFault( int index ) {
+		return faults[index];
+	}
+
+	/**
+	 * Average error between the template and the image the last time the feature was successfully tracked
+	 */
+	public float getError( int index ) {
+		return errors[index];
+	}
+
+	/**
+	 * Returns true if every pixel in the feature's template is inside the image
+	 */
+	public boolean isDescriptionComplete( int index ) {
+		return complete[index];
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public KltConfig getConfig() {
+		return config;
+	}
+
+	/**
+	 * Storage for the region sampled from the current image. Each thread needs its own.
+	 */
+	public static class Workspace {
+		float[] current = new float[0];
+		// residual times the gradient
+		float Ex, Ey;
+	}
+}
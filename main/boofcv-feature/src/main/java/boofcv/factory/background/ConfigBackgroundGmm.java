@@ -64,6 +64,13 @@ public class ConfigBackgroundGmm extends ConfigBackground {
 	 */
 	public float significantWeight = 0.01f;
 
+	/**
+	 * If true the model is stored with 16-bit parameters instead of 32-bit floats, which halves its memory. This
+	 * comes at the cost of rounding errors, which are most noticeable with long learning periods, and a small
+	 * amount of overhead converting the model. Only supported by stationary backgrounds.
+	 */
+	public boolean compactModel = false;
+
 	@Override
 	public void checkValidity() {
 		if( learningPeriod <= 0 )
@@ -87,6 +94,7 @@ public class ConfigBackgroundGmm extends ConfigBackground {
 				", maxDistance=" + maxDistance +
 				", numberOfGaussian=" + numberOfGaussian +
 				", significantWeight=" + significantWeight +
+				", compactModel=" + compactModel +
 				", unknownValue=" + unknownValue +
 				'}';
 	}
@@ -24,7 +24,6 @@ import boofcv.abst.feature.describe.ConfigSurfDescribe;
 import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.abst.feature.detdesc.*;
 import boofcv.abst.feature.detect.extract.NonMaxLimiter;
-import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.interest.ConfigFastHessian;
 import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
@@ -34,15 +33,20 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfPlanar;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar;
+import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar_MT;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
 import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.feature.BrightFeature;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.GrayF32;
@@ -63,6 +67,7 @@ public class FactoryDetectDescribe {
 	 * Creates a new SIFT feature detector and describer.
 	 *
 	 * @see CompleteSift
+	 * @see CompleteSift_MT
 	 *
 	 * @param config Configuration for the SIFT detector and descriptor.
 	 * @return SIFT
@@ -74,22 +79,30 @@ public class FactoryDetectDescribe {
 			config = new ConfigCompleteSift();
 
 		ConfigSiftScaleSpace configSS = config.scaleSpace;
-		ConfigSiftDetector configDetector = config.detector;
-		ConfigSiftOrientation configOri = config.orientation;
-		ConfigSiftDescribe configDesc = config.describe;
+		final ConfigSiftDetector configDetector = config.detector;
+		final ConfigSiftOrientation configOri = config.orientation;
+		final ConfigSiftDescribe configDesc = config.describe;
 
-		SiftScaleSpace scaleSpace = new SiftScaleSpace(
-				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<>(
+		BoofLambdas.Factory<OrientationHistogramSift<GrayF32>> factoryOri = () -> new OrientationHistogramSift<>(
 				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<>(
+		BoofLambdas.Factory<DescribePointSift<GrayF32>> factoryDesc = () -> new DescribePointSift<>(
 				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
 				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
 				configDesc.maxDescriptorElementValue,GrayF32.class);
+		BoofLambdas.Factory<NonMaxLimiter> factoryNonMax = () -> new NonMaxLimiter(
+				FactoryFeatureExtractor.nonmax(configDetector.extract),configDetector.maxFeaturesPerScale);
 
-		NonMaxSuppression nns = FactoryFeatureExtractor.nonmax(configDetector.extract);
-		NonMaxLimiter nonMax = new NonMaxLimiter(nns,configDetector.maxFeaturesPerScale);
-		CompleteSift dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax,orientation,describe);
+		CompleteSift dds;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace_MT(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+			dds = new CompleteSift_MT(scaleSpace,configDetector.edgeR,factoryNonMax,factoryOri,factoryDesc);
+		} else {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+			dds = new CompleteSift(scaleSpace,configDetector.edgeR,factoryNonMax.newInstance(),
+					factoryOri.newInstance(),factoryDesc.newInstance());
+		}
 		return new DetectDescribe_CompleteSift<>(dds);
 	}
 
@@ -122,6 +135,13 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDetectDescribeSurf_MT<>(detector,
+					() -> FactoryOrientationAlgs.average_ii(configOrientation, integralType),
+					() -> FactoryDescribePointAlgs.surfSpeed(configDesc, integralType));
+		}
+
 		DescribePointSurf<II> describe = FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
@@ -158,11 +178,18 @@ public class FactoryDetectDescribe {
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
 		if( imageType.getFamily() == ImageType.Family.PLANAR) {
-			DescribePointSurfPlanar<II> describeMulti =
-					new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
+			DetectDescribeSurfPlanar<II> deteDesc;
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				deteDesc = new DetectDescribeSurfPlanar_MT<>(detector,
+						() -> FactoryOrientationAlgs.average_ii(configOrientation, integralType),
+						() -> new DescribePointSurfPlanar<>(FactoryDescribePointAlgs.surfSpeed(configDesc, integralType),
+								imageType.getNumBands()));
+			} else {
+				DescribePointSurfPlanar<II> describeMulti =
+						new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
 
-			DetectDescribeSurfPlanar<II> deteDesc =
-					new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+				deteDesc = new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+			}
 
 			return new SurfPlanar_to_DetectDescribePoint( deteDesc,bandType,integralType );
 		} else {
@@ -200,6 +227,13 @@ public class FactoryDetectDescribe {
 		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDetectDescribeSurf_MT<>(detector,
+					() -> FactoryOrientationAlgs.sliding_ii(configOrientation, integralType),
+					() -> FactoryDescribePointAlgs.surfStability(configDescribe, integralType));
+		}
+
 		DescribePointSurfMod<II> describe = FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
@@ -237,11 +271,18 @@ public class FactoryDetectDescribe {
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
 		if( imageType.getFamily() == ImageType.Family.PLANAR) {
-			DescribePointSurfPlanar<II> describeMulti =
-					new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
+			DetectDescribeSurfPlanar<II> deteDesc;
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				deteDesc = new DetectDescribeSurfPlanar_MT<>(detector,
+						() -> FactoryOrientationAlgs.sliding_ii(configOrientation, integralType),
+						() -> new DescribePointSurfPlanar<>(FactoryDescribePointAlgs.surfStability(configDescribe, integralType),
+								imageType.getNumBands()));
+			} else {
+				DescribePointSurfPlanar<II> describeMulti =
+						new DescribePointSurfPlanar<>(describe, imageType.getNumBands());
 
-			DetectDescribeSurfPlanar<II> deteDesc =
-					new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+				deteDesc = new DetectDescribeSurfPlanar<>(detector, orientation, describeMulti);
+			}
 
 			return new SurfPlanar_to_DetectDescribePoint( deteDesc,bandType,integralType );
 		} else {
@@ -265,4 +306,27 @@ public class FactoryDetectDescribe {
 		return new DetectDescribeFusion<>(detector, orientation, describe);
 	}
 
+	/**
+	 * Given independent algorithms for feature detection, orientation, and describing, create a new
+	 * {@link DetectDescribePoint}. Factories are used so that each thread can have its own copy of the
+	 * orientation and describe algorithms when concurrency is turned on.
+	 *
+	 * @param detector Feature detector
+	 * @param factoryOrientation Creates orientation estimation algorithms.  Optionally, can be null.
+	 * @param factoryDescribe Creates feature descriptors
+	 * @return {@link DetectDescribePoint}.
+	 */
+	public static <T extends ImageGray<T>, D extends TupleDesc>
+	DetectDescribePoint<T,D> fuseTogether( InterestPointDetector<T> detector,
+										   @Nullable BoofLambdas.Factory<OrientationImage<T>> factoryOrientation,
+										   BoofLambdas.Factory<DescribeRegionPoint<T, D>> factoryDescribe) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new DetectDescribeFusion_MT<>(detector, factoryOrientation, factoryDescribe);
+		} else {
+			return new DetectDescribeFusion<>(detector,
+					factoryOrientation == null ? null : factoryOrientation.newInstance(),
+					factoryDescribe.newInstance());
+		}
+	}
+
 }
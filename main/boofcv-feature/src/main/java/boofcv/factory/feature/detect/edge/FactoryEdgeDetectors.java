@@ -22,8 +22,12 @@ import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.CannyEdge;
 import boofcv.alg.feature.detect.edge.CannyEdgeDynamic;
+import boofcv.alg.feature.detect.edge.CannyEdgeDynamic_MT;
+import boofcv.alg.feature.detect.edge.CannyEdge_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
@@ -51,6 +55,19 @@ public class FactoryEdgeDetectors {
 	public static <T extends ImageGray<T>, D extends ImageGray<D>>
 	CannyEdge<T,D> canny( int blurRadius , boolean saveTrace , boolean dynamicThreshold, Class<T> imageType , Class<D> derivType )
 	{
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofLambdas.Factory<BlurFilter<T>> factoryBlur =
+					()->FactoryBlurFilter.gaussian(ImageType.single(imageType), -1, blurRadius);
+			BoofLambdas.Factory<ImageGradient<T,D>> factoryGradient =
+					()->FactoryDerivative.three(imageType, derivType);
+
+			// the 'three' derivative has a radius of 1
+			if( dynamicThreshold )
+				return new CannyEdgeDynamic_MT<>(factoryBlur, factoryGradient, 1, saveTrace);
+			else
+				return new CannyEdge_MT<>(factoryBlur, factoryGradient, 1, saveTrace);
+		}
+
 		BlurFilter<T> blur = FactoryBlurFilter.gaussian(ImageType.single(imageType), -1, blurRadius);
 		ImageGradient<T,D> gradient = FactoryDerivative.three(imageType, derivType);
 
@@ -22,6 +22,7 @@ import boofcv.abst.feature.detect.extract.*;
 import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
 import boofcv.alg.feature.detect.extract.*;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.ImageGray;
 
 import javax.annotation.Nullable;
@@ -70,22 +71,13 @@ public class FactoryFeatureExtractor {
 		}
 
 		NonMaxBlock ret;
-		if (config.useStrictRule) {
-			if( config.detectMaximums)
-				if( config.detectMinimums )
-					ret = new NonMaxBlockStrict.MinMax();
-				else
-					ret = new NonMaxBlockStrict.Max();
-			else
-				ret = new NonMaxBlockStrict.Min();
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			final boolean strict = config.useStrictRule;
+			final boolean maximums = config.detectMaximums;
+			final boolean minimums = config.detectMinimums;
+			ret = new NonMaxBlock_MT(() -> nonmaxBlock(strict, maximums, minimums));
 		} else {
-			if( config.detectMaximums)
-				if( config.detectMinimums )
-					ret = new NonMaxBlockRelaxed.MinMax();
-				else
-					ret = new NonMaxBlockRelaxed.Max();
-			else
-				ret = new NonMaxBlockRelaxed.Min();
+			ret = nonmaxBlock(config.useStrictRule, config.detectMaximums, config.detectMinimums);
 		}
 
 		ret.setSearchRadius(config.radius);
@@ -96,6 +88,26 @@ public class FactoryFeatureExtractor {
 		return new WrapperNonMaximumBlock(ret);
 	}
 
+	private static NonMaxBlockSearch nonmaxBlock( boolean useStrictRule , boolean detectMaximums , boolean detectMinimums ) {
+		if (useStrictRule) {
+			if( detectMaximums)
+				if( detectMinimums )
+					return new NonMaxBlockStrict.MinMax();
+				else
+					return new NonMaxBlockStrict.Max();
+			else
+				return new NonMaxBlockStrict.Min();
+		} else {
+			if( detectMaximums)
+				if( detectMinimums )
+					return new NonMaxBlockRelaxed.MinMax();
+				else
+					return new NonMaxBlockRelaxed.Max();
+			else
+				return new NonMaxBlockRelaxed.Min();
+		}
+	}
+
 	/**
 	 * Non-max feature extractor which saves a candidate list of all the found local maximums..
 	 *
@@ -19,9 +19,11 @@
 package boofcv.factory.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector_MT;
 import boofcv.alg.feature.detect.intensity.HarrisCornerIntensity;
 import boofcv.alg.feature.detect.intensity.ShiTomasiCornerIntensity;
 import boofcv.alg.feature.detect.intensity.impl.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
@@ -47,6 +49,21 @@ public class FactoryIntensityPointAlg {
 	 */
 	public static <T extends ImageGray<T>>
 	FastCornerDetector<T> fast(int pixelTol, int minCont, Class<T> imageType)
+	{
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new FastCornerDetector_MT<>(() -> fastHelper(pixelTol, minCont, imageType));
+		} else {
+			return new FastCornerDetector<>(fastHelper(pixelTol, minCont, imageType));
+		}
+	}
+
+	/**
+	 * Creates the image type specific helper for {@link FastCornerDetector}.
+	 *
+	 * @see #fast(int, int, Class)
+	 */
+	public static <T extends ImageGray<T>>
+	FastCornerInterface<T> fastHelper(int pixelTol, int minCont, Class<T> imageType)
 	{
 		FastCornerInterface helper;
 		if( imageType == GrayF32.class ) {
@@ -76,7 +93,7 @@ public class FactoryIntensityPointAlg {
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
-		return new FastCornerDetector(helper);
+		return helper;
 	}
 
 	/**
@@ -27,7 +27,9 @@ import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.line.ConnectLinesGrid;
 import boofcv.alg.feature.detect.line.GridRansacLineDetector;
 import boofcv.alg.feature.detect.line.gridline.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.ImageGray;
@@ -68,18 +70,25 @@ public class FactoryDetectLineAlgs {
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		ModelManagerLinePolar2D_F32 manager = new ModelManagerLinePolar2D_F32();
-		GridLineModelDistance distance = new GridLineModelDistance((float)thresholdAngle);
-		GridLineModelFitter fitter = new GridLineModelFitter((float)thresholdAngle);
+		BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher = ()->{
+			ModelManagerLinePolar2D_F32 manager = new ModelManagerLinePolar2D_F32();
+			GridLineModelDistance distance = new GridLineModelDistance((float)thresholdAngle);
+			GridLineModelFitter fitter = new GridLineModelFitter((float)thresholdAngle);
 
-		ModelMatcher<LinePolar2D_F32, Edgel> matcher =
-				new Ransac<>(123123, manager, fitter, distance, 25, 1);
+			return new Ransac<>(123123, manager, fitter, distance, 25, 1);
+		};
 
 		GridRansacLineDetector<D> alg;
 		if( derivType == GrayF32.class )  {
-			alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_F32(regionSize,10,matcher);
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_F32_MT(regionSize,10,factoryMatcher);
+			else
+				alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_F32(regionSize,10,factoryMatcher.newInstance());
 		} else if( derivType == GrayS16.class ) {
-			alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_S16(regionSize,10,matcher);
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_S16_MT(regionSize,10,factoryMatcher);
+			else
+				alg = (GridRansacLineDetector)new ImplGridRansacLineDetector_S16(regionSize,10,factoryMatcher.newInstance());
 		} else {
 			throw new IllegalArgumentException("Unsupported derivative type");
 		}
@@ -19,6 +19,7 @@
 package boofcv.factory.feature.detect.template;
 
 import boofcv.alg.feature.detect.template.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -41,21 +42,38 @@ public class FactoryTemplateMatching {
 	 */
 	public static <T extends ImageGray<T>>
 	TemplateMatchingIntensity<T> createIntensity(TemplateScoreType type, Class<T> imageType) {
+		return createIntensity(type, imageType, BoofConcurrency.USE_CONCURRENT);
+	}
+
+	private static <T extends ImageGray<T>>
+	TemplateMatchingIntensity<T> createIntensity(TemplateScoreType type, Class<T> imageType, boolean concurrent) {
 		switch (type) {
 			case SUM_DIFF_SQ:
 				if (imageType == GrayU8.class) {
-					return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.U8();
+					if( concurrent )
+						return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.U8_MT();
+					else
+						return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.U8();
 				} else if (imageType == GrayF32.class) {
-					return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.F32();
+					if( concurrent )
+						return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.F32_MT();
+					else
+						return (TemplateMatchingIntensity<T>) new TemplateDiffSquared.F32();
 				} else {
 					throw new IllegalArgumentException("Image type not supported. " + imageType.getSimpleName());
 				}
 
 			case NCC:
 				if (imageType == GrayU8.class) {
-					return (TemplateMatchingIntensity<T>) new TemplateNCC.U8();
+					if( concurrent )
+						return (TemplateMatchingIntensity<T>) new TemplateNCC.U8_MT();
+					else
+						return (TemplateMatchingIntensity<T>) new TemplateNCC.U8();
 				} else if (imageType == GrayF32.class) {
-					return (TemplateMatchingIntensity<T>) new TemplateNCC.F32();
+					if( concurrent )
+						return (TemplateMatchingIntensity<T>) new TemplateNCC.F32_MT();
+					else
+						return (TemplateMatchingIntensity<T>) new TemplateNCC.F32();
 				} else {
 					throw new IllegalArgumentException("Image type not supported. " + imageType.getSimpleName());
 				}
@@ -83,4 +101,21 @@ public class FactoryTemplateMatching {
 
 		return new TemplateMatching<>(intensity);
 	}
+
+	/**
+	 * Creates an instance of {@link TemplateMatchingBatch} for the specified score type. If concurrency is
+	 * turned on then the templates are divided between the threads using {@link TemplateMatchingBatch_MT}.
+	 *
+	 * @param type      Type of error function
+	 * @param imageType Image type being processed
+	 * @return {@link TemplateMatchingBatch} of the specified type.
+	 */
+	public static <T extends ImageGray<T>>
+	TemplateMatchingBatch<T> createBatchMatcher(TemplateScoreType type, Class<T> imageType) {
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new TemplateMatchingBatch_MT<>(()->new TemplateMatching<>(createIntensity(type, imageType, false)));
+		} else {
+			return new TemplateMatchingBatch<>(createMatcher(type, imageType));
+		}
+	}
 }
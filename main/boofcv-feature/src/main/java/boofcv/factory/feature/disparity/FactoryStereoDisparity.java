@@ -18,19 +18,28 @@
 
 package boofcv.factory.feature.disparity;
 
+import boofcv.abst.feature.disparity.ConfigDisparitySGM;
 import boofcv.abst.feature.disparity.StereoDisparity;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
+import boofcv.abst.feature.disparity.WrapDisparitySgm;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat_MT;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity;
+import boofcv.alg.feature.disparity.sgm.SgmStereoDisparity_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 
+import javax.annotation.Nullable;
+
 import static boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs.*;
 
 /**
@@ -92,51 +101,16 @@ public class FactoryStereoDisparity {
 		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
 			maxError *= 3;
 
-		DisparitySelect select;
-		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparity_S32((int) maxError, validateRtoL, texture);
-		} else if( imageType == GrayF32.class ) {
-			select = selectDisparity_F32((int) maxError, validateRtoL, texture);
+		final int _maxError = (int)maxError;
+		DisparityScoreRowFormat<T,GrayU8> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new DisparityScoreRowFormat_MT<>(() -> FactoryStereoDisparity.<T,GrayU8>createScore(whichAlg, minDisparity, maxDisparity,
+					regionRadiusX, regionRadiusY, selectWta(_maxError, validateRtoL, texture, imageType), imageType));
 		} else {
-			throw new IllegalArgumentException("Unknown image type");
+			alg = createScore(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+					selectWta(_maxError, validateRtoL, texture, imageType), imageType);
 		}
 
-		DisparityScoreRowFormat<T,GrayU8> alg = null;
-
-		switch( whichAlg ) {
-			case RECT:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			case RECT_FIVE:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
-
-			default:
-				throw new IllegalArgumentException("Unknown algorithms "+whichAlg);
-
-		}
-		if( alg == null)
-			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
-
 		return new WrapDisparitySadRect<>(alg);
 	}
 
@@ -175,16 +149,89 @@ public class FactoryStereoDisparity {
 		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
 			maxError *= 3;
 
-		DisparitySelect select;
+		final int _maxError = (int)maxError;
+		DisparityScoreRowFormat<T,GrayF32> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new DisparityScoreRowFormat_MT<>(() -> FactoryStereoDisparity.<T,GrayF32>createScore(whichAlg, minDisparity, maxDisparity,
+					regionRadiusX, regionRadiusY, selectSubpixelWta(_maxError, validateRtoL, texture, imageType), imageType));
+		} else {
+			alg = createScore(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+					selectSubpixelWta(_maxError, validateRtoL, texture, imageType), imageType);
+		}
+
+		return new WrapDisparitySadRect<>(alg);
+	}
+
+	/**
+	 * <p>
+	 * Creates a dense disparity algorithm using Semi Global Matching (SGM). The matching cost is the Hamming
+	 * distance between census descriptors and is aggregated along multiple paths across the image. If sub-pixel
+	 * is enabled then the disparity image is {@link GrayF32} otherwise it's {@link GrayU8}.
+	 * </p>
+	 *
+	 * @param config Configuration. If null then the default is used.
+	 * @param imageType Type of input image. {@link GrayU8} or {@link GrayF32}.
+	 * @return SGM disparity algorithm
+	 */
+	public static <T extends ImageGray<T>, DI extends ImageGray<DI>> StereoDisparity<T,DI>
+	sgm( @Nullable ConfigDisparitySGM config , Class<T> imageType ) {
+		if( config == null )
+			config = new ConfigDisparitySGM();
+		config.checkValidity();
+
+		if( imageType != GrayU8.class && imageType != GrayF32.class )
+			throw new IllegalArgumentException("Image type not supported: "+imageType.getSimpleName());
+
+		final int validateRtoL = config.validateRtoL;
+		final double texture = config.texture;
+		BoofLambdas.Factory<DisparitySelect<int[],DI>> factorySelect;
+		if( config.subpixel )
+			factorySelect = () -> (DisparitySelect)selectDisparitySubpixel_S32(-1, validateRtoL, texture);
+		else
+			factorySelect = () -> (DisparitySelect)selectDisparity_S32(-1, validateRtoL, texture);
+
+		SgmStereoDisparity<T,DI> alg;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new SgmStereoDisparity_MT<>(config.census, config.minDisparity, config.maxDisparity,
+					factorySelect, imageType);
+		} else {
+			alg = new SgmStereoDisparity<>(config.census, config.minDisparity, config.maxDisparity,
+					factorySelect.newInstance(), imageType);
+		}
+		alg.setPenalties(config.penaltySmallChange, config.penaltyLargeChange);
+		alg.setNumberOfPaths(config.paths);
+		alg.setStreamRows(config.streamRows);
+
+		return new WrapDisparitySgm<>(alg);
+	}
+
+	private static DisparitySelect selectWta( int maxError , int validateRtoL , double texture , Class imageType ) {
+		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
+			return selectDisparity_S32(maxError, validateRtoL, texture);
+		} else if( imageType == GrayF32.class ) {
+			return selectDisparity_F32(maxError, validateRtoL, texture);
+		} else {
+			throw new IllegalArgumentException("Unknown image type");
+		}
+	}
+
+	private static DisparitySelect selectSubpixelWta( int maxError , int validateRtoL , double texture , Class imageType ) {
 		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			return selectDisparitySubpixel_S32(maxError, validateRtoL, texture);
 		} else if( imageType == GrayF32.class ) {
-			select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			return selectDisparitySubpixel_F32(maxError, validateRtoL, texture);
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
+	}
 
-		DisparityScoreRowFormat<T,GrayF32> alg = null;
+	private static <T extends ImageGray<T>, D extends ImageGray<D>> DisparityScoreRowFormat<T,D>
+	createScore( DisparityAlgorithms whichAlg ,
+				 int minDisparity , int maxDisparity,
+				 int regionRadiusX, int regionRadiusY ,
+				 DisparitySelect select ,
+				 Class<T> imageType ) {
+		DisparityScoreRowFormat<T,D> alg = null;
 
 		switch( whichAlg ) {
 			case RECT:
@@ -220,7 +267,7 @@ public class FactoryStereoDisparity {
 		if( alg == null)
 			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 
-		return new WrapDisparitySadRect<>(alg);
+		return alg;
 	}
 
 	/**
@@ -40,7 +40,9 @@ public class ConfigSegmentMeanShift {
 	 */
 	public int minimumRegionSize = 30;
 	/**
-	 * Improve runtime by approximating running mean-shift on each pixel. Try true.
+	 * Improve runtime by approximating running mean-shift on each pixel. Try true. The concurrent implementation
+	 * only shares the approximation inside of bands of rows, so its output is different from the single
+	 * threaded version.
 	 */
 	public boolean fast = true;
 	/**
@@ -24,12 +24,16 @@ import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.segmentation.ComputeRegionMeanColor;
 import boofcv.alg.segmentation.fh04.FhEdgeWeights;
 import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04;
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04_MT;
 import boofcv.alg.segmentation.fh04.impl.*;
 import boofcv.alg.segmentation.ms.*;
 import boofcv.alg.segmentation.slic.*;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
+import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -95,21 +99,40 @@ public class FactorySegmentationAlg {
 		SegmentMeanShiftSearch<T> search;
 
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
-			InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
-			search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast);
+			BoofLambdas.Factory<InterpolatePixelS> factoryInterp = () ->
+					FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				search = new SegmentMeanShiftSearchGray_MT(maxIterations,convergenceTol,factoryInterp,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			} else {
+				search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,factoryInterp.newInstance(),
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			}
 		} else {
-			InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
+			BoofLambdas.Factory<InterpolatePixelMB> factoryInterp = () -> FactoryInterpolation.createPixelMB(0,255,
 					InterpolationType.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
-			search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				search = new SegmentMeanShiftSearchColor_MT(maxIterations,convergenceTol,factoryInterp,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			} else {
+				search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,factoryInterp.newInstance(),
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			}
 		}
 
 		ComputeRegionMeanColor<T> regionColor = regionMeanColor(imageType);
-		MergeRegionMeanShift merge = new MergeRegionMeanShift(spacialRadius/2+1,Math.max(1,colorRadius/2));
+		MergeRegionMeanShift merge;
+		MergeSmallRegions<T> prune = null;
 
-		MergeSmallRegions<T> prune = config.minimumRegionSize >= 2 ?
-				new MergeSmallRegions<>(config.minimumRegionSize, config.connectRule, regionColor) : null;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			merge = new MergeRegionMeanShift_MT(spacialRadius/2+1,Math.max(1,colorRadius/2));
+			if( config.minimumRegionSize >= 2 )
+				prune = new MergeSmallRegions_MT<>(config.minimumRegionSize, config.connectRule, regionColor);
+		} else {
+			merge = new MergeRegionMeanShift(spacialRadius/2+1,Math.max(1,colorRadius/2));
+			if( config.minimumRegionSize >= 2 )
+				prune = new MergeSmallRegions<>(config.minimumRegionSize, config.connectRule, regionColor);
+		}
 
 		return new SegmentMeanShift<>(search, merge, prune, config.connectRule);
 	}
@@ -120,16 +143,20 @@ public class FactorySegmentationAlg {
 			if( rule == ConnectRule.FOUR ) {
 				switch( imageType.getDataType() ) {
 					case U8:
-						return (FhEdgeWeights)new FhEdgeWeights4_U8();
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights4_U8_MT() : new FhEdgeWeights4_U8());
 					case F32:
-						return (FhEdgeWeights)new FhEdgeWeights4_F32();
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights4_F32_MT() : new FhEdgeWeights4_F32());
 				}
 			} else if( rule == ConnectRule.EIGHT ) {
 				switch( imageType.getDataType() ) {
 					case U8:
-						return (FhEdgeWeights)new FhEdgeWeights8_U8();
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights8_U8_MT() : new FhEdgeWeights8_U8());
 					case F32:
-						return (FhEdgeWeights)new FhEdgeWeights8_F32();
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights8_F32_MT() : new FhEdgeWeights8_F32());
 				}
 			}
 		} else if( imageType.getFamily() == ImageType.Family.PLANAR) {
@@ -137,16 +164,20 @@ public class FactorySegmentationAlg {
 			if( rule == ConnectRule.FOUR ) {
 				switch( imageType.getDataType() ) {
 					case U8:
-						return (FhEdgeWeights)new FhEdgeWeights4_PLU8(N);
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights4_PLU8_MT(N) : new FhEdgeWeights4_PLU8(N));
 					case F32:
-						return (FhEdgeWeights)new FhEdgeWeights4_PLF32(N);
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights4_PLF32_MT(N) : new FhEdgeWeights4_PLF32(N));
 				}
 			} else if( rule == ConnectRule.EIGHT ) {
 				switch( imageType.getDataType() ) {
 					case U8:
-						return (FhEdgeWeights)new FhEdgeWeights8_PLU8(N);
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights8_PLU8_MT(N) : new FhEdgeWeights8_PLU8(N));
 					case F32:
-						return (FhEdgeWeights)new FhEdgeWeights8_PLF32(N);
+						return (FhEdgeWeights)(BoofConcurrency.USE_CONCURRENT ?
+								new FhEdgeWeights8_PLF32_MT(N) : new FhEdgeWeights8_PLF32(N));
 				}
 			}
 		}
@@ -163,11 +194,15 @@ public class FactorySegmentationAlg {
 
 		FhEdgeWeights<T> edgeWeights = weightsFelzenszwalb04(config.connectRule,imageType);
 
-		SegmentFelzenszwalbHuttenlocher04<T> alg =
-				new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
-
-		if( config.approximateSortBins > 0 ) {
-			alg.configureApproximateSort(config.approximateSortBins);
+		SegmentFelzenszwalbHuttenlocher04<T> alg;
+		// the concurrent implementation doesn't support approximate sorting
+		if( BoofConcurrency.USE_CONCURRENT && config.approximateSortBins <= 0 ) {
+			alg = new SegmentFelzenszwalbHuttenlocher04_MT<>(config.K, config.minimumRegionSize, edgeWeights);
+		} else {
+			alg = new SegmentFelzenszwalbHuttenlocher04<>(config.K, config.minimumRegionSize, edgeWeights);
+			if( config.approximateSortBins > 0 ) {
+				alg.configureApproximateSort(config.approximateSortBins);
+			}
 		}
 
 		return alg;
@@ -179,6 +214,10 @@ public class FactorySegmentationAlg {
 		if( config == null )
 			throw new IllegalArgumentException("No default configuration since the number of segments must be specified.");
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return slic_MT(config, imageType);
+		}
+
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
 				switch( imageType.getDataType() ) {
 					case U8:
@@ -202,12 +241,44 @@ public class FactorySegmentationAlg {
 		throw new IllegalArgumentException("Unknown imageType or connect rule");
 	}
 
+	private static<T extends ImageBase<T>>
+	SegmentSlic<T> slic_MT(ConfigSlic config , ImageType<T> imageType )
+	{
+		if( imageType.getFamily() == ImageType.Family.GRAY) {
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (SegmentSlic)new SegmentSlic_U8_MT(config.numberOfRegions,
+							config.spacialWeight,config.totalIterations,config.connectRule);
+				case F32:
+					return (SegmentSlic)new SegmentSlic_F32_MT(config.numberOfRegions,
+							config.spacialWeight,config.totalIterations,config.connectRule);
+			}
+		} else if( imageType.getFamily() == ImageType.Family.PLANAR) {
+			int N = imageType.getNumBands();
+			switch( imageType.getDataType() ) {
+				case U8:
+					return (SegmentSlic)new SegmentSlic_PlU8_MT(config.numberOfRegions,
+							config.spacialWeight,config.totalIterations,config.connectRule,N);
+				case F32:
+					return (SegmentSlic)new SegmentSlic_PlF32_MT(config.numberOfRegions,
+							config.spacialWeight,config.totalIterations,config.connectRule,N);
+			}
+		}
+		throw new IllegalArgumentException("Unknown imageType or connect rule");
+	}
+
 	public static WatershedVincentSoille1991 watershed( ConnectRule rule ) {
-		if( rule == ConnectRule.FOUR )
-			return new WatershedVincentSoille1991.Connect4();
-		else if( rule == ConnectRule.EIGHT )
-			return new WatershedVincentSoille1991.Connect8();
-		else
-			throw new IllegalArgumentException("Unknown connectivity rule");
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			if( rule == ConnectRule.FOUR )
+				return new WatershedVincentSoille1991_MT.Connect4();
+			else if( rule == ConnectRule.EIGHT )
+				return new WatershedVincentSoille1991_MT.Connect8();
+		} else {
+			if( rule == ConnectRule.FOUR )
+				return new WatershedVincentSoille1991.Connect4();
+			else if( rule == ConnectRule.EIGHT )
+				return new WatershedVincentSoille1991.Connect8();
+		}
+		throw new IllegalArgumentException("Unknown connectivity rule");
 	}
 }
@@ -22,10 +22,14 @@ import boofcv.abst.filter.binary.BinaryContourFinder;
 import boofcv.abst.shapes.polyline.PointsToPolyline;
 import boofcv.alg.shapes.ellipse.BinaryEllipseDetector;
 import boofcv.alg.shapes.ellipse.BinaryEllipseDetectorPixel;
+import boofcv.alg.shapes.ellipse.BinaryEllipseDetectorPixel_MT;
+import boofcv.alg.shapes.ellipse.BinaryEllipseDetector_MT;
 import boofcv.alg.shapes.ellipse.EdgeIntensityEllipse;
 import boofcv.alg.shapes.ellipse.SnapToEllipseEdge;
 import boofcv.alg.shapes.polygon.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.ImageGray;
 
 import javax.annotation.Nonnull;
@@ -55,7 +59,9 @@ public class FactoryShapeDetector {
 
 		config.checkValidity();
 
-		BinaryEllipseDetectorPixel detector = new BinaryEllipseDetectorPixel(config.contourRule);
+		BinaryEllipseDetectorPixel detector = BoofConcurrency.USE_CONCURRENT ?
+				new BinaryEllipseDetectorPixel_MT(config.contourRule) :
+				new BinaryEllipseDetectorPixel(config.contourRule);
 		detector.setMaxDistanceFromEllipse(config.maxDistanceFromEllipse);
 		detector.setMaximumContour(config.maximumContour);
 		detector.setMinimumContour(config.minimumContour);
@@ -63,20 +69,30 @@ public class FactoryShapeDetector {
 		detector.setInternalContour(config.processInternal);
 		detector.setMaxMajorToMinorRatio(config.maxMajorToMinorRatio);
 
-		SnapToEllipseEdge<T> refine = new SnapToEllipseEdge<>(config.numSampleContour, config.refineRadialSamples, imageType);
-		refine.setConvergenceTol(config.convergenceTol);
-		refine.setMaxIterations(config.maxIterations);
+		final ConfigEllipseDetector _config = config;
+		BoofLambdas.Factory<SnapToEllipseEdge<T>> factoryRefine = () -> {
+			SnapToEllipseEdge<T> refine = new SnapToEllipseEdge<>(
+					_config.numSampleContour, _config.refineRadialSamples, imageType);
+			refine.setConvergenceTol(_config.convergenceTol);
+			refine.setMaxIterations(_config.maxIterations);
+			return refine;
+		};
 
 		if( config.maxIterations <= 0 || config.numSampleContour <= 0 ) {
-			refine = null;
+			factoryRefine = null;
 		}
 
-		EdgeIntensityEllipse<T> check = new EdgeIntensityEllipse<>(
-				config.checkRadialDistance,
-				config.numSampleContour,
-				config.minimumEdgeIntensity, imageType);
+		BoofLambdas.Factory<EdgeIntensityEllipse<T>> factoryCheck = () -> new EdgeIntensityEllipse<>(
+				_config.checkRadialDistance,
+				_config.numSampleContour,
+				_config.minimumEdgeIntensity, imageType);
 
-		return new BinaryEllipseDetector<>(detector, refine, check, imageType);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new BinaryEllipseDetector_MT<>(detector, factoryRefine, factoryCheck, imageType);
+		}
+
+		SnapToEllipseEdge<T> refine = factoryRefine == null ? null : factoryRefine.newInstance();
+		return new BinaryEllipseDetector<>(detector, refine, factoryCheck.newInstance(), imageType);
 	}
 
 	/**
@@ -92,13 +108,22 @@ public class FactoryShapeDetector {
 	{
 		config.checkValidity();
 
+		DetectPolygonFromContour<T> detector = polygonContour(config.detector,imageType);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			final ConfigRefinePolygonLineToImage configRefineGray = config.refineGray;
+			return new DetectPolygonBinaryGrayRefine_MT<>(detector,
+					config.refineContour ? RefinePolygonToContour::new : null,
+					configRefineGray != null ? () -> refinePolygon(configRefineGray,imageType) : null,
+					config.minimumRefineEdgeIntensity,
+					config.adjustForThresholdBias);
+		}
+
 		RefinePolygonToContour refineContour = config.refineContour ? new RefinePolygonToContour() : null;
 
 		RefinePolygonToGray<T> refineGray = config.refineGray != null ?
 				refinePolygon(config.refineGray,imageType) : null;
 
-		DetectPolygonFromContour<T> detector = polygonContour(config.detector,imageType);
-
 		return new DetectPolygonBinaryGrayRefine<>(detector,refineContour,refineGray,
 				config.minimumRefineEdgeIntensity,
 				config.adjustForThresholdBias);
@@ -109,12 +134,19 @@ public class FactoryShapeDetector {
 	{
 		config.checkValidity();
 
-		PointsToPolyline contourToPolygon =
-				FactoryPointsToPolyline.create(config.contourToPoly);
-
 		BinaryContourFinder contour = FactoryBinaryContourFinder.linearExternal();
 		contour.setConnectRule(config.contourRule);
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new DetectPolygonFromContour_MT<>(() -> FactoryPointsToPolyline.create(config.contourToPoly),
+					config.minimumContour,
+					config.clockwise, config.canTouchBorder,
+					config.minimumEdgeIntensity, config.tangentEdgeIntensity,contour, imageType);
+		}
+
+		PointsToPolyline contourToPolygon =
+				FactoryPointsToPolyline.create(config.contourToPoly);
+
 		return new DetectPolygonFromContour<>(contourToPolygon,
 				config.minimumContour,
 				config.clockwise, config.canTouchBorder,
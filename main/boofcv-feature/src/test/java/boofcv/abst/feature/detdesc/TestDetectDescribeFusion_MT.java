@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detect.interest.InterestPointDetector;
+import boofcv.abst.feature.orientation.OrientationImage;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.factory.feature.detect.interest.FactoryInterestPoint;
+import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectDescribeFusion_MT extends GenericTestsDetectDescribePoint<GrayF32,BrightFeature>
+{
+	Random rand = new Random(234);
+
+	public TestDetectDescribeFusion_MT() {
+		super(true, true, ImageType.single(GrayF32.class), BrightFeature.class);
+	}
+
+	@Override
+	public DetectDescribePoint<GrayF32, BrightFeature> createDetDesc() {
+		return new DetectDescribeFusion_MT<>(FactoryInterestPoint.fastHessian(null),
+				() -> FactoryOrientationAlgs.nogradient(1.0/2.0,5,GrayF32.class),
+				() -> FactoryDescribeRegionPoint.surfStable(null, GrayF32.class));
+	}
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the features
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 input = new GrayF32(320,240);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+
+		OrientationImage<GrayF32> orientation = FactoryOrientationAlgs.nogradient(1.0/2.0,5,GrayF32.class);
+		DescribeRegionPoint<GrayF32,BrightFeature> describe =
+				FactoryDescribeRegionPoint.surfStable(null, GrayF32.class);
+		DetectDescribePoint<GrayF32, BrightFeature> expected = new DetectDescribeFusion<>(
+				FactoryInterestPoint.fastHessian(null),orientation,describe);
+		DetectDescribePoint<GrayF32, BrightFeature> found = createDetDesc();
+
+		// process twice to make sure it's correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			expected.detect(input);
+			found.detect(input);
+
+			assertTrue(expected.getNumberOfFeatures() > 10);
+			assertEquals(expected.getNumberOfFeatures(),found.getNumberOfFeatures());
+			for (int i = 0; i < expected.getNumberOfFeatures(); i++) {
+				assertEquals(0,expected.getLocation(i).distance(found.getLocation(i)),1e-8);
+				assertEquals(expected.getRadius(i),found.getRadius(i),1e-8);
+				assertEquals(expected.getOrientation(i),found.getOrientation(i),1e-8);
+
+				BrightFeature fa = expected.getDescription(i);
+				BrightFeature fb = found.getDescription(i);
+				assertEquals(fa.white,fb.white);
+				for (int j = 0; j < fa.size(); j++) {
+					assertEquals(fa.value[j],fb.value[j],1e-8);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Features which can't be described should be removed without changing the order of the others
+	 */
+	@Test
+	public void featuresNotDescribed() {
+		DetectDescribeFusion_MT<GrayF32,TupleDesc_F64> alg = new DetectDescribeFusion_MT<>(
+				new LineDetector(),null,DescribeSkipX::new);
+
+		for (int trial = 0; trial < 2; trial++) {
+			alg.detect(new GrayF32(2,2));
+
+			// every third feature can't be described
+			assertEquals(66, alg.getNumberOfFeatures());
+
+			int index = 0;
+			for (int i = 0; i < 100; i++) {
+				if( i%3 == 0 )
+					continue;
+				assertEquals(i, alg.getLocation(index).x, 1e-8);
+				assertEquals(i + 0.5, alg.getRadius(index), 1e-8);
+				assertEquals(i + 0.1, alg.getOrientation(index), 1e-8);
+				assertEquals(i, alg.getDescription(index).value[0], 1e-8);
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Detects 100 features along the x-axis
+	 */
+	public static class LineDetector implements InterestPointDetector<GrayF32> {
+		Point2D_F64[] points = new Point2D_F64[100];
+
+		LineDetector() {
+			for (int i = 0; i < points.length; i++) {
+				points[i] = new Point2D_F64(i,0);
+			}
+		}
+
+		@Override public void detect(GrayF32 input) {}
+		@Override public int getNumberOfFeatures() { return points.length; }
+		@Override public Point2D_F64 getLocation(int featureIndex) { return points[featureIndex]; }
+		@Override public double getRadius(int featureIndex) { return featureIndex + 0.5; }
+		@Override public double getOrientation(int featureIndex) { return featureIndex + 0.1; }
+		@Override public boolean hasScale() { return true; }
+		@Override public boolean hasOrientation() { return true; }
+	}
+
+	/**
+	 * Fails to describe features with an x-coordinate which is a multiple of 3
+	 */
+	public static class DescribeSkipX implements DescribeRegionPoint<GrayF32,TupleDesc_F64> {
+		@Override public void setImage(GrayF32 image) {}
+
+		@Override
+		public boolean process(double x, double y, double orientation, double radius, TupleDesc_F64 description) {
+			if( ((int)x) % 3 == 0 )
+				return false;
+			description.value[0] = x;
+			return true;
+		}
+
+		@Override public boolean requiresRadius() { return false; }
+		@Override public boolean requiresOrientation() { return false; }
+		@Override public ImageType<GrayF32> getImageType() { return ImageType.single(GrayF32.class); }
+		@Override public double getCanonicalWidth() { return 1; }
+		@Override public TupleDesc_F64 createDescription() { return new TupleDesc_F64(1); }
+		@Override public Class<TupleDesc_F64> getDescriptionType() { return TupleDesc_F64.class; }
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.describe.ConfigSurfDescribe;
+import boofcv.abst.feature.detect.interest.ConfigFastHessian;
+import boofcv.abst.feature.orientation.ConfigSlidingIntegral;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDetectDescribeSurf_MT extends GenericTestsDetectDescribePoint<GrayF32,BrightFeature>
+{
+	Random rand = new Random(234);
+
+	public TestWrapDetectDescribeSurf_MT() {
+		super(true, true, ImageType.single(GrayF32.class), BrightFeature.class);
+	}
+
+	@Override
+	public DetectDescribePoint<GrayF32, BrightFeature> createDetDesc() {
+		return new WrapDetectDescribeSurf_MT<>(
+				FactoryInterestPointAlgs.fastHessian(new ConfigFastHessian()),
+				() -> FactoryOrientationAlgs.sliding_ii(new ConfigSlidingIntegral(), GrayF32.class),
+				() -> FactoryDescribePointAlgs.surfStability(new ConfigSurfDescribe.Stability(), GrayF32.class));
+	}
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the features
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 input = new GrayF32(320,240);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+
+		DetectDescribePoint<GrayF32, BrightFeature> expected = new WrapDetectDescribeSurf<>(
+				FactoryInterestPointAlgs.fastHessian(new ConfigFastHessian()),
+				FactoryOrientationAlgs.sliding_ii(new ConfigSlidingIntegral(), GrayF32.class),
+				FactoryDescribePointAlgs.surfStability(new ConfigSurfDescribe.Stability(), GrayF32.class));
+		DetectDescribePoint<GrayF32, BrightFeature> found = createDetDesc();
+
+		// process twice to make sure it's correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			expected.detect(input);
+			found.detect(input);
+
+			assertTrue(expected.getNumberOfFeatures() > 10);
+			assertEquals(expected.getNumberOfFeatures(),found.getNumberOfFeatures());
+			for (int i = 0; i < expected.getNumberOfFeatures(); i++) {
+				assertEquals(0,expected.getLocation(i).distance(found.getLocation(i)),1e-8);
+				assertEquals(expected.getRadius(i),found.getRadius(i),1e-8);
+				assertEquals(expected.getOrientation(i),found.getOrientation(i),1e-8);
+
+				BrightFeature fa = expected.getDescription(i);
+				BrightFeature fb = found.getDescription(i);
+				assertEquals(fa.white,fb.white);
+				for (int j = 0; j < fa.size(); j++) {
+					assertEquals(fa.value[j],fb.value[j],1e-8);
+				}
+			}
+		}
+	}
+}
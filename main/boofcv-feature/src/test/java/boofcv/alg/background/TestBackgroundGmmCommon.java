@@ -18,10 +18,13 @@
 
 package boofcv.alg.background;
 
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_F32;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -203,4 +206,97 @@ public class TestBackgroundGmmCommon {
 		data[startIndex+3*3+0] = 1e-7f;
 		assertEquals(1,alg.checkBackground(30,data,startIndex));
 	}
+
+	@Test
+	public void floatToHalf_halfToFloat() {
+		assertEquals(0x0000, BackgroundGmmCommon.floatToHalf(0.0f));
+		assertEquals(0x3C00, BackgroundGmmCommon.floatToHalf(1.0f));
+		assertEquals((short)0xC000, BackgroundGmmCommon.floatToHalf(-2.0f));
+		assertEquals(0x7BFF, BackgroundGmmCommon.floatToHalf(65504.0f));
+		assertEquals(0x7C00, BackgroundGmmCommon.floatToHalf(1e6f));
+		assertEquals(0x0001, BackgroundGmmCommon.floatToHalf((float)Math.pow(2,-24)));
+		assertEquals(0x0000, BackgroundGmmCommon.floatToHalf(1e-10f));
+
+		// round to nearest with ties going to even
+		assertEquals(0x3C00, BackgroundGmmCommon.floatToHalf(1.0f + (float)Math.pow(2,-11)));
+		assertEquals(0x3C02, BackgroundGmmCommon.floatToHalf(1.0f + 3*(float)Math.pow(2,-11)));
+		assertEquals(0x3C01, BackgroundGmmCommon.floatToHalf(1.0f + 1.1f*(float)Math.pow(2,-11)));
+
+		assertEquals(1.0f, BackgroundGmmCommon.halfToFloat((short)0x3C00));
+		assertEquals(-2.0f, BackgroundGmmCommon.halfToFloat((short)0xC000));
+		assertEquals(65504.0f, BackgroundGmmCommon.halfToFloat((short)0x7BFF));
+		assertEquals(Float.POSITIVE_INFINITY, BackgroundGmmCommon.halfToFloat((short)0x7C00));
+		assertTrue(Float.isNaN(BackgroundGmmCommon.halfToFloat((short)0x7E00)));
+
+		// every half-float which isn't NaN should survive a round trip
+		for (int i = 0; i < 0x10000; i++) {
+			short half = (short)i;
+			float value = BackgroundGmmCommon.halfToFloat(half);
+			if( Float.isNaN(value) )
+				continue;
+			assertEquals(half, BackgroundGmmCommon.floatToHalf(value));
+		}
+	}
+
+	/**
+	 * Encode a row into the compact model then decode it and see if it's approximately the same
+	 */
+	@Test
+	public void encodeRow_decodeRow() {
+		encodeRow_decodeRow(ImageType.single(GrayU8.class), 1.0f/512.0f);
+		encodeRow_decodeRow(ImageType.pl(2, GrayF32.class), 0.1f);
+	}
+
+	private void encodeRow_decodeRow( ImageType imageType , float tolMean ) {
+		BackgroundGmmCommon alg = new BackgroundGmmCommon(1000,0.0f,3,imageType);
+		alg.compact = true;
+		alg.reshapeModel(2, 4*alg.modelStride);
+
+		// number of Gaussians in use for each pixel
+		int[] used = new int[]{3,2,1,0};
+
+		float[] expected = new float[alg.modelStride*4];
+		for (int pixel = 0; pixel < used.length; pixel++) {
+			for (int g = 0; g < used[pixel]; g++) {
+				int index = pixel*alg.modelStride + g*alg.gaussianStride;
+				expected[index] = rand.nextFloat();
+				expected[index+1] = rand.nextFloat()*1000;
+				for (int i = 0; i < alg.numBands; i++) {
+					expected[index+2+i] = rand.nextFloat()*255;
+				}
+			}
+		}
+		// tiny variance should not be rounded to zero
+		expected[2*alg.modelStride+1] = 1e-12f;
+
+		alg.encodeRow(1, expected);
+
+		// fill storage with garbage to make sure it's all overwritten
+		GrowQueue_F32 storage = new GrowQueue_F32();
+		storage.resize(expected.length);
+		Arrays.fill(storage.data, 5);
+		float[] found = alg.decodeRow(1, storage);
+
+		for (int pixel = 0; pixel < used.length; pixel++) {
+			for (int g = 0; g < 3; g++) {
+				int index = pixel*alg.modelStride + g*alg.gaussianStride;
+				if( g >= used[pixel] ) {
+					assertEquals(0, found[index+1]);
+					continue;
+				}
+				assertEquals(expected[index], found[index], 1.0f/65535.0f);
+				assertEquals(expected[index+1], found[index+1], expected[index+1]/1000.0f + 1e-6f);
+				assertTrue(found[index+1] > 0);
+				for (int i = 0; i < alg.numBands; i++) {
+					assertEquals(expected[index+2+i], found[index+2+i], tolMean);
+				}
+			}
+		}
+
+		// the other row should have no Gaussians
+		float[] other = alg.decodeRow(0, new GrowQueue_F32());
+		for (int index = 0; index < expected.length; index += alg.gaussianStride) {
+			assertEquals(0, other[index+1]);
+		}
+	}
 }
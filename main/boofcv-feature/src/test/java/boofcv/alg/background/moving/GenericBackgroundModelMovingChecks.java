@@ -107,6 +107,37 @@ public abstract class GenericBackgroundModelMovingChecks {
 		}
 	}
 
+	/**
+	 * Feeds the same sequence of images and motions into both algorithms and checks to see if they produce
+	 * identical segmentations. Used to compare concurrent implementations against the single threaded one.
+	 */
+	protected <T extends ImageBase<T>>
+	void checkIdentical( BackgroundModelMoving<T,Homography2D_F32> algA ,
+						 BackgroundModelMoving<T,Homography2D_F32> algB ,
+						 ImageType<T> imageType ) {
+		T frame = imageType.createImage(width,height);
+		GrayU8 segmentedA = new GrayU8(width,height);
+		GrayU8 segmentedB = new GrayU8(width,height);
+
+		Homography2D_F32 homeToWorld = new Homography2D_F32(1,0,width/2,0,1,height/2,0,0,1);
+		algA.initialize(width*2,height*2,homeToWorld);
+		algB.initialize(width*2,height*2,homeToWorld);
+
+		for (int i = 0; i < 10; i++) {
+			Homography2D_F32 homeToCurrent = new Homography2D_F32();
+			homeToCurrent.a13 = rand.nextFloat() * 10 - 5f;
+			homeToCurrent.a23 = rand.nextFloat() * 10 - 5f;
+			noise(100, 30, frame);
+
+			algA.updateBackground(homeToCurrent,frame);
+			algB.updateBackground(homeToCurrent,frame);
+
+			algA.segment(homeToCurrent,frame,segmentedA);
+			algB.segment(homeToCurrent,frame,segmentedB);
+			BoofTesting.assertEquals(segmentedA, segmentedB, 0);
+		}
+	}
+
 	/**
 	 * The current image is partially outside of the background image.  Check to see if it blows up
 	 * and that segmented pixels are correctly marked as inside or outside
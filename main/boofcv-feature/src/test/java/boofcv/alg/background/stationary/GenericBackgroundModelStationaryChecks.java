@@ -243,6 +243,36 @@ public abstract class GenericBackgroundModelStationaryChecks {
 		}
 	}
 
+	/**
+	 * Feeds the same sequence of images into both algorithms and checks to see if they produce identical
+	 * segmentations. Used to compare concurrent implementations against the single threaded one.
+	 */
+	protected <T extends ImageBase<T>>
+	void checkIdentical( BackgroundModelStationary<T> algA , BackgroundModelStationary<T> algB ,
+						 ImageType<T> imageType ) {
+		T frame = imageType.createImage(width,height);
+		GrayU8 segmentedA = new GrayU8(width,height);
+		GrayU8 segmentedB = new GrayU8(width,height);
+
+		for (int i = 0; i < 10; i++) {
+			noise(100, 30, frame);
+			if( i % 2 == 0 ) {
+				algA.updateBackground(frame);
+				algB.updateBackground(frame);
+			} else {
+				algA.updateBackground(frame,segmentedA);
+				algB.updateBackground(frame,segmentedB);
+				BoofTesting.assertEquals(segmentedA, segmentedB, 0);
+			}
+		}
+
+		noise(100, 30, frame);
+		GImageMiscOps.fillRectangle(frame, 200, 10, 12, 30, 26);
+		algA.segment(frame,segmentedA);
+		algB.segment(frame,segmentedB);
+		BoofTesting.assertEquals(segmentedA, segmentedB, 0);
+	}
+
 	protected void noiseBand( double mean , double range , ImageBase image , int band ) {
 		double pixel[] = new double[ image.getImageType().getNumBands() ];
 		Arrays.fill(pixel,10);
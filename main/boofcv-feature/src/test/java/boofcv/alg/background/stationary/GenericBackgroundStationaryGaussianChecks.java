@@ -18,6 +18,7 @@
 
 package boofcv.alg.background.stationary;
 
+import boofcv.alg.background.BackgroundModelStationary;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayU8;
@@ -85,6 +86,36 @@ public abstract class GenericBackgroundStationaryGaussianChecks extends GenericB
 		BoofTesting.assertEquals(expected, segmented, 1e-5f);
 	}
 
+	/**
+	 * Segmenting while updating should produce the same results as segmenting then updating
+	 */
+	@Test
+	public void updateBackground_segment() {
+		for( ImageType type : imageTypes ) {
+			updateBackground_segment(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void updateBackground_segment( ImageType<T> imageType ) {
+		BackgroundModelStationary<T> algA = create(imageType);
+		BackgroundModelStationary<T> algB = create(imageType);
+		algA.setUnknownValue(2);
+		algB.setUnknownValue(2);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 found = new GrayU8(1,1);
+		GrayU8 expected = new GrayU8(width,height);
+
+		for (int i = 0; i < 5; i++) {
+			noise(100, 30, frame);
+			algA.updateBackground(frame, found);
+			algB.segment(frame, expected);
+			algB.updateBackground(frame);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
 	@Test
 	public void learnRate() {
 		for( ImageType type : imageTypes ) {
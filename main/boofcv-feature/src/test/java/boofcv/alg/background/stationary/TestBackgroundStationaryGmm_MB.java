@@ -20,12 +20,15 @@ package boofcv.alg.background.stationary;
 
 import boofcv.alg.background.BackgroundModelStationary;
 import boofcv.struct.image.*;
+import org.junit.jupiter.api.Test;
 
 /**
  * @author Peter Abeles
  */
 public class TestBackgroundStationaryGmm_MB extends GenericBackgroundModelStationaryChecks {
 
+	boolean compact = false;
+
 	public TestBackgroundStationaryGmm_MB() {
 		imageTypes.add(ImageType.il(3,InterleavedU8.class));
 		imageTypes.add(ImageType.il(3,InterleavedF32.class));
@@ -35,6 +38,21 @@ public class TestBackgroundStationaryGmm_MB extends GenericBackgroundModelStatio
 
 	@Override
 	public <T extends ImageBase<T>> BackgroundModelStationary<T> create(ImageType<T> imageType) {
-		return new BackgroundStationaryGmm_MB(1000.0f,0.001f,10,imageType);
+		BackgroundStationaryGmm alg = new BackgroundStationaryGmm_MB(1000.0f,0.001f,10,imageType);
+		alg.setCompactModel(compact);
+		return alg;
+	}
+
+	/**
+	 * Runs the standard checks again using a compact model
+	 */
+	@Test
+	public void compactModel() {
+		compact = true;
+		basicCheck();
+		reset();
+		segmentBeforeUpdateBackGround();
+		checkSubImage();
+		checkBandsUsed();
 	}
 }
\ No newline at end of file
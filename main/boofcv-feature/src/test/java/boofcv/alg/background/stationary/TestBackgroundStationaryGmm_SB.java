@@ -23,6 +23,7 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
 
 /**
  * @author Peter Abeles
@@ -31,6 +32,8 @@ public class TestBackgroundStationaryGmm_SB extends GenericBackgroundModelStatio
 
 	ImageType<GrayU8> imageType = ImageType.single(GrayU8.class);
 
+	boolean compact = false;
+
 	public TestBackgroundStationaryGmm_SB() {
 		imageTypes.add(ImageType.single(GrayU8.class));
 		imageTypes.add(ImageType.single(GrayF32.class));
@@ -38,6 +41,21 @@ public class TestBackgroundStationaryGmm_SB extends GenericBackgroundModelStatio
 
 	@Override
 	public <T extends ImageBase<T>> BackgroundModelStationary<T> create(ImageType<T> imageType) {
-		return new BackgroundStationaryGmm_SB(1000.0f,0.001f,10,imageType);
+		BackgroundStationaryGmm alg = new BackgroundStationaryGmm_SB(1000.0f,0.001f,10,imageType);
+		alg.setCompactModel(compact);
+		return alg;
+	}
+
+	/**
+	 * Runs the standard checks again using a compact model
+	 */
+	@Test
+	public void compactModel() {
+		compact = true;
+		basicCheck();
+		reset();
+		segmentBeforeUpdateBackGround();
+		checkSubImage();
+		checkBandsUsed();
 	}
 }
\ No newline at end of file
@@ -71,11 +71,16 @@ public class TestDescribeDenseHogFastAlg {
 
 	@Test
 	public void getDescriptorsInRegion() {
+		getDescriptorsInRegion(1);
+		getDescriptorsInRegion(2);
+	}
+
+	private void getDescriptorsInRegion( int stepBlock ) {
 
 		int x0 = 5, x1 = 67;
 		int y0 = 9, y1 = 89;
 
-		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,2,2,1,imageType);
+		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,2,2,stepBlock,imageType);
 
 		GrayF32 input = new GrayF32(120,110);
 		helper.setInput(input);
@@ -88,9 +93,10 @@ public class TestDescribeDenseHogFastAlg {
 		// take advantage of the descriptors being computed in a row major order
 		int c = 8;
 		int w = 2*c;
-		for (int y = 0; y < input.height-w; y += c) {
-			int i = (y/c)*helper.cellCols;
-			for (int x = 0; x < input.width-w; x += c, i++) {
+		int step = c*stepBlock;
+		for (int y = 0; y < input.height-w; y += step) {
+			int i = (y/step)*helper.getGridCols();
+			for (int x = 0; x < input.width-w; x += step, i++) {
 				if( x >= x0 && x+w < x1 && y >= y0 && y+w < y1) {
 					expected.add( helper.getDescriptions().get(i));
 				}
@@ -100,6 +106,7 @@ public class TestDescribeDenseHogFastAlg {
 		List<TupleDesc_F64> found = new ArrayList<>();
 		helper.getDescriptorsInRegion(x0,y0,x1,y1,found);
 
+		assertTrue(expected.size() > 0);
 		assertEquals(expected.size(),found.size());
 
 		for (int j = 0; j < expected.size(); j++) {
@@ -107,6 +114,24 @@ public class TestDescribeDenseHogFastAlg {
 		}
 	}
 
+	@Test
+	public void declareGrid() {
+		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,3,2,2,imageType);
+
+		helper.setInput(new GrayF32(imgWidth,imgHeight));
+		helper.declareGrid();
+
+		// 7 cells wide and 10 cells tall
+		assertEquals(3,helper.getGridCols());
+		assertEquals(5,helper.getGridRows());
+		assertEquals(15,helper.getDescriptions().size);
+		assertEquals(15,helper.getLocations().size);
+
+		Point2D_I32 where = helper.getLocations().get(helper.getGridCols()+2);
+		assertEquals(2*2*8,where.x);
+		assertEquals(2*8,where.y);
+	}
+
 	@Test
 	public void computeDescriptor() {
 		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,2,2,1,imageType);
@@ -124,13 +149,8 @@ public class TestDescribeDenseHogFastAlg {
 
 		DescribeSiftCommon.normalizeDescriptor(expected,0.2);
 
-		helper.computeDescriptor(0,2);
-
-		Point2D_I32 where = helper.locations.get(0);
-		TupleDesc_F64 found = helper.descriptions.get(0);
-
-		assertEquals(8*2,where.x);
-		assertEquals(0,where.y);
+		TupleDesc_F64 found = new TupleDesc_F64(40);
+		helper.computeDescriptor(0,2,found);
 
 		assertEquals(40,found.size());
 		assertTrue(DescriptorDistance.euclidean(expected,found) < 1e-8 );
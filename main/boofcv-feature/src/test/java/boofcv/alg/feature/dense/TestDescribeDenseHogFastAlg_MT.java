@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribeDenseHogFastAlg_MT {
+
+	Random rand = new Random(234);
+
+	int width = 90;
+	int height = 125;
+
+	@Test
+	public void compareToSingleThread() {
+		for( int stepBlock = 1; stepBlock <= 2; stepBlock++ ) {
+			compareToSingleThread(ImageType.single(GrayF32.class), stepBlock);
+			compareToSingleThread(ImageType.pl(2, GrayF32.class), stepBlock);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingleThread( ImageType<T> imageType , int stepBlock ) {
+		T input = imageType.createImage(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+
+		DescribeDenseHogFastAlg<T> expected = new DescribeDenseHogFastAlg<>(9,6,3,2,stepBlock,imageType);
+		DescribeDenseHogFastAlg<T> found = new DescribeDenseHogFastAlg_MT<>(9,6,3,2,stepBlock,imageType);
+
+		expected.setInput(input);
+		expected.process();
+		found.setInput(input);
+		found.process();
+
+		assertTrue(expected.getDescriptions().size > 0);
+		assertEquals(expected.getDescriptions().size,found.getDescriptions().size);
+		assertEquals(expected.getLocations().size,found.getLocations().size);
+
+		for (int i = 0; i < expected.getDescriptions().size; i++) {
+			TupleDesc_F64 a = expected.getDescriptions().get(i);
+			TupleDesc_F64 b = found.getDescriptions().get(i);
+			for (int j = 0; j < a.size(); j++) {
+				assertEquals(a.value[j],b.value[j]);
+			}
+			assertEquals(expected.getLocations().get(i),found.getLocations().get(i));
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribeDenseSiftAlg_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 derivX = new GrayF32(100,102);
+		GrayF32 derivY = new GrayF32(100,102);
+
+		GImageMiscOps.fillUniform(derivX,rand,-100,100);
+		GImageMiscOps.fillUniform(derivY,rand,-100,100);
+
+		DescribeDenseSiftAlg<GrayF32> expected = new DescribeDenseSiftAlg<>(4,4,8,0.5,0.2,7,9,GrayF32.class);
+		DescribeDenseSiftAlg<GrayF32> found = new DescribeDenseSiftAlg_MT<>(4,4,8,0.5,0.2,7,9,GrayF32.class);
+
+		expected.setImageGradient(derivX,derivY);
+		expected.process();
+		found.setImageGradient(derivX,derivY);
+		found.process();
+
+		assertTrue(expected.getDescriptors().size > 0);
+		assertEquals(expected.getDescriptors().size,found.getDescriptors().size);
+
+		for (int i = 0; i < expected.getDescriptors().size; i++) {
+			TupleDesc_F64 a = expected.getDescriptors().get(i);
+			TupleDesc_F64 b = found.getDescriptors().get(i);
+			for (int j = 0; j < a.size(); j++) {
+				assertEquals(a.value[j],b.value[j]);
+			}
+			assertEquals(expected.getLocations().get(i),found.getLocations().get(i));
+		}
+	}
+}
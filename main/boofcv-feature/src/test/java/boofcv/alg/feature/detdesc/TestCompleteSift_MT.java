@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the features
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift expected = new CompleteSift(new SiftScaleSpace(-1,4,3,1.6),10,
+				createLimiter(),createOrientation(),createDescribe());
+		CompleteSift_MT found = new CompleteSift_MT(new SiftScaleSpace_MT(-1,4,3,1.6),10,
+				this::createLimiter,this::createOrientation,this::createDescribe);
+
+		// process twice to make sure it's correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			expected.process(image);
+			found.process(image);
+
+			assertTrue(expected.getLocations().size > 10);
+			assertEquals(expected.getDetections().size,found.getDetections().size);
+			assertEquals(expected.getLocations().size,found.getLocations().size);
+			assertEquals(expected.getOrientations().size,found.getOrientations().size);
+			assertEquals(expected.getDescriptions().size,found.getDescriptions().size);
+
+			for (int i = 0; i < expected.getLocations().size; i++) {
+				ScalePoint a = expected.getLocations().get(i);
+				ScalePoint b = found.getLocations().get(i);
+				assertEquals(0,a.distance(b),1e-8);
+				assertEquals(a.scale,b.scale,1e-8);
+				assertEquals(a.white,b.white);
+
+				assertEquals(expected.getOrientations().get(i),found.getOrientations().get(i),1e-8);
+
+				BrightFeature fa = expected.getDescriptions().get(i);
+				BrightFeature fb = found.getDescriptions().get(i);
+				assertEquals(fa.white,fb.white);
+				for (int j = 0; j < fa.size(); j++) {
+					assertEquals(fa.value[j],fb.value[j],1e-8);
+				}
+			}
+		}
+	}
+
+	private NonMaxLimiter createLimiter() {
+		return new NonMaxLimiter(FactoryFeatureExtractor.nonmax(new ConfigExtract(1,0,1,true,true,true)),300);
+	}
+
+	private OrientationHistogramSift<GrayF32> createOrientation() {
+		return new OrientationHistogramSift<>(36,1.5,GrayF32.class);
+	}
+
+	private DescribePointSift<GrayF32> createDescribe() {
+		return new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+	}
+}
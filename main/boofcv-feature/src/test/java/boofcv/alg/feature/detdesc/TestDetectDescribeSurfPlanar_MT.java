@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detdesc;
+
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.describe.DescribePointSurfPlanar;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.core.image.ConvertImage;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.Planar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectDescribeSurfPlanar_MT {
+
+	int width = 200;
+	int height = 250;
+
+	Random rand = new Random(234);
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the features
+	 */
+	@Test
+	public void compareToSingleThread() {
+		Planar<GrayF32> input = new Planar<>(GrayF32.class,width,height,3);
+		GImageMiscOps.addUniform(input, rand, 0, 200);
+
+		GrayF32 gray = ConvertImage.average(input, null);
+		GrayF32 grayII = GIntegralImageOps.transform(gray, null);
+		Planar<GrayF32> colorII = input.createSameShape();
+		for (int i = 0; i < input.getNumBands(); i++) {
+			GIntegralImageOps.transform(input.getBand(i), colorII.getBand(i));
+		}
+
+		DetectDescribeSurfPlanar<GrayF32> expected = new DetectDescribeSurfPlanar<>(
+				FactoryInterestPointAlgs.fastHessian(null),
+				FactoryOrientationAlgs.sliding_ii(null, GrayF32.class),createDescribe());
+		DetectDescribeSurfPlanar_MT<GrayF32> found = new DetectDescribeSurfPlanar_MT<>(
+				FactoryInterestPointAlgs.fastHessian(null),
+				() -> FactoryOrientationAlgs.sliding_ii(null, GrayF32.class),this::createDescribe);
+
+		// process twice to make sure it's correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			expected.detect(grayII,colorII);
+			found.detect(grayII,colorII);
+
+			assertTrue(expected.getNumberOfFeatures() > 10);
+			assertEquals(expected.getNumberOfFeatures(),found.getNumberOfFeatures());
+			for (int i = 0; i < expected.getNumberOfFeatures(); i++) {
+				assertEquals(0,expected.getLocation(i).distance(found.getLocation(i)),1e-8);
+				assertEquals(expected.getRadius(i),found.getRadius(i),1e-8);
+				assertEquals(expected.getOrientation(i),found.getOrientation(i),1e-8);
+
+				BrightFeature fa = expected.getDescription(i);
+				BrightFeature fb = found.getDescription(i);
+				for (int j = 0; j < fa.size(); j++) {
+					assertEquals(fa.value[j],fb.value[j],1e-8);
+				}
+			}
+		}
+	}
+
+	private DescribePointSurfPlanar<GrayF32> createDescribe() {
+		return new DescribePointSurfPlanar<>(new DescribePointSurf<>(GrayF32.class),3);
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCannyEdge_MT {
+
+	Random rand = new Random(234);
+
+	int width = 90;
+	int height = 200;
+
+	/**
+	 * Compare the edge map and contours against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingleThread() {
+		for( int blurRadius = 1; blurRadius <= 3; blurRadius += 2 ) {
+			compareToSingleThread(GrayU8.class, GrayS16.class, blurRadius, false, false);
+			compareToSingleThread(GrayU8.class, GrayS16.class, blurRadius, true, false);
+			compareToSingleThread(GrayF32.class, GrayF32.class, blurRadius, false, false);
+			compareToSingleThread(GrayF32.class, GrayF32.class, blurRadius, true, false);
+		}
+	}
+
+	@Test
+	public void compareToSingleThread_dynamic() {
+		compareToSingleThread(GrayU8.class, GrayS16.class, 2, false, true);
+		compareToSingleThread(GrayF32.class, GrayF32.class, 2, true, true);
+	}
+
+	private <T extends ImageGray<T>, D extends ImageGray<D>>
+	void compareToSingleThread( Class<T> imageType , Class<D> derivType , int blurRadius ,
+								boolean saveTrace , boolean dynamic ) {
+		T input = GeneralizedImageOps.createSingleBand(imageType,width,height);
+		GImageMiscOps.fillUniform(input,rand,0,20);
+		for( int i = 0; i < 40; i++ ) {
+			int x = rand.nextInt(width-10);
+			int y = rand.nextInt(height-10);
+			GImageMiscOps.fillRectangle(input,100+rand.nextInt(100),x,y,5+rand.nextInt(20),5+rand.nextInt(20));
+		}
+
+		BlurFilter<T> blur = FactoryBlurFilter.gaussian(ImageType.single(imageType), -1, blurRadius);
+		ImageGradient<T,D> gradient = FactoryDerivative.three(imageType, derivType);
+
+		CannyEdge<T,D> expected;
+		CannyEdge<T,D> found;
+		float low = 5, high = 20;
+		if( dynamic ) {
+			low = 0.1f; high = 0.3f;
+			expected = new CannyEdgeDynamic<>(blur,gradient,saveTrace);
+			found = new CannyEdgeDynamic_MT<>(
+					()->FactoryBlurFilter.gaussian(ImageType.single(imageType), -1, blurRadius),
+					()->FactoryDerivative.three(imageType, derivType),1,saveTrace);
+		} else {
+			expected = new CannyEdge<>(blur,gradient,saveTrace);
+			found = new CannyEdge_MT<>(
+					()->FactoryBlurFilter.gaussian(ImageType.single(imageType), -1, blurRadius),
+					()->FactoryDerivative.three(imageType, derivType),1,saveTrace);
+		}
+
+		GrayU8 outputExpected = new GrayU8(width,height);
+		GrayU8 outputFound = new GrayU8(width,height);
+
+		expected.process(input,low,high,outputExpected);
+		found.process(input,low,high,outputFound);
+
+		// the suppressed intensity is modified by hysteresis, so compare the direction and the final output
+		BoofTesting.assertEquals(expected.direction,found.direction,0);
+		BoofTesting.assertEquals(outputExpected,outputFound,0);
+		assertTrue(ImageStatistics.sum(outputExpected) > 0);
+
+		if( saveTrace ) {
+			checkIdentical(expected.getContours(),found.getContours());
+		}
+
+		// see if it handles sub-images correctly
+		T subInput = BoofTesting.createSubImageOf(input);
+		ImageMiscOps.fill(outputFound,0);
+		found.process(subInput,low,high,outputFound);
+		BoofTesting.assertEquals(outputExpected,outputFound,0);
+	}
+
+	public static void checkIdentical( List<EdgeContour> expected , List<EdgeContour> found ) {
+		assertEquals(expected.size(),found.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			List<EdgeSegment> segsA = expected.get(i).segments;
+			List<EdgeSegment> segsB = found.get(i).segments;
+			assertEquals(segsA.size(),segsB.size());
+
+			for( int j = 0; j < segsA.size(); j++ ) {
+				EdgeSegment a = segsA.get(j);
+				EdgeSegment b = segsB.get(j);
+				assertEquals(a.index,b.index);
+				assertEquals(a.parent,b.parent);
+				assertEquals(a.parentPixel,b.parentPixel);
+				assertEquals(a.points.size(),b.points.size());
+				for( int k = 0; k < a.points.size(); k++ ) {
+					Point2D_I32 pa = a.points.get(k);
+					Point2D_I32 pb = b.points.get(k);
+					assertEquals(pa.x,pb.x);
+					assertEquals(pa.y,pb.y);
+				}
+			}
+		}
+	}
+}
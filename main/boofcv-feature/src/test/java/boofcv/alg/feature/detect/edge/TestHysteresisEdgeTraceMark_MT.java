@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.edge;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS8;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHysteresisEdgeTraceMark_MT {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 150;
+
+	/**
+	 * Random intensity and direction images with many overlapping edges. Compare to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 intensity = new GrayF32(width,height);
+		GrayS8 direction = new GrayS8(width,height);
+
+		ImageMiscOps.fillUniform(intensity,rand,0,10);
+		ImageMiscOps.fillUniform(direction,rand,-1,3);
+
+		float lower = 5, upper = 8;
+
+		HysteresisEdgeTraceMark expected = new HysteresisEdgeTraceMark();
+		HysteresisEdgeTraceMark found = new HysteresisEdgeTraceMark_MT();
+
+		GrayU8 outputExpected = new GrayU8(width,height);
+		GrayU8 outputFound = new GrayU8(width,height);
+
+		expected.process(intensity.clone(),direction,lower,upper,outputExpected);
+		found.process(intensity.clone(),direction,lower,upper,outputFound);
+
+		assertTrue(ImageStatistics.sum(outputExpected) > 0);
+		BoofTesting.assertEquals(outputExpected,outputFound,0);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_I16;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNonMaxBlock_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void checkStrict() {
+		GenericNonMaxAlgorithmTests checks = new GenericNonMaxAlgorithmTests(true,true,true) {
+
+			@Override
+			public void findMaximums(GrayF32 intensity, float threshold, int radius, int border,
+									 QueueCorner foundMinimum, QueueCorner foundMaximum)
+			{
+				NonMaxBlock alg = new NonMaxBlock_MT(NonMaxBlockStrict.MinMax::new);
+				alg.setThresholdMin(-threshold);
+				alg.setThresholdMax(threshold);
+				alg.setBorder(border);
+				alg.setSearchRadius(radius);
+				alg.process(intensity,foundMinimum,foundMaximum);
+			}
+		};
+
+		checks.allStandard();
+	}
+
+	@Test
+	public void checkRelaxed() {
+		GenericNonMaxAlgorithmTests checks = new GenericNonMaxAlgorithmTests(false,true,true) {
+
+			@Override
+			public void findMaximums(GrayF32 intensity, float threshold, int radius, int border,
+									 QueueCorner foundMinimum, QueueCorner foundMaximum)
+			{
+				NonMaxBlock alg = new NonMaxBlock_MT(NonMaxBlockRelaxed.MinMax::new);
+				alg.setThresholdMin(-threshold);
+				alg.setThresholdMax(threshold);
+				alg.setBorder(border);
+				alg.setSearchRadius(radius);
+				alg.process(intensity,foundMinimum,foundMaximum);
+			}
+		};
+
+		checks.allStandard();
+	}
+
+	/**
+	 * The found extremes should be identical to the single threaded version, including their order
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 intensity = new GrayF32(240,210);
+		ImageMiscOps.fillUniform(intensity,rand,-100,100);
+
+		compareToSingleThread(intensity, new NonMaxBlockStrict.MinMax(),new NonMaxBlock_MT(NonMaxBlockStrict.MinMax::new));
+		compareToSingleThread(intensity, new NonMaxBlockRelaxed.MinMax(),new NonMaxBlock_MT(NonMaxBlockRelaxed.MinMax::new));
+	}
+
+	private void compareToSingleThread( GrayF32 intensity , NonMaxBlock expected , NonMaxBlock found ) {
+		QueueCorner expectedMin = new QueueCorner(), expectedMax = new QueueCorner();
+		QueueCorner foundMin = new QueueCorner(), foundMax = new QueueCorner();
+
+		for( int radius = 1; radius <= 4; radius++ ) {
+			for( int border = 0; border <= 3; border += 3 ) {
+				for( NonMaxBlock alg : new NonMaxBlock[]{expected,found}) {
+					alg.setSearchRadius(radius);
+					alg.setBorder(border);
+					alg.setThresholdMin(-20);
+					alg.setThresholdMax(20);
+				}
+				expectedMin.reset(); expectedMax.reset();
+				foundMin.reset(); foundMax.reset();
+
+				expected.process(intensity,expectedMin,expectedMax);
+				found.process(intensity,foundMin,foundMax);
+
+				assertTrue(expectedMax.size > 10);
+				assertIdentical(expectedMin,foundMin);
+				assertIdentical(expectedMax,foundMax);
+			}
+		}
+	}
+
+	private void assertIdentical( QueueCorner expected , QueueCorner found ) {
+		assertEquals(expected.size,found.size);
+		for (int i = 0; i < expected.size; i++) {
+			Point2D_I16 a = expected.get(i);
+			Point2D_I16 b = found.get(i);
+			assertEquals(a.x,b.x);
+			assertEquals(a.y,b.y);
+		}
+	}
+}
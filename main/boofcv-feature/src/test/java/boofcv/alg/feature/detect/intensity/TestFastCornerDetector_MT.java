@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I16;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastCornerDetector_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the corners
+	 */
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(GrayU8.class);
+		compareToSingleThread(GrayF32.class);
+	}
+
+	private <T extends ImageGray<T>> void compareToSingleThread( Class<T> imageType ) {
+		T input = BoofTesting.createSubImageOf(GeneralizedImageOps.createSingleBand(imageType,200,230));
+		GImageMiscOps.fillUniform(input,rand,0,255);
+
+		for( int minCont = 9; minCont <= 12; minCont++ ) {
+			final int _minCont = minCont;
+			FastCornerDetector<T> expected = new FastCornerDetector<>(
+					FactoryIntensityPointAlg.fastHelper(20,minCont,imageType));
+			FastCornerDetector_MT<T> found = new FastCornerDetector_MT<>(
+					() -> FactoryIntensityPointAlg.fastHelper(20,_minCont,imageType));
+
+			GrayF32 intensityExpected = new GrayF32(input.width,input.height);
+			GrayF32 intensityFound = new GrayF32(input.width,input.height);
+
+			expected.process(input,intensityExpected);
+			found.process(input,intensityFound);
+
+			assertTrue(expected.getCornersLow().size > 10);
+			assertTrue(expected.getCornersHigh().size > 10);
+			assertIdentical(expected.getCornersLow(),found.getCornersLow());
+			assertIdentical(expected.getCornersHigh(),found.getCornersHigh());
+			BoofTesting.assertEquals(intensityExpected,intensityFound,0);
+
+			// process without intensity image
+			expected.process(input);
+			found.process(input);
+
+			assertIdentical(expected.getCornersLow(),found.getCornersLow());
+			assertIdentical(expected.getCornersHigh(),found.getCornersHigh());
+		}
+	}
+
+	/**
+	 * The list of corners should be truncated at the same place
+	 */
+	@Test
+	public void maxFeaturesFraction() {
+		GrayU8 input = new GrayU8(200,230);
+		GImageMiscOps.fillUniform(input,rand,0,255);
+
+		FastCornerDetector<GrayU8> expected = new FastCornerDetector<>(
+				FactoryIntensityPointAlg.fastHelper(20,9,GrayU8.class));
+		FastCornerDetector_MT<GrayU8> found = new FastCornerDetector_MT<>(
+				() -> FactoryIntensityPointAlg.fastHelper(20,9,GrayU8.class));
+
+		for( double fraction : new double[]{1e-6,0.001,0.005,0.02} ) {
+			expected.setMaxFeaturesFraction(fraction);
+			found.setMaxFeaturesFraction(fraction);
+
+			expected.process(input);
+			found.process(input);
+
+			assertIdentical(expected.getCornersLow(),found.getCornersLow());
+			assertIdentical(expected.getCornersHigh(),found.getCornersHigh());
+		}
+	}
+
+	private void assertIdentical( QueueCorner expected , QueueCorner found ) {
+		assertEquals(expected.size,found.size);
+		for (int i = 0; i < expected.size; i++) {
+			Point2D_I16 a = expected.get(i);
+			Point2D_I16 b = found.get(i);
+			assertEquals(a.x,b.x);
+			assertEquals(a.y,b.y);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.intensity.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplIntegralImageFeatureIntensity_MT {
+
+	Random rand = new Random(234);
+	int width = 160;
+	int height = 170;
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	public void hessianInner_F32() {
+		GrayF32 original = new GrayF32(width,height);
+		GrayF32 integral = new GrayF32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GrayF32 expected = new GrayF32(width,height);
+
+		GImageMiscOps.fillUniform(original, rand, 0, 50);
+		IntegralImageOps.transform(original,integral);
+
+		for( int skip = 1; skip <= 4; skip++ ) {
+			for( int size = 9; size <= 27; size += 6 ) {
+				found.reshape(width/skip,height/skip);
+				expected.reshape(width/skip,height/skip);
+				ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,expected);
+				ImplIntegralImageFeatureIntensity_MT.hessianInner(integral,skip,size,found);
+
+				BoofTesting.assertEquals(expected,found, 0);
+			}
+		}
+	}
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	public void hessianInner_S32() {
+		GrayS32 original = new GrayS32(width,height);
+		GrayS32 integral = new GrayS32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GrayF32 expected = new GrayF32(width,height);
+
+		GImageMiscOps.fillUniform(original, rand, 0, 50);
+		IntegralImageOps.transform(original,integral);
+
+		for( int skip = 1; skip <= 4; skip++ ) {
+			for( int size = 9; size <= 27; size += 6 ) {
+				found.reshape(width/skip,height/skip);
+				expected.reshape(width/skip,height/skip);
+				ImplIntegralImageFeatureIntensity.hessianInner(integral,skip,size,expected);
+				ImplIntegralImageFeatureIntensity_MT.hessianInner(integral,skip,size,found);
+
+				BoofTesting.assertEquals(expected,found, 0);
+			}
+		}
+	}
+}
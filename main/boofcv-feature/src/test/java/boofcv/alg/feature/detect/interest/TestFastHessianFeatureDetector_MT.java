@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFastHessianFeatureDetector_MT extends GenericFeatureDetectorTests {
+
+	Random rand = new Random(234);
+
+	public TestFastHessianFeatureDetector_MT() {
+		this.scaleTolerance = 0.3;
+	}
+
+	@Override
+	protected Object createDetector( int maxFeatures ) {
+		return new FastHessianFeatureDetector_MT<GrayF32>(this::createExtractor,maxFeatures, 1, 9,4,4, 6);
+	}
+
+	@SuppressWarnings({"unchecked"})
+	@Override
+	protected int detectFeature(GrayF32 input, Object detector) {
+		FastHessianFeatureDetector<GrayF32> alg = (FastHessianFeatureDetector<GrayF32>)detector;
+		GrayF32 integral = IntegralImageOps.transform(input,null);
+		alg.detect(integral);
+
+		return alg.getFoundPoints().size();
+	}
+
+	/**
+	 * Output should be identical to the single threaded version, including the order of the features
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 input = new GrayF32(320,240);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+		GrayF32 integral = IntegralImageOps.transform(input,null);
+
+		FastHessianFeatureDetector<GrayF32> expected =
+				new FastHessianFeatureDetector<>(createExtractor(),100, 1, 9,4,4, 6);
+		FastHessianFeatureDetector_MT<GrayF32> found =
+				new FastHessianFeatureDetector_MT<>(this::createExtractor,100, 1, 9,4,4, 6);
+
+		// process twice to make sure it's correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			expected.detect(integral);
+			found.detect(integral);
+
+			List<ScalePoint> listE = expected.getFoundPoints();
+			List<ScalePoint> listF = found.getFoundPoints();
+
+			assertTrue(listE.size() > 10);
+			assertEquals(listE.size(),listF.size());
+			for (int i = 0; i < listE.size(); i++) {
+				ScalePoint a = listE.get(i);
+				ScalePoint b = listF.get(i);
+				assertEquals(0,a.distance(b),1e-8);
+				assertEquals(a.scale,b.scale,1e-8);
+				assertEquals(a.white,b.white);
+			}
+		}
+	}
+
+	/**
+	 * The intensity images used by the single threaded version should never be declared
+	 */
+	@Test
+	public void singleThreadIntensityNotDeclared() {
+		GrayF32 input = new GrayF32(320,240);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+		GrayF32 integral = IntegralImageOps.transform(input,null);
+
+		FastHessianFeatureDetector_MT<GrayF32> alg =
+				new FastHessianFeatureDetector_MT<>(this::createExtractor,100, 1, 9,4,4, 6);
+		alg.detect(integral);
+
+		assertNull(alg.intensity);
+		for (int i = 0; i < alg.workers.size; i++) {
+			assertNull(alg.workers.get(i).intensity);
+		}
+	}
+
+	private NonMaxSuppression createExtractor() {
+		return FactoryFeatureExtractor.nonmax(new ConfigExtract(1, 1, 5, true));
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSiftScaleSpace_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Every scale and DoG image in every octave should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 input = new GrayF32(120,140);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+
+		SiftScaleSpace expected = new SiftScaleSpace(-1,3,3,1.6);
+		SiftScaleSpace found = new SiftScaleSpace_MT(-1,3,3,1.6);
+
+		expected.initialize(input);
+		found.initialize(input);
+
+		boolean more;
+		do {
+			assertEquals(expected.getCurrentOctave(),found.getCurrentOctave());
+			for (int i = 0; i < expected.getNumScaleImages(); i++) {
+				BoofTesting.assertEquals(expected.getImageScale(i),found.getImageScale(i),0);
+			}
+			for (int i = 0; i < expected.getNumScaleImages()-1; i++) {
+				BoofTesting.assertEquals(expected.getDifferenceOfGaussian(i),found.getDifferenceOfGaussian(i),0);
+			}
+			more = expected.computeNextOctave();
+			assertEquals(more,found.computeNextOctave());
+		} while( more );
+	}
+}
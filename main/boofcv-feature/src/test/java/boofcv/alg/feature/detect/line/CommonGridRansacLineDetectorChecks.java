@@ -21,7 +21,10 @@ package boofcv.alg.feature.detect.line;
 import boofcv.alg.feature.detect.line.gridline.Edgel;
 import boofcv.alg.feature.detect.line.gridline.GridLineModelDistance;
 import boofcv.alg.feature.detect.line.gridline.GridLineModelFitter;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.core.image.GeneralizedImageOps;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.feature.MatrixOfList;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -33,6 +36,7 @@ import org.ddogleg.fitting.modelset.ransac.Ransac;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -59,7 +63,15 @@ public abstract class CommonGridRansacLineDetectorChecks< D extends ImageGray<D>
 	}
 
 	public abstract GridRansacLineDetector<D> createDetector( int regionSize, int maxDetectLines ,
-															  ModelMatcher<LinePolar2D_F32, Edgel> robustMatcher );
+															  BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher );
+
+	public static ModelMatcher<LinePolar2D_F32, Edgel> createMatcher() {
+		ModelManagerLinePolar2D_F32 manager = new ModelManagerLinePolar2D_F32();
+		GridLineModelDistance distance = new GridLineModelDistance(0.9f);
+		GridLineModelFitter fitter = new GridLineModelFitter(0.9f);
+
+		return new Ransac<>(123123, manager, fitter, distance, 25, 1);
+	}
 
 	/**
 	 * Give it a single straight line and see if it can detect it.  Allow the region size to be changed to check
@@ -78,13 +90,7 @@ public abstract class CommonGridRansacLineDetectorChecks< D extends ImageGray<D>
 			GeneralizedImageOps.set(derivX,where,i,20);
 		}
 
-		ModelManagerLinePolar2D_F32 manager = new ModelManagerLinePolar2D_F32();
-		GridLineModelDistance distance = new GridLineModelDistance(0.9f);
-		GridLineModelFitter fitter = new GridLineModelFitter(0.9f);
-
-		ModelMatcher<LinePolar2D_F32, Edgel> matcher =
-				new Ransac<>(123123, manager, fitter, distance, 25, 1);
-		GridRansacLineDetector<D> alg = createDetector(regionSize,5,matcher);
+		GridRansacLineDetector<D> alg = createDetector(regionSize,5,CommonGridRansacLineDetectorChecks::createMatcher);
 
 		alg.process(derivX,derivY,edgeImage);
 
@@ -104,4 +110,42 @@ public abstract class CommonGridRansacLineDetectorChecks< D extends ImageGray<D>
 		}
 	}
 
+	/**
+	 * Processes an image with random edges and derivatives using both detectors and sees if the found lines
+	 * are identical
+	 */
+	public void checkIdentical( GridRansacLineDetector<D> detectorA , GridRansacLineDetector<D> detectorB ,
+								int width , int height ) {
+		Random rand = new Random(234);
+		GrayU8 edgeImage = new GrayU8(width,height);
+		D derivX = GeneralizedImageOps.createSingleBand(derivType,width,height);
+		D derivY = GeneralizedImageOps.createSingleBand(derivType,width,height);
+
+		ImageMiscOps.fillUniform(edgeImage,rand,0,2);
+		GImageMiscOps.fillUniform(derivX,rand,-20,20);
+		GImageMiscOps.fillUniform(derivY,rand,-20,20);
+
+		detectorA.process(derivX,derivY,edgeImage);
+		detectorB.process(derivX,derivY,edgeImage);
+
+		MatrixOfList<LineSegment2D_F32> linesA = detectorA.getFoundLines();
+		MatrixOfList<LineSegment2D_F32> linesB = detectorB.getFoundLines();
+
+		assertEquals(linesA.width,linesB.width);
+		assertEquals(linesA.height,linesB.height);
+
+		int total = 0;
+		for( int i = 0; i < linesA.grid.length; i++ ) {
+			List<LineSegment2D_F32> a = linesA.grid[i];
+			List<LineSegment2D_F32> b = linesB.grid[i];
+
+			assertEquals(a.size(),b.size());
+			for( int j = 0; j < a.size(); j++ ) {
+				assertEquals(0,a.get(j).a.distance(b.get(j).a));
+				assertEquals(0,a.get(j).b.distance(b.get(j).b));
+			}
+			total += a.size();
+		}
+		assertTrue(total > 0);
+	}
 }
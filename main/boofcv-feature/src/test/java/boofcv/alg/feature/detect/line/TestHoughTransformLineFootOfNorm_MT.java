@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.*;
+import georegression.struct.line.LineParametric2D_F32;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLineFootOfNorm_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the transform, candidates, and found lines against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(GrayF32.class);
+		compareToSingleThread(GrayS16.class);
+		compareToSingleThread(GrayS32.class);
+	}
+
+	private <D extends ImageGray<D>> void compareToSingleThread( Class<D> derivType ) {
+		int width = 80, height = 90;
+		GrayU8 binary = new GrayU8(width,height);
+		D derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		D derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		GImageMiscOps.fillUniform(derivX,rand,-20,20);
+		GImageMiscOps.fillUniform(derivY,rand,-20,20);
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(new ConfigExtract(2, 2, 0, false));
+		HoughTransformLineFootOfNorm expected = new HoughTransformLineFootOfNorm(extractor,2);
+		HoughTransformLineFootOfNorm found = new HoughTransformLineFootOfNorm_MT(extractor,2);
+
+		expected.transform(derivX,derivY,binary);
+		found.transform(derivX,derivY,binary);
+
+		float[] dataExpected = expected.getTransform().data;
+		float[] dataFound = found.getTransform().data;
+		assertEquals(dataExpected.length,dataFound.length);
+		for( int i = 0; i < dataExpected.length; i++ ) {
+			assertEquals(dataExpected[i],dataFound[i]);
+		}
+
+		// order of candidates should be the same too
+		assertTrue(expected.candidates.size > 0);
+		assertEquals(expected.candidates.size,found.candidates.size);
+		for( int i = 0; i < expected.candidates.size; i++ ) {
+			Point2D_I16 a = expected.candidates.get(i);
+			Point2D_I16 b = found.candidates.get(i);
+			assertEquals(a.x,b.x);
+			assertEquals(a.y,b.y);
+		}
+
+		FastQueue<LineParametric2D_F32> linesExpected = expected.extractLines();
+		FastQueue<LineParametric2D_F32> linesFound = found.extractLines();
+
+		assertTrue(linesExpected.size > 0);
+		assertEquals(linesExpected.size,linesFound.size);
+		for( int i = 0; i < linesExpected.size; i++ ) {
+			LineParametric2D_F32 a = linesExpected.get(i);
+			LineParametric2D_F32 b = linesFound.get(i);
+			assertEquals(a.p.x,b.p.x);
+			assertEquals(a.p.y,b.p.y);
+			assertEquals(a.slope.x,b.slope.x);
+			assertEquals(a.slope.y,b.slope.y);
+		}
+	}
+}
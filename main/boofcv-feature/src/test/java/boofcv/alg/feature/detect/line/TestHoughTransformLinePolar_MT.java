@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.line.LineParametric2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLinePolar_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare the transform and found lines against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 binary = new GrayU8(80,60);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		for( int i = 0; i < binary.height; i++ ) {
+			binary.set(20,i,1);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(4,5,0, true));
+		HoughTransformLinePolar expected = new HoughTransformLinePolar(extractor,50,180);
+		HoughTransformLinePolar found = new HoughTransformLinePolar_MT(extractor,50,180);
+
+		expected.transform(binary);
+		found.transform(binary);
+
+		float[] dataExpected = expected.getTransform().data;
+		float[] dataFound = found.getTransform().data;
+		assertEquals(dataExpected.length,dataFound.length);
+		for( int i = 0; i < dataExpected.length; i++ ) {
+			assertEquals(dataExpected[i],dataFound[i]);
+		}
+
+		FastQueue<LineParametric2D_F32> linesExpected = expected.extractLines();
+		FastQueue<LineParametric2D_F32> linesFound = found.extractLines();
+
+		assertTrue(linesExpected.size > 0);
+		assertEquals(linesExpected.size,linesFound.size);
+		for( int i = 0; i < linesExpected.size; i++ ) {
+			LineParametric2D_F32 a = linesExpected.get(i);
+			LineParametric2D_F32 b = linesFound.get(i);
+			assertEquals(a.p.x,b.p.x);
+			assertEquals(a.p.y,b.p.y);
+			assertEquals(a.slope.x,b.slope.x);
+			assertEquals(a.slope.y,b.slope.y);
+			assertEquals(expected.getFoundIntensity()[i],found.getFoundIntensity()[i]);
+		}
+	}
+}
@@ -20,6 +20,7 @@ package boofcv.alg.feature.detect.line.gridline;
 
 import boofcv.alg.feature.detect.line.CommonGridRansacLineDetectorChecks;
 import boofcv.alg.feature.detect.line.GridRansacLineDetector;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.GrayF32;
 import georegression.struct.line.LinePolar2D_F32;
 import org.ddogleg.fitting.modelset.ModelMatcher;
@@ -35,7 +36,7 @@ public class TestImplGridRansacLineDetector_F32 extends CommonGridRansacLineDete
 
 	@Override
 	public GridRansacLineDetector<GrayF32> createDetector(int regionSize, int maxDetectLines,
-														  ModelMatcher<LinePolar2D_F32, Edgel> robustMatcher) {
-		return new ImplGridRansacLineDetector_F32(regionSize,maxDetectLines,robustMatcher);
+														  BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher) {
+		return new ImplGridRansacLineDetector_F32(regionSize,maxDetectLines,factoryMatcher.newInstance());
 	}
 }
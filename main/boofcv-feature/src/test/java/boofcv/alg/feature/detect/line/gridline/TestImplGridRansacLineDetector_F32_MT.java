@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.line.gridline;
+
+import boofcv.alg.feature.detect.line.CommonGridRansacLineDetectorChecks;
+import boofcv.alg.feature.detect.line.GridRansacLineDetector;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.line.LinePolar2D_F32;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGridRansacLineDetector_F32_MT extends CommonGridRansacLineDetectorChecks<GrayF32> {
+
+	public TestImplGridRansacLineDetector_F32_MT() {
+		super(GrayF32.class);
+	}
+
+	@Override
+	public GridRansacLineDetector<GrayF32> createDetector(int regionSize, int maxDetectLines,
+														  BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher) {
+		return new ImplGridRansacLineDetector_F32_MT(regionSize,maxDetectLines,factoryMatcher);
+	}
+
+	/**
+	 * With a single row in the grid it should produce the same results as the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GridRansacLineDetector<GrayF32> expected =
+				new ImplGridRansacLineDetector_F32(15,5,CommonGridRansacLineDetectorChecks.createMatcher());
+		GridRansacLineDetector<GrayF32> found =
+				createDetector(15,5,CommonGridRansacLineDetectorChecks::createMatcher);
+
+		checkIdentical(expected,found,100,15);
+	}
+
+	/**
+	 * Each row has its own matcher so the results should be the same every time it's run with a new detector
+	 */
+	@Test
+	public void repeatable() {
+		GridRansacLineDetector<GrayF32> detectorA =
+				createDetector(15,5,CommonGridRansacLineDetectorChecks::createMatcher);
+		GridRansacLineDetector<GrayF32> detectorB =
+				createDetector(15,5,CommonGridRansacLineDetectorChecks::createMatcher);
+
+		checkIdentical(detectorA,detectorB,100,120);
+	}
+}
@@ -20,6 +20,7 @@ package boofcv.alg.feature.detect.line.gridline;
 
 import boofcv.alg.feature.detect.line.CommonGridRansacLineDetectorChecks;
 import boofcv.alg.feature.detect.line.GridRansacLineDetector;
+import boofcv.misc.BoofLambdas;
 import boofcv.struct.image.GrayS16;
 import georegression.struct.line.LinePolar2D_F32;
 import org.ddogleg.fitting.modelset.ModelMatcher;
@@ -35,7 +36,7 @@ public class TestImplGridRansacLineDetector_S16 extends CommonGridRansacLineDete
 
 	@Override
 	public GridRansacLineDetector<GrayS16> createDetector(int regionSize, int maxDetectLines,
-														  ModelMatcher<LinePolar2D_F32, Edgel> robustMatcher) {
-		return new ImplGridRansacLineDetector_S16(regionSize,maxDetectLines,robustMatcher);
+														  BoofLambdas.Factory<ModelMatcher<LinePolar2D_F32, Edgel>> factoryMatcher) {
+		return new ImplGridRansacLineDetector_S16(regionSize,maxDetectLines,factoryMatcher.newInstance());
 	}
 }
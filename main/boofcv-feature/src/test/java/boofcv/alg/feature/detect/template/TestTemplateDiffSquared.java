@@ -18,10 +18,16 @@
 
 package boofcv.alg.feature.detect.template;
 
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 /**
  * @author Peter Abeles
  */
@@ -42,4 +48,82 @@ public class TestTemplateDiffSquared {
 		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
 		}.allTests();
 	}
+
+	@Test
+	public void instanceF32_MT() {
+		TemplateDiffSquared.F32 alg = new TemplateDiffSquared.F32_MT();
+
+		new GeneralTemplateMatchTests<GrayF32>(alg, GrayF32.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceU8_MT() {
+		TemplateDiffSquared.U8 alg = new TemplateDiffSquared.U8_MT();
+
+		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
+		}.allTests();
+	}
+
+	/**
+	 * The unmasked version is computed using an integral image. A mask which gives every pixel the same weight
+	 * is computed directly and should produce the same results
+	 */
+	@Test
+	public void compareToUniformMask() {
+		compareToUniformMask(new TemplateDiffSquared.F32(), GrayF32.class, 1);
+		compareToUniformMask(new TemplateDiffSquared.U8(), GrayU8.class, 255);
+	}
+
+	private <T extends ImageGray<T>>
+	void compareToUniformMask( TemplateDiffSquared<T> alg , Class<T> type , double maskValue ) {
+		Random rand = new Random(234);
+		T image = GeneralizedImageOps.createSingleBand(type,60,80);
+		T template = GeneralizedImageOps.createSingleBand(type,9,7);
+		T mask = GeneralizedImageOps.createSingleBand(type,9,7);
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GImageMiscOps.fillUniform(template,rand,0,200);
+		GImageMiscOps.fill(mask,maskValue);
+
+		// sub-image to make sure the integral image is computed with the correct stride
+		image = BoofTesting.createSubImageOf(image);
+
+		alg.setInputImage(image);
+		alg.process(template,mask);
+		GrayF32 expected = alg.getIntensity().clone();
+		alg.process(template);
+
+		// the masked version sums floats so its round off error grows with the magnitude of the error
+		BoofTesting.assertEquals(expected,alg.getIntensity(),1.0);
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(new TemplateDiffSquared.F32(), new TemplateDiffSquared.F32_MT(), GrayF32.class);
+		compareToSingleThread(new TemplateDiffSquared.U8(), new TemplateDiffSquared.U8_MT(), GrayU8.class);
+	}
+
+	private <T extends ImageGray<T>>
+	void compareToSingleThread( TemplateDiffSquared<T> expected , TemplateDiffSquared<T> found , Class<T> type ) {
+		Random rand = new Random(234);
+		T image = GeneralizedImageOps.createSingleBand(type,60,80);
+		T template = GeneralizedImageOps.createSingleBand(type,9,7);
+		T mask = GeneralizedImageOps.createSingleBand(type,9,7);
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GImageMiscOps.fillUniform(template,rand,0,200);
+		GImageMiscOps.fillUniform(mask,rand,0,2);
+
+		expected.setInputImage(image);
+		found.setInputImage(image);
+
+		expected.process(template);
+		found.process(template);
+		BoofTesting.assertEquals(expected.getIntensity(),found.getIntensity(),0);
+
+		expected.process(template,mask);
+		found.process(template,mask);
+		BoofTesting.assertEquals(expected.getIntensity(),found.getIntensity(),0);
+	}
 }
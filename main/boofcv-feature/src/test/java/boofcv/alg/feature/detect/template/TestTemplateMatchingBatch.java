@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.template;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.feature.Match;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTemplateMatchingBatch {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 50;
+
+	/**
+	 * Results should be the same as processing each template individually
+	 */
+	@Test
+	public void compareToIndividual() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+
+		GrayF32[] templates = new GrayF32[3];
+		for (int i = 0; i < templates.length; i++) {
+			templates[i] = new GrayF32(5+i,7-i);
+			ImageMiscOps.fillUniform(templates[i],rand,0,200);
+			image.subimage(10*i+5,12,10*i+5+templates[i].width,12+templates[i].height).setTo(templates[i]);
+		}
+		GrayF32 mask = new GrayF32(templates[1].width,templates[1].height);
+		ImageMiscOps.fillUniform(mask,rand,0,1);
+
+		TemplateMatchingBatch<GrayF32> alg = new TemplateMatchingBatch<>(new TemplateMatching<>(new TemplateNCC.F32()));
+		alg.addTemplate(templates[0],null,5);
+		alg.addTemplate(templates[1],mask,3);
+		alg.addTemplate(templates[2],null,7);
+		alg.setImage(image);
+		alg.process();
+
+		assertEquals(3,alg.getTotalTemplates());
+
+		TemplateMatching<GrayF32> single = new TemplateMatching<>(new TemplateNCC.F32());
+		for (int i = 0; i < templates.length; i++) {
+			single.setImage(image);
+			single.setTemplate(templates[i], i == 1 ? mask : null, new int[]{5,3,7}[i]);
+			single.process();
+
+			FastQueue<Match> expected = single.getResults();
+			FastQueue<Match> found = alg.getResults(i);
+
+			assertTrue(expected.size > 0);
+			assertEquals(expected.size,found.size);
+			for (int j = 0; j < expected.size; j++) {
+				assertEquals(expected.get(j).x,found.get(j).x);
+				assertEquals(expected.get(j).y,found.get(j).y);
+				assertEquals(expected.get(j).score,found.get(j).score);
+			}
+		}
+	}
+
+	/**
+	 * The image should only be passed to the intensity algorithm once no matter how many templates there are
+	 */
+	@Test
+	public void imageProcessedOnce() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+
+		CountingNCC intensity = new CountingNCC();
+		TemplateMatchingBatch<GrayF32> alg = new TemplateMatchingBatch<>(new TemplateMatching<>(intensity));
+		for (int i = 0; i < 4; i++) {
+			GrayF32 template = new GrayF32(5,5);
+			ImageMiscOps.fillUniform(template,rand,0,200);
+			alg.addTemplate(template,null,2);
+		}
+		alg.setImage(image);
+		alg.process();
+
+		assertEquals(1,intensity.count);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(2,alg.getResults(i).size);
+		}
+
+		alg.clearTemplates();
+		assertEquals(0,alg.getTotalTemplates());
+	}
+
+	private static class CountingNCC extends TemplateNCC.F32 {
+		int count = 0;
+
+		@Override
+		public void setInputImage(GrayF32 image) {
+			super.setInputImage(image);
+			count++;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.detect.template;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.Match;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTemplateMatchingBatch_MT {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 50;
+
+	/**
+	 * Results should be identical to the single threaded version for any number of threads
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+
+		GrayF32[] templates = new GrayF32[11];
+		for (int i = 0; i < templates.length; i++) {
+			templates[i] = new GrayF32(4+i%3,6-i%4);
+			ImageMiscOps.fillUniform(templates[i],rand,0,200);
+		}
+		GrayF32 mask = new GrayF32(templates[1].width,templates[1].height);
+		ImageMiscOps.fillUniform(mask,rand,0,1);
+
+		TemplateMatchingBatch<GrayF32> expected =
+				new TemplateMatchingBatch<>(new TemplateMatching<>(new TemplateDiffSquared.F32()));
+		add(expected,templates,mask);
+		expected.setImage(image);
+		expected.process();
+
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			for (int threads : new int[]{1, 2, 4}) {
+				BoofConcurrency.setMaxThreads(threads);
+
+				TemplateMatchingBatch_MT<GrayF32> found =
+						new TemplateMatchingBatch_MT<>(()->new TemplateMatching<>(new TemplateDiffSquared.F32()));
+				add(found,templates,mask);
+				found.setImage(image);
+				found.process();
+
+				assertEquals(templates.length,found.getTotalTemplates());
+				for (int i = 0; i < templates.length; i++) {
+					FastQueue<Match> a = expected.getResults(i);
+					FastQueue<Match> b = found.getResults(i);
+
+					assertTrue(a.size > 0);
+					assertEquals(a.size,b.size);
+					for (int j = 0; j < a.size; j++) {
+						assertEquals(a.get(j).x,b.get(j).x);
+						assertEquals(a.get(j).y,b.get(j).y);
+						assertEquals(a.get(j).score,b.get(j).score);
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+		}
+	}
+
+	private void add( TemplateMatchingBatch<GrayF32> alg , GrayF32[] templates , GrayF32 mask ) {
+		alg.setMinimumSeparation(3);
+		for (int i = 0; i < templates.length; i++) {
+			alg.addTemplate(templates[i], i == 1 ? mask : null, 2+i%3);
+		}
+	}
+}
@@ -18,10 +18,20 @@
 
 package boofcv.alg.feature.detect.template;
 
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author Peter Abeles
  */
@@ -42,4 +52,235 @@ public class TestTemplateNCC {
 		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
 		}.allTests();
 	}
+
+	@Test
+	public void instanceF32_MT() {
+		TemplateNCC.F32 alg = new TemplateNCC.F32_MT();
+
+		new GeneralTemplateMatchTests<GrayF32>(alg, GrayF32.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceU8_MT() {
+		TemplateNCC.U8 alg = new TemplateNCC.U8_MT();
+
+		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceF32_fourier() {
+		TemplateNCC.F32 alg = new TemplateNCC.F32();
+		alg.setFourierMinimumArea(1);
+
+		new GeneralTemplateMatchTests<GrayF32>(alg, GrayF32.class) {
+		}.allTests();
+	}
+
+	@Test
+	public void instanceU8_fourier() {
+		TemplateNCC.U8 alg = new TemplateNCC.U8();
+		alg.setFourierMinimumArea(1);
+
+		new GeneralTemplateMatchTests<GrayU8>(alg, GrayU8.class) {
+		}.allTests();
+	}
+
+	/**
+	 * Computing the correlation with the Fourier transform should produce the same results
+	 */
+	@Test
+	public void compareFourierToSpatial() {
+		compareFourierToSpatial(new TemplateNCC.F32(), new TemplateNCC.F32(), GrayF32.class);
+		compareFourierToSpatial(new TemplateNCC.U8(), new TemplateNCC.U8(), GrayU8.class);
+	}
+
+	private <T extends ImageGray<T>>
+	void compareFourierToSpatial( TemplateNCC<T> spatial , TemplateNCC<T> fourier , Class<T> type ) {
+		Random rand = new Random(234);
+		T image = GeneralizedImageOps.createSingleBand(type,60,80);
+		T template = GeneralizedImageOps.createSingleBand(type,21,17);
+		T mask = GeneralizedImageOps.createSingleBand(type,21,17);
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GImageMiscOps.fillUniform(template,rand,0,200);
+		GImageMiscOps.fillUniform(mask,rand,0,2);
+
+		spatial.setFourierMinimumArea(Integer.MAX_VALUE);
+		fourier.setFourierMinimumArea(1);
+
+		spatial.setInputImage(image);
+		fourier.setInputImage(image);
+
+		// process twice to see if the image's transform is correctly reused
+		for (int trial = 0; trial < 2; trial++) {
+			spatial.process(template);
+			fourier.process(template);
+			assertTrue(fourier.fourier);
+			compareIntensity(spatial, fourier, image, template);
+
+			spatial.process(template,mask);
+			fourier.process(template,mask);
+			compareIntensity(spatial, fourier, image, template);
+		}
+	}
+
+	private static void compareIntensity( TemplateMatchingIntensity expected , TemplateMatchingIntensity found ,
+										  ImageGray image , ImageGray template ) {
+		for (int y = 0; y < image.height-template.height; y++) {
+			for (int x = 0; x < image.width-template.width; x++) {
+				float a = expected.getIntensity().get(x+expected.getBorderX0(),y+expected.getBorderY0());
+				float b = found.getIntensity().get(x+found.getBorderX0(),y+found.getBorderY0());
+				assertEquals(a,b,Math.abs(a)*1e-3+1e-2);
+			}
+		}
+	}
+
+	/**
+	 * Pruning should only change the score of locations which are pruned and the best match should still be found
+	 */
+	@Test
+	public void pruning() {
+		pruning(new TemplateNCC.F32(), new TemplateNCC.F32(), GrayF32.class);
+		pruning(new TemplateNCC.U8(), new TemplateNCC.U8(), GrayU8.class);
+	}
+
+	private <T extends ImageGray<T>>
+	void pruning( TemplateNCC<T> expected , TemplateNCC<T> found , Class<T> type ) {
+		Random rand = new Random(234);
+		T image = GeneralizedImageOps.createSingleBand(type,60,80);
+		T template = GeneralizedImageOps.createSingleBand(type,12,10);
+
+		// the coarse search needs smooth images, otherwise down sampling destroys the structure
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		image = GBlurImageOps.gaussian(image,null,-1,2,null);
+		template.setTo(image.subimage(31,42,31+template.width,42+template.height));
+
+		found.setPruning(true,0.5f);
+		expected.setInputImage(image);
+		found.setInputImage(image);
+
+		expected.process(template);
+		found.process(template);
+
+		GrayF32 intensityE = expected.getIntensity();
+		GrayF32 intensityF = found.getIntensity();
+
+		int totalPruned = 0;
+		float bestScore = -Float.MAX_VALUE;
+		int bestX = -1, bestY = -1;
+		for (int y = 0; y < image.height-template.height; y++) {
+			for (int x = 0; x < image.width-template.width; x++) {
+				float a = intensityE.get(x+expected.getBorderX0(),y+expected.getBorderY0());
+				float b = intensityF.get(x+found.getBorderX0(),y+found.getBorderY0());
+				if( b == -Float.MAX_VALUE ) {
+					totalPruned++;
+				} else {
+					assertEquals(a,b);
+				}
+				if( b > bestScore ) {
+					bestScore = b;
+					bestX = x; bestY = y;
+				}
+			}
+		}
+
+		// most of the image should have been pruned
+		int N = (image.width-template.width)*(image.height-template.height);
+		assertTrue(totalPruned > N/2);
+		assertEquals(31,bestX);
+		assertEquals(42,bestY);
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(new TemplateNCC.F32(), new TemplateNCC.F32_MT(), GrayF32.class);
+		compareToSingleThread(new TemplateNCC.U8(), new TemplateNCC.U8_MT(), GrayU8.class);
+	}
+
+	private <T extends ImageGray<T>>
+	void compareToSingleThread( TemplateNCC<T> expected , TemplateNCC<T> found , Class<T> type ) {
+		Random rand = new Random(234);
+		T image = GeneralizedImageOps.createSingleBand(type,60,80);
+		T template = GeneralizedImageOps.createSingleBand(type,9,7);
+		T mask = GeneralizedImageOps.createSingleBand(type,9,7);
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GImageMiscOps.fillUniform(template,rand,0,200);
+		GImageMiscOps.fillUniform(mask,rand,0,2);
+
+		expected.setInputImage(image);
+		found.setInputImage(image);
+
+		expected.process(template);
+		found.process(template);
+		BoofTesting.assertEquals(expected.getIntensity(),found.getIntensity(),0);
+
+		expected.process(template,mask);
+		found.process(template,mask);
+		BoofTesting.assertEquals(expected.getIntensity(),found.getIntensity(),0);
+	}
+
+	/**
+	 * Compares the score against a straight forward implementation of the equations
+	 */
+	@Test
+	public void compareToBruteForce() {
+		Random rand = new Random(234);
+		GrayF32 image = new GrayF32(40,30);
+		GrayF32 template = new GrayF32(7,5);
+		GrayF32 mask = new GrayF32(7,5);
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		GImageMiscOps.fillUniform(template,rand,0,200);
+		GImageMiscOps.fillUniform(mask,rand,0,1);
+
+		TemplateNCC.F32 alg = new TemplateNCC.F32();
+		alg.setInputImage(image);
+
+		alg.process(template);
+		for (int y = 0; y < image.height-template.height; y++) {
+			for (int x = 0; x < image.width-template.width; x++) {
+				double expected = bruteForce(image,template,null,x,y);
+				double found = alg.getIntensity().get(x+alg.getBorderX0(),y+alg.getBorderY0());
+				assertEquals(expected,found,1e-3);
+			}
+		}
+
+		alg.process(template,mask);
+		for (int y = 0; y < image.height-template.height; y++) {
+			for (int x = 0; x < image.width-template.width; x++) {
+				double expected = bruteForce(image,template,mask,x,y);
+				double found = alg.getIntensity().get(x+alg.getBorderX0(),y+alg.getBorderY0());
+				assertEquals(expected,found,1e-3);
+			}
+		}
+	}
+
+	private static double bruteForce( GrayF32 image , GrayF32 template , GrayF32 mask , int tl_x , int tl_y ) {
+		double area = template.width*template.height;
+		double imageMean = 0, templateMean = 0;
+		for (int y = 0; y < template.height; y++) {
+			for (int x = 0; x < template.width; x++) {
+				imageMean += image.get(tl_x+x,tl_y+y);
+				templateMean += template.get(x,y);
+			}
+		}
+		imageMean /= area;
+		templateMean /= area;
+
+		double top = 0, imageSigma = 0, templateSigma = 0;
+		for (int y = 0; y < template.height; y++) {
+			for (int x = 0; x < template.width; x++) {
+				double m = mask == null ? 1 : mask.get(x,y);
+				double dI = image.get(tl_x+x,tl_y+y) - imageMean;
+				double dT = template.get(x,y) - templateMean;
+				top += m*dI*dT;
+				imageSigma += dI*dI;
+				templateSigma += dT*dT;
+			}
+		}
+		return top/(Math.sqrt(imageSigma/area)*Math.sqrt(templateSigma/area));
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDisparityScoreRowFormat_MT {
+
+	Random rand = new Random(234);
+
+	int width = 120;
+	int height = 150;
+
+	int minDisparity = 2;
+	int maxDisparity = 25;
+
+	/**
+	 * The disparity image should be identical to the one computed by the single threaded algorithm
+	 */
+	@Test
+	public void compareToSingleThread() {
+		for( int radiusY = 1; radiusY <= 3; radiusY++ ) {
+			final int ry = radiusY;
+			compare(GrayU8.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(
+					minDisparity,maxDisparity,2,ry,selectS32()));
+			compare(GrayS16.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(
+					minDisparity,maxDisparity,2,ry,selectS32()));
+			compare(GrayF32.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(
+					minDisparity,maxDisparity,2,ry,selectF32()));
+			compare(GrayU8.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(
+					minDisparity,maxDisparity,2,ry,selectS32()));
+			compare(GrayS16.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(
+					minDisparity,maxDisparity,2,ry,selectS32()));
+			compare(GrayF32.class,() -> FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(
+					minDisparity,maxDisparity,2,ry,selectF32()));
+		}
+	}
+
+	private DisparitySelect<int[],GrayU8> selectS32() {
+		return FactoryStereoDisparityAlgs.selectDisparity_S32(2000,2,0.1);
+	}
+
+	private DisparitySelect<float[],GrayU8> selectF32() {
+		return FactoryStereoDisparityAlgs.selectDisparity_F32(2000,2,0.1);
+	}
+
+	private <T extends ImageGray<T>>
+	void compare( Class<T> imageType , BoofLambdas.Factory<DisparityScoreRowFormat<T,GrayU8>> factory ) {
+		T left = GeneralizedImageOps.createSingleBand(imageType,width,height);
+		T right = GeneralizedImageOps.createSingleBand(imageType,width,height);
+
+		// shift the right image so that there is a valid solution
+		GImageMiscOps.fillUniform(left,rand,0,100);
+		GImageMiscOps.copy(10,0,0,0,width-10,height,left,right);
+		GImageMiscOps.addUniform(right,rand,0,5);
+
+		GrayU8 expected = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+		GImageMiscOps.fill(expected,maxDisparity+1);
+		GImageMiscOps.fill(found,maxDisparity+1);
+
+		DisparityScoreRowFormat<T,GrayU8> algExpected = factory.newInstance();
+		DisparityScoreRowFormat<T,GrayU8> algFound = new DisparityScoreRowFormat_MT<>(factory);
+
+		algExpected.process(left,right,expected);
+		algFound.process(BoofTesting.createSubImageOf(left),BoofTesting.createSubImageOf(right),found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
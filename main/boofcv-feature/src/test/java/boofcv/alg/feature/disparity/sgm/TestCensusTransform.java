@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.GImageGray;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCensusTransform {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a naive implementation which samples every pixel with clamped coordinates
+	 */
+	@Test
+	public void compareToNaive() {
+		Class[] types = new Class[]{GrayU8.class, GrayF32.class};
+		for( Class type : types ) {
+			for( CensusType census : CensusType.values() ) {
+				compareToNaive(type,census,30,25);
+				// image smaller than the sample region
+				compareToNaive(type,census,3,2);
+			}
+		}
+	}
+
+	private <T extends ImageGray<T>> void compareToNaive( Class<T> type , CensusType census , int width , int height ) {
+		T input = GeneralizedImageOps.createSingleBand(type,width,height);
+		GImageMiscOps.fillUniform(input,rand,0,10);
+
+		GrayS32 found = new GrayS32(1,1);
+		CensusTransform.transform(census,BoofTesting.createSubImageOf(input),found);
+
+		assertEquals(width,found.width);
+		assertEquals(height,found.height);
+
+		GImageGray g = FactoryGImageGray.wrap(input);
+		int r = census.getRadius();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double center = g.get(x,y).doubleValue();
+				int expected = 0, bit = 0;
+				for (int i = -r; i <= r; i++) {
+					for (int j = -r; j <= r; j++) {
+						if( i == 0 && j == 0 )
+							continue;
+						int xx = Math.min(width-1,Math.max(0,x+j));
+						int yy = Math.min(height-1,Math.max(0,y+i));
+						if( g.get(xx,yy).doubleValue() > center )
+							expected |= 1 << bit;
+						bit++;
+					}
+				}
+				assertEquals(expected,found.get(x,y),x+" "+y);
+			}
+		}
+	}
+
+	@Test
+	public void censusType() {
+		assertEquals(8,CensusType.BLOCK_3_3.getBits());
+		assertEquals(24,CensusType.BLOCK_5_5.getBits());
+	}
+}
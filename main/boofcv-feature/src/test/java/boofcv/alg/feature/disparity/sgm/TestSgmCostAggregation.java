@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostAggregation {
+
+	Random rand = new Random(234);
+
+	int width = 25, height = 20, rangeDisparity = 12;
+
+	int P1 = 150, P2 = 1500;
+
+	@Test
+	public void compareToNaive() {
+		short[] costs = randomCosts(width,height,rangeDisparity);
+
+		for( int paths : new int[]{4,8}) {
+			SgmCostAggregation alg = new SgmCostAggregation();
+			alg.setPenalties(P1,P2);
+			alg.setNumberOfPaths(paths);
+			alg.process(costs,width,height,rangeDisparity);
+
+			int[][] directions = paths == 4 ?
+					new int[][]{{1,0},{-1,0},{0,1},{0,-1}} :
+					new int[][]{{1,0},{-1,0},{0,1},{0,-1},{1,1},{-1,1},{1,-1},{-1,-1}};
+			int[] expected = naive(costs,width,height,rangeDisparity,P1,P2,directions);
+
+			short[] found = alg.getAggregated();
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i],found[i]);
+			}
+		}
+	}
+
+	/**
+	 * The worst case shouldn't overflow
+	 */
+	@Test
+	public void maximumCost() {
+		short[] costs = new short[width*height*rangeDisparity];
+		for (int i = 0; i < costs.length; i++) {
+			costs[i] = (short)(i%2==0 ? SgmCostHamming.MAX_COST : 0);
+		}
+		SgmCostAggregation alg = new SgmCostAggregation();
+		alg.setPenalties(SgmCostAggregation.MAX_PENALTY,SgmCostAggregation.MAX_PENALTY);
+		alg.process(costs,width,height,rangeDisparity);
+		for( short v : alg.getAggregated() )
+			assertTrue(v >= 0);
+	}
+
+	@Test
+	public void setPenalties_invalid() {
+		SgmCostAggregation alg = new SgmCostAggregation();
+		assertThrows(IllegalArgumentException.class,()->alg.setPenalties(10,5));
+		assertThrows(IllegalArgumentException.class,()->alg.setPenalties(10,SgmCostAggregation.MAX_PENALTY+1));
+		assertThrows(IllegalArgumentException.class,()->alg.setNumberOfPaths(5));
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		short[] costs = randomCosts(width,height,rangeDisparity);
+
+		SgmCostAggregation expected = new SgmCostAggregation();
+		SgmCostAggregation found = new SgmCostAggregation_MT();
+		expected.setPenalties(P1,P2);
+		found.setPenalties(P1,P2);
+
+		expected.process(costs,width,height,rangeDisparity);
+		found.process(costs,width,height,rangeDisparity);
+
+		int N = width*height*rangeDisparity;
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected.getAggregated()[i],found.getAggregated()[i]);
+		}
+
+		// process a smaller image with the same instance
+		expected.process(costs,width-5,height-2,rangeDisparity);
+		found.process(costs,width-5,height-2,rangeDisparity);
+		N = (width-5)*(height-2)*rangeDisparity;
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected.getAggregated()[i],found.getAggregated()[i]);
+		}
+	}
+
+	short[] randomCosts( int width , int height , int rangeDisparity ) {
+		short[] costs = new short[width*height*rangeDisparity];
+		for (int i = 0; i < costs.length; i++) {
+			costs[i] = (short)rand.nextInt(SgmCostHamming.MAX_COST+1);
+		}
+		return costs;
+	}
+
+	/**
+	 * Naive implementation which computes the path cost for every pixel by traversing the image in an order
+	 * where the previous pixel along the path has already been computed.
+	 */
+	static int[] naive( short[] costs , int width , int height , int rangeDisparity ,
+						int P1 , int P2 , int[][] directions ) {
+		int[] aggregated = new int[width*height*rangeDisparity];
+		int[][] L = new int[width*height][rangeDisparity];
+
+		for( int[] dir : directions ) {
+			int dx = dir[0], dy = dir[1];
+			for (int i = 0; i < height; i++) {
+				int y = dy >= 0 ? i : height-1-i;
+				for (int j = 0; j < width; j++) {
+					int x = dx >= 0 ? j : width-1-j;
+					int index = (y*width+x)*rangeDisparity;
+					int px = x-dx, py = y-dy;
+					boolean inside = px >= 0 && py >= 0 && px < width && py < height;
+					int[] prev = inside ? L[py*width+px] : null;
+					int minPrev = Integer.MAX_VALUE;
+					if( inside ) {
+						for (int d = 0; d < rangeDisparity; d++)
+							minPrev = Math.min(minPrev,prev[d]);
+					}
+					for (int d = 0; d < rangeDisparity; d++) {
+						int c = costs[index+d];
+						if( inside ) {
+							int best = prev[d];
+							if( d > 0 ) best = Math.min(best,prev[d-1]+P1);
+							if( d < rangeDisparity-1 ) best = Math.min(best,prev[d+1]+P1);
+							best = Math.min(best,minPrev+P2);
+							c += best - minPrev;
+						}
+						L[y*width+x][d] = c;
+						aggregated[index+d] += c;
+					}
+				}
+			}
+		}
+		return aggregated;
+	}
+}
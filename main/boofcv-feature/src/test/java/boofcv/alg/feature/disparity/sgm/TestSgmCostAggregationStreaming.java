@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostAggregationStreaming {
+
+	Random rand = new Random(234);
+
+	int width = 25, height = 20, rangeDisparity = 12;
+
+	int P1 = 150, P2 = 1500;
+
+	/**
+	 * Compare against a naive implementation which uses the five causal paths
+	 */
+	@Test
+	public void compareToNaive() {
+		short[] costs = new short[width*height*rangeDisparity];
+		for (int i = 0; i < costs.length; i++) {
+			costs[i] = (short)rand.nextInt(SgmCostHamming.MAX_COST+1);
+		}
+
+		int[] expected = TestSgmCostAggregation.naive(costs,width,height,rangeDisparity,P1,P2,
+				new int[][]{{1,0},{-1,0},{0,1},{1,1},{-1,1}});
+
+		SgmCostAggregationStreaming alg = new SgmCostAggregationStreaming();
+		alg.setPenalties(P1,P2);
+
+		// process it twice to make sure it's reset correctly
+		for (int trial = 0; trial < 2; trial++) {
+			alg.initialize(width,rangeDisparity);
+
+			int N = width*rangeDisparity;
+			short[] rowCosts = new short[N];
+			short[] aggregated = new short[N];
+			for (int y = 0; y < height; y++) {
+				System.arraycopy(costs,y*N,rowCosts,0,N);
+				alg.process(rowCosts,aggregated);
+				for (int i = 0; i < N; i++) {
+					assertEquals(expected[y*N+i],aggregated[i]);
+				}
+			}
+		}
+	}
+}
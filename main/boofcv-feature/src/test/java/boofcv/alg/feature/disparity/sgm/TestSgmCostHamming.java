@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayS32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmCostHamming {
+
+	Random rand = new Random(234);
+
+	int width = 30, height = 20;
+
+	@Test
+	public void compareToNaive() {
+		GrayS32 left = new GrayS32(width,height);
+		GrayS32 right = new GrayS32(width,height);
+		ImageMiscOps.fillUniform(left,rand,0,1 << 24);
+		ImageMiscOps.fillUniform(right,rand,0,1 << 24);
+
+		int minDisparity = 3, rangeDisparity = 10;
+
+		SgmCostHamming alg = new SgmCostHamming();
+		alg.configure(minDisparity,rangeDisparity,24);
+
+		int offset = 5;
+		short[] costs = new short[offset+width*rangeDisparity];
+		for (int y = 0; y < height; y++) {
+			alg.process(left,right,y,costs,offset);
+
+			for (int x = 0; x < width; x++) {
+				for (int d = 0; d < rangeDisparity; d++) {
+					int xr = x - minDisparity - d;
+					int expected;
+					if( xr < 0 )
+						expected = SgmCostHamming.MAX_COST;
+					else
+						expected = Integer.bitCount(left.get(x,y) ^ right.get(xr,y))*SgmCostHamming.MAX_COST/24;
+					assertEquals(expected,costs[offset+x*rangeDisparity+d]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void identical_zeroCost() {
+		GrayS32 left = new GrayS32(width,height);
+		ImageMiscOps.fillUniform(left,rand,0,1 << 24);
+
+		SgmCostHamming alg = new SgmCostHamming();
+		alg.configure(0,5,24);
+
+		short[] costs = new short[width*5];
+		alg.process(left,left,2,costs,0);
+		for (int x = 0; x < width; x++) {
+			assertEquals(0,costs[x*5]);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.abst.feature.disparity.ConfigDisparitySGM;
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.feature.disparity.DisparitySelect;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSgmStereoDisparity {
+
+	Random rand = new Random(234);
+
+	int width = 80, height = 60;
+	int minDisparity = 2, maxDisparity = 20;
+	int trueDisparity = 10;
+
+	/**
+	 * The right image is the left image shifted. Most pixels should have the true disparity
+	 */
+	@Test
+	public void knownShift() {
+		for( Class type : new Class[]{GrayU8.class, GrayF32.class}) {
+			for( boolean stream : new boolean[]{false,true}) {
+				for( CensusType census : CensusType.values() ) {
+					knownShift(type,census,stream);
+				}
+			}
+		}
+	}
+
+	private <T extends ImageGray<T>> void knownShift( Class<T> type , CensusType census , boolean stream ) {
+		T left = GeneralizedImageOps.createSingleBand(type,width,height);
+		T right = GeneralizedImageOps.createSingleBand(type,width,height);
+		createShifted(left,right);
+
+		SgmStereoDisparity<T,GrayU8> alg = new SgmStereoDisparity<>(census,minDisparity,maxDisparity,select(),type);
+		alg.setStreamRows(stream);
+
+		GrayU8 disparity = new GrayU8(width,height);
+		alg.process(BoofTesting.createSubImageOf(left),BoofTesting.createSubImageOf(right),disparity);
+
+		int total = 0, correct = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = minDisparity+trueDisparity; x < width; x++) {
+				total++;
+				if( disparity.get(x,y) == trueDisparity-minDisparity )
+					correct++;
+			}
+		}
+		assertTrue(correct >= total*0.95, correct+" "+total);
+	}
+
+	private <T extends ImageGray<T>> void createShifted( T left , T right ) {
+		GImageMiscOps.fillUniform(left,rand,0,200);
+		GImageMiscOps.fillUniform(right,rand,0,200);
+		GImageMiscOps.copy(trueDisparity,0,0,0,width-trueDisparity,height,left,right);
+	}
+
+	private DisparitySelect<int[],GrayU8> select() {
+		return FactoryStereoDisparityAlgs.selectDisparity_S32(-1,-1,0);
+	}
+
+	/**
+	 * Pixels at x less than the min disparity should not be modified
+	 */
+	@Test
+	public void doNotModifyBelowMinDisparity() {
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		createShifted(left,right);
+
+		SgmStereoDisparity<GrayU8,GrayU8> alg = new SgmStereoDisparity<>(
+				CensusType.BLOCK_3_3,minDisparity,maxDisparity,select(),GrayU8.class);
+		GrayU8 disparity = new GrayU8(width,height);
+		GImageMiscOps.fill(disparity,200);
+		alg.process(left,right,disparity);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < minDisparity; x++) {
+				assertEquals(200,disparity.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		createShifted(left,right);
+		GImageMiscOps.addUniform(right,rand,0,20);
+
+		for( int paths : new int[]{4,8}) {
+			SgmStereoDisparity<GrayU8,GrayF32> algExpected = new SgmStereoDisparity<>(CensusType.BLOCK_5_5,
+					minDisparity,maxDisparity,FactoryStereoDisparityAlgs.selectDisparitySubpixel_S32(-1,1,0.1),GrayU8.class);
+			SgmStereoDisparity<GrayU8,GrayF32> algFound = new SgmStereoDisparity_MT<>(CensusType.BLOCK_5_5,
+					minDisparity,maxDisparity,()->FactoryStereoDisparityAlgs.selectDisparitySubpixel_S32(-1,1,0.1),GrayU8.class);
+			algExpected.setNumberOfPaths(paths);
+			algFound.setNumberOfPaths(paths);
+
+			GrayF32 expected = new GrayF32(width,height);
+			GrayF32 found = new GrayF32(width,height);
+			algExpected.process(left,right,expected);
+			algFound.process(left,right,found);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * Create it using the factory and see if it produces reasonable results
+	 */
+	@Test
+	public void factory() {
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		createShifted(left,right);
+
+		ConfigDisparitySGM config = new ConfigDisparitySGM(minDisparity,maxDisparity);
+		config.subpixel = true;
+		StereoDisparity<GrayU8,GrayF32> alg = FactoryStereoDisparity.sgm(config,GrayU8.class);
+		alg.process(left,right);
+
+		GrayF32 disparity = alg.getDisparity();
+		assertEquals(width,disparity.width);
+		assertEquals(maxDisparity+1,disparity.get(0,0),1e-4);
+		int x = width/2, y = height/2;
+		assertEquals(trueDisparity-minDisparity,disparity.get(x,y),0.5);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBroxWarpingSpacial_MT {
+
+	private BroxWarpingSpacial_MT<GrayF32> createAlg( ConfigBroxWarping config ) {
+		return new BroxWarpingSpacial_MT<>(config,
+				()->FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED));
+	}
+
+	/**
+	 * Same as the single threaded test. Known solution with a large motion
+	 */
+	@Test
+	public void process() {
+		int width = 30;
+		int height = 40;
+
+		GrayF32 original1 = new GrayF32(width,height);
+		GrayF32 original2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillRectangle(original1, 40, 10, 0, 10, height);
+		ImageMiscOps.fillRectangle(original2, 40, 15, 0, 10, height);
+
+		PyramidFloat<GrayF32> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+		PyramidFloat<GrayF32> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+
+		pyr1.process(original1);
+		pyr2.process(original2);
+
+		BroxWarpingSpacial_MT<GrayF32> alg = createAlg(new ConfigBroxWarping());
+		alg.process(pyr1,pyr2);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 10; x < 20; x++ ) {
+				assertEquals(5,alg.getFlowX().get(x,y),1);
+				assertEquals(0,alg.getFlowY().get(x,y),1);
+			}
+		}
+	}
+
+	/**
+	 * The ordering of the SOR updates is different so only approximately the same solution is expected. The
+	 * input images are normalized so that the problem is well conditioned. The output should be deterministic
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int width = 60;
+		int height = 50;
+
+		GrayF32 original1 = new GrayF32(width,height);
+		GrayF32 original2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillRectangle(original1, 40, 20, 10, 15, 20);
+		ImageMiscOps.fillRectangle(original1, 20, 25, 15, 5, 10);
+		ImageMiscOps.fillRectangle(original2, 40, 23, 12, 15, 20);
+		ImageMiscOps.fillRectangle(original2, 20, 28, 17, 5, 10);
+
+		ConfigBroxWarping config = new ConfigBroxWarping();
+		config.maxIterationsSor = 1000;
+		config.convergeToleranceSor = 0;
+		BroxWarpingSpacial<GrayF32> expected = new BroxWarpingSpacial<>(config,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED));
+		BroxWarpingSpacial_MT<GrayF32> alg = createAlg(config);
+
+		expected.process(original1,original2);
+		alg.process(original1,original2);
+
+		GrayF32 foundX = alg.getFlowX().clone();
+		GrayF32 foundY = alg.getFlowY().clone();
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(expected.getFlowX().get(x,y),foundX.get(x,y),1e-3f);
+				assertEquals(expected.getFlowY().get(x,y),foundY.get(x,y),1e-3f);
+			}
+		}
+
+		// process it again and the results should be identical
+		alg.process(original1,original2);
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(foundX.get(x,y),alg.getFlowX().get(x,y));
+				assertEquals(foundY.get(x,y),alg.getFlowY().get(x,y));
+			}
+		}
+	}
+}
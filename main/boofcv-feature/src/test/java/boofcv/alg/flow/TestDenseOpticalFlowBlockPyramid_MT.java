@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDenseOpticalFlowBlockPyramid_MT {
+
+	Random rand = new Random(234);
+
+	int width = 70;
+	int height = 85;
+
+	@Test
+	public void compareToSingleThread_U8() {
+		compareToSingleThread(GrayU8.class,
+				()->new DenseOpticalFlowBlockPyramid.U8(3,2,20),
+				new DenseOpticalFlowBlockPyramid.U8(3,2,20));
+	}
+
+	@Test
+	public void compareToSingleThread_F32() {
+		compareToSingleThread(GrayF32.class,
+				()->new DenseOpticalFlowBlockPyramid.F32(3,2,20),
+				new DenseOpticalFlowBlockPyramid.F32(3,2,20));
+	}
+
+	/**
+	 * The output should be identical, including which pixels are marked as invalid
+	 */
+	private <T extends ImageGray<T>>
+	void compareToSingleThread( Class<T> imageType ,
+								BoofLambdas.Factory<DenseOpticalFlowBlockPyramid<T>> factory ,
+								DenseOpticalFlowBlockPyramid<T> expected ) {
+		T image1 = GeneralizedImageOps.createSingleBand(imageType,width,height);
+		T image2 = GeneralizedImageOps.createSingleBand(imageType,width,height);
+
+		// smooth regions create ties and a region which can't be matched creates invalid pixels
+		GImageMiscOps.fillUniform(image1,rand,0,100);
+		GImageMiscOps.fillRectangle(image1,50,10,10,20,20);
+		GImageMiscOps.copy(0,0,2,1,width-2,height-1,image1,image2);
+		GImageMiscOps.fillUniform(image2.subimage(40,40,60,60),rand,150,255);
+
+		PyramidFloat<T> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,10,3,imageType);
+		PyramidFloat<T> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,10,3,imageType);
+		pyr1.process(image1);
+		pyr2.process(image2);
+		assertTrue(pyr1.getNumLayers() > 1);
+
+		DenseOpticalFlowBlockPyramid_MT<T> alg = new DenseOpticalFlowBlockPyramid_MT<>(factory);
+
+		// process twice to make sure state from the previous call is handled the same way
+		for (int trial = 0; trial < 2; trial++) {
+			expected.process(pyr1,pyr2);
+			alg.process(pyr1,pyr2);
+
+			ImageFlow e = expected.getOpticalFlow();
+			ImageFlow f = alg.getOpticalFlow();
+
+			int numInvalid = 0;
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(e.get(x,y).x, f.get(x,y).x);
+					assertEquals(e.get(x,y).y, f.get(x,y).y);
+					if( !e.get(x,y).isValid() )
+						numInvalid++;
+				}
+			}
+			assertTrue(numInvalid > 0);
+		}
+	}
+}
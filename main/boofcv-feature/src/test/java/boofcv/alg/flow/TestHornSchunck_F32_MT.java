@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHornSchunck_F32_MT extends ChecksHornSchunck<GrayF32,GrayF32> {
+
+	public TestHornSchunck_F32_MT() {
+		super(GrayF32.class, GrayF32.class);
+	}
+
+	@Override
+	public HornSchunck<GrayF32, GrayF32> createAlg() {
+		return new HornSchunck_F32_MT(0.2f,1);
+	}
+
+	/**
+	 * Each iteration only depends on the previous one so the output should be identical
+	 */
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image1 = new GrayF32(60,75);
+		GrayF32 image2 = new GrayF32(60,75);
+		GImageMiscOps.fillUniform(image1,rand,0,200);
+		GImageMiscOps.fillUniform(image2,rand,0,200);
+
+		ImageFlow expected = new ImageFlow(image1.width,image1.height);
+		ImageFlow found = new ImageFlow(image1.width,image1.height);
+
+		new HornSchunck_F32(5f,20).process(image1,image2,expected);
+		new HornSchunck_F32_MT(5f,20).process(image1,image2,found);
+
+		for (int i = 0; i < expected.data.length; i++) {
+			assertEquals(expected.data[i].x, found.data[i].x);
+			assertEquals(expected.data[i].y, found.data[i].y);
+		}
+	}
+}
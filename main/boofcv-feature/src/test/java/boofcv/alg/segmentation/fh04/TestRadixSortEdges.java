@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.segmentation.fh04.SegmentFelzenszwalbHuttenlocher04.Edge;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRadixSortEdges {
+	Random rand = new Random(234);
+
+	/**
+	 * Sort a sub-array with lots of duplicate values and make sure the order of duplicates is preserved
+	 */
+	@Test
+	public void sort_stable() {
+		Edge[] edges = new Edge[500];
+		for( int i = 0; i < edges.length; i++ ) {
+			edges[i] = new Edge(i,0);
+			edges[i].sortValue = rand.nextInt(30)*0.5f - 2.0f;
+		}
+		Edge[] original = edges.clone();
+
+		RadixSortEdges alg = new RadixSortEdges();
+		// sort it twice to make sure storage is recycled correctly
+		for( int trial = 0; trial < 2; trial++ ) {
+			alg.sort(edges,10,490);
+
+			// elements outside the range should not be modified
+			for( int i = 0; i < 10; i++ ) {
+				assertSame(original[i],edges[i]);
+				assertSame(original[490+i],edges[490+i]);
+			}
+
+			for( int i = 11; i < 490; i++ ) {
+				Edge a = edges[i-1];
+				Edge b = edges[i];
+				assertTrue(a.sortValue <= b.sortValue);
+				if( trial == 0 && a.sortValue == b.sortValue )
+					assertTrue(a.indexA < b.indexA);
+			}
+		}
+	}
+
+	/**
+	 * Large range of values which requires all the passes
+	 */
+	@Test
+	public void sort_wideRange() {
+		Edge[] edges = new Edge[1000];
+		for( int i = 0; i < edges.length; i++ ) {
+			edges[i] = new Edge(i,0);
+			edges[i].sortValue = (float)(rand.nextGaussian()*Math.pow(10,rand.nextInt(10)-5));
+		}
+
+		new RadixSortEdges().sort(edges,0,edges.length);
+
+		for( int i = 1; i < edges.length; i++ ) {
+			assertTrue(edges[i-1].sortValue <= edges[i].sortValue);
+		}
+	}
+
+	@Test
+	public void sort_small() {
+		RadixSortEdges alg = new RadixSortEdges();
+
+		Edge[] edges = new Edge[]{new Edge(0,1)};
+		alg.sort(edges,0,0);
+		alg.sort(edges,0,1);
+		assertEquals(0,edges[0].indexA);
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.fh04;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeights4_U8_MT;
+import boofcv.alg.segmentation.fh04.impl.FhEdgeWeights8_U8_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.segmentation.ConfigFh04;
+import boofcv.factory.segmentation.FactorySegmentationAlg;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentFelzenszwalbHuttenlocher04_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Test it on a trivial segmentation problem which is large enough to be split into tiles
+	 */
+	@Test
+	public void process_trivial() {
+		assertTrue(200 >= 2*SegmentFelzenszwalbHuttenlocher04_MT.TILE_HEIGHT);
+		GrayU8 image = new GrayU8(20,200);
+		ImageMiscOps.fillRectangle(image,100,0,0,10,200);
+		GrayS32 output = new GrayS32(20,200);
+
+		SegmentFelzenszwalbHuttenlocher04<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(200,10,new FhEdgeWeights4_U8_MT());
+
+		alg.process(image,output);
+
+		assertEquals(2,alg.getRegionId().size);
+
+		int valA = output.get(0,0);
+		int valB = output.get(19,0);
+
+		assertTrue(valA != valB);
+		for( int y = 0; y < 200; y++ ) {
+			for( int x =0; x < 10; x++ )
+				assertEquals(valA, output.get(x, y));
+			for( int x =10; x < 20; x++ )
+				assertEquals(valB,output.get(x,y));
+		}
+	}
+
+	/**
+	 * Segment a random image and see if the output is consistent and repeatable
+	 */
+	@Test
+	public void process_random() {
+		GrayU8 image = new GrayU8(60,150);
+		ImageMiscOps.fillUniform(image,rand,0,255);
+		assertTrue(image.height >= 2*SegmentFelzenszwalbHuttenlocher04_MT.TILE_HEIGHT);
+
+		int minimumSize = 10;
+		SegmentFelzenszwalbHuttenlocher04<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(300,minimumSize,new FhEdgeWeights8_U8_MT());
+
+		GrayS32 expected = new GrayS32(image.width,image.height);
+		alg.process(image,expected);
+
+		GrowQueue_I32 regionId = alg.getRegionId();
+		GrowQueue_I32 regionSizes = alg.getRegionSizes();
+		assertTrue(regionId.size > 1);
+
+		// sizes should match the number of pixels assigned to each region
+		int total = 0;
+		for( int i = 0; i < regionId.size; i++ ) {
+			int id = regionId.get(i);
+			int count = 0;
+			for( int j = 0; j < expected.data.length; j++ ) {
+				if( expected.data[j] == id )
+					count++;
+			}
+			assertEquals(count,regionSizes.get(i));
+			assertTrue(count >= minimumSize);
+			total += count;
+		}
+		assertEquals(image.width*image.height,total);
+
+		// process it again and the results should be the same
+		GrayS32 found = new GrayS32(image.width,image.height);
+		alg.process(image,found);
+
+		for( int i = 0; i < expected.data.length; i++ ) {
+			assertEquals(expected.data[i],found.data[i]);
+		}
+	}
+
+	/**
+	 * The output should not depend on the number of threads
+	 */
+	@Test
+	public void independentOfThreads() {
+		GrayU8 image = new GrayU8(320,240);
+		ImageMiscOps.fillUniform(image,rand,0,255);
+
+		int originalMaxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			GrayS32 expected = null;
+			int expectedRegions = 0;
+			for( int threads : new int[]{1,2,4,8} ) {
+				BoofConcurrency.setMaxThreads(threads);
+				SegmentFelzenszwalbHuttenlocher04<GrayU8> alg =
+						new SegmentFelzenszwalbHuttenlocher04_MT<>(300,20,new FhEdgeWeights8_U8_MT());
+				GrayS32 found = new GrayS32(image.width,image.height);
+				alg.process(image,found);
+
+				if( expected == null ) {
+					expected = found;
+					expectedRegions = alg.getRegionId().size;
+				} else {
+					assertEquals(expectedRegions, alg.getRegionId().size);
+					for( int i = 0; i < expected.data.length; i++ ) {
+						assertEquals(expected.data[i],found.data[i]);
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(originalMaxThreads);
+		}
+	}
+
+	@Test
+	public void configureApproximateSort() {
+		SegmentFelzenszwalbHuttenlocher04<GrayU8> alg =
+				new SegmentFelzenszwalbHuttenlocher04_MT<>(300,20,new FhEdgeWeights8_U8_MT());
+		assertThrows(IllegalArgumentException.class,()->alg.configureApproximateSort(2000));
+
+		// the factory should fall back to the single threaded version
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.USE_CONCURRENT = true;
+			ConfigFh04 config = new ConfigFh04();
+			assertTrue(FactorySegmentationAlg.fh04(config,ImageType.single(GrayU8.class))
+					instanceof SegmentFelzenszwalbHuttenlocher04_MT);
+			config.approximateSortBins = 2000;
+			assertFalse(FactorySegmentationAlg.fh04(config,ImageType.single(GrayU8.class))
+					instanceof SegmentFelzenszwalbHuttenlocher04_MT);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+}
@@ -144,4 +144,30 @@ public abstract class GenericFhEdgeWeightsChecks<T extends ImageBase<T>> {
 			assertEquals(e0.sortValue,e1.sortValue,1e-4f);
 		}
 	}
+
+	/**
+	 * Checks to see if the two algorithms produce identical edges in the same order
+	 */
+	public static <T extends ImageBase<T>>
+	void checkIdentical( ImageType<T> imageType , FhEdgeWeights<T> algA , FhEdgeWeights<T> algB ) {
+		Random rand = new Random(234);
+		T input = imageType.createImage(75,62);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		FastQueue<Edge> edgesA = new FastQueue<>(Edge.class, true);
+		FastQueue<Edge> edgesB = new FastQueue<>(Edge.class, true);
+
+		algA.process(input,edgesA);
+		algB.process(input,edgesB);
+
+		assertEquals(edgesA.size, edgesB.size);
+		for( int i = 0; i < edgesA.size; i++ ) {
+			Edge a = edgesA.get(i);
+			Edge b = edgesB.get(i);
+
+			assertEquals(a.indexA,b.indexA);
+			assertEquals(a.indexB,b.indexB);
+			assertEquals(a.sortValue,b.sortValue);
+		}
+	}
 }
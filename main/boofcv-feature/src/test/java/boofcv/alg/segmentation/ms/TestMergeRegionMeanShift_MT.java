@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMergeRegionMeanShift_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayF32 image = new GrayF32(60,50);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		SegmentMeanShiftSearchGray<GrayF32> search = new SegmentMeanShiftSearchGray<>(30,0.05f,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),2,2,100,false);
+		search.process(image);
+
+		FastQueue<Point2D_I32> modeLocation = search.getModeLocation();
+		FastQueue<float[]> regionColor = search.getModeColor();
+
+		GrayS32 expectedP2R = search.getPixelToRegion().clone();
+		GrowQueue_I32 expectedCount = search.getRegionMemberCount().copy();
+		GrayS32 foundP2R = search.getPixelToRegion().clone();
+		GrowQueue_I32 foundCount = search.getRegionMemberCount().copy();
+
+		new MergeRegionMeanShift(3,30).process(expectedP2R,expectedCount,regionColor,modeLocation);
+		new MergeRegionMeanShift_MT(3,30).process(foundP2R,foundCount,regionColor,modeLocation);
+
+		// make sure it's a non-trivial test
+		assertTrue(expectedCount.size < modeLocation.size*0.8);
+
+		assertEquals(expectedCount.size,foundCount.size);
+		for (int i = 0; i < expectedCount.size; i++) {
+			assertEquals(expectedCount.get(i),foundCount.get(i));
+		}
+		for (int i = 0; i < expectedP2R.data.length; i++) {
+			assertEquals(expectedP2R.data[i],foundP2R.data[i]);
+		}
+	}
+}
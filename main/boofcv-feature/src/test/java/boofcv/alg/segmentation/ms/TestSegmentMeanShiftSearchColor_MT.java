@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentMeanShiftSearchColor_MT {
+
+	Random rand = new Random(234);
+
+	ImageType<Planar<GrayF32>> imageType = ImageType.pl(2,GrayF32.class);
+
+	/**
+	 * Without the fast approximation the output should be identical
+	 */
+	@Test
+	public void compareToSingleThread() {
+		// tall enough to be split into several bands
+		Planar<GrayF32> image = imageType.createImage(30,130);
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		SegmentMeanShiftSearchColor<Planar<GrayF32>> single = new SegmentMeanShiftSearchColor<>(30,0.05f,
+				FactoryInterpolation.createPixelMB(0,255, InterpolationType.BILINEAR, BorderType.EXTENDED,imageType),
+				2,2,200,false,imageType);
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> concurrent = new SegmentMeanShiftSearchColor_MT<>(30,0.05f,
+				()->FactoryInterpolation.createPixelMB(0,255, InterpolationType.BILINEAR, BorderType.EXTENDED,imageType),
+				2,2,200,false,imageType);
+
+		single.process(image);
+		concurrent.process(image);
+		TestSegmentMeanShiftSearchGray_MT.checkIdentical(single,concurrent);
+	}
+
+	/**
+	 * With the fast approximation the output should still be valid
+	 */
+	@Test
+	public void fast() {
+		Planar<GrayF32> image = imageType.createImage(30,40);
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> alg = new SegmentMeanShiftSearchColor_MT<>(30,0.05f,
+				()->FactoryInterpolation.createPixelMB(0,255, InterpolationType.BILINEAR, BorderType.EXTENDED,imageType),
+				2,2,200,true,imageType);
+
+		alg.process(image);
+		TestSegmentMeanShiftSearchGray_MT.checkValid(alg, image.width, image.height);
+	}
+
+	/**
+	 * With the fast approximation the output should not depend on the number of threads
+	 */
+	@Test
+	public void independentOfThreads() {
+		Planar<GrayF32> image = imageType.createImage(30,130);
+		GImageMiscOps.fillUniform(image, rand, 0, 256);
+		assertTrue(image.height >= 3*SegmentMeanShiftSearchColor_MT.BAND_HEIGHT);
+
+		int originalMaxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> expected = null;
+			for( int threads : new int[]{1,2,4} ) {
+				BoofConcurrency.setMaxThreads(threads);
+				SegmentMeanShiftSearchColor_MT<Planar<GrayF32>> found = new SegmentMeanShiftSearchColor_MT<>(30,0.05f,
+						()->FactoryInterpolation.createPixelMB(0,255, InterpolationType.BILINEAR, BorderType.EXTENDED,imageType),
+						2,2,200,true,imageType);
+				found.process(image);
+
+				if( expected == null )
+					expected = found;
+				else
+					TestSegmentMeanShiftSearchGray_MT.checkIdentical(expected,found);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(originalMaxThreads);
+		}
+	}
+}
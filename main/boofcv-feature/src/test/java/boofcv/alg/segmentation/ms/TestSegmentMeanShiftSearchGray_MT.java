@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentMeanShiftSearchGray_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Without the fast approximation the output should be identical
+	 */
+	@Test
+	public void compareToSingleThread() {
+		// tall enough to be split into several bands
+		GrayF32 image = new GrayF32(30,130);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		SegmentMeanShiftSearchGray<GrayF32> single = new SegmentMeanShiftSearchGray<>(30,0.05f,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),2,2,100,false);
+		SegmentMeanShiftSearchGray_MT<GrayF32> concurrent = new SegmentMeanShiftSearchGray_MT<>(30,0.05f,
+				()->FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),2,2,100,false);
+
+		single.process(image);
+		concurrent.process(image);
+		checkIdentical(single,concurrent);
+
+		// process it again to make sure it's reset correctly
+		concurrent.process(image);
+		checkIdentical(single,concurrent);
+	}
+
+	/**
+	 * With the fast approximation the output should still be valid
+	 */
+	@Test
+	public void fast() {
+		GrayF32 image = new GrayF32(30,40);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg = new SegmentMeanShiftSearchGray_MT<>(30,0.05f,
+				()->FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),2,2,100,true);
+
+		alg.process(image);
+		checkValid(alg, image.width, image.height);
+	}
+
+	/**
+	 * With the fast approximation the output should not depend on the number of threads
+	 */
+	@Test
+	public void independentOfThreads() {
+		GrayF32 image = new GrayF32(30,130);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+		assertTrue(image.height >= 3*SegmentMeanShiftSearchGray_MT.BAND_HEIGHT);
+
+		int originalMaxThreads = BoofConcurrency.getMaxThreads();
+		try {
+			SegmentMeanShiftSearchGray_MT<GrayF32> expected = null;
+			for( int threads : new int[]{1,2,4} ) {
+				BoofConcurrency.setMaxThreads(threads);
+				SegmentMeanShiftSearchGray_MT<GrayF32> found = new SegmentMeanShiftSearchGray_MT<>(30,0.05f,
+						()->FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),2,2,100,true);
+				found.process(image);
+
+				if( expected == null )
+					expected = found;
+				else
+					checkIdentical(expected,found);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(originalMaxThreads);
+		}
+	}
+
+	static void checkIdentical( SegmentMeanShiftSearch expected , SegmentMeanShiftSearch found ) {
+		assertTrue(expected.getModeLocation().size > 20);
+		assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+		assertEquals(expected.getRegionMemberCount().size, found.getRegionMemberCount().size);
+		assertEquals(expected.getModeColor().size, found.getModeColor().size);
+
+		for (int i = 0; i < expected.getModeLocation().size; i++) {
+			assertEquals(expected.getModeLocation().get(i), found.getModeLocation().get(i));
+			assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+			assertArrayEquals((float[])expected.getModeColor().get(i), (float[])found.getModeColor().get(i));
+		}
+
+		GrayS32 segmentA = expected.getPixelToRegion();
+		GrayS32 segmentB = found.getPixelToRegion();
+		for( int y = 0; y < segmentA.height; y++ ) {
+			for( int x = 0; x < segmentA.width; x++ ) {
+				assertEquals(segmentA.get(x,y),segmentB.get(x,y));
+			}
+		}
+	}
+
+	static void checkValid( SegmentMeanShiftSearch alg , int width , int height ) {
+		GrowQueue_I32 counts = alg.getRegionMemberCount();
+		assertEquals(alg.getModeLocation().size,counts.size);
+		assertEquals(alg.getModeLocation().size,alg.getModeColor().size);
+
+		int totalMembers = 0;
+		for( int i = 0; i < counts.size; i++ ) {
+			assertTrue(counts.get(i) > 0);
+			totalMembers += counts.get(i);
+		}
+		assertEquals(width*height,totalMembers);
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		found.resize(counts.size);
+		found.fill(0);
+		GrayS32 segment = alg.getPixelToRegion();
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				found.data[segment.get(x,y)]++;
+			}
+		}
+		for( int i = 0; i < counts.size; i++ ) {
+			assertEquals(counts.get(i),found.get(i));
+		}
+	}
+}
@@ -33,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Arrays;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -177,6 +178,42 @@ public abstract class GeneralSegmentSlicColorChecks<T extends ImageBase<T>> {
 	/**
 	 * Each region is assumed to be filled with a single color
 	 */
+	/**
+	 * Processes a random image with both algorithms and sees if the results are identical
+	 */
+	protected void checkIdentical( SegmentSlic<T> algA , SegmentSlic<T> algB ) {
+		T input = imageType.createImage(80,65);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		GrayS32 outputA = new GrayS32(80,65);
+		GrayS32 outputB = new GrayS32(80,65);
+
+		algA.process(input,outputA);
+		algB.process(input,outputB);
+
+		assertEquals(algA.getClusters().size,algB.getClusters().size);
+		for (int i = 0; i < algA.getClusters().size; i++) {
+			SegmentSlic.Cluster a = algA.getClusters().get(i);
+			SegmentSlic.Cluster b = algB.getClusters().get(i);
+			assertEquals(a.x,b.x);
+			assertEquals(a.y,b.y);
+			assertArrayEquals(a.color,b.color);
+		}
+
+		GrowQueue_I32 countA = algA.getRegionMemberCount();
+		GrowQueue_I32 countB = algB.getRegionMemberCount();
+		assertEquals(countA.size,countB.size);
+		for (int i = 0; i < countA.size; i++) {
+			assertEquals(countA.get(i),countB.get(i));
+		}
+
+		for (int y = 0; y < outputA.height; y++) {
+			for (int x = 0; x < outputA.width; x++) {
+				assertEquals(outputA.get(x,y),outputB.get(x,y));
+			}
+		}
+	}
+
 	private void checkUnique(SegmentSlic<T> alg , GrayS32 output , int numRegions ) {
 
 		boolean assigned[] = new boolean[ numRegions ];
@@ -18,10 +18,17 @@
 
 package boofcv.alg.segmentation.watershed;
 
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.GrayS32;
 import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * @author Peter Abeles
  */
@@ -54,11 +61,70 @@ public class TestRemoveWatersheds {
 				-1, 1, 1, 1,-1,
 				-1,-1,-1,-1,-1};
 
-		RemoveWatersheds alg = new RemoveWatersheds();
+		RemoveWatersheds alg = createAlg();
 
 		alg.remove(segmented);
 
 		BoofTesting.assertEquals(expected, segmented, 0);
 	}
 
+	/**
+	 * Compute region sizes on a random image.  The labeled image should be the same as when sizes aren't computed.
+	 */
+	@Test
+	public void remove_regionSizes() {
+		Random rand = new Random(234);
+		GrayS32 segmented = createRandom(rand, 40, 35);
+		GrayS32 expected = segmented.clone();
+
+		RemoveWatersheds alg = createAlg();
+		alg.remove(expected);
+
+		GrowQueue_I32 regionSizes = new GrowQueue_I32();
+		alg.remove(segmented,regionSizes);
+
+		BoofTesting.assertEquals(expected, segmented, 0);
+		checkRegionSizes(segmented, regionSizes);
+		for( int i = 0; i < segmented.data.length; i++ ) {
+			// only the border should be negative
+			assertTrue( segmented.data[i] >= 0 || segmented.data[i] == -1 );
+		}
+	}
+
+	protected RemoveWatersheds createAlg() {
+		return new RemoveWatersheds();
+	}
+
+	/**
+	 * Creates a segmented image with a border of -1, regions with values 1 to 8, and watersheds
+	 */
+	static GrayS32 createRandom( Random rand , int width , int height ) {
+		GrayS32 segmented = new GrayS32(width,height);
+		ImageMiscOps.fill(segmented,-1);
+		for( int y = 1; y < height-1; y++ ) {
+			for( int x = 1; x < width-1; x++ ) {
+				// blocks of regions with randomly placed watersheds
+				int region = 1 + (x/8) % 4 + 4*((y/10) % 2);
+				segmented.set(x,y, rand.nextInt(4) == 0 ? 0 : region);
+			}
+		}
+		return segmented;
+	}
+
+	static void checkRegionSizes( GrayS32 segmented , GrowQueue_I32 regionSizes ) {
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		for( int i = 0; i < segmented.data.length; i++ ) {
+			int region = segmented.data[i];
+			if( region < 0 )
+				continue;
+			while( expected.size <= region )
+				expected.add(0);
+			expected.data[region]++;
+		}
+
+		assertEquals(expected.size, regionSizes.size);
+		for( int i = 0; i < expected.size; i++ ) {
+			assertEquals(expected.get(i), regionSizes.get(i));
+		}
+	}
 }
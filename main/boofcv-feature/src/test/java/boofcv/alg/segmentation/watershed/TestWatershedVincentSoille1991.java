@@ -44,23 +44,32 @@ public class TestWatershedVincentSoille1991 {
 
 		alg.sortPixels(image);
 
-		assertEquals(0,alg.histogram[0].size);
-		assertEquals(2,alg.histogram[1].size);
-		assertEquals(4,alg.histogram[2].size);
-		assertEquals(3,alg.histogram[3].size);
-		assertEquals(0,alg.histogram[4].size);
-		assertEquals(1,alg.histogram[5].size);
-		assertEquals(1,alg.histogram[6].size);
+		assertEquals(0,levelSize(alg,0));
+		assertEquals(2,levelSize(alg,1));
+		assertEquals(4,levelSize(alg,2));
+		assertEquals(3,levelSize(alg,3));
+		assertEquals(0,levelSize(alg,4));
+		assertEquals(1,levelSize(alg,5));
+		assertEquals(1,levelSize(alg,6));
 
 		for( int i = 7; i < 255; i++ )
-			assertEquals(0,alg.histogram[i].size);
+			assertEquals(0,levelSize(alg,i));
 
-		assertEquals(1,alg.histogram[255].size);
+		assertEquals(1,levelSize(alg,255));
+		assertEquals(12,alg.sortedPixels.size);
 
 		// check output coordinate for (0,2)
 		int indexOut = 3*4 + 1;
-		assertEquals(indexOut,alg.histogram[5].get(0));
+		assertEquals(indexOut,alg.sortedPixels.get(alg.levelStart[5]));
 
+		// pixels inside a level should be in raster order
+		assertEquals(1*4+2,alg.sortedPixels.get(alg.levelStart[2]));
+		assertEquals(2*4+1,alg.sortedPixels.get(alg.levelStart[2]+1));
+		assertEquals(2*4+3,alg.sortedPixels.get(alg.levelStart[2]+3));
+	}
+
+	private static int levelSize( WatershedVincentSoille1991 alg , int level ) {
+		return alg.levelStart[level+1]-alg.levelStart[level];
 	}
 
 	private static class Dummy extends WatershedVincentSoille1991 {
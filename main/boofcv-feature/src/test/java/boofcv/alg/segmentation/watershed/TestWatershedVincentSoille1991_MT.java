@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.segmentation.watershed;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWatershedVincentSoille1991_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread_Connect4() {
+		compareToSingleThread(new WatershedVincentSoille1991.Connect4(), new WatershedVincentSoille1991_MT.Connect4());
+	}
+
+	@Test
+	public void compareToSingleThread_Connect8() {
+		compareToSingleThread(new WatershedVincentSoille1991.Connect8(), new WatershedVincentSoille1991_MT.Connect8());
+	}
+
+	private void compareToSingleThread( WatershedVincentSoille1991 algA , WatershedVincentSoille1991 algB ) {
+		GrayU8 image = new GrayU8(80,105);
+		ImageMiscOps.fillUniform(image,rand,0,30);
+
+		algA.process(image);
+		algB.process(image);
+
+		assertEquals(algA.getTotalRegions(), algB.getTotalRegions());
+		BoofTesting.assertEquals(algA.getOutputBorder(), algB.getOutputBorder(), 0);
+
+		algA.removeWatersheds();
+		algB.removeWatersheds();
+
+		BoofTesting.assertEquals(algA.getOutputBorder(), algB.getOutputBorder(), 0);
+		assertEquals(algA.getTotalRegions(), algB.getRegionSizes().size);
+		TestRemoveWatersheds.checkRegionSizes(algB.getOutputBorder(), algB.getRegionSizes());
+
+		// Now with seeds
+		GrayS32 seeds = new GrayS32(image.width,image.height);
+		for( int i = 0; i < 10; i++ ) {
+			seeds.set(rand.nextInt(image.width),rand.nextInt(image.height),i+1);
+		}
+
+		algA.process(image,seeds);
+		algB.process(image,seeds);
+
+		BoofTesting.assertEquals(algA.getOutputBorder(), algB.getOutputBorder(), 0);
+	}
+}
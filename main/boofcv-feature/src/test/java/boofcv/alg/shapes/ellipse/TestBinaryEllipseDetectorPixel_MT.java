@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.ellipse;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.curve.EllipseRotated_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBinaryEllipseDetectorPixel_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 gray = renderClutter(rand,400,300);
+		GrayU8 binary = ThresholdImageOps.threshold(gray,null,245,true);
+
+		for( boolean internal : new boolean[]{false,true}) {
+			BinaryEllipseDetectorPixel single = new BinaryEllipseDetectorPixel();
+			BinaryEllipseDetectorPixel_MT multi = new BinaryEllipseDetectorPixel_MT();
+			single.setInternalContour(internal);
+			multi.setInternalContour(internal);
+
+			single.process(binary);
+			multi.process(binary);
+
+			List<BinaryEllipseDetectorPixel.Found> expected = single.getFound();
+			List<BinaryEllipseDetectorPixel.Found> found = multi.getFound();
+
+			assertTrue(expected.size() > 20);
+			assertEquals(expected.size(), found.size());
+			for (int i = 0; i < expected.size(); i++) {
+				BinaryEllipseDetectorPixel.Found a = expected.get(i);
+				BinaryEllipseDetectorPixel.Found b = found.get(i);
+				assertTrue(a.ellipse.center.isIdentical(b.ellipse.center, 0));
+				assertEquals(a.ellipse.a, b.ellipse.a);
+				assertEquals(a.ellipse.b, b.ellipse.b);
+				assertEquals(a.ellipse.phi, b.ellipse.phi);
+				assertEquals(a.contour.size(), b.contour.size());
+				for (int j = 0; j < a.contour.size(); j++) {
+					assertTrue(a.contour.get(j).equals(b.contour.get(j)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renders a grid of ellipses. Some are dark, some have a faint edge, and a few are rectangles
+	 */
+	static GrayU8 renderClutter( Random rand , int width , int height ) {
+		List<EllipseRotated_F64> dark = new ArrayList<>();
+		List<EllipseRotated_F64> faint = new ArrayList<>();
+
+		int cell = 40;
+		for (int y = 0; y+cell <= height; y += cell) {
+			for (int x = 0; x+cell <= width; x += cell) {
+				double a = 6 + rand.nextDouble()*12;
+				double b = 4 + rand.nextDouble()*(a-4);
+				EllipseRotated_F64 e = new EllipseRotated_F64(x+cell/2,y+cell/2,a,b,rand.nextDouble()*Math.PI);
+				if( rand.nextInt(5) == 0 )
+					faint.add(e);
+				else
+					dark.add(e);
+			}
+		}
+
+		GrayU8 image = TestBinaryEllipseDetectorPixel.renderEllipses_F64(width,height,dark,0);
+		GrayU8 imageFaint = TestBinaryEllipseDetectorPixel.renderEllipses_F64(width,height,faint,240);
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = (byte)Math.min(image.data[i]&0xFF, imageFaint.data[i]&0xFF);
+		}
+
+		// shapes which are not ellipses
+		for (int i = 0; i < 5; i++) {
+			ImageMiscOps.fillRectangle(image,0,rand.nextInt(width-20),rand.nextInt(height-20),4,20);
+		}
+		return image;
+	}
+}
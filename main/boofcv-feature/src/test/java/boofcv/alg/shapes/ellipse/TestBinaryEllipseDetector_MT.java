@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.ellipse;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.shape.ConfigEllipseDetector;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBinaryEllipseDetector_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 gray = TestBinaryEllipseDetectorPixel_MT.renderClutter(rand,400,300);
+		GrayU8 binary = ThresholdImageOps.threshold(gray,null,245,true);
+
+		for( boolean refine : new boolean[]{false,true}) {
+			ConfigEllipseDetector config = new ConfigEllipseDetector();
+			if( !refine )
+				config.maxIterations = 0;
+
+			BinaryEllipseDetector<GrayU8> single = create(config, false);
+			BinaryEllipseDetector<GrayU8> multi = create(config, true);
+			assertTrue(multi instanceof BinaryEllipseDetector_MT);
+			assertTrue(multi.getEllipseDetector() instanceof BinaryEllipseDetectorPixel_MT);
+
+			single.process(gray, binary);
+			multi.process(gray, binary);
+
+			FastQueue<BinaryEllipseDetector.EllipseInfo> expected = single.getFound();
+			FastQueue<BinaryEllipseDetector.EllipseInfo> found = multi.getFound();
+
+			assertTrue(expected.size > 20);
+			// make sure some were rejected by the edge intensity check
+			assertTrue(expected.size < single.getEllipseDetector().getFound().size());
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				BinaryEllipseDetector.EllipseInfo a = expected.get(i);
+				BinaryEllipseDetector.EllipseInfo b = found.get(i);
+				assertTrue(a.ellipse.center.isIdentical(b.ellipse.center, 0));
+				assertEquals(a.ellipse.a, b.ellipse.a);
+				assertEquals(a.ellipse.b, b.ellipse.b);
+				assertEquals(a.ellipse.phi, b.ellipse.phi);
+				assertEquals(a.averageInside, b.averageInside);
+				assertEquals(a.averageOutside, b.averageOutside);
+				assertEquals(a.contour.size(), b.contour.size());
+			}
+		}
+	}
+
+	private BinaryEllipseDetector<GrayU8> create( ConfigEllipseDetector config , boolean concurrent ) {
+		boolean previous = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		BinaryEllipseDetector<GrayU8> alg = FactoryShapeDetector.ellipse(config, GrayU8.class);
+		BoofConcurrency.USE_CONCURRENT = previous;
+		return alg;
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.polygon;
+
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.shape.ConfigPolygonDetector;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectPolygonBinaryGrayRefine_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 gray = TestDetectPolygonFromContour_MT.renderClutter(rand,320,240);
+		GrayU8 binary = ThresholdImageOps.threshold(gray,null,100,true);
+
+		for( boolean refineContour : new boolean[]{false,true}) {
+			ConfigPolygonDetector config = new ConfigPolygonDetector(3, 6);
+			config.refineContour = refineContour;
+
+			DetectPolygonBinaryGrayRefine<GrayU8> single = create(config, false);
+			DetectPolygonBinaryGrayRefine<GrayU8> multi = create(config, true);
+			assertTrue(multi instanceof DetectPolygonBinaryGrayRefine_MT);
+
+			single.process(gray, binary);
+			multi.process(gray, binary);
+
+			compare(single.getPolygonInfo(), multi.getPolygonInfo());
+
+			single.refineAll();
+			multi.refineAll();
+
+			compare(single.getPolygonInfo(), multi.getPolygonInfo());
+		}
+	}
+
+	private DetectPolygonBinaryGrayRefine<GrayU8> create( ConfigPolygonDetector config , boolean concurrent ) {
+		boolean previous = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		DetectPolygonBinaryGrayRefine<GrayU8> alg = FactoryShapeDetector.polygon(config, GrayU8.class);
+		BoofConcurrency.USE_CONCURRENT = previous;
+		return alg;
+	}
+
+	private static void compare( List<DetectPolygonFromContour.Info> expected ,
+								 List<DetectPolygonFromContour.Info> found ) {
+		assertTrue(expected.size() > 10);
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			DetectPolygonFromContour.Info a = expected.get(i);
+			DetectPolygonFromContour.Info b = found.get(i);
+
+			assertEquals(a.contour.externalIndex, b.contour.externalIndex);
+			assertEquals(a.edgeInside, b.edgeInside);
+			assertEquals(a.edgeOutside, b.edgeOutside);
+			assertTrue(a.polygon.isIdentical(b.polygon, 0));
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.shapes.polygon;
+
+import boofcv.abst.shapes.polyline.PointsToPolyline;
+import boofcv.alg.filter.binary.ThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.shape.ConfigPolygonFromContour;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectPolygonFromContour_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		GrayU8 gray = renderClutter(rand,320,240);
+		GrayU8 binary = ThresholdImageOps.threshold(gray,null,100,true);
+
+		for( boolean touchBorder : new boolean[]{false,true}) {
+			ConfigPolygonFromContour config = new ConfigPolygonFromContour(3, 6);
+			config.canTouchBorder = touchBorder;
+
+			DetectPolygonFromContour<GrayU8> single = create(config, false);
+			DetectPolygonFromContour<GrayU8> multi = create(config, true);
+			assertTrue(multi instanceof DetectPolygonFromContour_MT);
+
+			single.process(gray, binary);
+			multi.process(gray, binary);
+
+			compare(single.getFound(), multi.getFound());
+		}
+	}
+
+	/**
+	 * The helper changes the configuration of the polyline. Make sure the configuration ends up the same
+	 */
+	@Test
+	public void compareToSingleThread_helper() {
+		GrayU8 gray = renderClutter(rand,320,240);
+		GrayU8 binary = ThresholdImageOps.threshold(gray,null,100,true);
+
+		ConfigPolygonFromContour config = new ConfigPolygonFromContour(3, 6);
+		config.canTouchBorder = true;
+
+		DetectPolygonFromContour<GrayU8> single = create(config, false);
+		DetectPolygonFromContour<GrayU8> multi = create(config, true);
+		single.setHelper(new BorderHelper());
+		multi.setHelper(new BorderHelper());
+
+		single.process(gray, binary);
+		multi.process(gray, binary);
+
+		compare(single.getFound(), multi.getFound());
+		assertEquals(single.getMinimumSides(), multi.getMinimumSides());
+		assertEquals(single.getMaximumSides(), multi.getMaximumSides());
+		assertEquals(single.isConvex(), multi.isConvex());
+	}
+
+	private DetectPolygonFromContour<GrayU8> create( ConfigPolygonFromContour config , boolean concurrent ) {
+		boolean previous = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		DetectPolygonFromContour<GrayU8> alg = FactoryShapeDetector.polygonContour(config, GrayU8.class);
+		BoofConcurrency.USE_CONCURRENT = previous;
+		return alg;
+	}
+
+	static void compare( FastQueue<DetectPolygonFromContour.Info> expected ,
+						 FastQueue<DetectPolygonFromContour.Info> found ) {
+		assertTrue(expected.size > 10);
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			DetectPolygonFromContour.Info a = expected.get(i);
+			DetectPolygonFromContour.Info b = found.get(i);
+
+			assertEquals(a.contour.externalIndex, b.contour.externalIndex);
+			assertEquals(a.contourTouchesBorder, b.contourTouchesBorder);
+			assertEquals(a.edgeInside, b.edgeInside);
+			assertEquals(a.edgeOutside, b.edgeOutside);
+			assertEquals(a.splits.size, b.splits.size);
+			for (int j = 0; j < a.splits.size; j++) {
+				assertEquals(a.splits.get(j), b.splits.get(j));
+			}
+			assertEquals(a.borderCorners.size, b.borderCorners.size);
+			assertTrue(a.polygon.isIdentical(b.polygon, 0));
+			assertTrue(a.polygonDistorted.isIdentical(b.polygonDistorted, 0));
+		}
+	}
+
+	/**
+	 * Renders a large number of rectangles and small blobs with different intensities
+	 */
+	static GrayU8 renderClutter( Random rand , int width , int height ) {
+		GrayU8 gray = new GrayU8(width,height);
+		ImageMiscOps.fill(gray,200);
+
+		for (int i = 0; i < 150; i++) {
+			int w = 4 + rand.nextInt(30);
+			int h = 4 + rand.nextInt(30);
+			int x = rand.nextInt(width-w/2);
+			int y = rand.nextInt(height-h/2);
+			int value = rand.nextInt(60);
+			ImageMiscOps.fillRectangle(gray,value,x,y,w,h);
+			// create holes and bright regions to break up the shapes
+			if( rand.nextBoolean() )
+				ImageMiscOps.fillRectangle(gray,200,x+w/4,y+h/4,w/3,h/3);
+		}
+		ImageMiscOps.addUniform(gray,rand,-10,10);
+		return gray;
+	}
+
+	/**
+	 * Helper which changes the polyline's configuration depending on if the contour touches the border
+	 */
+	static class BorderHelper implements PolygonHelper {
+		@Override
+		public void setImageShape(int width, int height) {}
+
+		@Override
+		public boolean filterContour(List<Point2D_I32> contour, boolean touchesBorder, boolean distorted) {
+			return true;
+		}
+
+		@Override
+		public boolean filterPixelPolygon(Polygon2D_F64 undistorted, Polygon2D_F64 distorted,
+										  GrowQueue_B touches, boolean touchesBorder) {
+			return true;
+		}
+
+		@Override
+		public void configureBeforePolyline(PointsToPolyline contourToPolyline, boolean touchesBorder) {
+			if( touchesBorder ) {
+				contourToPolyline.setConvex(false);
+				contourToPolyline.setMinimumSides(3);
+				contourToPolyline.setMaximumSides(8);
+			} else {
+				contourToPolyline.setConvex(true);
+				contourToPolyline.setMinimumSides(4);
+				contourToPolyline.setMaximumSides(5);
+			}
+		}
+	}
+}
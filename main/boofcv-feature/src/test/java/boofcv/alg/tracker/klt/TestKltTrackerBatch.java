@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.tracker.klt;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderIndex1D_Extend;
+import boofcv.core.image.border.ImageBorder1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKltTrackerBatch {
+
+	Random rand = new Random(234);
+
+	int imageWidth = 60;
+	int imageHeight = 50;
+	int radius = 3;
+
+	GrayF32 image = new GrayF32(imageWidth, imageHeight);
+	GrayF32 derivX = new GrayF32(imageWidth, imageHeight);
+	GrayF32 derivY = new GrayF32(imageWidth, imageHeight);
+
+	private void createImage() {
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+		BlurImageOps.gaussian(image,image,-1,2,null);
+		GradientSobel.process(image, derivX, derivY, new ImageBorder1D_F32(BorderIndex1D_Extend.class));
+	}
+
+	/**
+	 * Features which are entirely inside the image should produce identical results to {@link KltTracker}
+	 */
+	@Test
+	public void compareToKltTracker_inside() {
+		createImage();
+
+		KltTracker<GrayF32, GrayF32> expected = TestKltTracker.createDefaultTracker();
+		KltTrackerBatch alg = new KltTrackerBatch(expected.getConfig(),radius);
+		expected.setImage(image, derivX, derivY);
+		alg.setImage(BoofTesting.createSubImageOf(image),
+				BoofTesting.createSubImageOf(derivX),BoofTesting.createSubImageOf(derivY));
+
+		int total = 0;
+		for( int y = radius+3; y < imageHeight-radius-3; y += 3) {
+			for( int x = radius+3; x < imageWidth-radius-3; x += 3) {
+				KltFeature feature = new KltFeature(radius);
+				feature.setPosition(x+0.2f,y+0.4f);
+				boolean validExpected = expected.setDescription(feature);
+				int index = alg.addFeature(x+0.2f,y+0.4f);
+				assertEquals(validExpected,alg.setDescription(index));
+				assertTrue(alg.isDescriptionComplete(index));
+
+				float dx = rand.nextFloat()*2-1;
+				float dy = rand.nextFloat()*2-1;
+				feature.setPosition(x+dx,y+dy);
+				alg.setPosition(index,x+dx,y+dy);
+
+				KltTrackFault fault = expected.track(feature);
+				assertSame(fault,alg.track(index));
+				assertEquals(feature.x,alg.getX(index));
+				assertEquals(feature.y,alg.getY(index));
+				if( fault == KltTrackFault.SUCCESS )
+					total++;
+			}
+		}
+		assertTrue(total > 50);
+	}
+
+	/**
+	 * Features which are partially outside the image should produce the same results as {@link KltTracker}
+	 */
+	@Test
+	public void compareToKltTracker_border() {
+		createImage();
+
+		KltTracker<GrayF32, GrayF32> expected = TestKltTracker.createDefaultTracker();
+		KltTrackerBatch alg = new KltTrackerBatch(expected.getConfig(),radius);
+		expected.setImage(image, derivX, derivY);
+		alg.setImage(image, derivX, derivY);
+
+		int numIncomplete = 0;
+		for (int trial = 0; trial < 200; trial++) {
+			// randomly select a point along the border
+			float x = rand.nextFloat()*(imageWidth+2*radius)-radius;
+			float y = rand.nextFloat()*(imageHeight+2*radius)-radius;
+			if( rand.nextBoolean() )
+				x = rand.nextBoolean() ? rand.nextFloat()*radius*2-radius : imageWidth-1-radius+rand.nextFloat()*radius*2;
+			else
+				y = rand.nextBoolean() ? rand.nextFloat()*radius*2-radius : imageHeight-1-radius+rand.nextFloat()*radius*2;
+
+			KltFeature feature = new KltFeature(radius);
+			feature.setPosition(x,y);
+			int index = alg.addFeature(x,y);
+			boolean valid = expected.setDescription(feature);
+			assertEquals(valid,alg.setDescription(index));
+			if( !valid )
+				continue;
+			assertEquals(expected.isDescriptionComplete(feature),alg.isDescriptionComplete(index));
+			if( !alg.isDescriptionComplete(index))
+				numIncomplete++;
+
+			float dx = rand.nextFloat()*2-1;
+			float dy = rand.nextFloat()*2-1;
+			feature.setPosition(x+dx,y+dy);
+			alg.setPosition(index,x+dx,y+dy);
+
+			assertSame(expected.track(feature),alg.track(index));
+			assertEquals(feature.x,alg.getX(index),1e-4f);
+			assertEquals(feature.y,alg.getY(index),1e-4f);
+		}
+		assertTrue(numIncomplete > 20);
+
+		// entirely outside
+		int index = alg.addFeature(-radius-1, 10);
+		assertFalse(alg.setDescription(index));
+		assertSame(KltTrackFault.OUT_OF_BOUNDS, alg.track(index));
+	}
+
+	/**
+	 * Tracking a range of features should be the same as tracking them one at a time
+	 */
+	@Test
+	public void track_range() {
+		createImage();
+
+		KltConfig config = TestKltTracker.createDefaultTracker().getConfig();
+		KltTrackerBatch algA = new KltTrackerBatch(config,radius);
+		KltTrackerBatch algB = new KltTrackerBatch(config,radius);
+		algA.setImage(image, derivX, derivY);
+		algB.setImage(image, derivX, derivY);
+
+		for (int i = 0; i < 100; i++) {
+			float x = rand.nextFloat()*imageWidth;
+			float y = rand.nextFloat()*imageHeight;
+			algA.setDescription(algA.addFeature(x,y));
+			algB.setDescription(algB.addFeature(x,y));
+			float dx = rand.nextFloat()*2-1;
+			float dy = rand.nextFloat()*2-1;
+			algA.setPosition(i,x+dx,y+dy);
+			algB.setPosition(i,x+dx,y+dy);
+		}
+
+		KltTrackerBatch.Workspace work = new KltTrackerBatch.Workspace();
+		algA.track(0,40,work);
+		algA.track(40,100,work);
+		for (int i = 0; i < 100; i++) {
+			assertSame(algB.track(i),algA.getFault(i));
+			assertEquals(algB.getX(i),algA.getX(i));
+			assertEquals(algB.getY(i),algA.getY(i));
+		}
+	}
+
+	@Test
+	public void removeSwap() {
+		createImage();
+
+		KltTrackerBatch alg = new KltTrackerBatch(new KltConfig(),radius);
+		alg.setImage(image, derivX, derivY);
+
+		for (int i = 0; i < 20; i++) {
+			alg.setDescription(alg.addFeature(10+i,20));
+		}
+		KltTrackerBatch copy = new KltTrackerBatch(new KltConfig(),radius);
+		copy.setImage(image, derivX, derivY);
+		copy.setDescription(copy.addFeature(10+19,20));
+
+		alg.removeSwap(5);
+		assertEquals(19,alg.size());
+		assertEquals(10+19,alg.getX(5));
+		int L = alg.lengthFeature;
+		for (int i = 0; i < L; i++) {
+			assertEquals(copy.desc[i],alg.desc[5*L+i]);
+			assertEquals(copy.descX[i],alg.descX[5*L+i]);
+		}
+		assertEquals(copy.Gxx[0],alg.Gxx[5]);
+
+		alg.removeSwap(18);
+		assertEquals(18,alg.size());
+		alg.reset();
+		assertEquals(0,alg.size());
+	}
+}
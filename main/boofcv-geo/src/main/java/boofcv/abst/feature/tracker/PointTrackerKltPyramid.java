@@ -236,27 +236,30 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		// update image pyramids
 		basePyramid.process(image);
 		declareOutput();
-		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
+		computeGradient();
 
 		// track features
 		tracker.setImage(basePyramid,derivX,derivY);
+		trackFeatures(image);
+	}
+
+	/**
+	 * Computes the gradient of each layer in the pyramid
+	 */
+	protected void computeGradient() {
+		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
+	}
+
+	/**
+	 * Tracks all the active features. Features which fail are moved into the dropped and unused lists.
+	 */
+	protected void trackFeatures(I image) {
 		for( int i = 0; i < active.size(); ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
-			}
 
-			if( !success ) {
+			if( trackFeature(tracker, image, t) ) {
+				i++;
+			} else {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
@@ -264,6 +267,27 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Tracks a single feature and updates its description
+	 *
+	 * @param tracker The tracker. Must have its image set.
+	 * @return true if successful or false if the track should be dropped
+	 */
+	protected static <I extends ImageGray<I>,D extends ImageGray<D>>
+	boolean trackFeature( PyramidKltTracker<I,D> tracker , I image , PyramidKltFeature t ) {
+		KltTrackFault ret = tracker.track(t);
+
+		if( ret == KltTrackFault.SUCCESS ) {
+			// discard a track if its center drifts outside the image.
+			if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected void declareOutput() {
 		if( derivX == null ) {
 			// declare storage for image derivative since the image size is now known
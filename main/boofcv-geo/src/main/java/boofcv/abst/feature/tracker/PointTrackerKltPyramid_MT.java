@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.KltTracker;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PointTrackerKltPyramid}. Active features are divided into blocks and each
+ * thread tracks a block using its own {@link KltTracker} and interpolators. The results are then merged in the
+ * original order of the active list, so the active, dropped and unused lists are identical to the single threaded
+ * version. The gradient of each pyramid layer is computed in parallel, using a different gradient operator for
+ * each layer.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// Minimum number of features tracked by a thread
+	public static int MIN_BLOCK = 20;
+
+	// creates the gradient operator for each layer
+	BoofLambdas.Factory<ImageGradient<I,D>> factoryGradient;
+	List<ImageGradient<I,D>> layerGradients = new ArrayList<>();
+
+	// trackers for each thread
+	FastQueue<PyramidKltTracker<I,D>> trackers;
+
+	// indicates if the feature at the same index in the active list was successfully tracked
+	GrowQueue_B success = new GrowQueue_B();
+
+	/**
+	 * @see PointTrackerKltPyramid#PointTrackerKltPyramid
+	 *
+	 * @param factoryGradient Creates a gradient operator
+	 * @param factoryInterpInput Creates interpolation for the input image
+	 * @param factoryInterpDeriv Creates interpolation for gradient images
+	 */
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 int templateRadius ,
+									 PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 BoofLambdas.Factory<ImageGradient<I,D>> factoryGradient,
+									 BoofLambdas.Factory<InterpolateRectangle<I>> factoryInterpInput,
+									 BoofLambdas.Factory<InterpolateRectangle<D>> factoryInterpDeriv,
+									 Class<D> derivType ) {
+		super(config, templateRadius, pyramid, detector, factoryGradient.newInstance(),
+				factoryInterpInput.newInstance(), factoryInterpDeriv.newInstance(), derivType);
+
+		this.factoryGradient = factoryGradient;
+		this.layerGradients.add(gradient);
+
+		trackers = new FastQueue<PyramidKltTracker<I,D>>(1,(Class)PyramidKltTracker.class,true) {
+			@Override
+			protected PyramidKltTracker<I,D> createInstance() {
+				KltTracker<I, D> klt = new KltTracker<>(
+						factoryInterpInput.newInstance(), factoryInterpDeriv.newInstance(), config);
+				return new PyramidKltTracker<>(klt);
+			}
+		};
+	}
+
+	@Override
+	protected void computeGradient() {
+		while( layerGradients.size() < basePyramid.getNumLayers() )
+			layerGradients.add(factoryGradient.newInstance());
+
+		BoofConcurrency.loopFor(0,basePyramid.getNumLayers(),i->
+			layerGradients.get(i).process(basePyramid.getLayer(i),derivX[i],derivY[i]));
+	}
+
+	@Override
+	protected void trackFeatures(I image) {
+		final int N = active.size();
+		success.resize(N);
+
+		BoofConcurrency.loopBlocks(0,N,MIN_BLOCK,trackers,(tracker,idx0,idx1)->{
+			tracker.setImage(basePyramid,derivX,derivY);
+			for (int i = idx0; i < idx1; i++) {
+				success.data[i] = trackFeature(tracker,image,active.get(i));
+			}
+		});
+
+		// remove features which failed while preserving the order
+		int numActive = 0;
+		for (int i = 0; i < N; i++) {
+			PyramidKltFeature t = active.get(i);
+			if( success.data[i] ) {
+				active.set(numActive++,t);
+			} else {
+				dropped.add( t );
+				unused.add( t );
+			}
+		}
+		while( active.size() > numActive )
+			active.remove(active.size()-1);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointTrackerKltPyramid_MT extends StandardPointTracker<GrayF32> {
+
+	Random rand = new Random(234);
+
+	public TestPointTrackerKltPyramid_MT() {
+		super(false, true);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return createTracker(true);
+	}
+
+	private PointTrackerKltPyramid<GrayF32,GrayF32> createTracker( boolean concurrent ) {
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		try {
+			return (PointTrackerKltPyramid<GrayF32,GrayF32>)FactoryPointTracker.klt(new PkltConfig(),
+					new ConfigGeneralDetector(500, 3, 1000, 0, true), GrayF32.class, GrayF32.class);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+
+	/**
+	 * Track features across several frames. Tracks and dropped tracks should be identical and in the same order
+	 */
+	@Test
+	public void compareToSingleThread() {
+		PointTrackerKltPyramid<GrayF32,GrayF32> expected = createTracker(false);
+		PointTrackerKltPyramid<GrayF32,GrayF32> found = createTracker(true);
+		assertTrue(found instanceof PointTrackerKltPyramid_MT);
+
+		GrayF32 frame = new GrayF32(200,180);
+		GrayF32 shifted = new GrayF32(200,180);
+		GImageMiscOps.fillUniform(frame,rand,0,200);
+		GBlurImageOps.gaussian(frame,frame,-1,2,null);
+
+		expected.process(frame);
+		found.process(frame);
+		expected.spawnTracks();
+		found.spawnTracks();
+		compare(expected.active,found.active);
+		assertTrue(expected.active.size() > 100);
+
+		for (int i = 1; i <= 4; i++) {
+			// shift the image and add a region which will cause tracks to be dropped
+			GImageMiscOps.fill(shifted,0);
+			GImageMiscOps.copy(0,0,i,i,frame.width-i,frame.height-i,frame,shifted);
+			GImageMiscOps.fillRectangle(shifted,0,i*20,0,15,shifted.height);
+
+			expected.process(shifted);
+			found.process(shifted);
+
+			compare(expected.active,found.active);
+			compare(expected.dropped,found.dropped);
+			compare(expected.unused,found.unused);
+		}
+		assertTrue(expected.dropped.size() > 0 || expected.unused.size() > 0);
+	}
+
+	private void compare( List<PyramidKltFeature> expected , List<PyramidKltFeature> found ) {
+		assertEquals(expected.size(),found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PyramidKltFeature e = expected.get(i);
+			PyramidKltFeature f = found.get(i);
+			assertEquals(e.x,f.x);
+			assertEquals(e.y,f.y);
+			assertEquals(((PointTrack)e.cookie).featureId,((PointTrack)f.cookie).featureId);
+		}
+	}
+}
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processes a large number of images using multiple threads, e.g. for offline processing of an image database.
+ * Instead of making an algorithm internally concurrent, one instance of the algorithm is created for each worker
+ * thread and each worker processes a different image. Images are loaded by separate threads and passed to
+ * the workers through a bounded queue. A fixed number of image buffers are recycled, so when the workers
+ * can't keep up the loaders are blocked until a buffer is available.
+ *
+ * The time spent in each stage is recorded and can be used to determine if loading or processing is the
+ * bottle neck.
+ *
+ * <pre>
+ * BatchImageProcessor<GrayU8,Foo> batch = new BatchImageProcessor<>(ImageType.single(GrayU8.class),
+ *         Foo::new, (alg,image,index)->results[index]=alg.compute(image));
+ * batch.process(paths);
+ * </pre>
+ *
+ * @param <T> Type of image being processed
+ * @param <Alg> Algorithm which processes each image
+ *
+ * @author Peter Abeles
+ */
+public class BatchImageProcessor<T extends ImageBase<T>, Alg> {
+
+	// Type of image the input images are converted into
+	ImageType<T> imageType;
+	// Creates an instance of the algorithm for each worker
+	BoofLambdas.Factory<Alg> factory;
+	// Processes a single image
+	ProcessImage<T,Alg> processor;
+
+	// Number of threads processing images
+	int numWorkers = BoofConcurrency.getMaxThreads();
+	// Number of threads loading images. Only used when processing a list of files
+	int numLoaders = 1;
+	// Number of image buffers shared by loaders and workers
+	int queueSize = 2*numWorkers;
+	// If true then color images are converted in RGB order
+	boolean orderRgb = true;
+
+	// Algorithm used by each worker. Created when first needed and reused
+	List<Alg> algorithms = new ArrayList<>();
+
+	// Images which have been loaded and are waiting to be processed
+	BlockingQueue<Frame<T>> ready;
+	// Images which can be loaded into
+	BlockingQueue<Frame<T>> free;
+
+	// Threads used in the most recent call to process
+	List<Thread> threads = new ArrayList<>();
+	// First exception thrown by any of the threads
+	AtomicReference<Throwable> error = new AtomicReference<>();
+
+	// Statistics for the most recent call to process
+	AtomicInteger totalProcessed = new AtomicInteger();
+	List<String> failed = Collections.synchronizedList(new ArrayList<>());
+	AtomicLong nanoLoading = new AtomicLong();
+	AtomicLong nanoLoaderBlocked = new AtomicLong();
+	AtomicLong nanoProcessing = new AtomicLong();
+	AtomicLong nanoWorkerIdle = new AtomicLong();
+	long nanoTotal;
+
+	/**
+	 * Configures the batch processor
+	 *
+	 * @param imageType Type of image which is passed to the algorithm
+	 * @param factory Creates a new instance of the algorithm. Called once for each worker thread.
+	 * @param processor Processes a single image using the worker's algorithm
+	 */
+	public BatchImageProcessor(ImageType<T> imageType, BoofLambdas.Factory<Alg> factory,
+							   ProcessImage<T, Alg> processor) {
+		this.imageType = imageType;
+		this.factory = factory;
+		this.processor = processor;
+	}
+
+	/**
+	 * Loads and processes every image in the list. Returns after all the images have been processed. Images
+	 * which could not be loaded are skipped and can be found by calling {@link #getFailed()}.
+	 *
+	 * @param paths Path to each image. The index of an image in this list is passed to the processor.
+	 */
+	public void process( final List<String> paths ) {
+		final AtomicInteger next = new AtomicInteger();
+
+		start();
+		List<Thread> loaders = new ArrayList<>();
+		for (int i = 0; i < numLoaders; i++) {
+			loaders.add(new Thread(() -> {
+				int index;
+				while( (index = next.getAndIncrement()) < paths.size() ) {
+					Frame<T> frame = takeFree();
+					if( frame == null )
+						return;
+
+					long time0 = System.nanoTime();
+					String path = paths.get(index);
+					T loaded = UtilImageIO.loadImage(path, orderRgb, frame.image);
+					nanoLoading.addAndGet(System.nanoTime()-time0);
+
+					if( loaded == null ) {
+						failed.add(path);
+						free.add(frame);
+					} else {
+						frame.index = index;
+						ready.add(frame);
+					}
+				}
+			},"BatchLoader"+i));
+		}
+		finish(loaders);
+	}
+
+	/**
+	 * Processes every remaining image in the sequence. Images are read from the sequence in a single thread,
+	 * then a copy is passed to the workers. Returns after all the images have been processed.
+	 *
+	 * @param sequence The image sequence. Index of the first image processed is 0.
+	 */
+	public void process( final SimpleImageSequence<T> sequence ) {
+		start();
+		List<Thread> loaders = new ArrayList<>();
+		loaders.add(new Thread(() -> {
+			int index = 0;
+			while( sequence.hasNext() ) {
+				Frame<T> frame = takeFree();
+				if( frame == null )
+					return;
+
+				long time0 = System.nanoTime();
+				frame.image.setTo(sequence.next());
+				nanoLoading.addAndGet(System.nanoTime()-time0);
+
+				frame.index = index++;
+				ready.add(frame);
+			}
+		},"BatchLoader"));
+		finish(loaders);
+	}
+
+	/**
+	 * Resets statistics, creates the queues, and starts the worker threads
+	 */
+	void start() {
+		totalProcessed.set(0);
+		failed.clear();
+		nanoLoading.set(0);
+		nanoLoaderBlocked.set(0);
+		nanoProcessing.set(0);
+		nanoWorkerIdle.set(0);
+		nanoTotal = System.nanoTime();
+		error.set(null);
+		threads.clear();
+
+		// there are never more frames than either queue can hold, so adding to a queue will never block
+		ready = new ArrayBlockingQueue<>(queueSize+numWorkers);
+		free = new ArrayBlockingQueue<>(queueSize);
+		for (int i = 0; i < queueSize; i++) {
+			free.add(new Frame<>(imageType.createImage(1,1)));
+		}
+
+		while( algorithms.size() < numWorkers ) {
+			algorithms.add(factory.newInstance());
+		}
+
+		for (int i = 0; i < numWorkers; i++) {
+			final Alg algorithm = algorithms.get(i);
+			threads.add(new Thread(() -> {
+				while( true ) {
+					long time0 = System.nanoTime();
+					Frame<T> frame;
+					try {
+						frame = ready.take();
+					} catch (InterruptedException e) {
+						return;
+					}
+					long time1 = System.nanoTime();
+					nanoWorkerIdle.addAndGet(time1-time0);
+
+					// a frame without an image indicates that there are no more images
+					if( frame.image == null )
+						return;
+
+					processor.process(algorithm, frame.image, frame.index);
+					nanoProcessing.addAndGet(System.nanoTime()-time1);
+					totalProcessed.incrementAndGet();
+					free.add(frame);
+				}
+			},"BatchWorker"+i));
+		}
+	}
+
+	/**
+	 * Starts the loaders and blocks until all the images have been processed
+	 */
+	void finish( List<Thread> loaders ) {
+		threads.addAll(loaders);
+		for( Thread t : threads ) {
+			t.setUncaughtExceptionHandler((thread,e)->abort(e));
+		}
+		for( Thread t : threads ) {
+			t.start();
+		}
+
+		try {
+			for( Thread t : loaders ) {
+				t.join();
+			}
+			// tell all the workers to stop
+			for (int i = 0; i < numWorkers; i++) {
+				ready.add(new Frame<>(null));
+			}
+			for( Thread t : threads ) {
+				t.join();
+			}
+		} catch (InterruptedException e) {
+			abort(e);
+			Thread.currentThread().interrupt();
+		}
+		nanoTotal = System.nanoTime()-nanoTotal;
+
+		Throwable e = error.get();
+		if( e instanceof RuntimeException )
+			throw (RuntimeException)e;
+		if( e instanceof Error )
+			throw (Error)e;
+		if( e != null )
+			throw new RuntimeException(e);
+	}
+
+	/**
+	 * Takes a frame which can be loaded into. Blocks until one is available. If null is returned the loader
+	 * should stop.
+	 */
+	Frame<T> takeFree() {
+		if( error.get() != null )
+			return null;
+		long time0 = System.nanoTime();
+		try {
+			return free.take();
+		} catch (InterruptedException e) {
+			return null;
+		} finally {
+			nanoLoaderBlocked.addAndGet(System.nanoTime()-time0);
+		}
+	}
+
+	/**
+	 * Records the first error and stops all the threads
+	 */
+	void abort( Throwable e ) {
+		if( !error.compareAndSet(null,e) )
+			return;
+		for( Thread t : threads ) {
+			t.interrupt();
+		}
+	}
+
+	/**
+	 * Prints a summary of how long each stage took in the most recent call to process
+	 */
+	public void printStatistics( PrintStream out ) {
+		out.printf("images %d failed %d, total %.1f ms, %.1f images/sec\n",
+				getTotalProcessed(),failed.size(),getTotalMS(),getImagesPerSecond());
+		out.printf("  loading    %10.1f ms  blocked %10.1f ms\n",getLoadingMS(),getLoaderBlockedMS());
+		out.printf("  processing %10.1f ms  idle    %10.1f ms\n",getProcessingMS(),getWorkerIdleMS());
+	}
+
+	/**
+	 * Number of images processed
+	 */
+	public int getTotalProcessed() {
+		return totalProcessed.get();
+	}
+
+	/**
+	 * Paths to images which could not be loaded
+	 */
+	public List<String> getFailed() {
+		return failed;
+	}
+
+	/**
+	 * Number of images processed per second of elapsed time
+	 */
+	public double getImagesPerSecond() {
+		return getTotalProcessed()/(getTotalMS()/1000.0);
+	}
+
+	/**
+	 * Elapsed time to process all the images
+	 */
+	public double getTotalMS() {
+		return nanoTotal*1e-6;
+	}
+
+	/**
+	 * Time spent loading images summed across all the loaders
+	 */
+	public double getLoadingMS() {
+		return nanoLoading.get()*1e-6;
+	}
+
+	/**
+	 * Time loaders spent waiting for the workers to free up an image buffer, summed across all the loaders
+	 */
+	public double getLoaderBlockedMS() {
+		return nanoLoaderBlocked.get()*1e-6;
+	}
+
+	/**
+	 * Time spent processing images summed across all the workers
+	 */
+	public double getProcessingMS() {
+		return nanoProcessing.get()*1e-6;
+	}
+
+	/**
+	 * Time workers spent waiting for an image to be loaded, summed across all the workers
+	 */
+	public double getWorkerIdleMS() {
+		return nanoWorkerIdle.get()*1e-6;
+	}
+
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+
+	/**
+	 * Specifies the number of threads which process images
+	 */
+	public void setNumWorkers(int numWorkers) {
+		this.numWorkers = Math.max(1,numWorkers);
+	}
+
+	public int getNumLoaders() {
+		return numLoaders;
+	}
+
+	/**
+	 * Specifies the number of threads which load images from disk. Only used when processing a list of files.
+	 */
+	public void setNumLoaders(int numLoaders) {
+		this.numLoaders = Math.max(1,numLoaders);
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Specifies the number of image buffers. This limits how many images can be loaded but not yet processed.
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = Math.max(1,queueSize);
+	}
+
+	public boolean isOrderRgb() {
+		return orderRgb;
+	}
+
+	public void setOrderRgb(boolean orderRgb) {
+		this.orderRgb = orderRgb;
+	}
+
+	/**
+	 * Processes a single image
+	 */
+	public interface ProcessImage<T extends ImageBase<T>, Alg> {
+		/**
+		 * Processes the image. Called from a worker thread. The image is recycled after this function returns.
+		 *
+		 * @param algorithm The worker's instance of the algorithm
+		 * @param image The image being processed
+		 * @param index Index of the image in the input list or sequence
+		 */
+		void process( Alg algorithm, T image, int index );
+	}
+
+	/**
+	 * Reusable image buffer which is passed between loaders and workers
+	 */
+	static class Frame<T extends ImageBase<T>> {
+		T image;
+		int index;
+
+		Frame(T image) {
+			this.image = image;
+		}
+	}
+}
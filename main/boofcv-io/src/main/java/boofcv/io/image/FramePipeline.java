@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.misc.BoofLambdas;
+import boofcv.struct.image.ImageBase;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Processes a sequence of frames, e.g. from a video or camera, with each stage of processing running in its
+ * own thread. While one frame is being decoded the previous frame can be converted and the one before that
+ * tracked. Frames pass through every stage in the order they were read, so stages can have state which
+ * depends on the previous frame, e.g. a point tracker.
+ *
+ * A fixed number of frames are created up front and recycled after the last stage has finished with them.
+ * If all the frames are in use then the source is blocked until one is freed. If frame dropping is turned
+ * on then the oldest frame which is waiting for the first stage is dropped instead and reused for the new frame.
+ * This way the stages work on the most recent frames and latency stays low when processing a live camera. The
+ * source is only blocked when every frame is inside a stage. Dropping is intended for sources which block until
+ * the next frame is available. A source which can always return a frame immediately, e.g. a video file, will
+ * be read as fast as possible with most of its frames dropped.
+ *
+ * <pre>
+ * FramePipeline<MyFrame> pipeline = new FramePipeline<>(MyFrame::new);
+ * pipeline.addStage("Convert",(frame,number)->ConvertImage.average(frame.color,frame.gray));
+ * pipeline.addStage("Track",(frame,number)->tracker.process(frame.gray));
+ * pipeline.process(FramePipeline.fromSequence(sequence,frame->frame.color));
+ * </pre>
+ *
+ * @param <F> Data structure which stores everything related to a single frame
+ *
+ * @author Peter Abeles
+ */
+public class FramePipeline<F> {
+
+	// Creates storage for a frame
+	BoofLambdas.Factory<F> factoryFrame;
+
+	// Processing stages in the order they are applied
+	List<StageInfo<F>> stages = new ArrayList<>();
+
+	// Number of frames which are recycled
+	int numFrames;
+	// If true then frames are dropped when the source gets ahead of the stages
+	boolean dropFrames = false;
+
+	// Frames which are not being used by any stage
+	BlockingQueue<Slot<F>> free;
+
+	// Threads used in the most recent call to process
+	List<Thread> threads = new ArrayList<>();
+	// First exception thrown by any of the threads
+	AtomicReference<Throwable> error = new AtomicReference<>();
+	// Used to stop processing from another thread
+	volatile boolean requestStop;
+
+	// Statistics for the most recent call to process
+	volatile int totalRead;
+	volatile int totalDropped;
+	volatile int totalFinished;
+	long nanoLatencySum;
+	long nanoLatencyMax;
+	long nanoTotal;
+	StageInfo<F> source = new StageInfo<>("Source",null);
+
+	/**
+	 * Creates the pipeline. By default there are two frames for each stage plus the one being read.
+	 *
+	 * @param factoryFrame Creates storage for a single frame
+	 */
+	public FramePipeline(BoofLambdas.Factory<F> factoryFrame) {
+		this.factoryFrame = factoryFrame;
+	}
+
+	/**
+	 * Adds a stage to the end of the pipeline. Each stage is run in its own thread.
+	 *
+	 * @param name Name used when printing statistics
+	 * @param stage Processes the frame
+	 */
+	public void addStage( String name , Stage<F> stage ) {
+		stages.add(new StageInfo<>(name,stage));
+	}
+
+	/**
+	 * Processes frames until the source runs out of frames or {@link #requestStop()} is called. Returns after
+	 * the last frame has been processed by every stage.
+	 *
+	 * @param frameSource Provides frames
+	 */
+	public void process( FrameSource<F> frameSource ) {
+		if( stages.isEmpty() )
+			throw new IllegalArgumentException("Need to add at least one stage");
+
+		initialize();
+
+		threads.add(new Thread(() -> readFrames(frameSource),"PipelineSource"));
+		for (int i = 0; i < stages.size(); i++) {
+			final StageInfo<F> stage = stages.get(i);
+			final BlockingQueue<Slot<F>> output = i+1 < stages.size() ? stages.get(i+1).input : null;
+			threads.add(new Thread(() -> runStage(stage,output),"Pipeline"+stage.name));
+		}
+
+		for( Thread t : threads ) {
+			t.setUncaughtExceptionHandler((thread,e)->abort(e));
+		}
+		for( Thread t : threads ) {
+			t.start();
+		}
+
+		try {
+			for( Thread t : threads ) {
+				t.join();
+			}
+		} catch (InterruptedException e) {
+			abort(e);
+			Thread.currentThread().interrupt();
+		}
+		nanoTotal = System.nanoTime()-nanoTotal;
+
+		Throwable e = error.get();
+		if( e instanceof RuntimeException )
+			throw (RuntimeException)e;
+		if( e instanceof Error )
+			throw (Error)e;
+		if( e != null )
+			throw new RuntimeException(e);
+	}
+
+	/**
+	 * Creates the frames and queues and resets statistics
+	 */
+	void initialize() {
+		int numFrames = this.numFrames > 0 ? this.numFrames : 2*stages.size()+1;
+
+		// Queues are large enough to hold every frame plus the end of sequence marker so adding will never block
+		free = new ArrayBlockingQueue<>(numFrames);
+		for( StageInfo<F> s : stages ) {
+			s.input = new ArrayBlockingQueue<>(numFrames+1);
+			s.reset();
+		}
+		for (int i = 0; i < numFrames; i++) {
+			free.add(new Slot<>(factoryFrame.newInstance()));
+		}
+
+		source.reset();
+		threads.clear();
+		error.set(null);
+		requestStop = false;
+		totalRead = totalDropped = totalFinished = 0;
+		nanoLatencySum = nanoLatencyMax = 0;
+		nanoTotal = System.nanoTime();
+	}
+
+	/**
+	 * Reads frames from the source and passes them to the first stage
+	 */
+	void readFrames( FrameSource<F> frameSource ) {
+		BlockingQueue<Slot<F>> output = stages.get(0).input;
+		try {
+			while( !requestStop && error.get() == null ) {
+				long time0 = System.nanoTime();
+				Slot<F> slot = dropFrames ? free.poll() : free.take();
+				if( slot == null ) {
+					// drop the oldest frame which hasn't been processed yet. Block if there is none
+					slot = output.poll();
+					if( slot != null )
+						totalDropped++;
+					else
+						slot = free.take();
+				}
+
+				long time1 = System.nanoTime();
+				if( !frameSource.read(slot.data) )
+					break;
+				long time2 = System.nanoTime();
+				source.nanoIdle += time1-time0;
+				source.nanoProcessing += time2-time1;
+				source.frames++;
+
+				slot.number = totalRead++;
+				slot.nanoRead = time2;
+				output.add(slot);
+			}
+		} catch (InterruptedException ignore) {
+		} finally {
+			// mark the end of the sequence
+			output.add(new Slot<>(null));
+		}
+	}
+
+	/**
+	 * Processes frames until the end of sequence is reached or another thread fails. The end of sequence marker
+	 * is always passed on to the next stage, even if this stage fails, so shutting down doesn't depend on
+	 * the other stages responding to being interrupted.
+	 */
+	void runStage( StageInfo<F> stage , BlockingQueue<Slot<F>> output ) {
+		try {
+			while( error.get() == null ) {
+				long time0 = System.nanoTime();
+				Slot<F> slot = stage.input.take();
+				if( slot.data == null )
+					return;
+
+				long time1 = System.nanoTime();
+				stage.stage.process(slot.data,slot.number);
+				long time2 = System.nanoTime();
+				stage.nanoIdle += time1-time0;
+				stage.nanoProcessing += time2-time1;
+				stage.frames++;
+
+				if( output != null ) {
+					output.add(slot);
+				} else {
+					long latency = time2-slot.nanoRead;
+					nanoLatencySum += latency;
+					nanoLatencyMax = Math.max(nanoLatencyMax,latency);
+					totalFinished++;
+					free.add(slot);
+				}
+			}
+		} catch (InterruptedException ignore) {
+		} finally {
+			// mark the end of the sequence
+			if( output != null )
+				output.add(new Slot<>(null));
+		}
+	}
+
+	/**
+	 * Records the first error and stops all the threads
+	 */
+	void abort( Throwable e ) {
+		if( !error.compareAndSet(null,e) )
+			return;
+		for( Thread t : threads ) {
+			t.interrupt();
+		}
+	}
+
+	/**
+	 * Tells the source to stop reading frames. Frames which have already been read will finish being processed.
+	 * Can be called from any thread.
+	 */
+	public void requestStop() {
+		requestStop = true;
+	}
+
+	/**
+	 * Prints how long each stage took in the most recent call to process
+	 */
+	public void printStatistics( PrintStream out ) {
+		out.printf("frames read %d dropped %d finished %d, %.1f fps, latency ave %.1f ms max %.1f ms\n",
+				totalRead,totalDropped,totalFinished,getFramesPerSecond(),
+				getAverageLatencyMS(),nanoLatencyMax*1e-6);
+		out.printf("  %-12s %8.2f ms/frame  idle %10.1f ms\n",
+				source.name,source.getAverageMS(),source.getIdleMS());
+		for( StageInfo<F> s : stages ) {
+			out.printf("  %-12s %8.2f ms/frame  idle %10.1f ms\n", s.name,s.getAverageMS(),s.getIdleMS());
+		}
+	}
+
+	/**
+	 * Number of frames read from the source, including dropped frames
+	 */
+	public int getTotalRead() {
+		return totalRead;
+	}
+
+	/**
+	 * Number of frames which were read and not processed
+	 */
+	public int getTotalDropped() {
+		return totalDropped;
+	}
+
+	/**
+	 * Number of frames which were processed by every stage
+	 */
+	public int getTotalFinished() {
+		return totalFinished;
+	}
+
+	/**
+	 * Number of frames processed by every stage per second of elapsed time
+	 */
+	public double getFramesPerSecond() {
+		return totalFinished/(nanoTotal*1e-9);
+	}
+
+	/**
+	 * Average time from when a frame was read until it was finished by the last stage
+	 */
+	public double getAverageLatencyMS() {
+		return totalFinished == 0 ? 0 : nanoLatencySum*1e-6/totalFinished;
+	}
+
+	/**
+	 * Maximum time from when a frame was read until it was finished by the last stage
+	 */
+	public double getMaximumLatencyMS() {
+		return nanoLatencyMax*1e-6;
+	}
+
+	/**
+	 * Statistics for reading frames from the source
+	 */
+	public StageInfo<F> getSourceInfo() {
+		return source;
+	}
+
+	/**
+	 * Statistics for the stage at the specified index
+	 */
+	public StageInfo<F> getStageInfo( int index ) {
+		return stages.get(index);
+	}
+
+	public int getNumberOfStages() {
+		return stages.size();
+	}
+
+	public int getNumFrames() {
+		return numFrames;
+	}
+
+	/**
+	 * Specifies the number of frames which are recycled. This limits how far the source can get ahead of the
+	 * last stage. If &le; 0 then there are two frames for each stage plus one.
+	 */
+	public void setNumFrames(int numFrames) {
+		this.numFrames = numFrames;
+	}
+
+	public boolean isDropFrames() {
+		return dropFrames;
+	}
+
+	/**
+	 * If true then when every frame is in use the oldest frame waiting for the first stage is dropped, instead of
+	 * blocking the source
+	 */
+	public void setDropFrames(boolean dropFrames) {
+		this.dropFrames = dropFrames;
+	}
+
+	/**
+	 * Creates a frame source which copies images from a {@link SimpleImageSequence}
+	 *
+	 * @param sequence The image sequence
+	 * @param image Returns the image inside of the frame which the sequence's image is copied into
+	 */
+	public static <F,T extends ImageBase<T>>
+	FrameSource<F> fromSequence( SimpleImageSequence<T> sequence , FrameImage<F,T> image ) {
+		return frame -> {
+			if( !sequence.hasNext() )
+				return false;
+			image.get(frame).setTo(sequence.next());
+			return true;
+		};
+	}
+
+	/**
+	 * Reads the next frame
+	 */
+	public interface FrameSource<F> {
+		/**
+		 * Reads the next frame into the provided storage
+		 *
+		 * @param frame (Output) Storage for the frame
+		 * @return true if a frame was read or false if there are no more frames
+		 */
+		boolean read( F frame );
+	}
+
+	/**
+	 * A single stage in the pipeline
+	 */
+	public interface Stage<F> {
+		/**
+		 * Processes the frame. Frames are processed in the order they were read.
+		 *
+		 * @param frame The frame
+		 * @param frameNumber Number of frames read from the source before this one, including dropped frames
+		 */
+		void process( F frame , int frameNumber );
+	}
+
+	/**
+	 * Returns the image inside of a frame
+	 */
+	public interface FrameImage<F,T extends ImageBase<T>> {
+		T get( F frame );
+	}
+
+	/**
+	 * Timing information for a stage
+	 */
+	public static class StageInfo<F> {
+		String name;
+		Stage<F> stage;
+		// frames which are waiting to be processed by this stage
+		BlockingQueue<Slot<F>> input;
+
+		volatile int frames;
+		volatile long nanoProcessing;
+		volatile long nanoIdle;
+
+		StageInfo(String name, Stage<F> stage) {
+			this.name = name;
+			this.stage = stage;
+		}
+
+		void reset() {
+			frames = 0;
+			nanoProcessing = 0;
+			nanoIdle = 0;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Number of frames processed
+		 */
+		public int getFrames() {
+			return frames;
+		}
+
+		/**
+		 * Average time to process a frame
+		 */
+		public double getAverageMS() {
+			return frames == 0 ? 0 : nanoProcessing*1e-6/frames;
+		}
+
+		/**
+		 * Total time spent waiting for a frame
+		 */
+		public double getIdleMS() {
+			return nanoIdle*1e-6;
+		}
+	}
+
+	/**
+	 * Frame and the information needed to track it through the pipeline
+	 */
+	static class Slot<F> {
+		F data;
+		// number of frames read before this one
+		int number;
+		// time the frame finished being read
+		long nanoRead;
+
+		Slot(F data) {
+			this.data = data;
+		}
+	}
+}
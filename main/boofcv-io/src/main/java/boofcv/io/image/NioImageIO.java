@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.struct.image.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes 8-bit images using NIO {@link FileChannel} directly into BoofCV images, skipping
+ * {@link java.awt.image.BufferedImage} entirely. Supported file formats are binary PGM (P5), binary PPM (P6),
+ * and a raw format which is a 16 byte header followed by interleaved pixels. The raw header is "BRAW" followed by
+ * the width, height, and number of bands as big endian 32-bit integers.
+ *
+ * Supported image types are {@link GrayU8}, {@link InterleavedU8}, and {@link Planar} of {@link GrayU8}. If the
+ * layout of the image matches the file then pixels are read straight into the image's array. Otherwise the file
+ * is memory mapped and converted row by row. A color file read into a {@link GrayU8} is converted by averaging
+ * the bands.
+ *
+ * An instance keeps work space memory so that reading many images doesn't create garbage. Not thread safe. Use
+ * one instance per thread.
+ *
+ * @author Peter Abeles
+ */
+public class NioImageIO {
+
+	// Magic number at the start of raw files
+	public static final byte[] RAW_MAGIC = "BRAW".getBytes(StandardCharsets.US_ASCII);
+	// Size of the raw file header in bytes
+	public static final int RAW_HEADER_SIZE = 16;
+
+	// Storage for the start of the file while the header is parsed
+	ByteBuffer header = ByteBuffer.allocate(1024);
+	// Storage for a single row when converting
+	byte[] row = new byte[0];
+
+	// Information on the most recently read header
+	int width, height, numBands;
+	long dataOffset;
+	// true if the most recently read file was in the raw format or false if PNM
+	boolean raw;
+
+	/**
+	 * Returns true if the file name has an extension for a format this class can read
+	 */
+	public static boolean isSupportedFile( String fileName ) {
+		String name = fileName.toLowerCase();
+		return name.endsWith(".pgm") || name.endsWith(".ppm") || name.endsWith(".pnm") || name.endsWith(".raw");
+	}
+
+	/**
+	 * Returns true if the image type can be read into and written from
+	 */
+	public static boolean isSupportedImage( ImageBase image ) {
+		if( image instanceof GrayU8 || image instanceof InterleavedU8 )
+			return true;
+		return image instanceof Planar && ((Planar)image).getBandType() == GrayU8.class;
+	}
+
+	/**
+	 * Reads a PGM, PPM, or raw image. The format is determined from the file's contents.
+	 *
+	 * @param fileName Path to the image
+	 * @param output (Output) Storage for the image. Reshaped to match the image. Interleaved and planar images
+	 *               will have their number of bands changed to match the file.
+	 * @return The output image
+	 * @throws IOException If the file can't be read or has an unsupported format
+	 */
+	public <T extends ImageBase<T>> T read( String fileName , T output ) throws IOException {
+		if( !isSupportedImage(output) )
+			throw new IllegalArgumentException("Unsupported image type "+output.getClass().getSimpleName());
+
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			readHeader(channel);
+
+			long length = (long)width*height*numBands;
+			if( dataOffset + length > channel.size() )
+				throw new IOException("File is truncated");
+
+			if( output instanceof GrayU8 ) {
+				readGray(channel,(GrayU8)output);
+			} else if( output instanceof InterleavedU8 ) {
+				readInterleaved(channel,(InterleavedU8)output);
+			} else {
+				readPlanar(channel,(Planar<GrayU8>)output);
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Reads only the header of a PGM, PPM, or raw image. Afterwards the image's shape and format can be
+	 * found by calling {@link #getWidth()}, {@link #getHeight()}, {@link #getNumBands()}, and {@link #isRaw()}.
+	 *
+	 * @param fileName Path to the image
+	 * @throws IOException If the file can't be read or has an unsupported format
+	 */
+	public void readHeader( String fileName ) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ) ) {
+			readHeader(channel);
+		}
+	}
+
+	/**
+	 * Reads the header and determines the image shape and where the pixels start
+	 */
+	void readHeader( FileChannel channel ) throws IOException {
+		header.clear();
+		channel.read(header,0);
+		header.flip();
+
+		if( header.remaining() >= RAW_HEADER_SIZE && header.get(0) == RAW_MAGIC[0] && header.get(1) == RAW_MAGIC[1]
+				&& header.get(2) == RAW_MAGIC[2] && header.get(3) == RAW_MAGIC[3] ) {
+			width = header.getInt(4);
+			height = header.getInt(8);
+			numBands = header.getInt(12);
+			dataOffset = RAW_HEADER_SIZE;
+			raw = true;
+		} else if( header.remaining() >= 2 && header.get(0) == 'P' && (header.get(1) == '5' || header.get(1) == '6') ) {
+			numBands = header.get(1) == '5' ? 1 : 3;
+			header.position(2);
+			width = readHeaderInteger(channel);
+			height = readHeaderInteger(channel);
+			int maxValue = readHeaderInteger(channel);
+			if( maxValue > 255 )
+				throw new IOException("Only 8-bit PNM images are supported");
+			// a single white space character separates the header from the pixels
+			dataOffset = header.position()+1;
+			raw = false;
+		} else {
+			throw new IOException("Unknown file format");
+		}
+
+		if( width <= 0 || height <= 0 || numBands <= 0 )
+			throw new IOException("Bad image shape "+width+"x"+height+"x"+numBands);
+	}
+
+	/**
+	 * Reads the next integer in a PNM header. White space and comments are skipped. If the header is larger
+	 * than the buffer then the buffer is enlarged and read again.
+	 */
+	int readHeaderInteger( FileChannel channel ) throws IOException {
+		int value = 0;
+		boolean found = false;
+		boolean comment = false;
+		while( true ) {
+			if( !header.hasRemaining() ) {
+				if( header.limit() < header.capacity() )
+					throw new IOException("Unexpected end of file in header");
+				int position = header.position();
+				ByteBuffer larger = ByteBuffer.allocate(header.capacity()*2);
+				channel.read(larger,0);
+				larger.flip();
+				larger.position(position);
+				header = larger;
+				continue;
+			}
+			int c = header.get() & 0xFF;
+			if( comment ) {
+				if( c == '\n' || c == '\r' )
+					comment = false;
+			} else if( c >= '0' && c <= '9' ) {
+				value = value*10 + (c-'0');
+				found = true;
+			} else if( found ) {
+				// leave the buffer at the character after the number
+				header.position(header.position()-1);
+				return value;
+			} else if( c == '#' ) {
+				comment = true;
+			} else if( !Character.isWhitespace(c) ) {
+				throw new IOException("Unexpected character in header");
+			}
+		}
+	}
+
+	void readGray( FileChannel channel , GrayU8 output ) throws IOException {
+		reshape(output);
+
+		if( numBands == 1 && !output.isSubimage() ) {
+			readFully(channel,ByteBuffer.wrap(output.data,output.startIndex,width*height));
+			return;
+		}
+
+		MappedByteBuffer mapped = map(channel);
+		for (int y = 0; y < height; y++) {
+			int indexOut = output.startIndex + y*output.stride;
+			if( numBands == 1 ) {
+				mapped.get(output.data,indexOut,width);
+				continue;
+			}
+			mapped.get(row,0,width*numBands);
+			for (int x = 0, indexIn = 0; x < width; x++) {
+				int sum = 0;
+				for (int band = 0; band < numBands; band++) {
+					sum += row[indexIn++] & 0xFF;
+				}
+				output.data[indexOut++] = (byte)(sum/numBands);
+			}
+		}
+	}
+
+	void readInterleaved( FileChannel channel , InterleavedU8 output ) throws IOException {
+		if( output.numBands != numBands )
+			output.setNumberOfBands(numBands);
+		reshape(output);
+
+		int rowLength = width*numBands;
+		if( !output.isSubimage() ) {
+			readFully(channel,ByteBuffer.wrap(output.data,output.startIndex,rowLength*height));
+			return;
+		}
+
+		MappedByteBuffer mapped = map(channel);
+		for (int y = 0; y < height; y++) {
+			mapped.get(output.data,output.startIndex + y*output.stride,rowLength);
+		}
+	}
+
+	void readPlanar( FileChannel channel , Planar<GrayU8> output ) throws IOException {
+		if( output.getNumBands() != numBands )
+			output.setNumberOfBands(numBands);
+		reshape(output);
+
+		MappedByteBuffer mapped = map(channel);
+		for (int y = 0; y < height; y++) {
+			mapped.get(row,0,width*numBands);
+			int indexOut = output.startIndex + y*output.stride;
+			for (int band = 0; band < numBands; band++) {
+				byte[] data = output.getBand(band).data;
+				for (int x = 0, indexIn = band; x < width; x++, indexIn += numBands) {
+					data[indexOut+x] = row[indexIn];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reshapes the image if needed and makes sure the row work space is large enough
+	 */
+	void reshape( ImageBase output ) {
+		if( output.width != width || output.height != height )
+			output.reshape(width,height);
+		if( row.length < width*numBands )
+			row = new byte[width*numBands];
+	}
+
+	/**
+	 * Memory maps the pixel data
+	 */
+	MappedByteBuffer map( FileChannel channel ) throws IOException {
+		return channel.map(FileChannel.MapMode.READ_ONLY,dataOffset,(long)width*height*numBands);
+	}
+
+	/**
+	 * Reads the pixel data into the buffer
+	 */
+	void readFully( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		long position = dataOffset;
+		while( buffer.hasRemaining() ) {
+			int amount = channel.read(buffer,position);
+			if( amount < 0 )
+				throw new IOException("Unexpected end of file");
+			position += amount;
+		}
+	}
+
+	/**
+	 * Saves the image in PGM or PPM format. {@link GrayU8} and single band images are saved as PGM and
+	 * three band images as PPM.
+	 *
+	 * @param image The image being saved
+	 * @param fileName Path to the output file
+	 */
+	public void writePNM( ImageBase image , String fileName ) throws IOException {
+		int bands = image.getImageType().getNumBands();
+		if( bands != 1 && bands != 3 )
+			throw new IllegalArgumentException("PNM images must have 1 or 3 bands");
+
+		String text = String.format("P%d\n%d %d\n255\n", bands == 1 ? 5 : 6, image.width, image.height);
+		write(image,ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)),fileName);
+	}
+
+	/**
+	 * Saves the image in the raw format
+	 *
+	 * @param image The image being saved
+	 * @param fileName Path to the output file
+	 */
+	public void writeRaw( ImageBase image , String fileName ) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RAW_HEADER_SIZE);
+		header.put(RAW_MAGIC);
+		header.putInt(image.width);
+		header.putInt(image.height);
+		header.putInt(image.getImageType().getNumBands());
+		header.flip();
+		write(image,header,fileName);
+	}
+
+	/**
+	 * Writes the header and then each row of the image in interleaved order
+	 */
+	void write( ImageBase image , ByteBuffer header , String fileName ) throws IOException {
+		if( !isSupportedImage(image) )
+			throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+
+		int bands = image.getImageType().getNumBands();
+		int rowLength = image.width*bands;
+		if( row.length < rowLength )
+			row = new byte[rowLength];
+
+		try( FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+			writeFully(channel,header);
+
+			// contiguous images can be written with a single call
+			if( !image.isSubimage() ) {
+				if( image instanceof GrayU8 ) {
+					GrayU8 gray = (GrayU8)image;
+					writeFully(channel,ByteBuffer.wrap(gray.data,gray.startIndex,rowLength*image.height));
+					return;
+				} else if( image instanceof InterleavedU8 ) {
+					InterleavedU8 inter = (InterleavedU8)image;
+					writeFully(channel,ByteBuffer.wrap(inter.data,inter.startIndex,rowLength*image.height));
+					return;
+				}
+			}
+
+			for (int y = 0; y < image.height; y++) {
+				if( image instanceof GrayU8 ) {
+					GrayU8 gray = (GrayU8)image;
+					System.arraycopy(gray.data,gray.startIndex+y*gray.stride,row,0,rowLength);
+				} else if( image instanceof InterleavedU8 ) {
+					InterleavedU8 inter = (InterleavedU8)image;
+					System.arraycopy(inter.data,inter.startIndex+y*inter.stride,row,0,rowLength);
+				} else {
+					Planar<GrayU8> planar = (Planar<GrayU8>)image;
+					int indexIn = planar.startIndex + y*planar.stride;
+					for (int band = 0; band < bands; band++) {
+						byte[] data = planar.getBand(band).data;
+						for (int x = 0, indexOut = band; x < image.width; x++, indexOut += bands) {
+							row[indexOut] = data[indexIn+x];
+						}
+					}
+				}
+				writeFully(channel,ByteBuffer.wrap(row,0,rowLength));
+			}
+		}
+	}
+
+	private static void writeFully( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Width of the most recently read image
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Height of the most recently read image
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Number of bands in the most recently read image
+	 */
+	public int getNumBands() {
+		return numBands;
+	}
+
+	/**
+	 * True if the most recently read image was in the raw format and false if it was PNM
+	 */
+	public boolean isRaw() {
+		return raw;
+	}
+}
@@ -129,15 +129,70 @@ public class UtilImageIO {
 	}
 
 	public static <T extends ImageBase<T>> T loadImage( File image, boolean orderRgb, ImageType<T> imageType ) {
-		BufferedImage img = loadImage(image.getAbsolutePath());
+		return loadImage(image.getAbsolutePath(), orderRgb, imageType.createImage(1,1));
+	}
+
+	/**
+	 * Loads the image into the provided storage. When possible, PNM and raw images are read directly into the
+	 * output image using {@link NioImageIO}, but only if doing so won't change the number of bands in the output.
+	 * Otherwise the image is loaded into a {@link BufferedImage} first and converted with
+	 * {@link ConvertBufferedImage#convertFrom(BufferedImage, boolean, ImageBase)}, which is the same as
+	 * {@link #loadImage(File, boolean, ImageType)}.
+	 *
+	 * @param fileName Path to image file.
+	 * @param orderRgb If true then color images are converted into RGB order
+	 * @param output (Output) Storage for the image. Reshaped to match the image.
+	 * @return The image or null if the image could not be loaded.
+	 */
+	public static <T extends ImageBase<T>> T loadImage( String fileName, boolean orderRgb, T output ) {
+		NioImageIO io = new NioImageIO();
+		if( isDirectlyReadable(fileName,orderRgb,output,io) ) {
+			try {
+				return io.read(fileName,output);
+			} catch (IOException ignore) {
+				// the file might have changed after the header was read
+			}
+		}
+
+		BufferedImage img = loadImage(fileName);
 		if( img == null )
 			return null;
 
-		T output = imageType.createImage(img.getWidth(),img.getHeight());
+		output.reshape(img.getWidth(),img.getHeight());
 		ConvertBufferedImage.convertFrom(img, orderRgb, output);
 		return output;
 	}
 
+	/**
+	 * Returns true if {@link NioImageIO} can read the image and produce the same output as converting from
+	 * a {@link BufferedImage}. The file's header is read to make sure the number of bands in the output
+	 * won't be changed. Raw files can only be read by {@link NioImageIO}, so if this returns false for a raw
+	 * file then it can't be loaded into the output.
+	 *
+	 * @param io Used to read the file's header
+	 */
+	static boolean isDirectlyReadable( String fileName, boolean orderRgb, ImageBase output, NioImageIO io ) {
+		if( !NioImageIO.isSupportedFile(fileName) || !NioImageIO.isSupportedImage(output) )
+			return false;
+		if( !new File(fileName).isFile() )
+			return false;
+		try {
+			io.readHeader(fileName);
+		} catch (IOException e) {
+			// the file might be a format NioImageIO doesn't support, e.g. 16-bit
+			return false;
+		}
+
+		// color images are converted into gray scale the same way
+		if( output instanceof GrayU8 )
+			return true;
+
+		if( output.getImageType().getNumBands() != io.getNumBands() )
+			return false;
+		// PNM color images are in RGB order
+		return io.isRaw() || io.getNumBands() == 1 || orderRgb;
+	}
+
 	/**
 	 * Saves the {@link BufferedImage} to the specified file.  The image type of the output is determined by
 	 * the name's extension.  By default the file is saved using {@link ImageIO#write(RenderedImage, String, File)}}
@@ -340,14 +395,36 @@ public class UtilImageIO {
 	 * @param fileName Location of PPM file
 	 * @param storage (Optional) Where the image is written in to.  Will be resized if needed.
 	 *                   If null or the number of bands isn't 3, a new instance is declared.
-	 * @param temp (Optional) Used internally to store the image.  Can be null.
+	 * @param temp Not used.
 	 * @return The image.
 	 * @throws IOException Thrown if there is a problem reading the image
+	 * @deprecated Work space is no longer needed. Use {@link #loadPPM_U8(String, Planar)}
 	 */
+	@Deprecated
 	public static Planar<GrayU8> loadPPM_U8(String fileName , Planar<GrayU8> storage , GrowQueue_I8 temp )
 			throws IOException
 	{
-		return loadPPM_U8(new FileInputStream(fileName),storage,temp);
+		return loadPPM_U8(fileName,storage);
+	}
+
+	/**
+	 * Reads a PPM image file directly into a Planar<GrayU8> image using {@link NioImageIO}.
+	 *
+	 * @param fileName Location of PPM file
+	 * @param storage (Optional) Where the image is written in to.  Will be resized if needed.
+	 *                   If null or the number of bands isn't 3, a new instance is declared.
+	 * @return The image.
+	 * @throws IOException Thrown if there is a problem reading the image or it isn't a PPM image
+	 */
+	public static Planar<GrayU8> loadPPM_U8(String fileName , Planar<GrayU8> storage ) throws IOException {
+		NioImageIO io = new NioImageIO();
+		io.readHeader(fileName);
+		if( io.isRaw() || io.getNumBands() != 3 )
+			throw new IOException("Not a PPM image. "+fileName);
+
+		if( storage == null || storage.getNumBands() != 3 )
+			storage = new Planar<>(GrayU8.class,1,1,3 );
+		return io.read(fileName,storage);
 	}
 
 	/**
@@ -409,15 +486,22 @@ public class UtilImageIO {
 	 * Loads a PGM image from an {@link InputStream}.
 	 *
 	 * @param fileName InputStream for PGM image
-	 * @param storage (Optional) Storage for output image.  Must be the width and height of the image being read.
+	 * @param storage (Optional) Storage for output image.  Will be resized if needed.
 	 *                If null a new image will be declared.
 	 * @return The read in image
-	 * @throws IOException Thrown if there is a problem reading the image
+	 * @throws IOException Thrown if there is a problem reading the image or it isn't a PGM image
 	 */
 	public static GrayU8 loadPGM_U8(String fileName , GrayU8 storage )
 			throws IOException
 	{
-		return loadPGM_U8(new FileInputStream(fileName),storage);
+		NioImageIO io = new NioImageIO();
+		io.readHeader(fileName);
+		if( io.isRaw() || io.getNumBands() != 1 )
+			throw new IOException("Not a PGM image. "+fileName);
+
+		if( storage == null )
+			storage = new GrayU8(1,1);
+		return io.read(fileName,storage);
 	}
 
 	/**
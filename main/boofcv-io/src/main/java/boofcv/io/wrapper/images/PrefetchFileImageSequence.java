@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Image sequence which loads the upcoming images in background threads while the current image is being
+ * processed. Images are loaded with {@link UtilImageIO#loadImage(String, boolean, ImageBase)} so PNM and raw
+ * files are read directly into the image. Images are recycled, which means the image returned by
+ * {@link #next()} is only valid until the next call to {@link #next()} or {@link #reset()}.
+ *
+ * If looping is turned on then the sequence restarts at the first image after the last one.
+ *
+ * @author Peter Abeles
+ */
+public class PrefetchFileImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// Path to every image in the sequence
+	List<String> paths;
+
+	// type of image it outputs
+	ImageType<T> type;
+
+	// Maximum number of images which are loaded ahead of the current image
+	int lookAhead;
+	// Threads which load images
+	ExecutorService executor;
+
+	// Images which are being loaded, in sequence order
+	Deque<Request<T>> pending = new ArrayDeque<>();
+	// Images which are not being used
+	Deque<T> recycled = new ArrayDeque<>();
+
+	// Index of the next image to request
+	int indexRequest;
+	// Number of images returned by next()
+	int totalReturned;
+
+	// The current image and the GUI image converted from it
+	T image;
+	BufferedImage imageGUI;
+
+	boolean loop = false;
+
+	/**
+	 * Loads all the images in a directory that have the specified suffix, sorted by file name
+	 *
+	 * @param type Type of output image
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have.
+	 */
+	public PrefetchFileImageSequence(ImageType<T> type, String directory, String suffix) {
+		this(type, findImages(directory,suffix), BoofConcurrency.getMaxThreads());
+	}
+
+	/**
+	 * Loads the listed images in order
+	 *
+	 * @param type Type of output image
+	 * @param paths Path to each image
+	 * @param lookAhead Maximum number of images which are loaded ahead of the current image. This is also the
+	 *                  number of threads used to load images.
+	 */
+	public PrefetchFileImageSequence(ImageType<T> type, List<String> paths, int lookAhead) {
+		this.type = type;
+		this.paths = new ArrayList<>(paths);
+		this.lookAhead = Math.max(1,lookAhead);
+
+		executor = Executors.newFixedThreadPool(this.lookAhead, r -> {
+			Thread t = new Thread(r, "Prefetch");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	private static List<String> findImages( String directory , String suffix ) {
+		File dir = new File(directory);
+
+		if (!dir.isDirectory())
+			throw new IllegalArgumentException("directory must specify a directory.  path = "+directory);
+
+		List<String> paths = new ArrayList<>();
+		String[] files = dir.list((d, name) -> name.contains(suffix));
+		if( files != null ) {
+			for (String s : files) {
+				paths.add(dir.getAbsolutePath() + '/' + s);
+			}
+		}
+		Collections.sort(paths);
+		return paths;
+	}
+
+	/**
+	 * Requests images until the look ahead is full or there are no more images
+	 */
+	void requestImages() {
+		while( pending.size() < lookAhead && (loop ? !paths.isEmpty() : indexRequest < paths.size()) ) {
+			if( indexRequest >= paths.size() )
+				indexRequest = 0;
+
+			final T storage = recycled.isEmpty() ? type.createImage(1,1) : recycled.pop();
+			final String path = paths.get(indexRequest++);
+
+			Request<T> request = new Request<>();
+			request.image = storage;
+			request.future = executor.submit(() -> UtilImageIO.loadImage(path,true,storage));
+			pending.add(request);
+		}
+	}
+
+	/**
+	 * Blocks until the request has finished and returns the loaded image or null if it failed
+	 */
+	T waitFor( Request<T> request ) {
+		try {
+			return request.future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			// the image might be in a partially written state, but will be reshaped before it's used again
+			return null;
+		}
+	}
+
+	@Override
+	public int getNextWidth() {
+		requestImages();
+		T next = waitFor(pending.peek());
+		return next == null ? 0 : next.width;
+	}
+
+	@Override
+	public int getNextHeight() {
+		requestImages();
+		T next = waitFor(pending.peek());
+		return next == null ? 0 : next.height;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if( loop )
+			return !paths.isEmpty();
+		return totalReturned < paths.size();
+	}
+
+	/**
+	 * Returns the next image. If the image could not be loaded then null is returned.
+	 */
+	@Override
+	public T next() {
+		if( image != null ) {
+			recycled.push(image);
+			image = null;
+		}
+		imageGUI = null;
+
+		requestImages();
+		Request<T> request = pending.poll();
+		if( request == null )
+			throw new IllegalArgumentException("No more images");
+		totalReturned++;
+		image = waitFor(request);
+		if( image == null )
+			recycled.push(request.image);
+
+		// start loading the image which will replace this one
+		requestImages();
+		return image;
+	}
+
+	/**
+	 * Converts the current image into a BufferedImage the first time this is called after {@link #next()}
+	 */
+	@Override
+	public BufferedImage getGuiImage() {
+		if( image != null && imageGUI == null ) {
+			imageGUI = ConvertBufferedImage.convertTo(image, null, true);
+		}
+		return imageGUI;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return totalReturned-1;
+	}
+
+	@Override
+	public void setLoop(boolean loop) {
+		this.loop = loop;
+	}
+
+	public boolean isLoop() {
+		return loop;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return type;
+	}
+
+	/**
+	 * Waits for images which are being loaded then starts over at the first image
+	 */
+	@Override
+	public void reset() {
+		while( !pending.isEmpty() ) {
+			Request<T> request = pending.poll();
+			waitFor(request);
+			recycled.push(request.image);
+		}
+		indexRequest = 0;
+		totalReturned = 0;
+		imageGUI = null;
+	}
+
+	public int getLookAhead() {
+		return lookAhead;
+	}
+
+	/**
+	 * An image which is being loaded
+	 */
+	static class Request<T> {
+		T image;
+		Future<T> future;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.io.wrapper.images.BufferedFileImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBatchImageProcessor {
+
+	int total = 25;
+	List<String> paths = new ArrayList<>();
+
+	@BeforeEach
+	public void before() throws IOException {
+		for (int i = 0; i < total; i++) {
+			GrayU8 image = new GrayU8(10+i,12);
+			image.set(0,0,i);
+			File temp = File.createTempFile("batch", ".png");
+			UtilImageIO.saveImage(image,temp.getPath());
+			paths.add(temp.getPath());
+		}
+	}
+
+	@AfterEach
+	public void after() {
+		for( String path : paths ) {
+			new File(path).delete();
+		}
+	}
+
+	/**
+	 * Each image should be processed once and the index should match the input list
+	 */
+	@Test
+	public void process_files() {
+		int[] found = new int[total];
+		List<Worker> created = Collections.synchronizedList(new ArrayList<>());
+
+		BatchImageProcessor<GrayU8,Worker> alg = new BatchImageProcessor<>(ImageType.single(GrayU8.class),
+				()->{ Worker w = new Worker(); created.add(w); return w;},
+				(worker,image,index)->{worker.count++;found[index] += image.width + 1000*ImageStatistics.sum(image);});
+		alg.setNumWorkers(3);
+		alg.setNumLoaders(2);
+		alg.setQueueSize(2);
+
+		// process twice to make sure the algorithms are reused
+		for (int trial = 0; trial < 2; trial++) {
+			alg.process(paths);
+
+			assertEquals(total, alg.getTotalProcessed());
+			assertEquals(0, alg.getFailed().size());
+		}
+
+		for (int i = 0; i < total; i++) {
+			assertEquals(2*(10+i+1000*i), found[i]);
+		}
+		assertEquals(3, created.size());
+		int count = 0;
+		for( Worker w : created )
+			count += w.count;
+		assertEquals(2*total, count);
+	}
+
+	/**
+	 * Files which can't be loaded should be skipped
+	 */
+	@Test
+	public void process_files_missing() {
+		List<String> input = new ArrayList<>(paths);
+		input.add(3,"foo/bar/missing.png");
+
+		int[] found = new int[input.size()];
+		BatchImageProcessor<GrayU8,Worker> alg = new BatchImageProcessor<>(ImageType.single(GrayU8.class),
+				Worker::new, (worker,image,index)->found[index]++);
+		alg.process(input);
+
+		assertEquals(total, alg.getTotalProcessed());
+		assertEquals(1, alg.getFailed().size());
+		assertEquals("foo/bar/missing.png", alg.getFailed().get(0));
+		for (int i = 0; i < input.size(); i++) {
+			assertEquals(i==3?0:1, found[i]);
+		}
+	}
+
+	@Test
+	public void process_sequence() {
+		BufferedImage[] images = new BufferedImage[total];
+		for (int i = 0; i < total; i++) {
+			images[i] = UtilImageIO.loadImage(paths.get(i));
+		}
+		BufferedFileImageSequence<GrayU8> sequence =
+				new BufferedFileImageSequence<>(ImageType.single(GrayU8.class),images);
+		sequence.setLoop(false);
+
+		int[] found = new int[total];
+		BatchImageProcessor<GrayU8,Worker> alg = new BatchImageProcessor<>(ImageType.single(GrayU8.class),
+				Worker::new, (worker,image,index)->found[index] += image.width);
+		alg.setNumWorkers(2);
+		alg.process(sequence);
+
+		assertEquals(total, alg.getTotalProcessed());
+		for (int i = 0; i < total; i++) {
+			assertEquals(10+i, found[i]);
+		}
+	}
+
+	/**
+	 * An exception inside a worker should be passed to the caller instead of blocking forever
+	 */
+	@Test
+	public void exceptionInWorker() {
+		BatchImageProcessor<GrayU8,Worker> alg = new BatchImageProcessor<>(ImageType.single(GrayU8.class),
+				Worker::new, (worker,image,index)->{if(index==5) throw new IllegalArgumentException("Foo");});
+		alg.setNumWorkers(2);
+		alg.setQueueSize(1);
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, ()->alg.process(paths));
+		assertEquals("Foo",e.getMessage());
+	}
+
+	static class Worker {
+		int count;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.io.wrapper.images.BufferedFileImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFramePipeline {
+
+	/**
+	 * Every frame should go through every stage in the order it was read
+	 */
+	@Test
+	public void process_inOrder() {
+		FramePipeline<Frame> alg = new FramePipeline<>(Frame::new);
+		List<Integer> found = new ArrayList<>();
+
+		alg.addStage("A",(frame,number)->frame.value = number*2);
+		alg.addStage("B",(frame,number)->frame.value += 1);
+		alg.addStage("C",(frame,number)->{
+			assertEquals(number*2+1,frame.value);
+			found.add(frame.source);
+		});
+
+		// process twice to make sure it's reset
+		for (int trial = 0; trial < 2; trial++) {
+			found.clear();
+			alg.process(new CountingSource(40));
+
+			assertEquals(40, alg.getTotalRead());
+			assertEquals(40, alg.getTotalFinished());
+			assertEquals(0, alg.getTotalDropped());
+			assertEquals(40, found.size());
+			for (int i = 0; i < found.size(); i++) {
+				assertEquals(i, (int)found.get(i));
+			}
+			for (int i = 0; i < alg.getNumberOfStages(); i++) {
+				assertEquals(40, alg.getStageInfo(i).getFrames());
+			}
+			assertEquals(40, alg.getSourceInfo().getFrames());
+		}
+	}
+
+	/**
+	 * When dropping frames the oldest frames should be dropped and frames which are processed are still in order
+	 */
+	@Test
+	public void process_dropFrames() {
+		FramePipeline<Frame> alg = new FramePipeline<>(Frame::new);
+		alg.setDropFrames(true);
+		alg.setNumFrames(3);
+		List<Integer> found = new ArrayList<>();
+
+		alg.addStage("Slow",(frame,number)->{
+			try { Thread.sleep(5); } catch (InterruptedException ignore) {}
+		});
+		alg.addStage("Output",(frame,number)->{
+			assertEquals(number,frame.source);
+			found.add(number);
+		});
+
+		alg.process(new CountingSource(200));
+
+		assertEquals(200, alg.getTotalRead());
+		assertTrue(alg.getTotalDropped() > 0);
+		assertEquals(200, alg.getTotalDropped()+alg.getTotalFinished());
+		assertEquals(alg.getTotalFinished(), found.size());
+		for (int i = 1; i < found.size(); i++) {
+			assertTrue(found.get(i) > found.get(i-1));
+		}
+		// the most recent frame is never dropped
+		assertEquals(199, (int)found.get(found.size()-1));
+	}
+
+	@Test
+	public void requestStop() {
+		FramePipeline<Frame> alg = new FramePipeline<>(Frame::new);
+		alg.addStage("A",(frame,number)->{if( number == 10 ) alg.requestStop();});
+
+		// the source never runs out of frames
+		alg.process(new CountingSource(Integer.MAX_VALUE));
+
+		assertTrue(alg.getTotalFinished() > 10);
+		assertEquals(alg.getTotalRead(), alg.getTotalFinished());
+	}
+
+	/**
+	 * An exception inside a stage should be passed to the caller instead of blocking forever
+	 */
+	@Test
+	public void exceptionInStage() {
+		FramePipeline<Frame> alg = new FramePipeline<>(Frame::new);
+		alg.addStage("A",(frame,number)->{});
+		alg.addStage("B",(frame,number)->{if( number == 5 ) throw new IllegalArgumentException("Foo");});
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				()->alg.process(new CountingSource(Integer.MAX_VALUE)));
+		assertEquals("Foo",e.getMessage());
+	}
+
+	/**
+	 * If a stage fails the stages after it should still stop, even if they ignore being interrupted
+	 */
+	@Test
+	public void exceptionInStage_nextIgnoresInterrupt() {
+		FramePipeline<Frame> alg = new FramePipeline<>(Frame::new);
+		alg.addStage("A",(frame,number)->{if( number == 2 ) throw new IllegalArgumentException("Foo");});
+		alg.addStage("B",(frame,number)->{
+			try { Thread.sleep(50); } catch (InterruptedException ignore) {}
+		});
+
+		IllegalArgumentException e = assertTimeoutPreemptively(Duration.ofSeconds(10),
+				()->assertThrows(IllegalArgumentException.class,
+						()->alg.process(new CountingSource(Integer.MAX_VALUE))));
+		assertEquals("Foo",e.getMessage());
+	}
+
+	@Test
+	public void fromSequence() {
+		BufferedImage[] images = new BufferedImage[10];
+		for (int i = 0; i < images.length; i++) {
+			images[i] = new BufferedImage(10+i,8,BufferedImage.TYPE_BYTE_GRAY);
+		}
+		BufferedFileImageSequence<GrayU8> sequence =
+				new BufferedFileImageSequence<>(ImageType.single(GrayU8.class),images);
+		sequence.setLoop(false);
+
+		FramePipeline<ImageFrame> alg = new FramePipeline<>(ImageFrame::new);
+		List<Integer> found = new ArrayList<>();
+		alg.addStage("A",(frame,number)->found.add(frame.gray.width));
+		alg.process(FramePipeline.fromSequence(sequence,frame->frame.gray));
+
+		assertEquals(10, found.size());
+		for (int i = 0; i < found.size(); i++) {
+			assertEquals(10+i, (int)found.get(i));
+		}
+	}
+
+	/**
+	 * Returns frames with increasing numbers
+	 */
+	static class CountingSource implements FramePipeline.FrameSource<Frame> {
+		int total;
+		int count = 0;
+
+		CountingSource(int total) {
+			this.total = total;
+		}
+
+		@Override
+		public boolean read(Frame frame) {
+			if( count >= total )
+				return false;
+			frame.source = count++;
+			frame.value = -1;
+			return true;
+		}
+	}
+
+	static class Frame {
+		int source;
+		int value;
+	}
+
+	static class ImageFrame {
+		GrayU8 gray = new GrayU8(1,1);
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNioImageIO {
+
+	Random rand = new Random(234);
+	int width = 20;
+	int height = 30;
+
+	List<File> files = new ArrayList<>();
+
+	@AfterEach
+	public void after() {
+		for( File f : files ) {
+			f.delete();// no assertTrue() here because in windows it will fail
+		}
+	}
+
+	File createTemp( String suffix ) throws IOException {
+		File f = File.createTempFile("temp", suffix);
+		files.add(f);
+		return f;
+	}
+
+	/**
+	 * Write then read every supported image type in every format. Sub-images force the slower code path.
+	 */
+	@Test
+	public void writeRead() throws IOException {
+		List<ImageBase> images = new ArrayList<>();
+		images.add(new GrayU8(width,height));
+		images.add(new InterleavedU8(width,height,3));
+		images.add(new Planar<>(GrayU8.class,width,height,3));
+
+		NioImageIO alg = new NioImageIO();
+		for( ImageBase orig : images ) {
+			GImageMiscOps.fillUniform(orig,rand,0,256);
+
+			for( boolean raw : new boolean[]{true,false} ) {
+				for( boolean subimage : new boolean[]{true,false}) {
+					File temp = createTemp(raw ? ".raw" : ".pnm");
+					ImageBase input = subimage ? BoofTesting.createSubImageOf(orig) : orig;
+					if( raw )
+						alg.writeRaw(input, temp.getPath());
+					else
+						alg.writePNM(input, temp.getPath());
+
+					ImageBase found = orig.createNew(1,1);
+					if( subimage ) {
+						found = BoofTesting.createSubImageOf(orig.createNew(width,height));
+					}
+					alg.read(temp.getPath(), found);
+					assertEquals(width, found.width);
+					assertEquals(height, found.height);
+					BoofTesting.assertEquals(orig, found, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Read into a different image type than was saved
+	 */
+	@Test
+	public void read_convert() throws IOException {
+		Planar<GrayU8> color = new Planar<>(GrayU8.class,width,height,3);
+		GImageMiscOps.fillUniform(color,rand,0,256);
+		File temp = createTemp(".ppm");
+		NioImageIO alg = new NioImageIO();
+		alg.writePNM(color,temp.getPath());
+
+		// color into gray averages the bands
+		GrayU8 gray = alg.read(temp.getPath(),new GrayU8(1,1));
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int sum = 0;
+				for (int band = 0; band < 3; band++) {
+					sum += color.getBand(band).get(x,y);
+				}
+				assertEquals(sum/3, gray.get(x,y));
+			}
+		}
+
+		// number of bands should be adjusted
+		InterleavedU8 inter = alg.read(temp.getPath(),new InterleavedU8(1,1,1));
+		assertEquals(3, inter.numBands);
+		BoofTesting.assertEquals(color, inter, 0);
+		Planar<GrayU8> planar = alg.read(temp.getPath(),new Planar<>(GrayU8.class,1,1,1));
+		assertEquals(3, planar.getNumBands());
+		BoofTesting.assertEquals(color, planar, 0);
+	}
+
+	/**
+	 * PNM header with comments and unusual white space
+	 */
+	@Test
+	public void read_headerComments() throws IOException {
+		File temp = createTemp(".pgm");
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write("P5 # comment\n# another comment\n3\t2\n255 ".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[]{1,2,3,4,5,(byte)200});
+		}
+
+		NioImageIO alg = new NioImageIO();
+		alg.header = java.nio.ByteBuffer.allocate(10);// force the buffer to be enlarged
+		GrayU8 found = alg.read(temp.getPath(),new GrayU8(1,1));
+		assertEquals(3, found.width);
+		assertEquals(2, found.height);
+		assertEquals(1, found.get(0,0));
+		assertEquals(4, found.get(0,1));
+		assertEquals(200, found.get(2,1));
+	}
+
+	@Test
+	public void read_badFiles() throws IOException {
+		NioImageIO alg = new NioImageIO();
+
+		// unknown format
+		File temp = createTemp(".pgm");
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write("asdasdasdasdasdasdasdasdasdasd".getBytes(StandardCharsets.US_ASCII));
+		}
+		assertThrows(IOException.class, ()->alg.read(temp.getPath(),new GrayU8(1,1)));
+
+		// 16-bit images aren't supported
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write("P5\n2 2\n65535\n12345678".getBytes(StandardCharsets.US_ASCII));
+		}
+		assertThrows(IOException.class, ()->alg.read(temp.getPath(),new GrayU8(1,1)));
+
+		// truncated
+		try( FileOutputStream out = new FileOutputStream(temp) ) {
+			out.write("P5\n20 2\n255\n12345678".getBytes(StandardCharsets.US_ASCII));
+		}
+		assertThrows(IOException.class, ()->alg.read(temp.getPath(),new GrayU8(1,1)));
+	}
+
+	/**
+	 * Compare against the BufferedImage based reader
+	 */
+	@Test
+	public void compareToUtilImageIO() throws IOException {
+		Planar<GrayU8> color = new Planar<>(GrayU8.class,width,height,3);
+		GImageMiscOps.fillUniform(color,rand,0,256);
+		File temp = createTemp(".ppm");
+		new NioImageIO().writePNM(color,temp.getPath());
+
+		Planar<GrayU8> expected = new Planar<>(GrayU8.class,width,height,3);
+		ConvertBufferedImage.convertFrom(UtilImageIO.loadPPM(temp.getPath(),null),true,expected);
+		BoofTesting.assertEquals(expected, color, 0);
+	}
+}
@@ -20,7 +20,9 @@ package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
 import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
@@ -28,8 +30,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Random;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -110,6 +111,88 @@ public class TestUtilImageIO {
 		temp.delete();// no assertTrue() here because in windows it will fail
 	}
 
+	/**
+	 * Loading into an existing image should produce the same results with and without the direct reader
+	 */
+	@Test
+	public void loadImage_output() throws IOException {
+		Planar<GrayU8> orig = new Planar<>(GrayU8.class,width,height,3);
+		GImageMiscOps.fillUniform(orig,rand,0,256);
+
+		File temp = File.createTempFile("temp", ".ppm");
+		UtilImageIO.savePPM(orig,temp.getPath(),null);
+
+		// read directly
+		assertTrue(UtilImageIO.isDirectlyReadable(temp.getPath(),true,orig,new NioImageIO()));
+		Planar<GrayU8> found = UtilImageIO.loadImage(temp.getPath(),true,new Planar<>(GrayU8.class,1,1,3));
+		BoofTesting.assertEquals(orig,found,0);
+
+		// read through a BufferedImage because the number of bands doesn't match
+		Planar<GrayU8> single = new Planar<>(GrayU8.class,1,1,1);
+		assertFalse(UtilImageIO.isDirectlyReadable(temp.getPath(),true,single,new NioImageIO()));
+		Planar<GrayU8> expected = new Planar<>(GrayU8.class,width,height,1);
+		ConvertBufferedImage.convertFrom(UtilImageIO.loadImage(temp.getPath()),true,expected);
+		BoofTesting.assertEquals(expected,UtilImageIO.loadImage(temp.getPath(),true,single),0);
+
+		// clean up
+		temp.delete();// no assertTrue() here because in windows it will fail
+
+		assertNull(UtilImageIO.loadImage("asdasdasdasd.ppm",true,new GrayU8(1,1)));
+	}
+
+	/**
+	 * The number of bands in the output image should never be changed
+	 */
+	@Test
+	public void loadImage_output_raw() throws IOException {
+		GrayU8 gray = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(gray,rand,0,256);
+
+		File temp = File.createTempFile("temp", ".raw");
+		new NioImageIO().writeRaw(gray,temp.getPath());
+
+		// a gray raw image can't be loaded into a color image
+		Planar<GrayU8> color = new Planar<>(GrayU8.class,1,1,3);
+		assertNull(UtilImageIO.loadImage(temp.getPath(),true,color));
+		assertEquals(3, color.getNumBands());
+		InterleavedU8 inter = new InterleavedU8(1,1,3);
+		assertNull(UtilImageIO.loadImage(temp.getPath(),true,inter));
+		assertEquals(3, inter.getNumBands());
+
+		// matching number of bands
+		BoofTesting.assertEquals(gray,UtilImageIO.loadImage(temp.getPath(),true,new GrayU8(1,1)),0);
+		Planar<GrayU8> single = UtilImageIO.loadImage(temp.getPath(),true,new Planar<>(GrayU8.class,1,1,1));
+		assertEquals(1, single.getNumBands());
+		BoofTesting.assertEquals(gray,single.getBand(0),0);
+
+		temp.delete();// no assertTrue() here because in windows it will fail
+	}
+
+	/**
+	 * Only the expected type of PNM image should be accepted
+	 */
+	@Test
+	public void loadPPM_PGM_wrongType() throws IOException {
+		GrayU8 gray = new GrayU8(width,height);
+		Planar<GrayU8> color = new Planar<>(GrayU8.class,width,height,3);
+
+		File fileGray = File.createTempFile("temp", ".pgm");
+		File fileColor = File.createTempFile("temp", ".ppm");
+		File fileRaw = File.createTempFile("temp", ".raw");
+		UtilImageIO.savePGM(gray,fileGray.getPath());
+		UtilImageIO.savePPM(color,fileColor.getPath(),null);
+		new NioImageIO().writeRaw(color,fileRaw.getPath());
+
+		assertThrows(IOException.class,()->UtilImageIO.loadPPM_U8(fileGray.getPath(),null));
+		assertThrows(IOException.class,()->UtilImageIO.loadPPM_U8(fileRaw.getPath(),null));
+		assertThrows(IOException.class,()->UtilImageIO.loadPGM_U8(fileColor.getPath(),null));
+		assertEquals(3,UtilImageIO.loadPPM_U8(fileColor.getPath(),null).getNumBands());
+
+		fileGray.delete();// no assertTrue() here because in windows it will fail
+		fileColor.delete();
+		fileRaw.delete();
+	}
+
 	/**
 	 * See if load image fails gracefully if an image is not present
 	 */
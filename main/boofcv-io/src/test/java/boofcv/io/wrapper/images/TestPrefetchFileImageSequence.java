@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.NioImageIO;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPrefetchFileImageSequence {
+
+	int total = 7;
+	List<String> paths = new ArrayList<>();
+
+	@BeforeEach
+	public void before() throws IOException {
+		NioImageIO io = new NioImageIO();
+		for (int i = 0; i < total; i++) {
+			GrayU8 image = new GrayU8(10+i,12);
+			image.set(0,0,i);
+			File temp = File.createTempFile("prefetch", ".pgm");
+			io.writePNM(image,temp.getPath());
+			paths.add(temp.getPath());
+		}
+	}
+
+	@AfterEach
+	public void after() {
+		for( String path : paths ) {
+			new File(path).delete();
+		}
+	}
+
+	/**
+	 * Images should be returned in order for several different amounts of look ahead
+	 */
+	@Test
+	public void next() {
+		for( int lookAhead : new int[]{1,3,20}) {
+			PrefetchFileImageSequence<GrayU8> alg = new PrefetchFileImageSequence<>(
+					ImageType.single(GrayU8.class),paths,lookAhead);
+
+			// go through twice to make sure reset works
+			for (int trial = 0; trial < 2; trial++) {
+				int count = 0;
+				while( alg.hasNext() ) {
+					assertEquals(10+count, alg.getNextWidth());
+					GrayU8 image = alg.next();
+					assertEquals(count, alg.getFrameNumber());
+					assertEquals(10+count, image.width);
+					assertEquals(count, image.get(0,0));
+
+					BufferedImage gui = alg.getGuiImage();
+					assertEquals(10+count, gui.getWidth());
+					count++;
+				}
+				assertEquals(total, count);
+				alg.reset();
+			}
+			alg.close();
+		}
+	}
+
+	@Test
+	public void checkLoop() {
+		PrefetchFileImageSequence<GrayU8> alg = new PrefetchFileImageSequence<>(
+				ImageType.single(GrayU8.class),paths,2);
+		alg.setLoop(true);
+
+		for (int i = 0; i < total*3; i++) {
+			assertTrue(alg.hasNext());
+			GrayU8 image = alg.next();
+			assertEquals(i%total, image.get(0,0));
+		}
+		alg.close();
+	}
+
+	/**
+	 * Images which can't be loaded should be returned as null
+	 */
+	@Test
+	public void missingFile() {
+		paths.add(2,"asdasdasdasd.pgm");
+		PrefetchFileImageSequence<GrayU8> alg = new PrefetchFileImageSequence<>(
+				ImageType.single(GrayU8.class),paths,2);
+
+		int count = 0;
+		while( alg.hasNext() ) {
+			GrayU8 image = alg.next();
+			assertEquals(count==2, image == null);
+			count++;
+		}
+		assertEquals(total+1, count);
+		alg.close();
+	}
+}
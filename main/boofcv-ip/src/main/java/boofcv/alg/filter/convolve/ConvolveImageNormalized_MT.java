@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Concurrent implementation of normalized 1D convolution. The image is split into bands which are
+ * processed by different threads. A horizontal convolution is independent between rows and a vertical
+ * convolution is independent between columns, so horizontal convolutions are split into bands of rows and
+ * vertical convolutions into bands of columns. Each band is a sub-image which spans the entire axis the kernel
+ * is applied along, thus the output is identical to the single threaded {@link ConvolveImageNormalized}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageNormalized_MT {
+
+	// Minimum number of rows or columns in a band
+	public static int MIN_BAND = 16;
+
+	/**
+	 * Performs a horizontal 1D normalized convolution across the image.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static <T extends ImageGray<T>, K extends Kernel1D>
+	void horizontal( K kernel , T input , T output ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND,(y0,y1)->{
+			T subInput = input.subimage(0,y0,input.width,y1);
+			T subOutput = output.subimage(0,y0,output.width,y1);
+			GConvolveImageOps.horizontalNormalized(kernel,subInput,subOutput);
+		});
+	}
+
+	/**
+	 * Performs a vertical 1D normalized convolution across the image.
+	 *
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 */
+	public static <T extends ImageGray<T>, K extends Kernel1D>
+	void vertical( K kernel , T input , T output ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		BoofConcurrency.loopBlocks(0,input.width,MIN_BAND,(x0,x1)->{
+			T subInput = input.subimage(x0,0,x1,input.height);
+			T subOutput = output.subimage(x0,0,x1,output.height);
+			GConvolveImageOps.verticalNormalized(kernel,subInput,subOutput);
+		});
+	}
+}
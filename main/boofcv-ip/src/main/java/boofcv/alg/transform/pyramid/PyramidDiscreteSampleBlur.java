@@ -48,9 +48,12 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDiscrete<T> {
 
 	// stores the results from the first convolution
-	private T temp;
-	ConvolveDown<T,T> horizontal;
-	ConvolveDown<T,T> vertical;
+	protected T temp;
+	protected ConvolveDown<T,T> horizontal;
+	protected ConvolveDown<T,T> vertical;
+
+	// the blur kernel
+	protected Kernel1D kernel;
 
 	// amount of blur applied to each layer
 	double sigmas[];
@@ -69,6 +72,7 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 	{
 		super(imageType,saveOriginalReference,scaleFactors);
 
+		this.kernel = kernel;
 		horizontal = FactoryConvolveDown.convolve(kernel, BorderType.NORMALIZED, true, 1, imageType,imageType);
 		vertical = FactoryConvolveDown.convolve(kernel, BorderType.NORMALIZED, false, 1, imageType,imageType);
 
@@ -100,27 +104,30 @@ public class PyramidDiscreteSampleBlur<T extends ImageBase<T>> extends PyramidDi
 				getLayer(0).setTo(input);
 			}
 		} else {
-			int skip = scale[0];
-
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
-
-			temp.reshape(input.width/skip,input.height);
-			horizontal.process(input,temp);
-			vertical.process(temp,getLayer(0));
+			blurDown(input,getLayer(0),scale[0]);
 		}
 
 		for (int index = 1; index < getNumLayers(); index++) {
 			int skip = scale[index]/scale[index-1];
-			T prev = getLayer(index-1);
-			temp.reshape(prev.width/skip,prev.height);
+			blurDown(getLayer(index-1),getLayer(index),skip);
+		}
+	}
 
-			horizontal.setSkip(skip);
-			vertical.setSkip(skip);
+	/**
+	 * Blurs the input image and down samples it into the output image
+	 *
+	 * @param input (Input) Higher resolution image
+	 * @param output (Output) Lower resolution image
+	 * @param skip Sampling period
+	 */
+	protected void blurDown( T input , T output , int skip ) {
+		temp.reshape(input.width/skip,input.height);
 
-			horizontal.process(prev,temp);
-			vertical.process(temp,getLayer(index));
-		}
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		horizontal.process(input,temp);
+		vertical.process(temp,output);
 	}
 
 	/**
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidDiscreteSampleBlur}. Each layer is still computed from the
+ * previous one, but the blur is split into bands. The horizontal convolution is split into bands of rows and
+ * the vertical convolution into bands of columns. Each band spans the entire axis the kernel is applied along
+ * so the output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidDiscreteSampleBlur_MT<T extends ImageBase<T>> extends PyramidDiscreteSampleBlur<T> {
+
+	// Minimum number of rows or columns in a band
+	public static int MIN_BAND = 16;
+
+	/**
+	 * @see PyramidDiscreteSampleBlur#PyramidDiscreteSampleBlur
+	 */
+	public PyramidDiscreteSampleBlur_MT(Kernel1D kernel, double sigma, ImageType<T> imageType,
+										boolean saveOriginalReference, int... scaleFactors) {
+		super(kernel, sigma, imageType, saveOriginalReference, scaleFactors);
+	}
+
+	@Override
+	protected void blurDown( T input , T output , int skip ) {
+		temp.reshape(input.width/skip,input.height);
+
+		horizontal.setSkip(skip);
+		vertical.setSkip(skip);
+
+		BoofConcurrency.loopBlocks(0,input.height,MIN_BAND,(y0,y1)->
+				horizontal.process(input.subimage(0,y0,input.width,y1),temp.subimage(0,y0,temp.width,y1)));
+
+		// bands must be wider than the kernel so that the same convolution code is used as with the whole image
+		int minColumns = Math.max(MIN_BAND,kernel.getWidth()+1);
+		BoofConcurrency.loopBlocks(0,temp.width,minColumns,(x0,x1)->
+				vertical.process(temp.subimage(x0,0,x1,temp.height),output.subimage(x0,0,x1,output.height)));
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Central location for controlling how concurrent algorithms are run. All the work is done inside a single
+ * {@link ForkJoinPool} so that the maximum number of threads can be controlled globally. Loops are split into
+ * blocks which are independent of the order in which threads finish. If results from each block are combined
+ * in block order then the output will be deterministic.
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+
+	/**
+	 * If true then factories will return concurrent implementations, when one is available
+	 */
+	public static boolean USE_CONCURRENT = true;
+
+	// maximum number of threads which can be used
+	private static volatile int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// pool which all the work is submitted to
+	private static volatile ForkJoinPool pool = new ForkJoinPool(maxThreads);
+
+	// used to ensure the pool and the maximum number of threads are changed together
+	private static final Object lock = new Object();
+
+	/**
+	 * Changes the maximum number of threads available in the thread pool. Work which has already been submitted
+	 * to the previous pool will finish there. The previous pool is not shut down since another thread could still
+	 * be submitting to it. Its threads are daemons and will terminate on their own once idle.
+	 *
+	 * @param maxThreads Maximum number of threads. If less than 1 then 1 is used.
+	 */
+	public static void setMaxThreads( int maxThreads ) {
+		synchronized (lock) {
+			maxThreads = Math.max(1,maxThreads);
+			pool = new ForkJoinPool(maxThreads);
+			BoofConcurrency.maxThreads = maxThreads;
+		}
+	}
+
+	public static int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Concurrent for loop. Each index is passed to the consumer. The order in which they are invoked is not
+	 * specified.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param consumer Invoked for each index
+	 */
+	public static void loopFor( int start , int endExclusive , IntConsumer consumer ) {
+		if( endExclusive <= start )
+			return;
+		execute(() -> IntStream.range(start, endExclusive).parallel().forEach(consumer));
+	}
+
+	/**
+	 * Splits the range into contiguous blocks and processes each block in a different thread. The number
+	 * of blocks is at most {@link #getMaxThreads()} and each block will be at least minBlock in size,
+	 * unless the range itself is smaller.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param minBlock Minimum number of elements in a block
+	 * @param consumer Invoked with the range of each block
+	 */
+	public static void loopBlocks( int start , int endExclusive , int minBlock , IntRangeConsumer consumer ) {
+		final int numBlocks = computeNumberOfBlocks(start, endExclusive, minBlock);
+		if( numBlocks == 0 )
+			return;
+		if( numBlocks == 1 ) {
+			consumer.accept(start,endExclusive);
+			return;
+		}
+		execute(() -> IntStream.range(0, numBlocks).parallel().forEach(block -> {
+			int blockStart = blockStart(start, endExclusive, numBlocks, block);
+			int blockEnd = blockStart(start, endExclusive, numBlocks, block + 1);
+			consumer.accept(blockStart, blockEnd);
+		}));
+	}
+
+	/**
+	 * Same as {@link #loopBlocks(int, int, int, IntRangeConsumer)} but with a minimum block size of 1.
+	 */
+	public static void loopBlocks( int start , int endExclusive , IntRangeConsumer consumer ) {
+		loopBlocks(start, endExclusive, 1, consumer);
+	}
+
+	/**
+	 * Splits the range into contiguous blocks and processes each block in a different thread. Each block
+	 * is given its own element from the workspace, which is resized to the number of blocks. Block 'i' always
+	 * gets workspace element 'i' and covers a range which comes before block 'i+1'. This allows the results to
+	 * be merged deterministically after this function returns.
+	 *
+	 * @param start First index, inclusive
+	 * @param endExclusive Last index, exclusive
+	 * @param minBlock Minimum number of elements in a block
+	 * @param workspace (Output) Storage for each block. Resized to the number of blocks.
+	 * @param consumer Invoked with the workspace and range of each block
+	 */
+	public static <T> void loopBlocks( int start , int endExclusive , int minBlock ,
+									   FastQueue<T> workspace , IntRangeObjectConsumer<T> consumer ) {
+		final int numBlocks = computeNumberOfBlocks(start, endExclusive, minBlock);
+		workspace.resize(numBlocks);
+		if( numBlocks == 0 )
+			return;
+		if( numBlocks == 1 ) {
+			consumer.accept(workspace.get(0),start,endExclusive);
+			return;
+		}
+		execute(() -> IntStream.range(0, numBlocks).parallel().forEach(block -> {
+			int blockStart = blockStart(start, endExclusive, numBlocks, block);
+			int blockEnd = blockStart(start, endExclusive, numBlocks, block + 1);
+			consumer.accept(workspace.get(block), blockStart, blockEnd);
+		}));
+	}
+
+	/**
+	 * Same as {@link #loopBlocks(int, int, int, FastQueue, IntRangeObjectConsumer)} but with a minimum
+	 * block size of 1.
+	 */
+	public static <T> void loopBlocks( int start , int endExclusive ,
+									   FastQueue<T> workspace , IntRangeObjectConsumer<T> consumer ) {
+		loopBlocks(start, endExclusive, 1, workspace, consumer);
+	}
+
+	/**
+	 * Number of blocks the range will be split into
+	 */
+	public static int computeNumberOfBlocks( int start , int endExclusive , int minBlock ) {
+		int range = endExclusive - start;
+		if( range <= 0 )
+			return 0;
+		minBlock = Math.max(1, minBlock);
+		return Math.max(1, Math.min(maxThreads, range / minBlock));
+	}
+
+	/**
+	 * Returns the first index in the specified block. Blocks are as evenly sized as possible.
+	 */
+	static int blockStart( int start , int endExclusive , int numBlocks , int block ) {
+		return start + (int)((endExclusive - start)*(long)block/numBlocks);
+	}
+
+	/**
+	 * Runs the task inside the thread pool and blocks until it has finished. Exceptions thrown inside the
+	 * task are passed along to the caller.
+	 */
+	private static void execute( Runnable task ) {
+		// read the pool once so that the same pool is used even if it's changed by another thread
+		ForkJoinPool pool = BoofConcurrency.pool;
+		try {
+			pool.submit(task).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException)cause;
+			if( cause instanceof Error )
+				throw (Error)cause;
+			throw new RuntimeException(cause);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageNormalized_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() {
+		int[] radiuses = new int[]{1,3,12,60};
+		for( int radius : radiuses ) {
+			Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, -1, radius);
+
+			GrayF32 input = new GrayF32(100,110);
+			GImageMiscOps.fillUniform(input,rand,-10,10);
+
+			GrayF32 expected = input.createSameShape();
+			GrayF32 found = BoofTesting.createSubImageOf(input.createSameShape());
+
+			ConvolveImageNormalized.horizontal(kernel,input,expected);
+			ConvolveImageNormalized_MT.horizontal(kernel,input,found);
+			BoofTesting.assertEquals(expected,found,0);
+
+			ConvolveImageNormalized.vertical(kernel,input,expected);
+			ConvolveImageNormalized_MT.vertical(kernel,input,found);
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.ii.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplIntegralImageOps_MT {
+
+	Random rand = new Random(234);
+	int width = 103;
+	int height = 211;
+
+	@Test
+	public void transform_F32() {
+		GrayF32 input = new GrayF32(width,height);
+		GrayF32 expected = new GrayF32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImplIntegralImageOps.transform(input,expected);
+		ImplIntegralImageOps_MT.transform(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void transform_F64() {
+		GrayF64 input = new GrayF64(width,height);
+		GrayF64 expected = new GrayF64(width,height);
+		GrayF64 found = new GrayF64(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImplIntegralImageOps.transform(input,expected);
+		ImplIntegralImageOps_MT.transform(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void transform_U8() {
+		GrayU8 input = new GrayU8(width,height);
+		GrayS32 expected = new GrayS32(width,height);
+		GrayS32 found = new GrayS32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImplIntegralImageOps.transform(input,expected);
+		ImplIntegralImageOps_MT.transform(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void transform_S32() {
+		GrayS32 input = new GrayS32(width,height);
+		GrayS32 expected = new GrayS32(width,height);
+		GrayS32 found = new GrayS32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImplIntegralImageOps.transform(input,expected);
+		ImplIntegralImageOps_MT.transform(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void transform_S64() {
+		GrayS64 input = new GrayS64(width,height);
+		GrayS64 expected = new GrayS64(width,height);
+		GrayS64 found = new GrayS64(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImplIntegralImageOps.transform(input,expected);
+		ImplIntegralImageOps_MT.transform(input,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Make sure sub-images are correctly handled
+	 */
+	@Test
+	public void transform_subimage() {
+		GrayF32 input = new GrayF32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		BoofTesting.checkSubImage(this,"checkSubImage",true,input,found);
+	}
+
+	public void checkSubImage( GrayF32 input , GrayF32 found ) {
+		ImplIntegralImageOps_MT.transform(input,found);
+	}
+}
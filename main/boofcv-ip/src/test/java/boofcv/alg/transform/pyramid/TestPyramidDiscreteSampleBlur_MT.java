@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.transform.pyramid;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidDiscreteSampleBlur_MT {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSingleThread() {
+		compare(GrayU8.class, 1,2,4);
+		compare(GrayF32.class, 1,2,4);
+		compare(GrayF32.class, 2,4,8);
+	}
+
+	private <T extends ImageGray<T>> void compare( Class<T> type , int ...scales ) {
+		T input = GeneralizedImageOps.createSingleBand(type,201,153);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		Kernel1D kernel = FactoryKernelGaussian.gaussian(FactoryKernel.getKernelType(type,1),-1,2);
+		ImageType<T> imageType = ImageType.single(type);
+
+		PyramidDiscreteSampleBlur<T> expected = new PyramidDiscreteSampleBlur<>(kernel,2,imageType,false,scales);
+		PyramidDiscreteSampleBlur<T> found = new PyramidDiscreteSampleBlur_MT<>(kernel,2,imageType,false,scales);
+
+		expected.process(input);
+		found.process(BoofTesting.createSubImageOf(input));
+
+		for (int i = 0; i < scales.length; i++) {
+			BoofTesting.assertEquals(expected.getLayer(i),found.getLayer(i),0);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int originalMaxThreads = BoofConcurrency.getMaxThreads();
+
+	@AfterEach
+	public void restore() {
+		BoofConcurrency.setMaxThreads(originalMaxThreads);
+	}
+
+	@Test
+	public void loopFor() {
+		AtomicIntegerArray counts = new AtomicIntegerArray(100);
+		BoofConcurrency.loopFor(5,95,counts::incrementAndGet);
+
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals(i >= 5 && i < 95 ? 1 : 0, counts.get(i));
+		}
+	}
+
+	/**
+	 * Every index should be visited once and the minimum block size respected
+	 */
+	@Test
+	public void loopBlocks() {
+		BoofConcurrency.setMaxThreads(4);
+		AtomicIntegerArray counts = new AtomicIntegerArray(100);
+		BoofConcurrency.loopBlocks(3,97,10,(i0,i1)->{
+			assertTrue(i1-i0 >= 10);
+			for (int i = i0; i < i1; i++) {
+				counts.incrementAndGet(i);
+			}
+		});
+
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals(i >= 3 && i < 97 ? 1 : 0, counts.get(i));
+		}
+
+		// empty range should do nothing
+		BoofConcurrency.loopBlocks(5,5,(i0,i1)->fail("Should not be called"));
+	}
+
+	/**
+	 * Blocks should be in order and each block given its own workspace
+	 */
+	@Test
+	public void loopBlocks_workspace() {
+		BoofConcurrency.setMaxThreads(3);
+		FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class,true);
+
+		BoofConcurrency.loopBlocks(0,50,workspace,(data,i0,i1)->{
+			data.reset();
+			for (int i = i0; i < i1; i++) {
+				data.add(i);
+			}
+		});
+
+		assertEquals(3,workspace.size);
+		int expected = 0;
+		for (int i = 0; i < workspace.size; i++) {
+			GrowQueue_I32 data = workspace.get(i);
+			for (int j = 0; j < data.size; j++) {
+				assertEquals(expected++,data.get(j));
+			}
+		}
+		assertEquals(50,expected);
+	}
+
+	@Test
+	public void computeNumberOfBlocks() {
+		BoofConcurrency.setMaxThreads(4);
+		assertEquals(0,BoofConcurrency.computeNumberOfBlocks(5,5,1));
+		assertEquals(1,BoofConcurrency.computeNumberOfBlocks(0,5,10));
+		assertEquals(2,BoofConcurrency.computeNumberOfBlocks(0,25,10));
+		assertEquals(4,BoofConcurrency.computeNumberOfBlocks(0,1000,10));
+	}
+
+	@Test
+	public void exceptionPassedToCaller() {
+		assertThrows(IllegalArgumentException.class,()->
+				BoofConcurrency.loopFor(0,100,i->{throw new IllegalArgumentException("foo");}));
+	}
+
+	/**
+	 * Changing the number of threads while other threads are submitting work should not cause work to be rejected
+	 */
+	@Test
+	public void setMaxThreads_whileRunning() throws InterruptedException {
+		Thread changer = new Thread(()->{
+			for (int i = 0; i < 200; i++) {
+				BoofConcurrency.setMaxThreads(1+i%4);
+			}
+		});
+		changer.start();
+
+		for (int trial = 0; trial < 200; trial++) {
+			AtomicIntegerArray counts = new AtomicIntegerArray(50);
+			BoofConcurrency.loopBlocks(0,50,(i0,i1)->{
+				for (int i = i0; i < i1; i++) {
+					counts.incrementAndGet(i);
+				}
+			});
+			for (int i = 0; i < 50; i++) {
+				assertEquals(1,counts.get(i));
+			}
+		}
+		changer.join();
+	}
+}
@@ -67,8 +67,6 @@ public class DetectChessboardSquarePoints<T extends ImageGray<T>>
 	// List of nodes put into clusters
 	List<List<SquareNode>> clusters;
 
-	Polygon2D_F64 work = new Polygon2D_F64();
-
 	/**
 	 * Configures chess board detector.
 	 *
@@ -171,14 +169,12 @@ public class DetectChessboardSquarePoints<T extends ImageGray<T>>
 
 	/**
 	 * The polygon detected from the contour is too small because the binary image was eroded. This expand the size
-	 * of the polygon so that it fits the image edge better
+	 * of the polygon so that it fits the image edge better. Thread safe.
 	 */
 	public void adjustBeforeOptimize(Polygon2D_F64 polygon, GrowQueue_B touchesBorder, boolean clockwise) {
 		int N = polygon.size();
-		work.vertexes.resize(N);
-		for (int i = 0; i < N; i++) {
-			work.get(i).set(0, 0);
-		}
+		// declared locally since this can be called by multiple threads at once
+		Polygon2D_F64 work = new Polygon2D_F64(N);
 
 		for (int i = N - 1, j = 0; j < N; i = j, j++) {
 			int ii,jj,kk,mm;